@@ -28,11 +28,14 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.ExtendedGenericDatumWriter;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 
+import org.apache.avro.io.CodecContext;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Decoder;
@@ -42,6 +45,8 @@ import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.io.ExtendedJsonDecoder;
 import org.apache.avro.io.ExtendedJsonEncoder;
 import org.apache.avro.io.JsonDecoder;
+import org.apache.avro.io.NdJsonReader;
+import org.apache.avro.specific.SpecificData;
 import org.apache.avro.specific.ExtendedSpecificDatumWriter;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificDatumWriter;
@@ -136,6 +141,44 @@ public final class AvroUtils {
     return (GenericRecord) reader.read(null, decoder);
   }
 
+  /**
+   * Reads newline delimited JSON, parsing chunks of lines in parallel with the given executor.
+   * @see NdJsonReader
+   */
+  public static NdJsonReader<Object> readAvroExtendedNdJson(final InputStream input, final Schema schema,
+          final ExecutorService executor) {
+    return new NdJsonReader<Object>(input, schema, () -> new GenericDatumReader<Object>(schema), executor);
+  }
+
+  /**
+   * Reads newline delimited JSON, parsing chunks of lines in parallel with the given executor.
+   * @see NdJsonReader
+   */
+  public static <T extends SpecificRecord> NdJsonReader<T> readAvroExtendedNdJson(final InputStream input,
+          final Class<T> clasz, final ExecutorService executor) {
+    return new NdJsonReader<T>(input, SpecificData.get().getSchema(clasz),
+            () -> new SpecificDatumReader<T>(clasz), executor);
+  }
+
+  /**
+   * Appends newline delimited JSON to a data file, parsing chunks of lines in parallel with the given executor.
+   * The input is closed once read.
+   * @return the number of records appended.
+   */
+  public static long appendAvroExtendedNdJson(final InputStream input, final Schema schema,
+          final DataFileWriter<Object> writer, final ExecutorService executor) throws IOException {
+    long count = 0;
+    try (NdJsonReader<Object> reader = readAvroExtendedNdJson(input, schema, executor)) {
+      while (reader.hasNext()) {
+        writer.append(reader.next());
+        count++;
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    return count;
+  }
+
   public static <T extends SpecificRecord> T readAvroBin(final byte[] bin, final Class<T> clasz,
           final Schema writerSchema) {
     try {
@@ -169,26 +212,35 @@ public final class AvroUtils {
     }   else {
       reader = new SpecificDatumReader(writerSchema, res.getSchema());
     }
-    DecoderFactory decoderFactory = DecoderFactory.get();
-    Decoder decoder = decoderFactory.binaryDecoder(input, null);
-    reader.read(res, decoder);
+    CodecContext context = CodecContext.acquire();
+    try {
+      reader.read(res, DecoderFactory.get().contextBinaryDecoder(context, input));
+    } finally {
+      CodecContext.release(context);
+    }
   }
 
   public static Object readAvroBin(final InputStream input, final Schema writerSchema)
           throws IOException {
     DatumReader reader = new GenericDatumReader(writerSchema);
-    DecoderFactory decoderFactory = DecoderFactory.get();
-    Decoder decoder = decoderFactory.binaryDecoder(input, null);
-    return reader.read(null, decoder);
+    CodecContext context = CodecContext.acquire();
+    try {
+      return reader.read(null, DecoderFactory.get().contextBinaryDecoder(context, input));
+    } finally {
+      CodecContext.release(context);
+    }
   }
 
   public static Object readAvroBin(final InputStream input,
           final Schema writerSchema, final Schema readerSchema)
           throws IOException {
     DatumReader reader = new GenericDatumReader(writerSchema, readerSchema);
-    DecoderFactory decoderFactory = DecoderFactory.get();
-    Decoder decoder = decoderFactory.binaryDecoder(input, null);
-    return reader.read(null, decoder);
+    CodecContext context = CodecContext.acquire();
+    try {
+      return reader.read(null, DecoderFactory.get().contextBinaryDecoder(context, input));
+    } finally {
+      CodecContext.release(context);
+    }
   }
 
 
@@ -300,18 +352,28 @@ public final class AvroUtils {
           throws IOException {
     @SuppressWarnings("unchecked")
     DatumWriter<T> writer = new SpecificDatumWriter<T>((Class<T>) req.getClass());
-    Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
-    writer.write(req, encoder);
-    encoder.flush();
+    CodecContext context = CodecContext.acquire();
+    try {
+      Encoder encoder = EncoderFactory.get().contextBinaryEncoder(context, out);
+      writer.write(req, encoder);
+      encoder.flush();
+    } finally {
+      CodecContext.release(context);
+    }
   }
 
   public static void writeAvroBin(final OutputStream out, final GenericRecord req)
           throws IOException {
     @SuppressWarnings("unchecked")
     DatumWriter writer = new GenericDatumWriter(req.getSchema());
-    Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
-    writer.write(req, encoder);
-    encoder.flush();
+    CodecContext context = CodecContext.acquire();
+    try {
+      Encoder encoder = EncoderFactory.get().contextBinaryEncoder(context, out);
+      writer.write(req, encoder);
+      encoder.flush();
+    } finally {
+      CodecContext.release(context);
+    }
   }
 
   public static <T extends SpecificRecord> T[] readAvroJsonArray(final byte[] bin, final Class<T> clasz) {
@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.apache.avro.generic.GenericEnumSymbol;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.IndexedRecord;
@@ -52,6 +53,23 @@ import org.apache.avro.util.Optional;
  */
 public abstract class Conversion<T> {
 
+  /**
+   * Whether conversions of a class override the deprecated
+   * {@link #tryDirectDecode(Decoder, Schema)}, which is then called by the
+   * default {@link #hasDirectDecode(Decoder, Schema)} and
+   * {@link #directDecode(Decoder, Schema)}.
+   */
+  private static final ClassValue<Boolean> DECODES_WITH_TRY = new ClassValue<Boolean>() {
+    @Override
+    protected Boolean computeValue(Class<?> c) {
+      try {
+        return c.getMethod("tryDirectDecode", Decoder.class, Schema.class).getDeclaringClass() != Conversion.class;
+      } catch (NoSuchMethodException e) {
+        return false;
+      }
+    }
+  };
+
   /**
    * Return the Java class representing the logical type.
    *
@@ -204,14 +222,64 @@ public abstract class Conversion<T> {
     return false;
   }
 
+  /**
+   * Tells whether this conversion decodes values of a schema straight from a
+   * decoder, with {@link #directDecode(Decoder, Schema)}, instead of from the
+   * underlying representation. It is checked before every value is read, so it
+   * must be cheap, like a type check of the decoder.
+   *
+   * @param dec the decoder the value will be read from.
+   * @param schema the schema of the value, with this conversion's logical type.
+   * @return true if directDecode is to be called.
+   */
+  public boolean hasDirectDecode(final Decoder dec, final Schema schema) {
+    return DECODES_WITH_TRY.get(getClass());
+  }
+
+  /**
+   * Special decoding logic for a logical type, called when
+   * {@link #hasDirectDecode(Decoder, Schema)} returns true.
+   *
+   * @param dec
+   * @param schema
+   * @return the decoded value, or null if the value is not in a form this
+   * conversion reads directly, in which case nothing was read and the value is
+   * read from the underlying representation.
+   * @throws IOException
+   */
+  @Nullable
+  public T directDecode(final Decoder dec, final Schema schema) throws IOException {
+    if (DECODES_WITH_TRY.get(getClass())) {
+      Optional<T> result = tryDirectDecode(dec, schema);
+      return result.isPresent() ? result.get() : null;
+    }
+    throw new UnsupportedOperationException("directDecode is not supported for " + getLogicalTypeName());
+  }
+
   /**
    * Special decoding logic for a logical type.
    * @param enc
    * @return null if no direct decode available.
    * @throws IOException
+   * @deprecated implement {@link #hasDirectDecode(Decoder, Schema)} and
+   * {@link #directDecode(Decoder, Schema)}, which the datum readers call without
+   * allocating a wrapper per value. Conversions that override this method
+   * instead are still called through it by the default implementations of
+   * these methods.
    */
   @Nonnull
+  @Deprecated
   public Optional<T> tryDirectDecode(final Decoder enc, final Schema schema) throws IOException {
+    if (DECODES_WITH_TRY.get(getClass())) {
+      // called by an override, through super
+      return Optional.empty();
+    }
+    if (hasDirectDecode(enc, schema)) {
+      T result = directDecode(enc, schema);
+      if (result != null) {
+        return Optional.of(result);
+      }
+    }
     return Optional.empty();
   }
 
@@ -39,6 +39,8 @@ import org.apache.avro.data.DateConverter;
 import org.apache.avro.data.TimeConversions;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.util.CopyOnWriteMap;
+import org.apache.avro.util.Decimals;
+import org.apache.avro.data.CompactDecimalConverter;
 import org.apache.avro.data.Decimal2Converter;
 import org.apache.avro.data.DecimalConverter;
 
@@ -51,7 +53,11 @@ public final class Conversions {
 
     Map<String, Conversion<?>> map = new HashMap<>();
     registerConversion(map, new DecimalConverter());
-    registerConversion(map, new Decimal2Converter());
+    if (Boolean.getBoolean("avro.decimal2.compact")) {
+      registerConversion(map, new CompactDecimalConverter());
+    } else {
+      registerConversion(map, new Decimal2Converter());
+    }
     registerConversion(map, new DateConverter());
     registerConversion(map, new UUIDConversion());
     registerConversion(map, new TimeConversions.TimeMicrosConversion());
@@ -133,6 +139,9 @@ public final class Conversions {
     @Override
     public BigDecimal fromBytes(ByteBuffer value, Schema schema, LogicalType type) {
       int scale = ((LogicalTypes.Decimal) type).getScale();
+      if (value.remaining() <= 8) {
+        return BigDecimal.valueOf(Decimals.getLong(value, value.position(), value.remaining()), scale);
+      }
       // always copy the bytes out because BigInteger has no offset/length ctor
       byte[] bytes = new byte[value.remaining()];
       value.duplicate().get(bytes);
@@ -142,19 +151,36 @@ public final class Conversions {
     @Override
     public ByteBuffer toBytes(BigDecimal value, Schema schema, LogicalType type) {
       value = validate((LogicalTypes.Decimal) type, value);
-
+      if (value.precision() <= Decimals.MAX_LONG_PRECISION) {
+        long unscaled = Decimals.unscaledLong(value);
+        byte[] bytes = new byte[Decimals.byteLength(unscaled)];
+        Decimals.putLong(unscaled, bytes, 0, bytes.length);
+        return ByteBuffer.wrap(bytes);
+      }
       return ByteBuffer.wrap(value.unscaledValue().toByteArray());
     }
 
     @Override
     public BigDecimal fromFixed(GenericFixed value, Schema schema, LogicalType type) {
       int scale = ((LogicalTypes.Decimal) type).getScale();
-      return new BigDecimal(new BigInteger(value.bytes()), scale);
+      byte[] bytes = value.bytes();
+      if (bytes.length <= 8) {
+        return BigDecimal.valueOf(Decimals.getLong(bytes, 0, bytes.length), scale);
+      }
+      return new BigDecimal(new BigInteger(bytes), scale);
     }
 
     @Override
     public GenericFixed toFixed(BigDecimal value, Schema schema, LogicalType type) {
       value = validate((LogicalTypes.Decimal) type, value);
+      if (value.precision() <= Decimals.MAX_LONG_PRECISION) {
+        long unscaled = Decimals.unscaledLong(value);
+        if (Decimals.byteLength(unscaled) <= schema.getFixedSize()) {
+          byte[] bytes = new byte[schema.getFixedSize()];
+          Decimals.putLong(unscaled, bytes, 0, bytes.length);
+          return new GenericData.Fixed(schema, bytes);
+        }
+      }
 
       byte fillByte = (byte) (value.signum() < 0 ? 0xFF : 0x00);
       byte[] unscaled = value.unscaledValue().toByteArray();
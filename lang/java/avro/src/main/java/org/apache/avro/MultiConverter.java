@@ -10,7 +10,6 @@ import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.Encoder;
-import org.apache.avro.util.Optional;
 
 /**
  * An converter adapter, for conversion switching based on logical type.
@@ -42,8 +41,14 @@ public class MultiConverter<T> extends Conversion<T> {
     return conversions[0].getLogicalTypeName();
   }
 
-  public Optional<T> tryDirectDecode(Decoder enc, Schema schema) throws IOException {
-    return conversions[chooser.chose(schema.getLogicalType())].tryDirectDecode(enc, schema);
+  @Override
+  public boolean hasDirectDecode(Decoder dec, Schema schema) {
+    return conversions[chooser.chose(schema.getLogicalType())].hasDirectDecode(dec, schema);
+  }
+
+  @Override
+  public T directDecode(Decoder dec, Schema schema) throws IOException {
+    return conversions[chooser.chose(schema.getLogicalType())].directDecode(dec, schema);
   }
 
   public boolean tryDirectEncode(T object, Encoder enc, Schema schema) throws IOException {
@@ -194,6 +194,12 @@ public abstract class Schema extends JsonProperties implements Serializable {
 
   int hashCode = NO_HASHCODE;
 
+  // Memoized by SchemaNormalization. The parsing form does not depend on
+  // properties, and the structure it depends on can not change once set.
+  transient volatile String parsingForm;
+  // 0 when not computed yet
+  transient volatile long parsingFingerprint64;
+
   public Schema withProp(String name, String value) {
     addProp(name, value);
     return this;
@@ -533,7 +539,14 @@ public abstract class Schema extends JsonProperties implements Serializable {
     throw new AvroRuntimeException("Not a record: "+this);
   }
 
-  public boolean equals(Object o) {
+  /**
+   * Schemas are compared deeply. Schemas that differ in structure are told
+   * apart by their {@link #getStructuralFingerprint() structural fingerprints},
+   * so a full comparison is only done for schemas of equal structure that are
+   * not the same instance.
+   * @see SchemaParseCache#intern(Schema)
+   */
+  public final boolean equals(Object o) {
     if (o == this) {
       return true;
     }
@@ -544,9 +557,62 @@ public abstract class Schema extends JsonProperties implements Serializable {
       return false;
     }
     Schema that = (Schema) o;
-    if (this.type != that.type) return false;
     return equalCachedHash(that)
-        && props.equals(that.props);
+        && getStructuralFingerprint() == that.getStructuralFingerprint()
+        && equalStructure(that, null);
+  }
+
+  /**
+   * Compares the structure of this schema with another one of the same class.
+   * @param seen the record pairs being compared, to stop at recursive
+   *             references, or null before the first record.
+   */
+  boolean equalStructure(Schema that, Set<SeenPair> seen) {
+    return props.equals(that.props);
+  }
+
+  static boolean equalStructure(Schema a, Schema b, Set<SeenPair> seen) {
+    if (a == b) {
+      return true;
+    }
+    return a.getClass() == b.getClass() && a.equalCachedHash(b) && a.equalStructure(b, seen);
+  }
+
+  private transient long fingerprint;
+  private transient volatile boolean fingerprinted;
+
+  /**
+   * Returns a 64 bit hash of the structure {@link #equals(Object)} compares,
+   * including nested schemas, but without properties: equal schemas have equal
+   * fingerprints. Records seen before are hashed by name only. Everything it
+   * covers can't be modified once record fields are set, so it is memoized on
+   * the instance.
+   */
+  public long getStructuralFingerprint() {
+    if (fingerprinted) {
+      return fingerprint;
+    }
+    FingerprintContext context = new FingerprintContext();
+    long value = fingerprint(context);
+    if (context.complete) {
+      fingerprint = value;
+      fingerprinted = true;
+    }
+    return value;
+  }
+
+  static final class FingerprintContext {
+    final Set<String> records = new HashSet<>();
+    // false when some record fields are not set yet
+    boolean complete = true;
+  }
+
+  static long mix(long hash, long value) {
+    return Long.rotateLeft(hash ^ value, 29) * 0x9E3779B97F4A7C15L;
+  }
+
+  long fingerprint(FingerprintContext context) {
+    return type.ordinal();
   }
   public final int hashCode() {
     if (hashCode == NO_HASHCODE) {
@@ -747,12 +813,21 @@ public abstract class Schema extends JsonProperties implements Serializable {
       if (other == this) return true;
       if (!(other instanceof Field)) return false;
       Field that = (Field) other;
+      return equalStructure(that, null);
+    }
+
+    boolean equalStructure(Field that, Set<SeenPair> seen) {
       return (name.equals(that.name)) &&
-        (schema.equals(that.schema)) &&
+        Schema.equalStructure(schema, that.schema, seen) &&
         defaultValueEquals(that.defaultValue, that.defaultJavaVal) &&
         (order == that.order) &&
         props.equals(that.props);
     }
+
+    long fingerprint(FingerprintContext context) {
+      long hash = mix(name.hashCode(), order.ordinal());
+      return mix(hash, schema.fingerprint(context));
+    }
     public int hashCode() { return name.hashCode() + 7 * schema.hashCode(); }
 
     private boolean defaultValueEquals(JsonNode thatDefaultValue, Object thatJavaDefaultValue) {
@@ -888,6 +963,10 @@ public abstract class Schema extends JsonProperties implements Serializable {
     int computeHash() {
       return name.hashCode();
     }
+    @Override
+    long fingerprint(FingerprintContext context) {
+      return mix(super.fingerprint(context), name.hashCode());
+    }
     public void aliasesToJson(JsonGenerator gen) throws IOException {
       if (aliases == null || aliases.isEmpty()) return;
       gen.writeFieldName("aliases");
@@ -924,8 +1003,6 @@ public abstract class Schema extends JsonProperties implements Serializable {
     }
   }
 
- private static final ThreadLocal<Set> SEEN_EQUALS = ThreadLocal.withInitial(HashSet::new);
-
 
   @SuppressWarnings(value="unchecked")
   private static class RecordSchema extends NamedSchema {
@@ -1022,23 +1099,46 @@ public abstract class Schema extends JsonProperties implements Serializable {
       this.hashCode = NO_HASHCODE;
     }
 
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof RecordSchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       RecordSchema that = (RecordSchema)o;
-      if (!equalCachedHash(that)) return false;
       if (!equalNames(that)) return false;
       if (!props.equals(that.props)) return false;
-      Set seen = SEEN_EQUALS.get();
-      SeenPair here = new SeenPair(this, o);
-      if (seen.contains(here)) return true;       // prevent stack overflow
-      boolean first = seen.isEmpty();
-      try {
-        seen.add(here);
-        return Objects.equals(fields, ((RecordSchema)o).fields);
-      } finally {
-        if (first) seen.clear();
+      if (fields == null || that.fields == null) return fields == that.fields;
+      if (fields.size() != that.fields.size()) return false;
+      Set<SeenPair> nested;
+      if (seen == null) {
+        // the outermost pair is not recorded, so that records without nested
+        // records compare without allocating: recursion stops a level deeper
+        nested = Collections.emptySet();
+      } else if (seen.isEmpty()) {
+        nested = new HashSet<>();
+        nested.add(new SeenPair(this, that));
+      } else if (seen.add(new SeenPair(this, that))) {
+        nested = seen;
+      } else {
+        return true;                              // prevent stack overflow
+      }
+      for (int i = 0; i < fields.size(); i++) {
+        if (!fields.get(i).equalStructure(that.fields.get(i), nested)) return false;
       }
+      return true;
+    }
+
+    @Override
+    long fingerprint(FingerprintContext context) {
+      long hash = super.fingerprint(context);
+      if (!context.records.add(name.full)) {
+        return hash;
+      }
+      if (fields == null) {
+        context.complete = false;
+        return hash;
+      }
+      for (Field field : fields) {
+        hash = mix(hash, field.fingerprint(context));
+      }
+      return hash;
     }
 
     public void toJson(Names names, JsonGenerator gen) throws IOException {
@@ -1279,16 +1379,19 @@ public abstract class Schema extends JsonProperties implements Serializable {
       return -1;
     }
 
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof EnumSchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       EnumSchema that = (EnumSchema)o;
-      return equalCachedHash(that)
-        && equalNames(that)
+      return equalNames(that)
         && symbols.equals(that.symbols)
         && props.equals(that.props);
     }
 
+    @Override
+    long fingerprint(FingerprintContext context) {
+      return mix(super.fingerprint(context), symbols.hashCode());
+    }
+
     @Override
     int computeHash() {
       return super.computeHash() + 29 * symbols.size();
@@ -1321,14 +1424,16 @@ public abstract class Schema extends JsonProperties implements Serializable {
       this.elementType = elementType;
     }
     public Schema getElementType() { return elementType; }
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof ArraySchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       ArraySchema that = (ArraySchema)o;
-      return equalCachedHash(that)
-        && elementType.equals(that.elementType)
+      return equalStructure(elementType, that.elementType, seen)
         && props.equals(that.props);
     }
+    @Override
+    long fingerprint(FingerprintContext context) {
+      return mix(super.fingerprint(context), elementType.fingerprint(context));
+    }
     @Override int computeHash() {
       return  super.computeHash() + 7 * elementType.hashCode();
     }
@@ -1350,14 +1455,16 @@ public abstract class Schema extends JsonProperties implements Serializable {
       this.valueType = valueType;
     }
     public Schema getValueType() { return valueType; }
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof MapSchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       MapSchema that = (MapSchema)o;
-      return equalCachedHash(that)
-        && valueType.equals(that.valueType)
+      return equalStructure(valueType, that.valueType, seen)
         && props.equals(that.props);
     }
+    @Override
+    long fingerprint(FingerprintContext context) {
+      return mix(super.fingerprint(context), valueType.fingerprint(context));
+    }
     @Override int computeHash() {
       return super.computeHash() + 13 * valueType.hashCode();
     }
@@ -1402,13 +1509,21 @@ public abstract class Schema extends JsonProperties implements Serializable {
     public Integer getIndexNamed(String name) {
       return indexByName.get(name);
     }
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof UnionSchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       UnionSchema that = (UnionSchema)o;
-      return equalCachedHash(that)
-        && types.equals(that.types)
-        && props.equals(that.props);
+      if (types.size() != that.types.size()) return false;
+      for (int i = 0; i < types.size(); i++) {
+        if (!equalStructure(types.get(i), that.types.get(i), seen)) return false;
+      }
+      return props.equals(that.props);
+    }
+    @Override
+    long fingerprint(FingerprintContext context) {
+      long hash = super.fingerprint(context);
+      for (Schema type : types)
+        hash = mix(hash, type.fingerprint(context));
+      return hash;
     }
     @Override int computeHash() {
       int hash = super.computeHash();
@@ -1440,15 +1555,17 @@ public abstract class Schema extends JsonProperties implements Serializable {
       this.size = size;
     }
     public int getFixedSize() { return size; }
-    public boolean equals(Object o) {
-      if (o == this) return true;
-      if (!(o instanceof FixedSchema)) return false;
+    @Override
+    boolean equalStructure(Schema o, Set<SeenPair> seen) {
       FixedSchema that = (FixedSchema)o;
-      return equalCachedHash(that)
-        && equalNames(that)
+      return equalNames(that)
         && size == that.size
         && props.equals(that.props);
     }
+    @Override
+    long fingerprint(FingerprintContext context) {
+      return mix(super.fingerprint(context), size);
+    }
 
     @Override
     public void toJson(Names names, JsonGenerator gen) throws IOException {
@@ -23,11 +23,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import javax.annotation.Nullable;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
 import org.slf4j.Logger;
@@ -58,9 +61,26 @@ public class SchemaCompatibility {
    * @return a result object identifying any compatibility errors.
    */
   public static SchemaPairCompatibility checkReaderWriterCompatibility(final Schema reader, final Schema writer) {
-    final SchemaCompatibilityResult compatibility = new ReaderWriterCompatibilityChecker().getCompatibility(reader,
+    return pairCompatibility(new ReaderWriterCompatibilityChecker(null).getCompatibility(reader, writer), reader,
         writer);
+  }
+
+  /**
+   * Reports the compatibility of a reader/writer schema pair, reusing and
+   * remembering in <tt>cache</tt> the compatibility of the named types they
+   * contain.
+   */
+  static SchemaCompatibilityResult getCompatibility(final Schema reader, final long readerFingerprint,
+      final Schema writer, final long writerFingerprint, final SchemaCompatibilityCache cache) {
+    ReaderWriterCompatibilityChecker checker = new ReaderWriterCompatibilityChecker(cache);
+    checker.mFingerprints.put(reader, readerFingerprint);
+    checker.mFingerprints.put(writer, writerFingerprint);
+    return checker.getCompatibility(reader, writer);
+  }
 
+  /** Describes the compatibility of a reader/writer schema pair. */
+  static SchemaPairCompatibility pairCompatibility(final SchemaCompatibilityResult compatibility,
+      final Schema reader, final Schema writer) {
     final String message;
     switch (compatibility.getCompatibility()) {
     case INCOMPATIBLE: {
@@ -193,6 +213,23 @@ public class SchemaCompatibility {
   private static final class ReaderWriterCompatibilityChecker {
     private static final String ROOT_REFERENCE_TOKEN = "";
     private final Map<ReaderWriter, SchemaCompatibilityResult> mMemoizeMap = new HashMap<>();
+    /** The depths of the named pairs being checked. */
+    private final Map<ReaderWriter, Integer> mNamedDepths = new HashMap<>();
+    /** The shallowest depth of a named pair in progress seen again, since the last named pair started. */
+    private int mRecursionDepth = Integer.MAX_VALUE;
+    /**
+     * The shallowest depth of a named pair in progress that the memoized
+     * results assumed compatible, for the results that did.
+     */
+    private final Map<ReaderWriter, Integer> mAssumedDepths = new HashMap<>();
+    /** The cache keys of the named schemas, computed once per check. */
+    private final Map<Schema, Long> mFingerprints = new IdentityHashMap<>();
+    @Nullable
+    private final SchemaCompatibilityCache mCache;
+
+    ReaderWriterCompatibilityChecker(@Nullable final SchemaCompatibilityCache cache) {
+      mCache = cache;
+    }
 
     /**
      * Reports the compatibility of a reader/writer schema pair.
@@ -235,17 +272,114 @@ public class SchemaCompatibility {
           // Break the recursion here.
           // schemas are compatible unless proven incompatible:
           result = SchemaCompatibilityResult.compatible();
+          Integer depth = mNamedDepths.get(pair);
+          if (depth != null) {
+            mRecursionDepth = Math.min(mRecursionDepth, depth);
+          }
+        } else {
+          // the result holds only as long as what it assumed
+          Integer assumed = mAssumedDepths.get(pair);
+          if (assumed != null) {
+            mRecursionDepth = Math.min(mRecursionDepth, assumed);
+          }
         }
+      } else if (mCache != null && isNamedPair(reader, writer)) {
+        result = getNamedCompatibility(pair, location);
       } else {
+        int outerRecursionDepth = mRecursionDepth;
+        mRecursionDepth = Integer.MAX_VALUE;
         // Mark this reader/writer pair as "in progress":
         mMemoizeMap.put(pair, SchemaCompatibilityResult.recursionInProgress());
         result = calculateCompatibility(reader, writer, location);
         mMemoizeMap.put(pair, result);
+        assume(pair, mRecursionDepth, outerRecursionDepth);
       }
       location.removeFirst();
       return result;
     }
 
+    private static boolean isNamedPair(final Schema reader, final Schema writer) {
+      switch (reader.getType()) {
+      case RECORD:
+      case ENUM:
+      case FIXED:
+        return reader.getType() == writer.getType();
+      default:
+        return false;
+      }
+    }
+
+    /**
+     * Reports the compatibility of named types, which is remembered in the
+     * cache when they are compatible whatever the compatibility of the named
+     * pairs that contain them, that is when their check did not assume the
+     * compatibility of one of these pairs. Incompatibilities are not
+     * remembered, since their locations depend on where the pair is.
+     * <p>
+     * The results memoized while the pair was checked that assumed the pair
+     * compatible are settled when its check completes: they now assume what
+     * the pair assumed, or are forgotten if it is incompatible.
+     */
+    private SchemaCompatibilityResult getNamedCompatibility(final ReaderWriter pair, final Deque<String> location) {
+      long reader = fingerprint(pair.mReader);
+      long writer = fingerprint(pair.mWriter);
+      if (mCache.isCompatible(reader, writer)) {
+        mMemoizeMap.put(pair, SchemaCompatibilityResult.compatible());
+        return SchemaCompatibilityResult.compatible();
+      }
+      int depth = mNamedDepths.size();
+      int outerRecursionDepth = mRecursionDepth;
+      mRecursionDepth = Integer.MAX_VALUE;
+      mNamedDepths.put(pair, depth);
+      mMemoizeMap.put(pair, SchemaCompatibilityResult.recursionInProgress());
+      SchemaCompatibilityResult result = calculateCompatibility(pair.mReader, pair.mWriter, location);
+      mMemoizeMap.put(pair, result);
+      mNamedDepths.remove(pair);
+      // assuming the pair itself compatible is sound once it is
+      int assumed = mRecursionDepth >= depth ? Integer.MAX_VALUE : mRecursionDepth;
+      boolean compatible = result.getCompatibility() == SchemaCompatibilityType.COMPATIBLE;
+      Iterator<Map.Entry<ReaderWriter, Integer>> dependents = mAssumedDepths.entrySet().iterator();
+      while (dependents.hasNext()) {
+        Map.Entry<ReaderWriter, Integer> dependent = dependents.next();
+        if (dependent.getValue() < depth) {
+          continue;
+        }
+        if (!compatible) {
+          mMemoizeMap.remove(dependent.getKey());
+          dependents.remove();
+        } else if (assumed == Integer.MAX_VALUE) {
+          dependents.remove();
+        } else {
+          dependent.setValue(assumed);
+        }
+      }
+      if (assumed == Integer.MAX_VALUE && compatible) {
+        mCache.putCompatible(reader, writer);
+      }
+      assume(pair, assumed, outerRecursionDepth);
+      return result;
+    }
+
+    /**
+     * Records what a memoized result assumed, and passes it on to the pairs
+     * being checked.
+     */
+    private void assume(final ReaderWriter pair, final int assumed, final int outerRecursionDepth) {
+      if (assumed != Integer.MAX_VALUE) {
+        mAssumedDepths.put(pair, assumed);
+      }
+      mRecursionDepth = Math.min(outerRecursionDepth, assumed);
+    }
+
+    private long fingerprint(final Schema schema) {
+      Long fingerprint = mFingerprints.get(schema);
+      if (fingerprint == null) {
+        fingerprint = SchemaCompatibilityCache.fingerprint(schema);
+        mFingerprints.put(schema, fingerprint);
+      }
+      return fingerprint;
+    }
+
     /**
      * Calculates the compatibility of a reader/writer schema pair.
      *
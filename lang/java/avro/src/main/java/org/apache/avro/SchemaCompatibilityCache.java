@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.apache.avro.SchemaCompatibility.SchemaCompatibilityResult;
+import org.apache.avro.SchemaCompatibility.SchemaCompatibilityType;
+import org.apache.avro.SchemaCompatibility.SchemaPairCompatibility;
+import org.apache.avro.io.parsing.ResolvingGrammarGenerator;
+import org.apache.avro.io.parsing.Symbol;
+
+/**
+ * Remembers the compatibility of reader/writer schema pairs, by the
+ * fingerprints of the schemas, so that checking a schema against many
+ * versions of another one does not walk the schemas they share again.
+ * <p>
+ * The compatibility of whole pairs is remembered, and so is the compatibility
+ * of the named types, records, enums and fixed, they contain: checking a new
+ * version of a record against older ones only walks the named types that
+ * changed. Schemas are fingerprinted with their defaults, aliases and
+ * properties included, since these matter to compatibility.
+ * <p>
+ * Whether data written with a schema can be read with another by the
+ * resolving decoders, as the {@link SchemaValidationStrategy schema validation
+ * strategies} check it, is remembered by pair too.
+ * <p>
+ * At most {@link #DEFAULT_MAX_PAIRS} pairs of each kind, or the number given
+ * to the constructor, are remembered; the cache is cleared when it gets
+ * larger.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SchemaCompatibilityCache {
+
+  /** The most pairs remembered by default. */
+  public static final int DEFAULT_MAX_PAIRS = 100000;
+
+  private static final SchemaCompatibilityCache DEFAULT = new SchemaCompatibilityCache(
+      Integer.getInteger("avro.compatibility.cacheSize", DEFAULT_MAX_PAIRS));
+
+  private final int maxPairs;
+  private final Map<Pair, SchemaCompatibilityResult> results = new ConcurrentHashMap<>();
+  private final Map<Pair, Boolean> resolutions = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a cache remembering at most <tt>maxPairs</tt> pairs.
+   *
+   * @param maxPairs the most reader/writer pairs to remember
+   */
+  public SchemaCompatibilityCache(final int maxPairs) {
+    this.maxPairs = maxPairs;
+  }
+
+  /**
+   * Returns the cache shared by the {@link SchemaValidationStrategy schema
+   * validation strategies}, of at most avro.compatibility.cacheSize pairs of
+   * each kind.
+   */
+  public static SchemaCompatibilityCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Validates that the provided reader schema can be used to decode avro data
+   * written with the provided writer schema, like
+   * {@link SchemaCompatibility#checkReaderWriterCompatibility(Schema, Schema)}.
+   *
+   * @param reader schema to check.
+   * @param writer schema to check.
+   * @return a result object identifying any compatibility errors.
+   */
+  public SchemaPairCompatibility checkReaderWriterCompatibility(final Schema reader, final Schema writer) {
+    return check(reader, fingerprint(reader), writer, fingerprint(writer));
+  }
+
+  private SchemaPairCompatibility check(final Schema reader, final long readerFingerprint, final Schema writer,
+      final long writerFingerprint) {
+    Pair pair = new Pair(readerFingerprint, writerFingerprint);
+    SchemaCompatibilityResult result = results.get(pair);
+    if (result == null) {
+      result = SchemaCompatibility.getCompatibility(reader, readerFingerprint, writer, writerFingerprint, this);
+      put(pair, result);
+    }
+    return SchemaCompatibility.pairCompatibility(result, reader, writer);
+  }
+
+  /**
+   * Returns whether data written with <tt>writer</tt> can be read with
+   * <tt>reader</tt> by the resolving decoders. Unlike
+   * {@link #checkReaderWriterCompatibility(Schema, Schema)}, the resolution
+   * rules of the decoders do not require the names of records to match.
+   *
+   * @param writer the schema of the data.
+   * @param reader the schema to read the data with.
+   * @return true if the data can be read.
+   */
+  public boolean canRead(final Schema writer, final Schema reader) {
+    Pair pair = new Pair(fingerprint(reader), fingerprint(writer));
+    Boolean result = resolutions.get(pair);
+    if (result == null) {
+      // the grammar itself is not kept, only whether it has errors
+      result = !Symbol.hasErrors(ResolvingGrammarGenerator.create(writer, reader));
+      if (resolutions.size() >= maxPairs) {
+        resolutions.clear();
+      }
+      resolutions.put(pair, result);
+    }
+    return result;
+  }
+
+  /**
+   * Checks the compatibility of a schema with each schema of a history, in
+   * parallel with the given executor.
+   *
+   * @param schema the schema to check.
+   * @param history the schemas to check it with.
+   * @param asReader true to check that <tt>schema</tt> can read data written
+   *                 with the history's schemas, false to check that they can
+   *                 read data written with <tt>schema</tt>.
+   * @param executor the executor running the checks.
+   * @return the compatibility of each pair, in the order of the history.
+   */
+  public List<SchemaPairCompatibility> checkHistory(final Schema schema, final Iterable<Schema> history,
+      final boolean asReader, final Executor executor) {
+    List<CompletableFuture<SchemaPairCompatibility>> futures = new ArrayList<>();
+    long fingerprint = fingerprint(schema);
+    for (Schema existing : history) {
+      futures.add(CompletableFuture.supplyAsync(() -> {
+        long existingFingerprint = fingerprint(existing);
+        return asReader ? check(schema, fingerprint, existing, existingFingerprint)
+            : check(existing, existingFingerprint, schema, fingerprint);
+      }, executor));
+    }
+    List<SchemaPairCompatibility> result = new ArrayList<>(futures.size());
+    for (CompletableFuture<SchemaPairCompatibility> future : futures) {
+      result.add(future.join());
+    }
+    return result;
+  }
+
+  /** Forgets all pairs. */
+  public void clear() {
+    results.clear();
+    resolutions.clear();
+  }
+
+  boolean isCompatible(final long reader, final long writer) {
+    SchemaCompatibilityResult result = results.get(new Pair(reader, writer));
+    return result != null && result.getCompatibility() == SchemaCompatibilityType.COMPATIBLE;
+  }
+
+  void putCompatible(final long reader, final long writer) {
+    put(new Pair(reader, writer), SchemaCompatibilityResult.compatible());
+  }
+
+  private void put(final Pair pair, final SchemaCompatibilityResult result) {
+    if (results.size() >= maxPairs) {
+      results.clear();
+    }
+    results.put(pair, result);
+  }
+
+  /**
+   * Returns the key of a schema: the 64 bit Rabin fingerprint of its full JSON,
+   * so that schemas differing in anything, names, defaults, aliases or
+   * properties, have different keys. It is not memoized on the instance, since
+   * properties and aliases may be added after a schema is checked.
+   */
+  static long fingerprint(final Schema schema) {
+    return SchemaNormalization.fingerprint64(schema.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static final class Pair {
+    private final long reader;
+    private final long writer;
+
+    Pair(final long reader, final long writer) {
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * Long.hashCode(reader) + Long.hashCode(writer);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof Pair)) {
+        return false;
+      }
+      Pair that = (Pair) obj;
+      return reader == that.reader && writer == that.writer;
+    }
+  }
+}
@@ -20,7 +20,7 @@ package org.apache.avro;
 import java.util.Map;
 import java.util.HashMap;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -33,15 +33,20 @@ public class SchemaNormalization {
   private SchemaNormalization() {}
 
   /** Returns "Parsing Canonical Form" of a schema as defined by Avro
-    * spec. */
+    * spec. The result is memoized on the schema. */
   public static String toParsingForm(Schema s) {
-    try {
-      Map<String,String> env = new HashMap<String,String>();
-      return build(env, s, new StringBuilder()).toString();
-    } catch (IOException e) {
-      // Shouldn't happen, b/c StringBuilder can't throw IOException
-      throw new RuntimeException(e);
+    String form = s.parsingForm;
+    if (form == null) {
+      try {
+        Map<String,String> env = new HashMap<String,String>();
+        form = build(env, s, new StringBuilder()).toString();
+      } catch (IOException e) {
+        // Shouldn't happen, b/c StringBuilder can't throw IOException
+        throw new RuntimeException(e);
+      }
+      s.parsingForm = form;
     }
+    return form;
   }
 
   /** Returns a fingerprint of a string of bytes.  This string is
@@ -89,18 +94,27 @@ public class SchemaNormalization {
   public static byte[] parsingFingerprint(String fpName, Schema s)
     throws NoSuchAlgorithmException
   {
-    try {
-      return fingerprint(fpName, toParsingForm(s).getBytes("UTF-8"));
-    } catch (UnsupportedEncodingException e) { throw new RuntimeException(e); }
+    if (fpName.equals("CRC-64-AVRO")) {
+      long fp = parsingFingerprint64(s);
+      byte[] result = new byte[8];
+      for (int i = 0; i < 8; i++) {
+        result[i] = (byte)fp;
+        fp >>= 8;
+      }
+      return result;
+    }
+    return fingerprint(fpName, toParsingForm(s).getBytes(StandardCharsets.UTF_8));
   }
 
   /** Returns {@link #fingerprint64} applied to the parsing canonical form
-    * of the supplied schema. */
+    * of the supplied schema. The result is memoized on the schema. */
   public static long parsingFingerprint64(Schema s) {
-    try {
-      return fingerprint64(toParsingForm(s).getBytes("UTF-8"));
-    } catch (java.io.UnsupportedEncodingException e)
-      { throw new RuntimeException(e); }
+    long fp = s.parsingFingerprint64;
+    if (fp == 0) {
+      fp = fingerprint64(toParsingForm(s).getBytes(StandardCharsets.UTF_8));
+      s.parsingFingerprint64 = fp;
+    }
+    return fp;
   }
 
   private static Appendable build(Map<String,String> env, Schema s,
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded, concurrent cache of parsed schemas, keyed by their JSON text.
+ * Parsing text seen before is a single hash lookup, and returns the same
+ * {@link Schema} instance, so its memoized parsing form and fingerprint are
+ * reused too. Only identical texts share an instance: texts of equal schemas
+ * may still differ in docs or aliases, that schema equality ignores but schema
+ * resolution uses.
+ * <p/>
+ * Cached schemas are shared: they must not be modified. Every schema text is
+ * parsed on its own, with a new {@link Schema.Parser}, so it may only refer to
+ * the named types the default {@link SchemaResolver} knows. When the cache is
+ * full, arbitrary entries are evicted.
+ */
+public final class SchemaParseCache {
+
+  private static final SchemaParseCache DEFAULT = new SchemaParseCache(
+      Integer.getInteger("avro.schemaParseCache.maxSize", 1024));
+
+  private final ConcurrentMap<String, Schema> schemas;
+  private final ConcurrentMap<Schema, Schema> interned;
+  private final int maxSize;
+
+  public SchemaParseCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.schemas = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    this.interned = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+  }
+
+  /** Returns the cache shared by the whole JVM. */
+  public static SchemaParseCache getDefault() {
+    return DEFAULT;
+  }
+
+  /** Returns the schema of the given JSON text, parsing it if not cached. */
+  public Schema parse(String json) {
+    Schema schema = schemas.get(json);
+    if (schema == null) {
+      schema = new Schema.Parser().parse(json);
+      Schema existing = schemas.putIfAbsent(json, schema);
+      if (existing != null) {
+        return existing;
+      }
+      evict(schemas, json);
+    }
+    return schema;
+  }
+
+  /**
+   * Returns the cached schema equal to the given one, caching the given one
+   * if there is none. Equal interned schemas are the same instance, so they
+   * compare with a pointer check. The returned schema may have other docs and
+   * aliases than the given one, so only intern schemas that are not used as
+   * reader schemas with aliases.
+   */
+  public Schema intern(Schema schema) {
+    Schema existing = interned.putIfAbsent(schema, schema);
+    if (existing != null) {
+      return existing;
+    }
+    evict(interned, schema);
+    return schema;
+  }
+
+  private <K> void evict(ConcurrentMap<K, Schema> map, K keep) {
+    Iterator<K> keys = map.keySet().iterator();
+    while (map.size() > maxSize && keys.hasNext()) {
+      K key = keys.next();
+      if (key != keep) {
+        keys.remove();
+      }
+    }
+  }
+
+  public int size() {
+    return schemas.size();
+  }
+
+  public void clear() {
+    schemas.clear();
+    interned.clear();
+  }
+}
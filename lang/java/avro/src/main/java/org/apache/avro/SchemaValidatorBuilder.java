@@ -18,6 +18,8 @@
 
 package org.apache.avro;
 
+import java.util.concurrent.Executor;
+
 /**
  * <p>
  * A Builder for creating SchemaValidators.
@@ -68,6 +70,17 @@ public final class SchemaValidatorBuilder {
     return new ValidateAll(strategy);
   }
 
+  /**
+   * Validates against all schemas in parallel, with the given executor. The
+   * strategies remember the pairs they checked in
+   * {@link SchemaCompatibilityCache#getDefault()}, so that validating schemas
+   * against a long history only checks the new pairs.
+   */
+  public SchemaValidator validateAll(Executor executor) {
+    valid();
+    return new ValidateAll(strategy, executor);
+  }
+
   private void valid() {
     if(null == strategy) {
       throw new AvroRuntimeException("SchemaValidationStrategy not specified in builder");
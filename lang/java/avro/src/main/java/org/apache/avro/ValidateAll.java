@@ -18,7 +18,12 @@
 
 package org.apache.avro;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * <p>
@@ -30,21 +35,42 @@ import java.util.Iterator;
  * validate the {@link Schema} against each Schema in the Iterable, in Iterator
  * order, via {@link SchemaValidationStrategy#validate(Schema, Schema)}.
  * </p>
+ * <p>
+ * When given an {@link Executor}, the schemas are validated in parallel, and
+ * the first failure in Iterator order is thrown.
+ * </p>
  */
 public final class ValidateAll implements SchemaValidator {
   private final SchemaValidationStrategy strategy;
+  private final Executor executor;
 
   /**
    * @param strategy
    *          The strategy to use for validation of pairwise schemas.
    */
   public ValidateAll(SchemaValidationStrategy strategy) {
+    this(strategy, null);
+  }
+
+  /**
+   * @param strategy
+   *          The strategy to use for validation of pairwise schemas.
+   * @param executor
+   *          The executor validating the schemas in parallel, or null to
+   *          validate them one after the other.
+   */
+  public ValidateAll(SchemaValidationStrategy strategy, Executor executor) {
     this.strategy = strategy;
+    this.executor = executor;
   }
 
   @Override
   public void validate(Schema toValidate, Iterable<Schema> schemasInOrder)
       throws SchemaValidationException {
+    if (executor != null) {
+      validateParallel(toValidate, schemasInOrder);
+      return;
+    }
     Iterator<Schema> schemas = schemasInOrder.iterator();
     while (schemas.hasNext()) {
       Schema existing = schemas.next();
@@ -52,4 +78,34 @@ public final class ValidateAll implements SchemaValidator {
     }
   }
 
+  private void validateParallel(Schema toValidate, Iterable<Schema> schemasInOrder)
+      throws SchemaValidationException {
+    List<CompletableFuture<SchemaValidationException>> results = new ArrayList<>();
+    for (Schema existing : schemasInOrder) {
+      results.add(CompletableFuture.supplyAsync(() -> {
+        try {
+          strategy.validate(toValidate, existing);
+          return null;
+        } catch (SchemaValidationException e) {
+          return e;
+        }
+      }, executor));
+    }
+    for (CompletableFuture<SchemaValidationException> result : results) {
+      SchemaValidationException failure;
+      try {
+        failure = result.join();
+      } catch (CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new AvroRuntimeException(cause);
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+
 }
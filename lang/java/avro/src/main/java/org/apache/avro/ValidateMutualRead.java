@@ -18,10 +18,6 @@
 
 package org.apache.avro;
 
-
-import org.apache.avro.io.parsing.ResolvingGrammarGenerator;
-import org.apache.avro.io.parsing.Symbol;
-
 /**
  * A {@link SchemaValidationStrategy} that checks that the {@link Schema} to
  * validate and the existing schema can mutually read each other according to
@@ -45,7 +41,9 @@ class ValidateMutualRead implements SchemaValidationStrategy {
 
   /**
    * Validates that data written with one schema can be read using another,
-   * based on the default Avro schema resolution rules.
+   * based on the default Avro schema resolution rules. The result is
+   * remembered in the {@link SchemaCompatibilityCache#getDefault() shared
+   * cache}.
    *
    * @param writtenWith
    *          The "writer's" schema, representing data to be read.
@@ -58,14 +56,13 @@ class ValidateMutualRead implements SchemaValidationStrategy {
    */
   static void canRead(Schema writtenWith, Schema readUsing)
       throws SchemaValidationException {
-    boolean error;
+    boolean canRead;
     try {
-      error = Symbol.hasErrors(ResolvingGrammarGenerator.getOrCreate(
-          writtenWith, readUsing));
+      canRead = SchemaCompatibilityCache.getDefault().canRead(writtenWith, readUsing);
     } catch (RuntimeException e) {
       throw new SchemaValidationException(readUsing, writtenWith, e);
     }
-    if (error) {
+    if (!canRead) {
       throw new SchemaValidationException(readUsing, writtenWith);
     }
   }
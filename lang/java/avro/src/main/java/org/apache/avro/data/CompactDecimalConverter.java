@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.annotation.Nullable;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Conversion;
+import org.apache.avro.Decimal2;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.DecimalEncoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.JsonExtensionDecoder;
+import org.apache.avro.io.JsonExtensionEncoder;
+import org.apache.avro.util.CompactDecimal;
+import org.apache.avro.util.Decimals;
+
+/**
+ * A conversion of the decimal2 logical type to {@link CompactDecimal}, which
+ * holds values of up to 18 digits as a long, instead of to
+ * {@link java.math.BigDecimal}. The data is the same as the one of
+ * {@link Decimal2Converter}; values of at most 18 digits are read and written,
+ * in binary and through {@link JsonExtensionEncoder} and
+ * {@link JsonExtensionDecoder}, without creating a BigDecimal. Values are read
+ * with the scale of their logical type, when it has one and they fit, so that
+ * adding them up does not rescale them.
+ * <p/>
+ * To use it, register it with
+ * {@link org.apache.avro.generic.GenericData#addLogicalTypeConversion(Conversion)},
+ * after removing the default decimal2 conversion, or set the
+ * avro.decimal2.compact system property to true to make it the default
+ * decimal2 conversion.
+ */
+public final class CompactDecimalConverter extends Conversion<CompactDecimal> {
+
+  /** Converts the values that do not fit in a long, and the string and record representations. */
+  private static final Decimal2Converter BIG = new Decimal2Converter();
+
+  @Override
+  public Class<CompactDecimal> getConvertedType() {
+    return CompactDecimal.class;
+  }
+
+  @Override
+  public String getLogicalTypeName() {
+    return "decimal2";
+  }
+
+  /**
+   * Returns the value to write, stripped of its trailing zeros, or null if it
+   * is converted through a BigDecimal, because it does not fit in a long or
+   * has to be rounded to the scale of its type.
+   */
+  @Nullable
+  private static CompactDecimal writeScale(CompactDecimal value, Decimal2 lt) {
+    if (!value.isCompact()) {
+      return null;
+    }
+    long unscaled = value.unscaledValue();
+    int zeros = Decimals.trailingZeros(unscaled);
+    int scale = unscaled == 0 ? 0 : value.scale() - zeros;
+    Integer typeScale = lt.getScale();
+    if (Decimal2Converter.SET_SCALE_WHEN_SERIALIZING && typeScale != null && scale > typeScale) {
+      return null;
+    }
+    unscaled /= Decimals.powerOfTen(zeros);
+    if (Decimals.precision(unscaled) > lt.getPrecision()) {
+      throw new UnsupportedOperationException("Decimal " + value + " exceeds precision " + lt.getPrecision());
+    }
+    return scale == value.scale() ? value : CompactDecimal.valueOf(unscaled, scale);
+  }
+
+  /**
+   * Returns a read value stripped of its trailing zeros, or rounded, as
+   * {@link Decimal2Converter} reads it, with the scale of its type if it has one.
+   */
+  private static CompactDecimal readScale(CompactDecimal value, Decimal2 lt) {
+    if (value.isCompact()) {
+      long unscaled = value.unscaledValue();
+      if (Decimals.precision(unscaled) - Decimals.trailingZeros(unscaled) > lt.getPrecision()) {
+        value = CompactDecimal.valueOf(BIG.readScale(value.toBigDecimal(), lt));
+      }
+    } else {
+      value = CompactDecimal.valueOf(BIG.readScale(value.toBigDecimal(), lt));
+    }
+    Integer typeScale = lt.getScale();
+    if (typeScale != null && value.scale() < typeScale) {
+      return value.setScale(typeScale);
+    }
+    return value;
+  }
+
+  @Override
+  public ByteBuffer toBytes(CompactDecimal value, Schema schema, LogicalType type) {
+    CompactDecimal decimal = writeScale(value, (Decimal2) type);
+    if (decimal == null) {
+      return BIG.toBytes(value.toBigDecimal(), schema, type);
+    }
+    byte[] buf = new byte[Decimal2Converter.MAX_LONG_BYTES];
+    return ByteBuffer.wrap(buf, 0, Decimal2Converter.encode(decimal.unscaledValue(), decimal.scale(), buf));
+  }
+
+  @Override
+  public CompactDecimal fromBytes(ByteBuffer value, Schema schema, LogicalType type) {
+    // read at absolute positions, not to duplicate the buffer
+    int pos = value.position();
+    int n = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = value.get(pos++) & 0xff;
+      n |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0 && shift < 35);
+    if ((b & 0x80) != 0) {
+      throw new AvroRuntimeException("Invalid int encoding: " + value);
+    }
+    int len = value.limit() - pos;
+    if (len > 8) {
+      return readScale(CompactDecimal.valueOf(BIG.fromBytes(value, schema, type)), (Decimal2) type);
+    }
+    int scale = (n >>> 1) ^ -(n & 1);
+    return readScale(CompactDecimal.valueOf(Decimals.getLong(value, pos, len), scale), (Decimal2) type);
+  }
+
+  @Override
+  public IndexedRecord toRecord(CompactDecimal value, Schema schema, LogicalType type) {
+    return BIG.toRecord(value.toBigDecimal(), schema, type);
+  }
+
+  @Override
+  public CompactDecimal fromRecord(IndexedRecord value, Schema schema, LogicalType type) {
+    return readScale(CompactDecimal.valueOf(BIG.fromRecord(value, schema, type)), (Decimal2) type);
+  }
+
+  @Override
+  public CharSequence toCharSequence(CompactDecimal value, Schema schema, LogicalType type) {
+    return BIG.toCharSequence(value.toBigDecimal(), schema, type);
+  }
+
+  @Override
+  public CompactDecimal fromCharSequence(CharSequence value, Schema schema, LogicalType type) {
+    return readScale(CompactDecimal.valueOf(BIG.fromCharSequence(value, schema, type)), (Decimal2) type);
+  }
+
+  @Override
+  public boolean hasDirectDecode(Decoder dec, Schema schema) {
+    return dec instanceof JsonExtensionDecoder;
+  }
+
+  @Override
+  public CompactDecimal directDecode(Decoder dec, Schema schema) throws IOException {
+    CompactDecimal value = ((JsonExtensionDecoder) dec).readCompactDecimal(schema);
+    if (value != null) {
+      return readScale(value, (Decimal2) schema.getLogicalType());
+    }
+    return null;
+  }
+
+  @Override
+  public boolean tryDirectEncode(CompactDecimal value, Encoder enc, Schema schema) throws IOException {
+    Decimal2 lt = (Decimal2) schema.getLogicalType();
+    if (DecimalEncoder.OPTIMIZED_JSON_DECIMAL_WRITE && enc instanceof JsonExtensionEncoder) {
+      CompactDecimal decimal = writeScale(value, lt);
+      if (decimal == null) {
+        ((JsonExtensionEncoder) enc).writeDecimal(BIG.writeScale(value.toBigDecimal(), lt), schema);
+      } else {
+        ((JsonExtensionEncoder) enc).writeDecimal(decimal, schema);
+      }
+      return true;
+    } else if (schema.getType() == Schema.Type.BYTES && !(enc instanceof JsonExtensionEncoder)) {
+      CompactDecimal decimal = writeScale(value, lt);
+      if (decimal == null) {
+        return false;
+      }
+      // written as bytes, without a ByteBuffer
+      byte[] buf = new byte[Decimal2Converter.MAX_LONG_BYTES];
+      enc.writeBytes(buf, 0, Decimal2Converter.encode(decimal.unscaledValue(), decimal.scale(), buf));
+      return true;
+    }
+    return false;
+  }
+
+}
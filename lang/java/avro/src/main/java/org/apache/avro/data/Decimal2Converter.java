@@ -20,14 +20,17 @@ import org.apache.avro.io.Decoder;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.JsonExtensionDecoder;
 import org.apache.avro.io.JsonExtensionEncoder;
-import org.apache.avro.util.Optional;
+import org.apache.avro.util.Decimals;
 
 /**
  * @author Zoltan Farkas
  */
 public final class Decimal2Converter extends Conversion<BigDecimal> {
 
-  private static final boolean SET_SCALE_WHEN_SERIALIZING =
+  /** The most bytes of a decimal with a long unscaled value: an int scale and 8 bytes. */
+  static final int MAX_LONG_BYTES = 13;
+
+  static final boolean SET_SCALE_WHEN_SERIALIZING =
           Boolean.parseBoolean(System.getProperty("avro.decimal.setScaleWhenSerializing", "true"));
 
   @Override
@@ -57,8 +60,34 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
 
   @Override
   public ByteBuffer toBytes(BigDecimal pdecimal, Schema schema, LogicalType type) {
-    BigDecimal decimal = writeScale(pdecimal, (Decimal2) type);
-    return toBytes(decimal);
+    Decimal2 lt = (Decimal2) type;
+    BigDecimal decimal = setScale(pdecimal, lt);
+    if (decimal.precision() <= Decimals.MAX_LONG_PRECISION) {
+      // strip the trailing zeros of the unscaled long, instead of the decimal
+      long unscaled = Decimals.unscaledLong(decimal);
+      int zeros = Decimals.trailingZeros(unscaled);
+      unscaled /= Decimals.powerOfTen(zeros);
+      int scale = unscaled == 0 ? 0 : decimal.scale() - zeros;
+      if (Decimals.precision(unscaled) > lt.getPrecision()) {
+        throw new UnsupportedOperationException("Decimal " + BigDecimal.valueOf(unscaled, scale)
+                + " exceeds precision " + lt.getPrecision());
+      }
+      byte[] buf = new byte[MAX_LONG_BYTES];
+      return ByteBuffer.wrap(buf, 0, encode(unscaled, scale, buf));
+    }
+    return toBytes(checkPrecision(decimal.stripTrailingZeros(), lt));
+  }
+
+  /**
+   * Writes the scale and the unscaled value of a decimal into buf, which has
+   * room for {@link #MAX_LONG_BYTES} bytes.
+   * @return the number of bytes written.
+   */
+  static int encode(long unscaled, int scale, byte[] buf) {
+    int pos = BinaryData.encodeInt(scale, buf, 0);
+    int len = Decimals.byteLength(unscaled);
+    Decimals.putLong(unscaled, buf, pos, len);
+    return pos + len;
   }
 
   private static ByteBuffer toBytes(BigDecimal decimal) {
@@ -89,6 +118,17 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
   public BigDecimal fromBytes(ByteBuffer pbuf, Schema schema, LogicalType type) {
     ByteBuffer buf = pbuf.duplicate();
     int lscale = readInt(buf);
+    if (buf.remaining() <= 8) {
+      long unscaled = Decimals.getLong(buf, buf.position(), buf.remaining());
+      int zeros = Decimals.trailingZeros(unscaled);
+      unscaled /= Decimals.powerOfTen(zeros);
+      int scale = unscaled == 0 ? 0 : lscale - zeros;
+      BigDecimal result = BigDecimal.valueOf(unscaled, scale);
+      if (Decimals.precision(unscaled) > ((Decimal2) type).getPrecision()) {
+        return readScale(result, (Decimal2) type);
+      }
+      return result;
+    }
     byte[] unscaled = new byte[buf.remaining()];
     buf.get(unscaled);
     BigInteger unscaledBi = new BigInteger(unscaled);
@@ -131,7 +171,7 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
     return readScale(new BigDecimal(value.toString()), (Decimal2) type);
   }
 
-  private BigDecimal readScale(BigDecimal result, Decimal2 logicalType) throws AvroRuntimeException {
+  BigDecimal readScale(BigDecimal result, Decimal2 logicalType) throws AvroRuntimeException {
     result = result.stripTrailingZeros(); // reduce precission if possible.
     int precision = result.precision();
     if (precision > logicalType.getPrecision()) {
@@ -147,7 +187,13 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
     return result;
   }
 
-  private BigDecimal writeScale(BigDecimal decimal, Decimal2 logicalType) throws UnsupportedOperationException {
+  BigDecimal writeScale(BigDecimal decimal, Decimal2 logicalType) throws UnsupportedOperationException {
+    decimal = setScale(decimal, logicalType);
+    decimal = decimal.stripTrailingZeros();  // reduce precission if possible. (and the payload size)
+    return checkPrecision(decimal, logicalType);
+  }
+
+  private static BigDecimal setScale(BigDecimal decimal, Decimal2 logicalType) {
     Integer scale = logicalType.getScale();
     if (SET_SCALE_WHEN_SERIALIZING && scale != null) {
       MathContext serRm = logicalType.getSerMc();
@@ -157,7 +203,10 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
         decimal = decimal.setScale(scale);
       }
     }
-    decimal = decimal.stripTrailingZeros();  // reduce precission if possible. (and the payload size)
+    return decimal;
+  }
+
+  private static BigDecimal checkPrecision(BigDecimal decimal, Decimal2 logicalType) {
     int precision = logicalType.getPrecision();
     if (decimal.precision() > precision) {
       throw new UnsupportedOperationException("Decimal " + decimal + " exceeds precision " + precision);
@@ -167,14 +216,17 @@ public final class Decimal2Converter extends Conversion<BigDecimal> {
 
 
   @Override
-  public Optional<BigDecimal> tryDirectDecode(Decoder dec, final Schema schema) throws IOException {
-    if (dec instanceof JsonExtensionDecoder) {
-      BigDecimal bigD = ((JsonExtensionDecoder) dec).readBigDecimal(schema);
-      if (bigD != null) {
-        return Optional.of(readScale(bigD, (Decimal2) schema.getLogicalType()));
-      }
+  public boolean hasDirectDecode(Decoder dec, Schema schema) {
+    return dec instanceof JsonExtensionDecoder;
+  }
+
+  @Override
+  public BigDecimal directDecode(Decoder dec, final Schema schema) throws IOException {
+    BigDecimal bigD = ((JsonExtensionDecoder) dec).readBigDecimal(schema);
+    if (bigD != null) {
+      return readScale(bigD, (Decimal2) schema.getLogicalType());
     }
-    return Optional.empty();
+    return null;
   }
 
   @Override
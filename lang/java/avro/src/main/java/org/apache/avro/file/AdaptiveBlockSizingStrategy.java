@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+/**
+ * A {@link BlockSizingStrategy} that targets a compressed block size and/or a
+ * maximum number of records per block.
+ * <p>
+ * The uncompressed threshold is derived from the compression ratio observed on
+ * the previous blocks (an exponentially weighted moving average), so that
+ * highly compressible data produces larger raw blocks and incompressible data
+ * smaller ones. The threshold always stays within the range accepted by
+ * {@link DataFileWriter#setSyncInterval(int)}.
+ * <p>
+ * Instances keep state and must not be shared between writers.
+ */
+public final class AdaptiveBlockSizingStrategy implements BlockSizingStrategy {
+
+  static final int MIN_THRESHOLD = 32;
+  static final int MAX_THRESHOLD = 1 << 30;
+
+  /** The weight of the most recent block in the compression ratio average. */
+  private static final double SMOOTHING = 0.5;
+
+  private final int targetCompressedBytes;
+  private final long maxRecords;
+  private double ratio; // 0 until the first block is written
+  private long threshold;
+
+  /**
+   * @param targetCompressedBytes the desired compressed size of a block, or 0 to
+   *                              only limit the record count.
+   * @param maxRecords            the maximum number of records per block, or 0
+   *                              for no limit.
+   */
+  public AdaptiveBlockSizingStrategy(int targetCompressedBytes, long maxRecords) {
+    if (targetCompressedBytes < 0 || maxRecords < 0 || (targetCompressedBytes == 0 && maxRecords == 0)) {
+      throw new IllegalArgumentException(
+          "Invalid block target: " + targetCompressedBytes + " bytes, " + maxRecords + " records");
+    }
+    this.targetCompressedBytes = targetCompressedBytes;
+    this.maxRecords = maxRecords;
+    this.threshold = targetCompressedBytes == 0 ? MAX_THRESHOLD : clamp(targetCompressedBytes);
+  }
+
+  @Override
+  public boolean isBlockFull(long uncompressedBytes, long recordCount) {
+    return uncompressedBytes >= threshold || (maxRecords > 0 && recordCount >= maxRecords);
+  }
+
+  @Override
+  public void blockWritten(long uncompressedBytes, long compressedBytes, long recordCount) {
+    if (targetCompressedBytes == 0 || uncompressedBytes <= 0 || compressedBytes <= 0) {
+      return;
+    }
+    double blockRatio = (double) uncompressedBytes / compressedBytes;
+    ratio = ratio == 0 ? blockRatio : SMOOTHING * blockRatio + (1 - SMOOTHING) * ratio;
+    threshold = clamp((long) (targetCompressedBytes * ratio));
+  }
+
+  /** Return the current uncompressed size at which a block is considered full. */
+  public long getThreshold() {
+    return threshold;
+  }
+
+  private static long clamp(long value) {
+    return Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, value));
+  }
+
+  @Override
+  public String toString() {
+    return "adaptive(" + targetCompressedBytes + ", " + maxRecords + ")";
+  }
+}
@@ -18,10 +18,10 @@
 package org.apache.avro.file;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.apache.avro.util.ByteArrayBuilder;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 
@@ -29,14 +29,15 @@ import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream
 public class BZip2Codec extends Codec {
 
   public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
-  private final byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
 
-  private ByteArrayOutputStream outputBuffer;
+  private final CodecResourcePool<ByteArrayBuilder> outputBuffers = CodecResourcePool.buffers();
 
   static class Option extends CodecFactory {
+    private final BZip2Codec instance = new BZip2Codec();
+
     @Override
     protected Codec createInstance() {
-      return new BZip2Codec();
+      return instance;
     }
   }
 
@@ -47,31 +48,37 @@ public class BZip2Codec extends Codec {
 
   @Override
   public ByteBuffer compress(ByteBuffer uncompressedData) throws IOException {
-    ByteArrayOutputStream baos = getOutputBuffer(uncompressedData.remaining());
-
-    try (BZip2CompressorOutputStream outputStream = new BZip2CompressorOutputStream(baos)) {
-      outputStream.write(uncompressedData.array(), computeOffset(uncompressedData), uncompressedData.remaining());
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    try {
+      try (BZip2CompressorOutputStream outputStream = new BZip2CompressorOutputStream(baos)) {
+        outputStream.write(uncompressedData.array(), computeOffset(uncompressedData), uncompressedData.remaining());
+      }
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
-
-    return ByteBuffer.wrap(baos.toByteArray());
   }
 
   @Override
   public ByteBuffer decompress(ByteBuffer compressedData) throws IOException {
     ByteArrayInputStream bais = new ByteArrayInputStream(compressedData.array(), computeOffset(compressedData),
         compressedData.remaining());
-    try (BZip2CompressorInputStream inputStream = new BZip2CompressorInputStream(bais)) {
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-      int readCount = -1;
-      while ((readCount = inputStream.read(buffer, compressedData.position(), buffer.length)) > 0) {
-        baos.write(buffer, 0, readCount);
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    try {
+      try (BZip2CompressorInputStream inputStream = new BZip2CompressorInputStream(bais)) {
+        baos.readFrom(inputStream);
       }
-
       return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
   }
 
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   @Override
   public int hashCode() {
     return getName().hashCode();
@@ -83,13 +90,4 @@ public class BZip2Codec extends Codec {
       return true;
     return obj != null && obj.getClass() == getClass();
   }
-
-  // get and initialize the output buffer for use.
-  private ByteArrayOutputStream getOutputBuffer(int suggestedLength) {
-    if (null == outputBuffer) {
-      outputBuffer = new ByteArrayOutputStream(suggestedLength);
-    }
-    outputBuffer.reset();
-    return outputBuffer;
-  }
 }
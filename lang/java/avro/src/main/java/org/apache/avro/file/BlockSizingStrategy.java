@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+/**
+ * Decides when a {@link DataFileWriter} ends the current block and writes a
+ * synchronization marker.
+ *
+ * @see DataFileWriter#setBlockSizingStrategy(BlockSizingStrategy)
+ */
+public interface BlockSizingStrategy {
+
+  /**
+   * Called after each appended datum.
+   *
+   * @param uncompressedBytes the uncompressed size of the current block.
+   * @param recordCount       the number of data in the current block.
+   * @return true if the current block should be written.
+   */
+  boolean isBlockFull(long uncompressedBytes, long recordCount);
+
+  /**
+   * Called after a block has been compressed and written.
+   *
+   * @param uncompressedBytes the uncompressed size of the block.
+   * @param compressedBytes   the size of the block after compression.
+   * @param recordCount       the number of data in the block.
+   */
+  void blockWritten(long uncompressedBytes, long compressedBytes, long recordCount);
+
+  /**
+   * A strategy ending blocks once they reach a fixed number of uncompressed
+   * bytes, as {@link DataFileWriter#setSyncInterval(int)} does.
+   */
+  static BlockSizingStrategy fixed(int syncInterval) {
+    return new BlockSizingStrategy() {
+      @Override
+      public boolean isBlockFull(long uncompressedBytes, long recordCount) {
+        return uncompressedBytes >= syncInterval;
+      }
+
+      @Override
+      public void blockWritten(long uncompressedBytes, long compressedBytes, long recordCount) {
+      }
+
+      @Override
+      public String toString() {
+        return "fixed(" + syncInterval + ')';
+      }
+    };
+  }
+
+  /**
+   * A strategy targeting a compressed block size and/or a record count per
+   * block.
+   *
+   * @see AdaptiveBlockSizingStrategy
+   */
+  static BlockSizingStrategy adaptive(int targetCompressedBytes, long maxRecords) {
+    return new AdaptiveBlockSizingStrategy(targetCompressedBytes, maxRecords);
+  }
+}
@@ -18,13 +18,17 @@
 package org.apache.avro.file;
 
 import java.io.IOException;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 
 /**
  * Interface for Avro-supported compression codecs for data files.
  *
  * Note that Codec objects may maintain internal state (e.g. buffers) and are
- * not thread safe.
+ * not thread safe unless {@link #isThreadSafe()} returns true. The codecs
+ * provided by Avro are thread safe: they borrow their compression contexts and
+ * buffers from bounded pools, and a single instance is shared by all the
+ * readers and writers using a {@link CodecFactory}.
  */
 public abstract class Codec {
   /** Name of the codec; written to the file's metadata. */
@@ -36,6 +40,38 @@ public abstract class Codec {
   /** Decompress the data */
   public abstract ByteBuffer decompress(ByteBuffer compressedData) throws IOException;
 
+  /**
+   * Compresses the remaining bytes of src into dst. The position of src is moved
+   * to its limit, and the position of dst past the compressed data. Either
+   * buffer may be direct.
+   *
+   * @return the number of bytes written to dst.
+   * @throws java.nio.BufferOverflowException if dst has not enough room left.
+   */
+  public int compress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    return transfer(compress(heapBuffer(src)), src, dst);
+  }
+
+  /**
+   * Decompresses the remaining bytes of src into dst. The position of src is
+   * moved to its limit, and the position of dst past the decompressed data.
+   * Either buffer may be direct.
+   *
+   * @return the number of bytes written to dst.
+   * @throws java.nio.BufferOverflowException if dst has not enough room left.
+   */
+  public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    return transfer(decompress(heapBuffer(src)), src, dst);
+  }
+
+  /**
+   * Return true if a single instance of this codec may be used by several
+   * threads at once.
+   */
+  public boolean isThreadSafe() {
+    return false;
+  }
+
   /**
    * Codecs must implement an equals() method. Two codecs, A and B are equal if:
    * the result of A and B decompressing content compressed by A is the same AND
@@ -61,4 +97,22 @@ public abstract class Codec {
   protected static int computeOffset(ByteBuffer data) {
     return data.arrayOffset() + data.position();
   }
+
+  // Return an array backed buffer with the remaining content of data.
+  private static ByteBuffer heapBuffer(ByteBuffer data) {
+    if (data.hasArray()) {
+      return data;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+    copy.put(data.duplicate());
+    ((Buffer) copy).flip();
+    return copy;
+  }
+
+  private static int transfer(ByteBuffer result, ByteBuffer src, ByteBuffer dst) {
+    int size = result.remaining();
+    dst.put(result);
+    ((Buffer) src).position(src.limit());
+    return size;
+  }
 }
@@ -17,6 +17,7 @@
  */
 package org.apache.avro.file;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.Deflater;
@@ -95,9 +96,85 @@ public abstract class CodecFactory {
     return new ZstandardCodec.Option(level, useChecksum);
   }
 
+  /**
+   * LZ4 codec, using the fast compressor. Decompression speed does not depend
+   * on the compression level.
+   */
+  public static CodecFactory lz4Codec() {
+    return new LZ4Codec.Option(0);
+  }
+
+  /**
+   * LZ4 codec, with specific compression level.
+   *
+   * @param level 0 for the fast compressor, or the level of the LZ4 HC
+   *              compressor, between 1 and 17 inclusive.
+   */
+  public static CodecFactory lz4Codec(int level) {
+    return new LZ4Codec.Option(level);
+  }
+
+  /**
+   * zstandard codec, with specific compression level and a dictionary stored in
+   * the file metadata.
+   *
+   * @param level      The compression level, see {@link #zstandardCodec(int)}.
+   * @param dictionary the dictionary used for all blocks, see
+   *                   {@link ZstandardDictionaryCodec#trainDictionary(Iterable, int)}
+   */
+  public static CodecFactory zstandardDictionaryCodec(int level, byte[] dictionary) {
+    return zstandardDictionaryCodec(level, false, dictionary);
+  }
+
+  /**
+   * zstandard codec, with specific compression level and a dictionary stored in
+   * the file metadata.
+   *
+   * @param level       The compression level, see {@link #zstandardCodec(int)}.
+   * @param useChecksum if true, will include a checksum with each data block
+   * @param dictionary  the dictionary used for all blocks, see
+   *                    {@link ZstandardDictionaryCodec#trainDictionary(Iterable, int)}
+   */
+  public static CodecFactory zstandardDictionaryCodec(int level, boolean useChecksum, byte[] dictionary) {
+    if (dictionary == null) {
+      throw new NullPointerException("dictionary");
+    }
+    return new ZstandardDictionaryCodec.Option(level, useChecksum, dictionary);
+  }
+
   /** Creates internal Codec. */
   protected abstract Codec createInstance();
 
+  /**
+   * Creates a codec, to compress data outside of container files, like
+   * message batches.
+   */
+  public Codec createCodec() {
+    return createInstance();
+  }
+
+  /**
+   * Creates the codec for a file with the given metadata. Codecs keeping state
+   * in the file metadata, like a compression dictionary, override this.
+   */
+  protected Codec createInstance(Map<String, byte[]> metadata) {
+    return createInstance();
+  }
+
+  /**
+   * Returns a factory that writes files with the codec state kept in the given
+   * file metadata, like a compression dictionary. Codecs keeping state in the
+   * file metadata override this.
+   */
+  protected CodecFactory withMetadata(Map<String, byte[]> metadata) {
+    return this;
+  }
+
+  /** Return the entries a writer adds to the metadata of files using this codec. */
+  protected Map<String, byte[]> getMetadata() {
+    return Collections.emptyMap();
+  }
+
   /**
    * Mapping of string names (stored as metas) and codecs. Note that currently
    * options (like compression level) are not recoverable.
@@ -115,12 +192,15 @@ public abstract class CodecFactory {
     addCodec(DataFileConstants.XZ_CODEC, xzCodec(DEFAULT_XZ_LEVEL));
     addCodec(DataFileConstants.ZSTANDARD_CODEC, zstandardCodec(DEFAULT_ZSTANDARD_LEVEL));
     addCodec(DataFileConstants.SNAPPY_CODEC, snappyCodec());
+    addCodec(DataFileConstants.LZ4_CODEC, lz4Codec());
+    addCodec(DataFileConstants.ZSTANDARD_DICTIONARY_CODEC,
+        new ZstandardDictionaryCodec.Option(DEFAULT_ZSTANDARD_LEVEL, false, null));
   }
 
   /**
    * Maps a codec name into a CodecFactory.
    *
-   * Currently there are six codecs registered by default:
+   * Currently there are eight codecs registered by default:
    * <ul>
    * <li>{@code null}</li>
    * <li>{@code deflate}</li>
@@ -128,6 +208,8 @@ public abstract class CodecFactory {
    * <li>{@code bzip2}</li>
    * <li>{@code xz}</li>
    * <li>{@code zstandard}</li>
+   * <li>{@code zstandard-dictionary}</li>
+   * <li>{@code lz4}</li>
    * </ul>
    */
   public static CodecFactory fromString(String s) {
@@ -138,6 +220,16 @@ public abstract class CodecFactory {
     return o;
   }
 
+  /**
+   * Maps a codec name, and the metadata of a file written with it, into a
+   * CodecFactory that writes files like it. Unlike {@link #fromString(String)},
+   * the factory returned for {@code zstandard-dictionary} has the dictionary
+   * of the file.
+   */
+  public static CodecFactory fromString(String s, Map<String, byte[]> metadata) {
+    return fromString(s).withMetadata(metadata);
+  }
+
   /**
    * Adds a new codec implementation. If name already had a codec associated with
    * it, returns the previous codec.
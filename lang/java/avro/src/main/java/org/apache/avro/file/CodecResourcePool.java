@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.apache.avro.util.ByteArrayBuilder;
+
+/**
+ * A bounded pool of the (de)compression contexts and buffers used by a
+ * {@link Codec}. Borrowing never blocks: a new resource is created when the
+ * pool is empty, and resources released into a full pool are discarded.
+ */
+final class CodecResourcePool<T> {
+
+  static final int DEFAULT_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+
+  /** Buffers grown beyond this size are not kept in a pool. */
+  static final int MAX_POOLED_BUFFER_SIZE = 16 * 1024 * 1024;
+
+  private final ArrayBlockingQueue<T> pool;
+  private final Supplier<T> factory;
+  private final Consumer<T> disposer;
+
+  CodecResourcePool(Supplier<T> factory, Consumer<T> disposer) {
+    this(DEFAULT_CAPACITY, factory, disposer);
+  }
+
+  CodecResourcePool(int capacity, Supplier<T> factory, Consumer<T> disposer) {
+    this.pool = new ArrayBlockingQueue<>(capacity);
+    this.factory = factory;
+    this.disposer = disposer;
+  }
+
+  /** Create a pool of output buffers. */
+  static CodecResourcePool<ByteArrayBuilder> buffers() {
+    return new CodecResourcePool<>(() -> new ByteArrayBuilder(8192), b -> {
+    });
+  }
+
+  T borrow() {
+    T resource = pool.poll();
+    return resource == null ? factory.get() : resource;
+  }
+
+  void release(T resource) {
+    if (!pool.offer(resource)) {
+      disposer.accept(resource);
+    }
+  }
+
+  /** Release an output buffer, unless it grew too large to keep around. */
+  static void releaseBuffer(CodecResourcePool<ByteArrayBuilder> pool, ByteArrayBuilder buffer) {
+    if (buffer.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+      buffer.reset();
+      pool.release(buffer);
+    }
+  }
+}
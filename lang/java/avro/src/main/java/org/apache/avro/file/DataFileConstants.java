@@ -39,5 +39,16 @@ public class DataFileConstants {
   public static final String BZIP2_CODEC = "bzip2";
   public static final String XZ_CODEC = "xz";
   public static final String ZSTANDARD_CODEC = "zstandard";
+  public static final String ZSTANDARD_DICTIONARY_CODEC = "zstandard-dictionary";
+  public static final String LZ4_CODEC = "lz4";
+
+  /** The dictionary used by the zstandard-dictionary codec. */
+  public static final String ZSTANDARD_DICTIONARY = "avro.zstandard.dictionary";
+
+  /**
+   * Set to "true" when records are prefixed with their size, see
+   * {@link org.apache.avro.io.SizedRecordEncoder}.
+   */
+  public static final String SIZED_RECORDS = "avro.sized.records";
 
 }
@@ -79,6 +79,7 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   long blockRemaining; // # entries remaining in block
   byte[] syncBuffer = new byte[DataFileConstants.SYNC_SIZE];
   private Codec codec;
+  private boolean sizedRecords;
 
   /**
    * Construct a reader for an input stream. For file-based input, use
@@ -129,6 +130,7 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
     header.metaKeyList = Collections.unmodifiableList(header.metaKeyList);
     header.schema = new Schema.Parser().setValidate(false).parse(getMetaString(DataFileConstants.SCHEMA));
     this.codec = resolveCodec();
+    this.sizedRecords = "true".equals(getMetaString(DataFileConstants.SIZED_RECORDS));
     reader.setSchema(header.schema);
   }
 
@@ -136,13 +138,22 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
   void initialize(InputStream in, Header header) throws IOException {
     this.header = header;
     this.codec = resolveCodec();
+    this.sizedRecords = "true".equals(getMetaString(DataFileConstants.SIZED_RECORDS));
     reader.setSchema(header.schema);
   }
 
+  /**
+   * Returns true if the records in this file are prefixed with their size.
+   * @see DataFileWriter#setSizedRecords(boolean)
+   */
+  public boolean hasSizedRecords() {
+    return sizedRecords;
+  }
+
   Codec resolveCodec() {
     String codecStr = getMetaString(DataFileConstants.CODEC);
     if (codecStr != null) {
-      return CodecFactory.fromString(codecStr).createInstance();
+      return CodecFactory.fromString(codecStr).createInstance(header.meta);
     } else {
       return CodecFactory.nullCodec().createInstance();
     }
@@ -214,6 +225,7 @@ public class DataFileStream<D> implements Iterator<D>, Iterable<D>, Closeable {
           blockBuffer = block.getAsByteBuffer();
           datumIn = DecoderFactory.get().binaryDecoder(blockBuffer.array(),
               blockBuffer.arrayOffset() + blockBuffer.position(), blockBuffer.remaining(), datumIn);
+          datumIn.setSizedRecords(sizedRecords);
         }
       }
       return blockRemaining != 0;
@@ -26,14 +26,20 @@ import java.io.File;
 import java.io.FilterOutputStream;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
@@ -42,6 +48,8 @@ import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.SizedRecordEncoder;
+import org.apache.avro.util.internal.Parallelism;
 import org.apache.commons.compress.utils.IOUtils;
 
 /**
@@ -72,11 +80,17 @@ public class DataFileWriter<D> implements Closeable, Flushable {
 
   private byte[] sync; // 16 random bytes
   private int syncInterval = DataFileConstants.DEFAULT_SYNC_INTERVAL;
+  private BlockSizingStrategy blockSizing; // null: end blocks at syncInterval
 
   private boolean isOpen;
+  private CodecFactory codecFactory;
   private Codec codec;
 
+  /** Blocks being recompressed by appendAllFrom, in file order. */
+  private final ArrayDeque<Future<DataBlock>> pendingBlocks = new ArrayDeque<>();
+
   private boolean flushOnEveryBlock = true;
+  private boolean sizedRecords;
 
   /** Construct a writer, not yet open. */
   public DataFileWriter(DatumWriter<D> dout) {
@@ -99,8 +113,37 @@ public class DataFileWriter<D> implements Closeable, Flushable {
    */
   public DataFileWriter<D> setCodec(CodecFactory c) {
     assertNotOpen();
+    if (codecFactory != null) {
+      // the state of the previous codec, like its dictionary
+      for (String key : codecFactory.getMetadata().keySet()) {
+        meta.remove(key);
+      }
+    }
+    this.codecFactory = c;
     this.codec = c.createInstance();
     setMetaInternal(DataFileConstants.CODEC, codec.getName());
+    for (Map.Entry<String, byte[]> entry : c.getMetadata().entrySet()) {
+      setMetaInternal(entry.getKey(), entry.getValue());
+    }
+    return this;
+  }
+
+  /**
+   * Configures this writer to prefix every record with its size in bytes, so
+   * that readers can skip the records, and nested records, they do not read
+   * without decoding them. This is recorded in the file's metadata, and read
+   * back by {@link DataFileStream}. Data appended with
+   * {@link #appendEncoded(ByteBuffer)} must be encoded the same way. May not
+   * be reset after writes have begun.
+   */
+  public DataFileWriter<D> setSizedRecords(boolean sizedRecords) {
+    assertNotOpen();
+    this.sizedRecords = sizedRecords;
+    if (sizedRecords) {
+      setMetaInternal(DataFileConstants.SIZED_RECORDS, "true");
+    } else {
+      meta.remove(DataFileConstants.SIZED_RECORDS);
+    }
     return this;
   }
 
@@ -117,6 +160,9 @@ public class DataFileWriter<D> implements Closeable, Flushable {
    *
    * Invalid values throw IllegalArgumentException
    *
+   * Replaces any {@linkplain #setBlockSizingStrategy(BlockSizingStrategy) block
+   * sizing strategy}.
+   *
    * @param syncInterval the approximate number of uncompressed bytes to write in
    *                     each block
    * @return this DataFileWriter
@@ -126,6 +172,23 @@ public class DataFileWriter<D> implements Closeable, Flushable {
       throw new IllegalArgumentException("Invalid syncInterval value: " + syncInterval);
     }
     this.syncInterval = syncInterval;
+    this.blockSizing = null;
+    return this;
+  }
+
+  /**
+   * Set the strategy deciding when blocks end and synchronization markers are
+   * written, replacing the {@linkplain #setSyncInterval(int) sync interval}. The
+   * strategy is told the compressed size of every written block, so it can adapt
+   * the block size to the codec and the data, see
+   * {@link AdaptiveBlockSizingStrategy}.
+   *
+   * @param strategy the block sizing strategy, or null to end blocks at the sync
+   *                 interval.
+   * @return this DataFileWriter
+   */
+  public DataFileWriter<D> setBlockSizingStrategy(BlockSizingStrategy strategy) {
+    this.blockSizing = strategy;
     return this;
   }
 
@@ -224,10 +287,12 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     byte[] codecBytes = this.meta.get(DataFileConstants.CODEC);
     if (codecBytes != null) {
       String strCodec = new String(codecBytes, StandardCharsets.UTF_8);
-      this.codec = CodecFactory.fromString(strCodec).createInstance();
+      this.codecFactory = CodecFactory.fromString(strCodec, meta);
     } else {
-      this.codec = CodecFactory.nullCodec().createInstance();
+      this.codecFactory = CodecFactory.nullCodec();
     }
+    this.codec = codecFactory.createInstance(meta);
+    this.sizedRecords = reader.hasSizedRecords();
 
     init(out);
 
@@ -242,8 +307,12 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     dout.setSchema(schema);
     buffer = new NonCopyingByteArrayOutputStream(Math.min((int) (syncInterval * 1.25), Integer.MAX_VALUE / 2 - 1));
     this.bufOut = efactory.binaryEncoder(buffer, null);
+    if (sizedRecords) {
+      this.bufOut = efactory.sizedRecordEncoder(bufOut, null);
+    }
     if (this.codec == null) {
-      this.codec = CodecFactory.nullCodec().createInstance();
+      this.codecFactory = CodecFactory.nullCodec();
+      this.codec = codecFactory.createInstance();
     }
     this.isOpen = true;
   }
@@ -324,6 +393,9 @@ public class DataFileWriter<D> implements Closeable, Flushable {
   // reset the buffer position to contain size bytes, discarding the rest.
   // Otherwise the file will be corrupt with a partial record.
   private void resetBufferTo(int size) throws IOException {
+    if (bufOut instanceof SizedRecordEncoder) {
+      ((SizedRecordEncoder) bufOut).reset();
+    }
     bufOut.flush();
     byte[] data = buffer.toByteArray();
     buffer.reset();
@@ -347,7 +419,7 @@ public class DataFileWriter<D> implements Closeable, Flushable {
   }
 
   private void writeIfBlockFull() throws IOException {
-    if (bufferInUse() >= syncInterval)
+    if (blockSizing == null ? bufferInUse() >= syncInterval : blockSizing.isBlockFull(bufferInUse(), blockCount))
       writeBlock();
   }
 
@@ -377,16 +449,23 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     if (!this.schema.equals(otherSchema)) {
       throw new IOException("Schema from file " + otherFile + " does not match");
     }
+    if (sizedRecords != otherFile.hasSizedRecords()) {
+      throw new IOException("Record sizes of file " + otherFile + " do not match");
+    }
     // flush anything written so far
     writeBlock();
     Codec otherCodec = otherFile.resolveCodec();
     DataBlock nextBlockRaw = null;
     if (codec.equals(otherCodec) && !recompress) {
-      // copy raw bytes
+      // copy raw bytes, flushing once at the end rather than after every block
       while (otherFile.hasNextBlock()) {
         nextBlockRaw = otherFile.nextRawBlock(nextBlockRaw);
+        nextBlockRaw.setFlushOnWrite(false);
         nextBlockRaw.writeBlockTo(vout, sync);
       }
+      if (flushOnEveryBlock) {
+        vout.flush();
+      }
     } else {
       while (otherFile.hasNextBlock()) {
         nextBlockRaw = otherFile.nextRawBlock(nextBlockRaw);
@@ -397,15 +476,125 @@ public class DataFileWriter<D> implements Closeable, Flushable {
     }
   }
 
+  /**
+   * Appends data from another file like
+   * {@link #appendAllFrom(DataFileStream, boolean)}, but blocks that need to be
+   * recompressed are decompressed and compressed on the given executor. Block
+   * order is preserved.
+   * <p/>
+   * Recompressed blocks may still be in flight when this method returns, so
+   * that consecutive calls for many small files keep all threads busy. They are
+   * written out, in order, before any other block is written and at the latest
+   * by {@link #sync()}, {@link #flush()} or {@link #close()}. Errors raised while
+   * compressing a block are reported by whichever of these calls writes it.
+   * At most twice as many blocks as the executor has threads are kept in
+   * flight. otherFile may be closed as soon as this method returns.
+   *
+   * @param otherFile  the file to append, must have the same schema.
+   * @param recompress if true all blocks are recompressed, even if the codecs
+   *                   are compatible.
+   * @param executor   the executor to (de)compress blocks on.
+   * @throws IOException
+   */
+  public void appendAllFrom(DataFileStream<D> otherFile, boolean recompress, ExecutorService executor)
+      throws IOException {
+    assertOpen();
+    Schema otherSchema = otherFile.getSchema();
+    if (!this.schema.equals(otherSchema)) {
+      throw new IOException("Schema from file " + otherFile + " does not match");
+    }
+    if (sizedRecords != otherFile.hasSizedRecords()) {
+      throw new IOException("Record sizes of file " + otherFile + " do not match");
+    }
+    Codec otherCodec = otherFile.resolveCodec();
+    if (codec.equals(otherCodec) && !recompress) {
+      drainPendingBlocks(0);
+      appendAllFrom(otherFile, false);
+      return;
+    }
+    if (blockCount > 0) {
+      writeBlock();
+    }
+    // Codecs that are not thread safe are not shared, every task borrows its
+    // own pair.
+    ConcurrentLinkedQueue<Codec[]> codecs = new ConcurrentLinkedQueue<>();
+    boolean shareCodecs = otherCodec.isThreadSafe() && codec.isThreadSafe();
+    int maxInFlight = 2 * Parallelism.of(executor);
+    while (otherFile.hasNextBlock()) {
+      DataBlock rawBlock = otherFile.nextRawBlock(null);
+      rawBlock.setFlushOnWrite(false);
+      pendingBlocks.add(executor.submit(() -> {
+        Codec[] pair = codecs.poll();
+        if (pair == null) {
+          pair = shareCodecs ? new Codec[] { otherCodec, codec }
+              : new Codec[] { otherFile.resolveCodec(), codecFactory.createInstance(meta) };
+        }
+        try {
+          rawBlock.decompressUsing(pair[0]);
+          rawBlock.compressUsing(pair[1]);
+        } finally {
+          codecs.add(pair);
+        }
+        return rawBlock;
+      }));
+      drainPendingBlocks(maxInFlight);
+    }
+  }
+
+  /**
+   * Write recompressed blocks, in order, until at most maxPending are left in
+   * flight.
+   */
+  private void drainPendingBlocks(int maxPending) throws IOException {
+    if (pendingBlocks.isEmpty()) {
+      return;
+    }
+    try {
+      while (pendingBlocks.size() > maxPending) {
+        Future<DataBlock> head = pendingBlocks.peek();
+        DataBlock block;
+        try {
+          block = head.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          }
+          throw new AvroRuntimeException(cause);
+        }
+        pendingBlocks.poll();
+        block.writeBlockTo(vout, sync);
+      }
+      if (maxPending == 0 && flushOnEveryBlock) {
+        vout.flush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      // the file cannot be continued consistently without the failed block
+      for (Future<DataBlock> pending : pendingBlocks) {
+        pending.cancel(true);
+      }
+      pendingBlocks.clear();
+      throw e;
+    }
+  }
+
   private void writeBlock() throws IOException {
+    drainPendingBlocks(0);
     if (blockCount > 0) {
       try {
         bufOut.flush();
         ByteBuffer uncompressed = buffer.getByteArrayAsByteBuffer();
+        int uncompressedSize = uncompressed.remaining();
         DataBlock block = new DataBlock(uncompressed, blockCount);
         block.setFlushOnWrite(flushOnEveryBlock);
         block.compressUsing(codec);
         block.writeBlockTo(vout, sync);
+        if (blockSizing != null) {
+          blockSizing.blockWritten(uncompressedSize, block.getBlockSize(), blockCount);
+        }
       } finally {
         buffer.reset();
         blockCount = 0;
@@ -17,14 +17,16 @@
  */
 package org.apache.avro.file;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.avro.util.ByteArrayBuilder;
 
 /**
  * Implements DEFLATE (RFC1951) compression and decompression.
@@ -37,27 +39,31 @@ import java.util.zip.InflaterOutputStream;
 public class DeflateCodec extends Codec {
 
   static class Option extends CodecFactory {
-    private int compressionLevel;
+    private final DeflateCodec instance;
 
     Option(int compressionLevel) {
-      this.compressionLevel = compressionLevel;
+      this.instance = new DeflateCodec(compressionLevel);
     }
 
     @Override
     protected Codec createInstance() {
-      return new DeflateCodec(compressionLevel);
+      return instance;
     }
   }
 
-  private ByteArrayOutputStream outputBuffer;
-  private Deflater deflater;
-  private Inflater inflater;
+  private static final int CHUNK_SIZE = 8192;
+
   // currently only do 'nowrap' -- RFC 1951, not zlib
   private boolean nowrap = true;
   private int compressionLevel;
+  private final CodecResourcePool<Deflater> deflaters;
+  private final CodecResourcePool<Inflater> inflaters;
+  private final CodecResourcePool<ByteArrayBuilder> outputBuffers = CodecResourcePool.buffers();
 
   public DeflateCodec(int compressionLevel) {
     this.compressionLevel = compressionLevel;
+    this.deflaters = new CodecResourcePool<>(() -> new Deflater(compressionLevel, nowrap), Deflater::end);
+    this.inflaters = new CodecResourcePool<>(() -> new Inflater(nowrap), Inflater::end);
   }
 
   @Override
@@ -67,47 +73,107 @@ public class DeflateCodec extends Codec {
 
   @Override
   public ByteBuffer compress(ByteBuffer data) throws IOException {
-    ByteArrayOutputStream baos = getOutputBuffer(data.remaining());
-    try (OutputStream outputStream = new DeflaterOutputStream(baos, getDeflater())) {
-      outputStream.write(data.array(), computeOffset(data), data.remaining());
+    Deflater deflater = deflaters.borrow();
+    ByteArrayBuilder out = outputBuffers.borrow();
+    try {
+      deflater.setInput(data.array(), computeOffset(data), data.remaining());
+      deflater.finish();
+      while (!deflater.finished()) {
+        out.ensureCapacity(out.size() + CHUNK_SIZE);
+        byte[] buffer = out.getBuffer();
+        out.resetCountTo(out.size() + deflater.deflate(buffer, out.size(), buffer.length - out.size()));
+      }
+      return ByteBuffer.wrap(out.toByteArray());
+    } finally {
+      deflater.reset();
+      deflaters.release(deflater);
+      CodecResourcePool.releaseBuffer(outputBuffers, out);
     }
-    return ByteBuffer.wrap(baos.toByteArray());
   }
 
   @Override
   public ByteBuffer decompress(ByteBuffer data) throws IOException {
-    ByteArrayOutputStream baos = getOutputBuffer(data.remaining());
-    try (OutputStream outputStream = new InflaterOutputStream(baos, getInflater())) {
-      outputStream.write(data.array(), computeOffset(data), data.remaining());
+    Inflater inflater = inflaters.borrow();
+    ByteArrayBuilder out = outputBuffers.borrow();
+    try {
+      inflater.setInput(data.array(), computeOffset(data), data.remaining());
+      while (!inflater.finished()) {
+        out.ensureCapacity(out.size() + Math.max(CHUNK_SIZE, data.remaining()));
+        byte[] buffer = out.getBuffer();
+        int count = inflater.inflate(buffer, out.size(), buffer.length - out.size());
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        out.resetCountTo(out.size() + count);
+      }
+      return ByteBuffer.wrap(out.toByteArray());
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      inflater.reset();
+      inflaters.release(inflater);
+      CodecResourcePool.releaseBuffer(outputBuffers, out);
     }
-    return ByteBuffer.wrap(baos.toByteArray());
   }
 
-  // get and initialize the inflater for use.
-  private Inflater getInflater() {
-    if (null == inflater) {
-      inflater = new Inflater(nowrap);
+  @Override
+  public int compress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    if (!src.hasArray() || !dst.hasArray()) {
+      return super.compress(src, dst);
+    }
+    Deflater deflater = deflaters.borrow();
+    try {
+      deflater.setInput(src.array(), computeOffset(src), src.remaining());
+      deflater.finish();
+      int count = 0;
+      while (!deflater.finished()) {
+        if (count == dst.remaining()) {
+          throw new BufferOverflowException();
+        }
+        count += deflater.deflate(dst.array(), computeOffset(dst) + count, dst.remaining() - count);
+      }
+      ((Buffer) src).position(src.limit());
+      ((Buffer) dst).position(dst.position() + count);
+      return count;
+    } finally {
+      deflater.reset();
+      deflaters.release(deflater);
     }
-    inflater.reset();
-    return inflater;
   }
 
-  // get and initialize the deflater for use.
-  private Deflater getDeflater() {
-    if (null == deflater) {
-      deflater = new Deflater(compressionLevel, nowrap);
+  @Override
+  public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    if (!src.hasArray() || !dst.hasArray()) {
+      return super.decompress(src, dst);
+    }
+    Inflater inflater = inflaters.borrow();
+    try {
+      inflater.setInput(src.array(), computeOffset(src), src.remaining());
+      int count = 0;
+      while (!inflater.finished()) {
+        if (count == dst.remaining()) {
+          throw new BufferOverflowException();
+        }
+        int inflated = inflater.inflate(dst.array(), computeOffset(dst) + count, dst.remaining() - count);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        count += inflated;
+      }
+      ((Buffer) src).position(src.limit());
+      ((Buffer) dst).position(dst.position() + count);
+      return count;
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      inflater.reset();
+      inflaters.release(inflater);
     }
-    deflater.reset();
-    return deflater;
   }
 
-  // get and initialize the output buffer for use.
-  private ByteArrayOutputStream getOutputBuffer(int suggestedLength) {
-    if (null == outputBuffer) {
-      outputBuffer = new ByteArrayOutputStream(suggestedLength);
-    }
-    outputBuffer.reset();
-    return outputBuffer;
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
   @Override
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Implements LZ4 compression and decompression. Each block is stored as the
+ * uncompressed length, a 4 byte big endian integer, followed by a raw LZ4
+ * block.
+ */
+public class LZ4Codec extends Codec {
+
+  static class Option extends CodecFactory {
+    private final LZ4Codec instance;
+
+    Option(int compressionLevel) {
+      this.instance = new LZ4Codec(compressionLevel);
+    }
+
+    @Override
+    protected Codec createInstance() {
+      return instance;
+    }
+  }
+
+  private final int compressionLevel;
+
+  /**
+   * @param compressionLevel 0 for the fast compressor, or the compression level
+   *                         of the LZ4 HC compressor, between 1 and 17.
+   */
+  public LZ4Codec(int compressionLevel) {
+    if (compressionLevel < 0 || compressionLevel > 17) {
+      throw new IllegalArgumentException("Invalid lz4 compression level: " + compressionLevel);
+    }
+    this.compressionLevel = compressionLevel;
+  }
+
+  @Override
+  public String getName() {
+    return DataFileConstants.LZ4_CODEC;
+  }
+
+  @Override
+  public ByteBuffer compress(ByteBuffer data) throws IOException {
+    int length = data.remaining();
+    LZ4Compressor compressor = LZ4Loader.compressor(compressionLevel);
+    byte[] out = new byte[4 + compressor.maxCompressedLength(length)];
+    int size = compressor.compress(data.array(), computeOffset(data), length, out, 4, out.length - 4);
+    ByteBuffer result = ByteBuffer.wrap(out, 0, 4 + size);
+    result.putInt(0, length);
+    return result;
+  }
+
+  @Override
+  public ByteBuffer decompress(ByteBuffer data) throws IOException {
+    byte[] out = new byte[uncompressedLength(data)];
+    try {
+      int size = LZ4Loader.DECOMPRESSOR.decompress(data.array(), computeOffset(data) + 4, data.remaining() - 4, out,
+          0, out.length);
+      if (size != out.length) {
+        throw new IOException("Corrupt lz4 block: " + size + " bytes instead of " + out.length);
+      }
+    } catch (LZ4Exception e) {
+      throw new IOException("Corrupt lz4 block", e);
+    }
+    return ByteBuffer.wrap(out);
+  }
+
+  @Override
+  public int compress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    int length = src.remaining();
+    LZ4Compressor compressor = LZ4Loader.compressor(compressionLevel);
+    if (dst.remaining() < 4 + compressor.maxCompressedLength(length)) {
+      throw new BufferOverflowException();
+    }
+    int size = compressor.compress(src, src.position(), length, dst, dst.position() + 4, dst.remaining() - 4);
+    dst.putInt(dst.position(), length);
+    ((Buffer) src).position(src.limit());
+    ((Buffer) dst).position(dst.position() + 4 + size);
+    return 4 + size;
+  }
+
+  @Override
+  public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    int length = uncompressedLength(src);
+    if (dst.remaining() < length) {
+      throw new BufferOverflowException();
+    }
+    try {
+      int size = LZ4Loader.DECOMPRESSOR.decompress(src, src.position() + 4, src.remaining() - 4, dst, dst.position(),
+          length);
+      if (size != length) {
+        throw new IOException("Corrupt lz4 block: " + size + " bytes instead of " + length);
+      }
+    } catch (LZ4Exception e) {
+      throw new IOException("Corrupt lz4 block", e);
+    }
+    ((Buffer) src).position(src.limit());
+    ((Buffer) dst).position(dst.position() + length);
+    return length;
+  }
+
+  private static int uncompressedLength(ByteBuffer data) throws IOException {
+    if (data.remaining() < 4) {
+      throw new IOException("Corrupt lz4 block: " + data.remaining() + " bytes");
+    }
+    int length = data.getInt(data.position());
+    if (length < 0) {
+      throw new IOException("Corrupt lz4 block: negative length " + length);
+    }
+    return length;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return getName().hashCode();
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    return (this == obj) || (obj != null && obj.getClass() == this.getClass());
+  }
+
+  @Override
+  public String toString() {
+    return getName() + "[" + compressionLevel + "]";
+  }
+
+  /*
+   * causes lazier classloader initialization of the LZ4 library, so that we get
+   * NoClassDefFoundError when we try and use the Codec's compress or decompress
+   * methods rather than when we instantiate it
+   */
+  private static final class LZ4Loader {
+    private static final LZ4Factory FACTORY = LZ4Factory.fastestInstance();
+    static final LZ4SafeDecompressor DECOMPRESSOR = FACTORY.safeDecompressor();
+
+    static LZ4Compressor compressor(int level) {
+      return level == 0 ? FACTORY.fastCompressor() : FACTORY.highCompressor(level);
+    }
+  }
+}
@@ -19,6 +19,7 @@ package org.apache.avro.file;
 
 import java.io.IOException;
 import java.nio.Buffer;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
@@ -26,13 +27,13 @@ import org.xerial.snappy.Snappy;
 
 /** * Implements Snappy compression and decompression. */
 public class SnappyCodec extends Codec {
-  private CRC32 crc32 = new CRC32();
 
   static class Option extends CodecFactory {
+    private final SnappyCodec instance = new SnappyCodec();
 
     @Override
     protected Codec createInstance() {
-      return new SnappyCodec();
+      return instance;
     }
   }
 
@@ -49,7 +50,7 @@ public class SnappyCodec extends Codec {
     int offset = computeOffset(in);
     ByteBuffer out = ByteBuffer.allocate(Snappy.maxCompressedLength(in.remaining()) + 4);
     int size = Snappy.compress(in.array(), offset, in.remaining(), out.array(), 0);
-    crc32.reset();
+    CRC32 crc32 = new CRC32();
     crc32.update(in.array(), offset, in.remaining());
     out.putInt(size, (int) crc32.getValue());
 
@@ -65,7 +66,7 @@ public class SnappyCodec extends Codec {
     int size = Snappy.uncompress(in.array(), offset, in.remaining() - 4, out.array(), 0);
     ((Buffer) out).limit(size);
 
-    crc32.reset();
+    CRC32 crc32 = new CRC32();
     crc32.update(out.array(), 0, size);
     if (in.getInt(((Buffer) in).limit() - 4) != (int) crc32.getValue())
       throw new IOException("Checksum failure");
@@ -73,6 +74,51 @@ public class SnappyCodec extends Codec {
     return out;
   }
 
+  @Override
+  public int compress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    if (!src.isDirect() || !dst.isDirect()) {
+      return super.compress(src, dst);
+    }
+    if (dst.remaining() < Snappy.maxCompressedLength(src.remaining()) + 4) {
+      throw new BufferOverflowException();
+    }
+    CRC32 crc32 = new CRC32();
+    crc32.update(src.duplicate());
+    int limit = dst.limit();
+    int size = Snappy.compress(src, dst); // moves the limit of dst
+    ((Buffer) dst).limit(limit);
+    ((Buffer) src).position(src.limit());
+    ((Buffer) dst).position(dst.position() + size);
+    dst.putInt((int) crc32.getValue());
+    return size + 4;
+  }
+
+  @Override
+  public int decompress(ByteBuffer src, ByteBuffer dst) throws IOException {
+    if (!src.isDirect() || !dst.isDirect()) {
+      return super.decompress(src, dst);
+    }
+    ByteBuffer data = src.duplicate();
+    ((Buffer) data).limit(data.limit() - 4);
+    if (dst.remaining() < Snappy.uncompressedLength(data)) {
+      throw new BufferOverflowException();
+    }
+    ByteBuffer out = dst.slice();
+    int size = Snappy.uncompress(data, out);
+    CRC32 crc32 = new CRC32();
+    crc32.update(out);
+    if (src.getInt(src.limit() - 4) != (int) crc32.getValue())
+      throw new IOException("Checksum failure");
+    ((Buffer) src).position(src.limit());
+    ((Buffer) dst).position(dst.position() + size);
+    return size;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
   @Override
   public int hashCode() {
     return getName().hashCode();
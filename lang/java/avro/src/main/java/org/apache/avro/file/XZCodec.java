@@ -18,34 +18,33 @@
 package org.apache.avro.file;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
+import org.apache.avro.util.ByteArrayBuilder;
 import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
 import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
-import org.apache.commons.compress.utils.IOUtils;
 
 /** * Implements xz compression and decompression. */
 public class XZCodec extends Codec {
   public final static int DEFAULT_COMPRESSION = 6;
 
   static class Option extends CodecFactory {
-    private int compressionLevel;
+    private final XZCodec instance;
 
     Option(int compressionLevel) {
-      this.compressionLevel = compressionLevel;
+      this.instance = new XZCodec(compressionLevel);
     }
 
     @Override
     protected Codec createInstance() {
-      return new XZCodec(compressionLevel);
+      return instance;
     }
   }
 
-  private ByteArrayOutputStream outputBuffer;
+  private final CodecResourcePool<ByteArrayBuilder> outputBuffers = CodecResourcePool.buffers();
   private int compressionLevel;
 
   public XZCodec(int compressionLevel) {
@@ -59,31 +58,34 @@ public class XZCodec extends Codec {
 
   @Override
   public ByteBuffer compress(ByteBuffer data) throws IOException {
-    ByteArrayOutputStream baos = getOutputBuffer(data.remaining());
-    try (OutputStream outputStream = new XZCompressorOutputStream(baos, compressionLevel)) {
-      outputStream.write(data.array(), computeOffset(data), data.remaining());
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    try {
+      try (OutputStream outputStream = new XZCompressorOutputStream(baos, compressionLevel)) {
+        outputStream.write(data.array(), computeOffset(data), data.remaining());
+      }
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
-    return ByteBuffer.wrap(baos.toByteArray());
   }
 
   @Override
   public ByteBuffer decompress(ByteBuffer data) throws IOException {
-    ByteArrayOutputStream baos = getOutputBuffer(data.remaining());
+    ByteArrayBuilder baos = outputBuffers.borrow();
     InputStream bytesIn = new ByteArrayInputStream(data.array(), computeOffset(data), data.remaining());
-
-    try (InputStream ios = new XZCompressorInputStream(bytesIn)) {
-      IOUtils.copy(ios, baos);
+    try {
+      try (InputStream ios = new XZCompressorInputStream(bytesIn)) {
+        baos.readFrom(ios);
+      }
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
-    return ByteBuffer.wrap(baos.toByteArray());
   }
 
-  // get and initialize the output buffer for use.
-  private ByteArrayOutputStream getOutputBuffer(int suggestedLength) {
-    if (null == outputBuffer) {
-      outputBuffer = new ByteArrayOutputStream(suggestedLength);
-    }
-    outputBuffer.reset();
-    return outputBuffer;
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
   @Override
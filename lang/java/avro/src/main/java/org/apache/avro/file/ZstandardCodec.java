@@ -20,29 +20,31 @@ package org.apache.avro.file;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import org.apache.avro.util.ByteArrayBuilder;
 
+import com.github.luben.zstd.ZstdCompressCtx;
+
 public class ZstandardCodec extends Codec {
 
   static class Option extends CodecFactory {
-    private final int compressionLevel;
-    private final boolean useChecksum;
+    private final ZstandardCodec instance;
 
     Option(int compressionLevel, boolean useChecksum) {
-      this.compressionLevel = compressionLevel;
-      this.useChecksum = useChecksum;
+      this.instance = new ZstandardCodec(compressionLevel, useChecksum);
     }
 
     @Override
     protected Codec createInstance() {
-      return new ZstandardCodec(compressionLevel, useChecksum);
+      return instance;
     }
   }
 
   private final int compressionLevel;
   private final boolean useChecksum;
+  private final CodecResourcePool<ByteArrayBuilder> outputBuffers = CodecResourcePool.buffers();
+  // created on first use, so that zstd-jni is only loaded when needed
+  private volatile CodecResourcePool<ZstdCompressCtx> compressContexts;
 
   /**
    * Create a ZstandardCodec instance with the given compressionLevel and checksum
@@ -60,27 +62,47 @@ public class ZstandardCodec extends Codec {
 
   @Override
   public ByteBuffer compress(ByteBuffer data) throws IOException {
-    ByteArrayBuilder baos = getOutputBuffer(data.remaining());
-    try (OutputStream outputStream = ZstandardLoader.output(baos, compressionLevel, useChecksum)) {
-      outputStream.write(data.array(), computeOffset(data), data.remaining());
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    try {
+      ZstandardLoader.compress(getCompressContexts(), data.array(), computeOffset(data), data.remaining(), baos);
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
-    return ByteBuffer.wrap(baos.getBuffer(), 0, baos.size());
   }
 
   @Override
   public ByteBuffer decompress(ByteBuffer compressedData) throws IOException {
     int remaining = compressedData.remaining();
-    ByteArrayBuilder baos = getOutputBuffer(remaining * 2);
+    ByteArrayBuilder baos = outputBuffers.borrow();
     InputStream bytesIn = new ByteArrayInputStream(compressedData.array(), computeOffset(compressedData), remaining);
-    try (InputStream ios = ZstandardLoader.input(bytesIn)) {
-      baos.readFrom(ios);
+    try {
+      try (InputStream ios = ZstandardLoader.input(bytesIn)) {
+        baos.readFrom(ios);
+      }
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
     }
-    return ByteBuffer.wrap(baos.getBuffer(), 0, baos.size());
   }
 
-  // get and initialize the output buffer for use.
-  private ByteArrayBuilder getOutputBuffer(int suggestedLength) {
-    return new ByteArrayBuilder(suggestedLength);
+  private CodecResourcePool<ZstdCompressCtx> getCompressContexts() {
+    CodecResourcePool<ZstdCompressCtx> contexts = compressContexts;
+    if (contexts == null) {
+      synchronized (this) {
+        contexts = compressContexts;
+        if (contexts == null) {
+          contexts = ZstandardLoader.compressContexts(compressionLevel, useChecksum);
+          compressContexts = contexts;
+        }
+      }
+    }
+    return contexts;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
   }
 
   @Override
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.util.ByteArrayBuilder;
+
+import com.github.luben.zstd.ZstdCompressCtx;
+
+/**
+ * Zstandard compression with a dictionary shared by all the blocks of a file.
+ * The dictionary is stored in the file metadata under
+ * {@link DataFileConstants#ZSTANDARD_DICTIONARY}, so small blocks, as written
+ * by low latency writers, compress nearly as well as large ones.
+ *
+ * @see #trainDictionary(Iterable, int)
+ */
+public class ZstandardDictionaryCodec extends Codec {
+
+  static class Option extends CodecFactory {
+    private final int compressionLevel;
+    private final boolean useChecksum;
+    private final ZstandardDictionaryCodec instance;
+
+    /**
+     * @param dictionary the dictionary to write files with, or null to only
+     *                   read, or to get it with {@link #withMetadata(Map)}.
+     */
+    Option(int compressionLevel, boolean useChecksum, byte[] dictionary) {
+      this.compressionLevel = compressionLevel;
+      this.useChecksum = useChecksum;
+      this.instance = dictionary == null ? null
+          : new ZstandardDictionaryCodec(compressionLevel, useChecksum, dictionary);
+    }
+
+    @Override
+    protected Codec createInstance() {
+      if (instance == null) {
+        throw new AvroRuntimeException("No dictionary for codec " + DataFileConstants.ZSTANDARD_DICTIONARY_CODEC
+            + ", use CodecFactory.fromString(String, Map) with the file metadata");
+      }
+      return instance;
+    }
+
+    @Override
+    protected Codec createInstance(Map<String, byte[]> metadata) {
+      byte[] dictionary = getDictionary(metadata);
+      if (instance != null && Arrays.equals(instance.dictionary, dictionary)) {
+        return instance;
+      }
+      return new ZstandardDictionaryCodec(compressionLevel, useChecksum, dictionary);
+    }
+
+    @Override
+    protected CodecFactory withMetadata(Map<String, byte[]> metadata) {
+      byte[] dictionary = getDictionary(metadata);
+      if (instance != null && Arrays.equals(instance.dictionary, dictionary)) {
+        return this;
+      }
+      return new Option(compressionLevel, useChecksum, dictionary);
+    }
+
+    private static byte[] getDictionary(Map<String, byte[]> metadata) {
+      byte[] dictionary = metadata.get(DataFileConstants.ZSTANDARD_DICTIONARY);
+      if (dictionary == null) {
+        throw new AvroRuntimeException("Missing file metadata " + DataFileConstants.ZSTANDARD_DICTIONARY);
+      }
+      return dictionary;
+    }
+
+    @Override
+    protected Map<String, byte[]> getMetadata() {
+      if (instance == null) {
+        return Collections.emptyMap();
+      }
+      return Collections.singletonMap(DataFileConstants.ZSTANDARD_DICTIONARY, instance.dictionary);
+    }
+
+    @Override
+    public String toString() {
+      return instance == null ? DataFileConstants.ZSTANDARD_DICTIONARY_CODEC : instance.toString();
+    }
+  }
+
+  private final int compressionLevel;
+  private final boolean useChecksum;
+  private final byte[] dictionary;
+  private final CodecResourcePool<ByteArrayBuilder> outputBuffers = CodecResourcePool.buffers();
+  // created on first use, so that zstd-jni is only loaded when needed
+  private volatile CodecResourcePool<ZstdCompressCtx> compressContexts;
+
+  /**
+   * Create a ZstandardDictionaryCodec instance with the given compressionLevel,
+   * checksum option and dictionary.
+   */
+  public ZstandardDictionaryCodec(int compressionLevel, boolean useChecksum, byte[] dictionary) {
+    this.compressionLevel = compressionLevel;
+    this.useChecksum = useChecksum;
+    this.dictionary = dictionary.clone();
+  }
+
+  /**
+   * Train a dictionary from sample data, typically uncompressed data blocks.
+   * zstd needs enough samples to train on: a few hundred samples, totalling
+   * about a hundred times the dictionary size, are a good start.
+   *
+   * @param samples        the sample data.
+   * @param dictionarySize the maximum size of the dictionary, in bytes.
+   */
+  public static byte[] trainDictionary(Iterable<ByteBuffer> samples, int dictionarySize) {
+    List<byte[]> arrays = new ArrayList<>();
+    for (ByteBuffer sample : samples) {
+      byte[] array = new byte[sample.remaining()];
+      sample.duplicate().get(array);
+      arrays.add(array);
+    }
+    return ZstandardLoader.trainDictionary(arrays, dictionarySize);
+  }
+
+  /**
+   * Train a dictionary from the uncompressed blocks of a data file.
+   *
+   * @see #trainDictionary(Iterable, int)
+   */
+  public static byte[] trainDictionary(DataFileStream<?> sample, int dictionarySize) throws IOException {
+    Codec codec = sample.resolveCodec();
+    List<ByteBuffer> blocks = new ArrayList<>();
+    while (sample.hasNextBlock()) {
+      DataFileStream.DataBlock block = sample.nextRawBlock(null);
+      block.decompressUsing(codec);
+      blocks.add(block.getAsByteBuffer());
+    }
+    return trainDictionary(blocks, dictionarySize);
+  }
+
+  @Override
+  public String getName() {
+    return DataFileConstants.ZSTANDARD_DICTIONARY_CODEC;
+  }
+
+  @Override
+  public ByteBuffer compress(ByteBuffer data) throws IOException {
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    try {
+      ZstandardLoader.compress(getCompressContexts(), data.array(), computeOffset(data), data.remaining(), baos);
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
+    }
+  }
+
+  @Override
+  public ByteBuffer decompress(ByteBuffer compressedData) throws IOException {
+    ByteArrayBuilder baos = outputBuffers.borrow();
+    InputStream bytesIn = new ByteArrayInputStream(compressedData.array(), computeOffset(compressedData),
+        compressedData.remaining());
+    try {
+      try (InputStream ios = ZstandardLoader.input(bytesIn, dictionary)) {
+        baos.readFrom(ios);
+      }
+      return ByteBuffer.wrap(baos.toByteArray());
+    } finally {
+      CodecResourcePool.releaseBuffer(outputBuffers, baos);
+    }
+  }
+
+  private CodecResourcePool<ZstdCompressCtx> getCompressContexts() {
+    CodecResourcePool<ZstdCompressCtx> contexts = compressContexts;
+    if (contexts == null) {
+      synchronized (this) {
+        contexts = compressContexts;
+        if (contexts == null) {
+          contexts = ZstandardLoader.compressContexts(compressionLevel, useChecksum, dictionary);
+          compressContexts = contexts;
+        }
+      }
+    }
+    return contexts;
+  }
+
+  @Override
+  public boolean isThreadSafe() {
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(dictionary);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null || obj.getClass() != getClass())
+      return false;
+    return Arrays.equals(dictionary, ((ZstandardDictionaryCodec) obj).dictionary);
+  }
+
+  @Override
+  public String toString() {
+    return getName() + "[" + compressionLevel + "]";
+  }
+}
@@ -21,7 +21,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import org.apache.avro.util.ByteArrayBuilder;
+
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictTrainer;
 import com.github.luben.zstd.ZstdInputStream;
 import com.github.luben.zstd.ZstdOutputStream;
 
@@ -34,11 +39,66 @@ final class ZstandardLoader {
     return new ZstdInputStream(compressed);
   }
 
+  static InputStream input(InputStream compressed, byte[] dictionary) throws IOException {
+    return new ZstdInputStream(compressed).setDict(dictionary);
+  }
+
   static OutputStream output(OutputStream compressed, int level, boolean checksum) throws IOException {
-    int bounded = Math.max(Math.min(level, Zstd.maxCompressionLevel()), Zstd.minCompressionLevel());
-    ZstdOutputStream zstdOutputStream = new ZstdOutputStream(compressed, bounded);
+    ZstdOutputStream zstdOutputStream = new ZstdOutputStream(compressed, boundLevel(level));
     zstdOutputStream.setCloseFrameOnFlush(false);
     zstdOutputStream.setChecksum(checksum);
     return zstdOutputStream;
   }
+
+  static CodecResourcePool<ZstdCompressCtx> compressContexts(int level, boolean checksum) {
+    return compressContexts(level, checksum, null);
+  }
+
+  /** Return a pool of contexts compressing with the given dictionary, if any. */
+  static CodecResourcePool<ZstdCompressCtx> compressContexts(int level, boolean checksum, byte[] dictionary) {
+    int bounded = boundLevel(level);
+    ZstdDictCompress dict = dictionary == null ? null : new ZstdDictCompress(dictionary, bounded);
+    return new CodecResourcePool<>(() -> {
+      ZstdCompressCtx context = new ZstdCompressCtx();
+      context.setLevel(bounded);
+      context.setChecksum(checksum);
+      if (dict != null) {
+        context.loadDict(dict);
+      }
+      return context;
+    }, ZstdCompressCtx::close);
+  }
+
+  /** Train a dictionary of at most dictionarySize bytes from the samples. */
+  static byte[] trainDictionary(Iterable<byte[]> samples, int dictionarySize) {
+    long total = 0;
+    for (byte[] sample : samples) {
+      total += sample.length;
+    }
+    ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(total, Integer.MAX_VALUE), dictionarySize);
+    for (byte[] sample : samples) {
+      if (!trainer.addSample(sample)) {
+        break;
+      }
+    }
+    return trainer.trainSamples();
+  }
+
+  /** Compress the given bytes as a single frame, appended to out. */
+  static void compress(CodecResourcePool<ZstdCompressCtx> contexts, byte[] src, int offset, int length,
+      ByteArrayBuilder out) {
+    int bound = (int) Zstd.compressBound(length);
+    out.ensureCapacity(out.size() + bound);
+    ZstdCompressCtx context = contexts.borrow();
+    try {
+      int size = context.compressByteArray(out.getBuffer(), out.size(), bound, src, offset, length);
+      out.resetCountTo(out.size() + size);
+    } finally {
+      contexts.release(context);
+    }
+  }
+
+  private static int boundLevel(int level) {
+    return Math.max(Math.min(level, Zstd.maxCompressionLevel()), Zstd.minCompressionLevel());
+  }
 }
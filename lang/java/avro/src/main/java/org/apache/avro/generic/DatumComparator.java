@@ -0,0 +1,336 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Conversion;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Hashes and compares values of one schema, as
+ * {@link GenericData#hashCode(Object, Schema)} and
+ * {@link GenericData#compare(Object, Object, Schema)} do, with the type
+ * dispatch of the schema done once, when the comparator is created: the
+ * ignored fields of records are left out up front, primitive types compare
+ * their boxed values directly and arrays of primitives are compared and hashed
+ * without boxing. Comparators are created by
+ * {@link GenericData#getComparator(Schema)}, which caches them by schema
+ * instance, and are thread-safe.
+ */
+abstract class DatumComparator {
+
+  /** Returns the hash code of a value, 0 for null. */
+  final int hashCode(Object o) {
+    return o == null ? 0 : hash(o);
+  }
+
+  /**
+   * Compares two values; when <tt>equals</tt> is true, only checks for
+   * equality, returning zero for equal values and non-zero otherwise.
+   */
+  final int compare(Object o1, Object o2, boolean equals) {
+    return o1 == o2 ? 0 : compareDistinct(o1, o2, equals);
+  }
+
+  abstract int hash(Object o);
+
+  abstract int compareDistinct(Object o1, Object o2, boolean equals);
+
+  static DatumComparator create(GenericData data, Schema schema) {
+    return create(data, schema, new IdentityHashMap<>());
+  }
+
+  private static DatumComparator create(GenericData data, Schema schema, Map<Schema, DatumComparator> seen) {
+    DatumComparator comparator = createWithoutConversion(data, schema, seen);
+    LogicalType logicalType = schema.getLogicalType();
+    return logicalType == null ? comparator : new ConversionComparator(data, logicalType, comparator);
+  }
+
+  private static DatumComparator createWithoutConversion(GenericData data, Schema schema,
+      Map<Schema, DatumComparator> seen) {
+    switch (schema.getType()) {
+    case RECORD:
+      DatumComparator comparator = seen.get(schema);
+      if (comparator == null) {
+        RecordComparator record = new RecordComparator(schema);
+        seen.put(schema, record); // before the fields, for recursive schemas
+        for (int i = 0; i < record.fields.length; i++) {
+          record.fields[i] = create(data, schema.getFields().get(record.positions[i]).schema(), seen);
+        }
+        comparator = record;
+      }
+      return comparator;
+    case ARRAY:
+      Schema element = schema.getElementType();
+      return new ArrayComparator(element.getLogicalType() == null ? element.getType() : null,
+          create(data, element, seen));
+    case MAP:
+      return MAP;
+    case UNION:
+      List<Schema> types = schema.getTypes();
+      DatumComparator[] branches = new DatumComparator[types.size()];
+      for (int i = 0; i < branches.length; i++) {
+        branches[i] = create(data, types.get(i), seen);
+      }
+      return new UnionComparator(data, schema, branches);
+    case ENUM:
+      return new EnumComparator(schema);
+    case STRING:
+      return STRING;
+    case NULL:
+      return NULL;
+    case INT:
+    case LONG:
+    case FLOAT:
+    case DOUBLE:
+    case BOOLEAN:
+    case BYTES:
+    case FIXED:
+      return COMPARABLE;
+    default:
+      throw new AvroRuntimeException("Unknown type: " + schema);
+    }
+  }
+
+  private static final DatumComparator NULL = new DatumComparator() {
+    @Override
+    int hash(Object o) {
+      return 0;
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      return 0;
+    }
+  };
+
+  /** Values hashed and compared by their own hashCode and compareTo. */
+  private static final DatumComparator COMPARABLE = new DatumComparator() {
+    @Override
+    int hash(Object o) {
+      return o.hashCode();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      return ((Comparable<Object>) o1).compareTo(o2);
+    }
+  };
+
+  private static final DatumComparator STRING = new DatumComparator() {
+    @Override
+    int hash(Object o) {
+      return (o instanceof Utf8 || o instanceof String) ? o.hashCode() : new Utf8(o.toString()).hashCode();
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      Utf8 u1 = o1 instanceof Utf8 ? (Utf8) o1 : new Utf8(o1.toString());
+      Utf8 u2 = o2 instanceof Utf8 ? (Utf8) o2 : new Utf8(o2.toString());
+      return u1.compareTo(u2);
+    }
+  };
+
+  private static final DatumComparator MAP = new DatumComparator() {
+    @Override
+    int hash(Object o) {
+      return o.hashCode();
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      if (equals) {
+        return o1.equals(o2) ? 0 : 1;
+      }
+      throw new AvroRuntimeException("Can't compare maps!");
+    }
+  };
+
+  /** Hashes and compares values of a logical type with its conversion, when the value has one. */
+  private static final class ConversionComparator extends DatumComparator {
+    private final GenericData data;
+    private final LogicalType logicalType;
+    private final DatumComparator raw;
+
+    ConversionComparator(GenericData data, LogicalType logicalType, DatumComparator raw) {
+      this.data = data;
+      this.logicalType = logicalType;
+      this.raw = raw;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    int hash(Object o) {
+      Conversion<Object> conv = (Conversion<Object>) data.getConversionByClass(o.getClass(), logicalType);
+      return conv != null ? conv.computehashCode(o) : raw.hash(o);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      if (equals) {
+        return Objects.deepEquals(o1, o2) ? 0 : 1;
+      }
+      if (o1 instanceof Comparable && o2 instanceof Comparable) {
+        return ((Comparable<Object>) o1).compareTo(o2);
+      }
+      return raw.compareDistinct(o1, o2, false);
+    }
+  }
+
+  private static final class RecordComparator extends DatumComparator {
+    /** The positions of the fields that are not ignored. */
+    private final int[] positions;
+    private final boolean[] descending;
+    private final DatumComparator[] fields;
+
+    RecordComparator(Schema schema) {
+      List<Field> ordered = new ArrayList<>();
+      for (Field f : schema.getFields()) {
+        if (f.order() != Field.Order.IGNORE) {
+          ordered.add(f);
+        }
+      }
+      this.positions = new int[ordered.size()];
+      this.descending = new boolean[positions.length];
+      for (int i = 0; i < positions.length; i++) {
+        positions[i] = ordered.get(i).pos();
+        descending[i] = ordered.get(i).order() == Field.Order.DESCENDING;
+      }
+      this.fields = new DatumComparator[positions.length];
+    }
+
+    @Override
+    int hash(Object o) {
+      IndexedRecord record = (IndexedRecord) o;
+      int hashCode = 1;
+      for (int i = 0; i < fields.length; i++) {
+        hashCode = 31 * hashCode + fields[i].hashCode(record.get(positions[i]));
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      IndexedRecord r1 = (IndexedRecord) o1;
+      IndexedRecord r2 = (IndexedRecord) o2;
+      for (int i = 0; i < fields.length; i++) {
+        int pos = positions[i];
+        int compare = fields[i].compare(r1.get(pos), r2.get(pos), equals);
+        if (compare != 0) {
+          return descending[i] ? -compare : compare;
+        }
+      }
+      return 0;
+    }
+  }
+
+  private static final class ArrayComparator extends DatumComparator {
+    /** The type of the items, if they may be held by a {@link PrimitiveArray}. */
+    private final Schema.Type primitive;
+    private final DatumComparator element;
+
+    ArrayComparator(Schema.Type primitive, DatumComparator element) {
+      this.primitive = primitive;
+      this.element = element;
+    }
+
+    @Override
+    int hash(Object o) {
+      if (o instanceof PrimitiveArray && ((PrimitiveArray<?>) o).elementType() == primitive) {
+        return ((PrimitiveArray<?>) o).hashItems();
+      }
+      int hashCode = 1;
+      for (Object e : (Collection<?>) o) {
+        hashCode = 31 * hashCode + element.hashCode(e);
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      if (o1 instanceof PrimitiveArray && o2 instanceof PrimitiveArray
+          && ((PrimitiveArray<?>) o1).elementType() == primitive
+          && ((PrimitiveArray<?>) o2).elementType() == primitive) {
+        return ((PrimitiveArray<?>) o1).compareItems((PrimitiveArray<?>) o2);
+      }
+      Iterator<?> e1 = ((Collection<?>) o1).iterator();
+      Iterator<?> e2 = ((Collection<?>) o2).iterator();
+      while (e1.hasNext() && e2.hasNext()) {
+        int compare = element.compare(e1.next(), e2.next(), equals);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return e1.hasNext() ? 1 : (e2.hasNext() ? -1 : 0);
+    }
+  }
+
+  private static final class UnionComparator extends DatumComparator {
+    private final GenericData data;
+    private final Schema schema;
+    private final DatumComparator[] branches;
+
+    UnionComparator(GenericData data, Schema schema, DatumComparator[] branches) {
+      this.data = data;
+      this.schema = schema;
+      this.branches = branches;
+    }
+
+    @Override
+    int hash(Object o) {
+      return branches[data.resolveUnion(schema, o)].hashCode(o);
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      int i1 = data.resolveUnion(schema, o1);
+      int i2 = data.resolveUnion(schema, o2);
+      return i1 == i2 ? branches[i1].compare(o1, o2, equals) : Integer.compare(i1, i2);
+    }
+  }
+
+  private static final class EnumComparator extends DatumComparator {
+    private final Schema schema;
+
+    EnumComparator(Schema schema) {
+      this.schema = schema;
+    }
+
+    @Override
+    int hash(Object o) {
+      return schema.getEnumOrdinal(o.toString());
+    }
+
+    @Override
+    int compareDistinct(Object o1, Object o2, boolean equals) {
+      return schema.getEnumOrdinal(o1.toString()) - schema.getEnumOrdinal(o2.toString());
+    }
+  }
+}
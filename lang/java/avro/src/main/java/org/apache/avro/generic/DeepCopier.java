@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Conversion;
+import org.apache.avro.Conversions;
+import org.apache.avro.JsonProperties;
+import org.apache.avro.LogicalType;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.util.Utf8;
+
+/**
+ * Deep copies values of one schema, as {@link GenericData#deepCopy(Schema, Object)}
+ * does, with the type dispatch of the schema done once, when the copier is
+ * created. Immutable values, like strings, boxed primitives and generic enum
+ * symbols, are shared, arrays of primitives and fixed values are copied in
+ * bulk, and conversions are only looked up for schemas with a logical type.
+ * Copiers are created by {@link GenericData#getDeepCopier(Schema)}, which
+ * caches them by schema instance, and are thread-safe.
+ */
+abstract class DeepCopier {
+
+  /** Returns a deep copy of a non-null value. */
+  abstract Object copy(Object value);
+
+  static DeepCopier create(GenericData data, Schema schema) {
+    return create(data, schema, new IdentityHashMap<>());
+  }
+
+  private static DeepCopier create(GenericData data, Schema schema, Map<Schema, DeepCopier> seen) {
+    DeepCopier copier = createWithoutConversion(data, schema, seen);
+    LogicalType logicalType = schema.getLogicalType();
+    return logicalType == null ? copier : new ConversionCopier(data, schema, logicalType, copier);
+  }
+
+  private static DeepCopier createWithoutConversion(GenericData data, Schema schema,
+      Map<Schema, DeepCopier> seen) {
+    switch (schema.getType()) {
+    case RECORD:
+      DeepCopier copier = seen.get(schema);
+      if (copier == null) {
+        RecordCopier record = new RecordCopier(data, schema);
+        seen.put(schema, record); // before the fields, for recursive schemas
+        List<Field> fields = schema.getFields();
+        for (int i = 0; i < record.fields.length; i++) {
+          record.fields[i] = create(data, fields.get(i).schema(), seen);
+        }
+        copier = record;
+      }
+      return copier;
+    case ARRAY:
+      return new ArrayCopier(schema, create(data, schema.getElementType(), seen));
+    case MAP:
+      return new MapCopier(create(data, schema.getValueType(), seen));
+    case UNION:
+      List<Schema> types = schema.getTypes();
+      DeepCopier[] branches = new DeepCopier[types.size()];
+      for (int i = 0; i < branches.length; i++) {
+        branches[i] = create(data, types.get(i), seen);
+      }
+      return new UnionCopier(data, schema, branches);
+    case ENUM:
+      if (data.getEnumClass(schema) == GenericData.EnumSymbol.class) {
+        return SHARED;
+      }
+      return new EnumCopier(data, schema);
+    case FIXED:
+      return new FixedCopier(data, schema);
+    case BYTES:
+      return BYTES;
+    case STRING:
+      return STRING;
+    case INT:
+    case LONG:
+    case FLOAT:
+    case DOUBLE:
+    case BOOLEAN:
+      return SHARED;
+    case NULL:
+      return NULL;
+    default:
+      throw new AvroRuntimeException("Deep copy failed for schema \"" + schema + "\"");
+    }
+  }
+
+  /** Returns the value itself. */
+  private static final DeepCopier SHARED = new DeepCopier() {
+    @Override
+    Object copy(Object value) {
+      return value;
+    }
+  };
+
+  private static final DeepCopier NULL = new DeepCopier() {
+    @Override
+    Object copy(Object value) {
+      return JsonProperties.NULL_VALUE;
+    }
+  };
+
+  /** Shares strings and copies the mutable char sequences. */
+  static final DeepCopier STRING = new DeepCopier() {
+    @Override
+    Object copy(Object value) {
+      if (value instanceof String) {
+        return value;
+      } else if (value instanceof Utf8) {
+        return new Utf8((Utf8) value);
+      } else if (value instanceof CharSequence) {
+        return value.toString();
+      } else {
+        return value;
+      }
+    }
+  };
+
+  private static final DeepCopier BYTES = new DeepCopier() {
+    @Override
+    Object copy(Object value) {
+      ByteBuffer buffer = (ByteBuffer) value;
+      int start = buffer.position();
+      int length = buffer.limit() - start;
+      byte[] bytes = new byte[length];
+      buffer.get(bytes, 0, length);
+      ((Buffer) buffer).position(start);
+      return ByteBuffer.wrap(bytes, 0, length);
+    }
+  };
+
+  /** Copies values of a logical type with its conversion, when the value has one. */
+  private static final class ConversionCopier extends DeepCopier {
+    private final GenericData data;
+    private final Schema schema;
+    private final LogicalType logicalType;
+    private final DeepCopier raw;
+
+    ConversionCopier(GenericData data, Schema schema, LogicalType logicalType, DeepCopier raw) {
+      this.data = data;
+      this.schema = schema;
+      this.logicalType = logicalType;
+      this.raw = raw;
+    }
+
+    @Override
+    Object copy(Object value) {
+      Class<?> c = value.getClass();
+      if (GenericData.isImmutable(c)) {
+        return value;
+      }
+      Conversion<?> conv = data.getConversionByClass(c, logicalType);
+      if (conv != null) {
+        return Conversions.convertToLogicalType(Conversions.convertToRawType(value, schema, logicalType, conv),
+            schema, logicalType, conv);
+      }
+      return raw.copy(value);
+    }
+  }
+
+  private static final class RecordCopier extends DeepCopier {
+    private final GenericData data;
+    private final Schema schema;
+    private final String[] names;
+    private final DeepCopier[] fields;
+
+    RecordCopier(GenericData data, Schema schema) {
+      this.data = data;
+      this.schema = schema;
+      List<Field> schemaFields = schema.getFields();
+      this.names = new String[schemaFields.size()];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = schemaFields.get(i).name();
+      }
+      this.fields = new DeepCopier[names.length];
+    }
+
+    @Override
+    Object copy(Object value) {
+      Object oldState = data.getRecordState(value, schema);
+      Object record = data.newRecord(null, schema);
+      Object state = data.getRecordState(record, schema);
+      for (int pos = 0; pos < fields.length; pos++) {
+        Object field = data.getField(value, names[pos], pos, oldState);
+        data.setField(record, names[pos], pos, field == null ? null : fields[pos].copy(field), state);
+      }
+      return record;
+    }
+  }
+
+  private static final class ArrayCopier extends DeepCopier {
+    private final Schema schema;
+    private final DeepCopier element;
+
+    ArrayCopier(Schema schema, DeepCopier element) {
+      this.schema = schema;
+      this.element = element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Object copy(Object value) {
+      if (value instanceof PrimitiveArray) {
+        return ((PrimitiveArray<?>) value).copy();
+      }
+      List<Object> list = (List<Object>) value;
+      GenericData.Array<Object> copy = new GenericData.Array<>(list.size(), schema);
+      if (element == SHARED) {
+        copy.addAll(list);
+      } else {
+        for (Object e : list) {
+          copy.add(e == null ? null : element.copy(e));
+        }
+      }
+      return copy;
+    }
+  }
+
+  private static final class MapCopier extends DeepCopier {
+    private final DeepCopier value;
+
+    MapCopier(DeepCopier value) {
+      this.value = value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    Object copy(Object map) {
+      Map<Object, Object> entries = (Map<Object, Object>) map;
+      Map<Object, Object> copy = new HashMap<>(entries.size());
+      for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+        Object key = entry.getKey();
+        Object v = entry.getValue();
+        copy.put(key == null ? null : STRING.copy(key), v == null ? null : value.copy(v));
+      }
+      return copy;
+    }
+  }
+
+  private static final class UnionCopier extends DeepCopier {
+    private final GenericData data;
+    private final Schema schema;
+    private final DeepCopier[] branches;
+
+    UnionCopier(GenericData data, Schema schema, DeepCopier[] branches) {
+      this.data = data;
+      this.schema = schema;
+      this.branches = branches;
+    }
+
+    @Override
+    Object copy(Object value) {
+      return branches[data.resolveUnion(schema, value)].copy(value);
+    }
+  }
+
+  private static final class EnumCopier extends DeepCopier {
+    private final GenericData data;
+    private final Schema schema;
+
+    EnumCopier(GenericData data, Schema schema) {
+      this.data = data;
+      this.schema = schema;
+    }
+
+    @Override
+    Object copy(Object value) {
+      return data.createEnum(((GenericEnumSymbol) value).getSymbol(), schema);
+    }
+  }
+
+  private static final class FixedCopier extends DeepCopier {
+    private final GenericData data;
+    private final Schema schema;
+
+    FixedCopier(GenericData data, Schema schema) {
+      this.data = data;
+      this.schema = schema;
+    }
+
+    @Override
+    Object copy(Object value) {
+      return data.createFixed(null, ((GenericFixed) value).bytes(), schema);
+    }
+  }
+}
@@ -42,6 +42,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.apache.avro.AvroMissingFieldException;
@@ -52,6 +53,7 @@ import org.apache.avro.Conversion;
 import org.apache.avro.Conversions;
 import org.apache.avro.JsonProperties;
 import org.apache.avro.LogicalType;
+import org.apache.avro.Resolver;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
@@ -61,6 +63,7 @@ import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.ExtendedJsonDecoder;
 import org.apache.avro.io.JsonDecoder;
+import org.apache.avro.util.IdentityCache;
 import org.apache.avro.util.Utf8;
 import org.apache.avro.util.internal.Accessor;
 
@@ -73,6 +76,12 @@ import org.apache.avro.util.internal.Accessor;
  */
 public class GenericData {
 
+  /**
+   * The number of schemas the schema caches of a data model hold; declared
+   * before {@link #INSTANCE}, that uses it.
+   */
+  private static final int CACHE_SIZE = Integer.getInteger("avro.generic.cacheSize", 1024);
+
   private static final GenericData INSTANCE = new GenericData();
 
   /** Used to specify the Java type for a string schema. */
@@ -120,12 +129,34 @@ public class GenericData {
 
   private Map<String, Conversion<?>> conversions = Conversions.defaultConversions();
 
+  /** Incremented whenever the conversions change, see {@link #getConversionsVersion()}. */
+  private volatile int conversionsVersion;
+
+  /** Drops what was cached with the previous conversions. */
+  private void conversionsChanged() {
+    conversionsVersion++;
+    unionBranches.clear();
+    resolverActions.clear();
+    deepCopiers.clear();
+    comparators.clear();
+  }
+
+  /**
+   * Returns a number that changes whenever the conversions change, so that
+   * readers can tell when what they got from this data model is out of date.
+   */
+  int getConversionsVersion() {
+    return conversionsVersion;
+  }
+
   public void clearConversions() {
     conversions.clear();
+    conversionsChanged();
   }
 
   public void defaultConversions() {
     conversions = Conversions.defaultConversions();
+    conversionsChanged();
   }
 
   public Collection<Conversion<Object>> getConversions() {
@@ -133,6 +164,7 @@ public class GenericData {
   }
 
   public Conversion<?> removeLogicalConversion(String typeName) {
+    conversionsChanged();
     return conversions.remove(typeName);
   }
 
@@ -147,7 +179,7 @@ public class GenericData {
       throw new UnsupportedOperationException("Cannont register a second converter for a logical Type: "
               + conversion);
     }
-
+    conversionsChanged();
   }
 
   /**
@@ -816,33 +848,111 @@ public class GenericData {
     return getField(record, name, pos);
   }
 
+  /** The branches found by resolveUnion, by union schema instance. */
+  private final IdentityCache<Schema, UnionBranches> unionBranches = new IdentityCache<>(CACHE_SIZE);
+
+  /** Marks classes of GenericContainers, whose branch is cached by schema. */
+  private static final int BY_SCHEMA = -1;
+  /** Marks classes whose branch is not cached. */
+  private static final int UNCACHED = -2;
+
+  /** The branches of a union, by datum class, or schema for containers. */
+  private static final class UnionBranches {
+    final int nullBranch;
+    final Map<Class<?>, Integer> byClass = new ConcurrentHashMap<>();
+    final Map<Schema, Integer> bySchema = new ConcurrentHashMap<>();
+
+    UnionBranches(Schema union) {
+      Integer i = union.getIndexNamed(Type.NULL.getName());
+      nullBranch = i == null ? -1 : i;
+    }
+  }
+
   /** Return the index for a datum within a union.  Implemented with {@link
-   * Schema#getIndexNamed(String)} and {@link #getSchemaName(Object)}.*/
+   * Schema#getIndexNamed(String)} and {@link #getSchemaName(Object)}.
+   * The index is cached by the class of the datum, and by the schema of
+   * {@link GenericContainer}s, unless {@link #isUnionBranchCacheable(Object)}
+   * is false.*/
   public int resolveUnion(Schema union, Object datum) {
-    // TODO: see if this needs to be optimized
+    UnionBranches branches = unionBranches.computeIfAbsent(union, UnionBranches::new);
+    if (datum == null) {
+      if (branches.nullBranch < 0) {
+        throw new UnresolvedUnionException(union, datum);
+      }
+      return branches.nullBranch;
+    }
+    Class<?> c = datum.getClass();
+    Integer cached = branches.byClass.get(c);
+    int branch;
+    if (cached == null) {
+      branch = resolveUnionByClass(union, datum);
+      branches.byClass.put(c, branch);
+    } else {
+      branch = cached;
+    }
+    if (branch >= 0) {
+      return branch;
+    } else if (branch == BY_SCHEMA) {
+      Schema schema = ((GenericContainer) datum).getSchema();
+      cached = branches.bySchema.get(schema);
+      if (cached == null) {
+        cached = resolveUnionByName(union, datum);
+        branches.bySchema.put(schema, cached);
+      }
+      return cached;
+    }
+    Integer i = resolveUnionByConversion(union, c);
+    return i != null ? i : resolveUnionByName(union, datum);
+  }
+
+  /**
+   * Returns the branch of a union for all datums of the class of the given
+   * datum, {@link #BY_SCHEMA} when it depends on their schema, or
+   * {@link #UNCACHED}.
+   */
+  private int resolveUnionByClass(Schema union, Object datum) {
+    if (!isUnionBranchCacheable(datum)) {
+      return UNCACHED;
+    }
+    Integer i = resolveUnionByConversion(union, datum.getClass());
+    if (i != null) {
+      return i;
+    }
+    if (datum instanceof GenericContainer) {
+      return BY_SCHEMA;
+    }
+    return resolveUnionByName(union, datum);
+  }
+
+  /** Returns the first logical type branch with a conversion for c, or null. */
+  private Integer resolveUnionByConversion(Schema union, Class<?> c) {
     List<Schema> types = union.getTypes();
-    int i = 0;
-    for (Schema schema : types) {
-      if (datum == null) {
-        if (schema.getType() == Type.NULL) {
-          return i;
-        }
-      } else {
-        LogicalType ltype = schema.getLogicalType();
-        if (ltype != null) {
-          Conversion<?> conv = getConversionByClass(datum.getClass(), ltype);
-          if (conv != null) {
-            return i;
-          }
-        }
+    for (int i = 0, n = types.size(); i < n; i++) {
+      LogicalType ltype = types.get(i).getLogicalType();
+      if (ltype != null && getConversionByClass(c, ltype) != null) {
+        return i;
       }
-      i++;
     }
-    Integer ii = union.getIndexNamed(getSchemaName(datum));
-    if (ii != null)
-      return ii;
+    return null;
+  }
 
-    throw new UnresolvedUnionException(union, datum);
+  private int resolveUnionByName(Schema union, Object datum) {
+    Integer i = union.getIndexNamed(getSchemaName(datum));
+    if (i == null) {
+      throw new UnresolvedUnionException(union, datum);
+    }
+    return i;
+  }
+
+  /**
+   * Returns true if the union branch of a datum, as returned by
+   * {@link #resolveUnion(Schema, Object)}, only depends on its class and, for
+   * a {@link GenericContainer}, its schema, so that it can be cached. Data
+   * models for which the branch also depends on the contents of some datums
+   * return false for them, consistently for all the datums of a class.
+   */
+  protected boolean isUnionBranchCacheable(Object datum) {
+    return true;
   }
 
   /** Return the schema full name for a datum.  Called by {@link
@@ -1011,6 +1121,9 @@ public class GenericData {
     if (o == null) { // incomplete datum
       return 0;
     }
+    if (compiledComparisons) {
+      return getComparator(s).hash(o);
+    }
     LogicalType logicalType = s.getLogicalType();
     if (logicalType != null) {
       Conversion<Object> conv = (Conversion) getConversionByClass(o.getClass(), logicalType);
@@ -1067,6 +1180,9 @@ public class GenericData {
   @SuppressWarnings(value="unchecked")
   protected int compare(Object o1, Object o2, Schema s, boolean equals) {
     if (o1 == o2) return 0;
+    if (compiledComparisons) {
+      return getComparator(s).compareDistinct(o1, o2, equals);
+    }
     if (s.getLogicalType() != null) {
       if (equals) {
         return (Objects.deepEquals(o1, o2) ? 0 : 1);
@@ -1124,6 +1240,47 @@ public class GenericData {
     }
   }
 
+  /**
+   * Whether {@link #hashCode(Object, Schema)} and
+   * {@link #compare(Object, Object, Schema, boolean)} use the comparators of
+   * {@link #getComparator(Schema)}. Subclasses override the methods the
+   * comparators would bypass, like {@link #getField(Object, String, int)}, so
+   * only this class uses them.
+   */
+  private final boolean compiledComparisons = getClass() == GenericData.class;
+
+  /** The comparators, by schema instance, see {@link #getComparator(Schema)}. */
+  private final IdentityCache<Schema, DatumComparator> comparators = new IdentityCache<>(CACHE_SIZE);
+
+  /**
+   * Returns the hasher and comparator of values of a schema, created once per
+   * schema instance. The cache is bounded and is cleared when the conversions
+   * change.
+   */
+  DatumComparator getComparator(Schema schema) {
+    return comparators.computeIfAbsent(schema, s -> DatumComparator.create(this, s));
+  }
+
+  /** The resolutions of writer and reader schemas, see {@link #getResolverAction(Schema, Schema)}. */
+  private final IdentityCache<Schema, IdentityCache<Schema, Resolver.Action>> resolverActions
+      = new IdentityCache<>(CACHE_SIZE);
+
+  /** The number of reader schemas whose resolutions are cached per writer schema. */
+  private static final int READERS_PER_WRITER = 16;
+
+  /**
+   * Returns the {@link Resolver.Action} tree that resolves data written with
+   * <tt>writer</tt> to <tt>reader</tt>, with the conversions and default values
+   * of this data model. The trees are cached by schema instance pair, since
+   * the aliases of the reader, that equality ignores, take part in resolution.
+   * They are shared between threads; the cache is bounded and is cleared when
+   * the conversions change.
+   */
+  public Resolver.Action getResolverAction(Schema writer, Schema reader) {
+    return resolverActions.computeIfAbsent(writer, w -> new IdentityCache<>(READERS_PER_WRITER))
+        .computeIfAbsent(reader, r -> Resolver.resolve(writer, r, this));
+  }
+
   private final Map<Field, Object> defaultValueCache = Collections.synchronizedMap(new WeakHashMap<>());
 
   /**
@@ -1178,10 +1335,6 @@ public class GenericData {
     return defaultValue;
   }
 
-
-
-  private static final Schema STRINGS = Schema.create(Type.STRING);
-
   private static final Set<String> IMMUTABLES = new HashSet<>();
 
   static {
@@ -1202,112 +1355,34 @@ public class GenericData {
 
   /**
    * Makes a deep copy of a value given its schema.
+   * The type dispatch of the schema is done once, by a copier cached per schema.
    * @param schema the schema of the value to deep copy.
    * @param value the value to deep copy.
    * @return a deep copy of the given value.
    */
-  @SuppressWarnings({ "rawtypes", "unchecked" })
+  @SuppressWarnings("unchecked")
   public <T> T deepCopy(Schema schema, T value) {
     if (value == null) {
       return null;
     }
-    Class<? extends Object> vClass = value.getClass();
-    if (IMMUTABLES.contains(vClass.getName())) {
-      return value;
-    }
-    LogicalType logicalType = schema.getLogicalType();
-    if (logicalType != null) {
-      Conversion<?> conv =  getConversionByClass(vClass, logicalType);
-      if (conv != null) {
-        return (T) Conversions.convertToLogicalType(
-                Conversions.convertToRawType(value, schema, logicalType, conv),
-                schema, logicalType, conv);
-      }
-    }
-    switch (schema.getType()) {
-      case ARRAY:
-        List<Object> arrayValue = (List) value;
-        List<Object> arrayCopy = new GenericData.Array<Object>(
-            arrayValue.size(), schema);
-        for (Object obj : arrayValue) {
-          arrayCopy.add(deepCopy(schema.getElementType(), obj));
-        }
-        return (T)arrayCopy;
-      case BOOLEAN:
-        return value; // immutable
-      case BYTES:
-        ByteBuffer byteBufferValue = (ByteBuffer) value;
-        int start = byteBufferValue.position();
-        int length = byteBufferValue.limit() - start;
-        byte[] bytesCopy = new byte[length];
-        byteBufferValue.get(bytesCopy, 0, length);
-        byteBufferValue.position(start);
-        return (T)ByteBuffer.wrap(bytesCopy, 0, length);
-      case DOUBLE:
-        return value; // immutable
-      case ENUM:
-        Class<?> targetClass = getEnumClass(schema);
-        if  (targetClass == EnumSymbol.class) {
-          return value;
-        } else {
-          return (T) createEnum(((GenericEnumSymbol) value).getSymbol(), schema);
-        }
-      case FIXED:
-        return (T)createFixed(null, ((GenericFixed) value).bytes(), schema);
-      case FLOAT:
-        return value; // immutable
-      case INT:
-        return value; // immutable
-      case LONG:
-        return value; // immutable
-      case MAP:
-        Map<CharSequence, Object> mapValue = (Map) value;
-        Map<CharSequence, Object> mapCopy =
-          new HashMap<CharSequence, Object>(mapValue.size());
-        for (Map.Entry<CharSequence, Object> entry : mapValue.entrySet()) {
-          mapCopy.put((CharSequence)(deepCopy(STRINGS, entry.getKey())),
-              deepCopy(schema.getValueType(), entry.getValue()));
-        }
-        return (T)mapCopy;
-      case NULL:
-        return (T) JsonProperties.NULL_VALUE;
-      case RECORD:
-        Object oldState = getRecordState(value, schema);
-        Object newRecord = newRecord(null, schema);
-        Object newState = getRecordState(newRecord, schema);
-        for (Field f : schema.getFields()) {
-          int pos = f.pos();
-          String name = f.name();
-          Object newValue = deepCopy(f.schema(),
-                                     getField(value, name, pos, oldState));
-          setField(newRecord, name, pos, newValue, newState);
-        }
-        return (T)newRecord;
-      case STRING:
-        // Strings are immutable
-        if (value instanceof String) {
-          return (T)value;
-        }
+    return (T) getDeepCopier(schema).copy(value);
+  }
 
-        // Some CharSequence subclasses are mutable, so we still need to make
-        // a copy
-        else if (value instanceof Utf8) {
-          // Utf8 copy constructor is more efficient than converting
-          // to string and then back to Utf8
-          return (T)new Utf8((Utf8)value);
-        } else if (value instanceof CharSequence) {
-          return (T) value.toString();
-        } else {
-          return (T) value;
-        }
-      case UNION:
-        return deepCopy(
-            schema.getTypes().get(resolveUnion(schema, value)), value);
-      default:
-        throw new AvroRuntimeException(
-            "Deep copy failed for schema \"" + schema + "\" and value \"" +
-            value + "\"");
-    }
+  /** The deep copiers, by schema instance, see {@link #getDeepCopier(Schema)}. */
+  private final IdentityCache<Schema, DeepCopier> deepCopiers = new IdentityCache<>(CACHE_SIZE);
+
+  /**
+   * Returns the copier of values of a schema, created once per schema
+   * instance, so that copies get the schema instance of the original. The
+   * cache is bounded and is cleared when the conversions change.
+   */
+  DeepCopier getDeepCopier(Schema schema) {
+    return deepCopiers.computeIfAbsent(schema, s -> DeepCopier.create(this, s));
+  }
+
+  /** Whether values of a class are immutable, and shared by deep copies. */
+  static boolean isImmutable(Class<?> c) {
+    return IMMUTABLES.contains(c.getName());
   }
 
   /** Called to create an fixed value. May be overridden for alternate fixed
@@ -22,21 +22,27 @@ import java.io.UncheckedIOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.AvroTypeException;
 import org.apache.avro.Conversion;
 import org.apache.avro.Conversions;
 import org.apache.avro.LogicalType;
+import org.apache.avro.Resolver;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.FieldNameTable;
+import org.apache.avro.io.JsonDecoder;
 import org.apache.avro.io.ResolvingDecoder;
-import org.apache.avro.util.Optional;
 import org.apache.avro.util.Utf8;
 
 /** {@link DatumReader} for generic Java objects. */
@@ -47,6 +53,9 @@ public class GenericDatumReader<D> implements DatumReader<D> {
   private Schema expected;
   private ResolvingDecoder resolver;
   private Decoder decoder;
+  private Resolver.Action action;
+  /** The {@link GenericData#getConversionsVersion()} the action was resolved with. */
+  private int actionVersion;
 
   public GenericDatumReader() {
     this(null, null, GenericData.get());
@@ -84,6 +93,7 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     if (expected == null) {
       expected = actual;
     }
+    this.action = null;
   }
 
   /** Get the reader's schema. */
@@ -92,6 +102,7 @@ public class GenericDatumReader<D> implements DatumReader<D> {
   /** Set the reader's schema. */
   public void setExpected(Schema reader) {
     this.expected = reader;
+    this.action = null;
   }
 
   static final ResolvingDecoder getResolver(Schema actual, Schema expected, Decoder decoder) {
@@ -106,6 +117,28 @@ public class GenericDatumReader<D> implements DatumReader<D> {
   @Override
   @SuppressWarnings("unchecked")
   public D read(D reuse, Decoder in) throws IOException {
+    if (in instanceof JsonDecoder && ((JsonDecoder) in).isStreaming()) {
+      JsonDecoder json = (JsonDecoder) in;
+      if (readsStreaming()) {
+        return (D) readStreaming(reuse, expected, json);
+      }
+      // read in schema order, through the methods subclasses override
+      json.setStreaming(false);
+      try {
+        return read(reuse, json);
+      } finally {
+        json.setStreaming(true);
+      }
+    }
+    if (READ_WITH_ACTIONS && in instanceof BinaryDecoder && !((BinaryDecoder) in).hasSizedRecords()
+        && readsWithActions()) {
+      int version = data.getConversionsVersion();
+      if (action == null || actionVersion != version) {
+        action = data.getResolverAction(actual, expected);
+        actionVersion = version;
+      }
+      return (D) read(reuse, action, in);
+    }
     if (resolver == null || decoder != in) {
       this.decoder = in;
       this.resolver = getResolver(actual, expected, in);
@@ -119,6 +152,213 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     return result;
   }
 
+  /**
+   * Whether a streaming {@link JsonDecoder} is read with
+   * {@link #readStreaming(Object, Schema, JsonDecoder)}. Streaming reads do not
+   * call the methods that take a {@link ResolvingDecoder}, so by default only
+   * this class reads streaming JSON; other readers switch the decoder's
+   * streaming mode off while they read a datum, in schema order.
+   */
+  protected boolean readsStreaming() {
+    return getClass() == GenericDatumReader.class;
+  }
+
+  /**
+   * Whether binary data is read by executing the cached {@link Resolver.Action}
+   * tree of the writer's and reader's schemas, see
+   * {@link GenericData#getResolverAction(Schema, Schema)}, instead of through a
+   * {@link ResolvingDecoder}. The action tree does not call the methods that
+   * take a {@link ResolvingDecoder}, so by default only this class reads with
+   * it; subclasses that do not override those methods may return true.
+   */
+  protected boolean readsWithActions() {
+    return getClass() == GenericDatumReader.class;
+  }
+
+  /** Reads data with a resolution of the writer's and reader's schemas. */
+  private Object read(Object old, Resolver.Action action, Decoder in) throws IOException {
+    Conversion<?> conv = action.conversion;
+    if (conv != null && action.type != Resolver.Action.Type.WRITER_UNION
+        && action.type != Resolver.Action.Type.READER_UNION) {
+      if (action.type == Resolver.Action.Type.DO_NOTHING && conv.hasDirectDecode(in, action.reader)) {
+        Object decoded = conv.directDecode(in, action.reader);
+        if (decoded != null) {
+          return decoded;
+        }
+      }
+      return convert(readWithoutConversion(old, action, in), action.reader, action.logicalType, conv);
+    }
+    return readWithoutConversion(old, action, in);
+  }
+
+  private Object readWithoutConversion(Object old, Resolver.Action action, Decoder in) throws IOException {
+    switch (action.type) {
+    case DO_NOTHING:
+      return readWithoutConversion(old, action.reader, in);
+    case PROMOTE:
+      return readPromoted(action, in);
+    case CONTAINER:
+      if (action.reader.getType() == Schema.Type.ARRAY) {
+        return readArray(old, (Resolver.Container) action, in);
+      }
+      return readMap(old, (Resolver.Container) action, in);
+    case ENUM:
+      return readEnum((Resolver.EnumAdjust) action, in);
+    case RECORD:
+      return readRecord(old, (Resolver.RecordAdjust) action, in);
+    case WRITER_UNION:
+      return read(old, ((Resolver.WriterUnion) action).actions[in.readIndex()], in);
+    case READER_UNION:
+      return read(old, ((Resolver.ReaderUnion) action).actualAction, in);
+    case ERROR:
+      throw new AvroTypeException(action.toString());
+    default:
+      throw new AvroRuntimeException("Unexpected action: " + action);
+    }
+  }
+
+  /** Reads a primitive or fixed value of the same type in the writer's and reader's schemas. */
+  private Object readWithoutConversion(Object old, Schema expected, Decoder in) throws IOException {
+    switch (expected.getType()) {
+    case FIXED:
+      return readFixed(old, expected, in);
+    case STRING:
+      return readString(old, expected, in);
+    case BYTES:
+      return readBytes(old, expected, in);
+    case INT:
+      return readInt(old, expected, in);
+    case LONG:
+      return in.readLong();
+    case FLOAT:
+      return in.readFloat();
+    case DOUBLE:
+      return in.readDouble();
+    case BOOLEAN:
+      return in.readBoolean();
+    case NULL:
+      in.readNull();
+      return null;
+    default:
+      throw new AvroRuntimeException("Unknown type: " + expected);
+    }
+  }
+
+  /** Reads a value promoted to the reader's type, as {@link ResolvingDecoder} does. */
+  private Object readPromoted(Resolver.Action action, Decoder in) throws IOException {
+    Schema.Type writerType = action.writer.getType();
+    switch (action.reader.getType()) {
+    case LONG:
+      return (long) in.readInt();
+    case FLOAT:
+      return writerType == Schema.Type.INT ? (float) in.readInt() : (float) in.readLong();
+    case DOUBLE:
+      switch (writerType) {
+      case INT:
+        return (double) in.readInt();
+      case LONG:
+        return (double) in.readLong();
+      default:
+        return (double) in.readFloat();
+      }
+    case STRING:
+      byte[] bytes = in.readBytes(null).array();
+      Class stringClass = findStringClass(action.reader);
+      if (stringClass == CharSequence.class) {
+        return new Utf8(bytes);
+      }
+      String str = new String(bytes, StandardCharsets.UTF_8);
+      return stringClass == String.class ? str : newInstanceFromString(stringClass, str);
+    case BYTES:
+      Utf8 s = in.readString(null);
+      return ByteBuffer.wrap(s.getBytes(), 0, s.getByteLength());
+    default:
+      throw new AvroTypeException(action.toString());
+    }
+  }
+
+  private Object readRecord(Object old, Resolver.RecordAdjust action, Decoder in) throws IOException {
+    Schema expected = action.reader;
+    Object record = data.newRecord(old, expected);
+    Object state = data.getRecordState(record, expected);
+    Field[] readerOrder = action.readerOrder;
+    int r = 0;
+    for (Resolver.Action fieldAction : action.fieldActions) {
+      if (fieldAction.type == Resolver.Action.Type.SKIP) {
+        skip(fieldAction.writer, in);
+      } else {
+        Field field = readerOrder[r++];
+        String name = field.name();
+        int pos = field.pos();
+        Object oldDatum = null;
+        if (old != null) {
+          oldDatum = data.getField(record, name, pos, state);
+        }
+        data.setField(record, name, pos, read(oldDatum, fieldAction, in), state);
+      }
+    }
+    for (; r < readerOrder.length; r++) {
+      Field field = readerOrder[r];
+      // the defaults are shared, they are copied for the record to own its fields
+      data.setField(record, field.name(), field.pos(),
+          data.deepCopy(field.schema(), action.defaults[r - action.firstDefault]), state);
+    }
+    return record;
+  }
+
+  private Object readEnum(Resolver.EnumAdjust action, Decoder in) throws IOException {
+    int n = in.readEnum();
+    if (!action.noAdjustmentsNeeded) {
+      int adjusted = action.adjustments[n];
+      if (adjusted < 0) {
+        throw new AvroTypeException("No match for " + action.writer.getEnumSymbols().get(n));
+      }
+      n = adjusted;
+    }
+    return createEnum(action.reader.getEnumSymbols().get(n), action.reader);
+  }
+
+  private Object readArray(Object old, Resolver.Container action, Decoder in) throws IOException {
+    Schema expected = action.reader;
+    Resolver.Action elementAction = action.elementAction;
+    long l = in.readArrayStart();
+    long base = 0;
+    if (l > 0) {
+      Object array = newArray(old, (int) l, expected);
+      if (elementAction.type == Resolver.Action.Type.DO_NOTHING && array instanceof PrimitiveArray
+          && ((PrimitiveArray<?>) array).holds(expected.getElementType())) {
+        do {
+          ((PrimitiveArray<?>) array).readItems(in, (int) l);
+        } while ((l = in.arrayNext()) > 0);
+        return array;
+      }
+      do {
+        for (long i = 0; i < l; i++) {
+          addToArray(array, base + i, read(peekArray(array), elementAction, in));
+        }
+        base += l;
+      } while ((l = in.arrayNext()) > 0);
+      return array;
+    } else {
+      return newArray(old, 0, expected);
+    }
+  }
+
+  private Object readMap(Object old, Resolver.Container action, Decoder in) throws IOException {
+    Schema expected = action.reader;
+    Resolver.Action valueAction = action.elementAction;
+    long l = in.readMapStart();
+    Object map = newMap(old, (int) l);
+    if (l > 0) {
+      do {
+        for (int i = 0; i < l; i++) {
+          addToMap(map, readMapKey(null, expected, in), read(null, valueAction, in));
+        }
+      } while ((l = in.mapNext()) > 0);
+    }
+    return map;
+  }
+
   /** Called to read data.*/
   protected Object read(Object old, Schema expected,
       ResolvingDecoder in) throws IOException {
@@ -126,9 +366,11 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     if (logicalType != null) {
       Conversion<Object> conv = getData().getConversionFor(logicalType);
       if (conv != null) {
-        Optional<Object> decoded = conv.tryDirectDecode(in, expected);
-        if (decoded.isPresent()) {
-          return decoded.get();
+        if (conv.hasDirectDecode(in, expected)) {
+          Object decoded = conv.directDecode(in, expected);
+          if (decoded != null) {
+            return decoded;
+          }
         }
         Object result = readWithoutConversion(old, expected, in);
         result = convert(result, expected, logicalType, conv);
@@ -176,6 +418,134 @@ public class GenericDatumReader<D> implements DatumReader<D> {
 
 
 
+  /**
+   * Called to read data from a streaming {@link JsonDecoder}. The JSON is read
+   * against the reader's schema: record fields are read in the order they
+   * arrive, matched by name or alias, and the fields that did not arrive are set
+   * to their default values.
+   */
+  protected Object readStreaming(Object old, Schema expected, JsonDecoder in) throws IOException {
+    LogicalType logicalType = expected.getLogicalType();
+    if (logicalType != null) {
+      Conversion<Object> conv = getData().getConversionFor(logicalType);
+      if (conv != null) {
+        if (conv.hasDirectDecode(in, expected)) {
+          Object decoded = conv.directDecode(in, expected);
+          if (decoded != null) {
+            return decoded;
+          }
+        }
+        return convert(readStreamingWithoutConversion(old, expected, in), expected, logicalType, conv);
+      }
+    }
+    return readStreamingWithoutConversion(old, expected, in);
+  }
+
+  private Object readStreamingWithoutConversion(Object old, Schema expected, JsonDecoder in) throws IOException {
+    switch (expected.getType()) {
+    case RECORD:
+      return readStreamingRecord(old, expected, in);
+    case ENUM:
+      return createEnum(expected.getEnumSymbols().get(in.readEnum(expected)), expected);
+    case ARRAY:
+      return readStreamingArray(old, expected, in);
+    case MAP:
+      return readStreamingMap(old, expected, in);
+    case UNION:
+      Object result = readStreaming(old, expected.getTypes().get(in.readIndex(expected)), in);
+      in.readUnionEnd();
+      return result;
+    case FIXED:
+      return readFixed(old, expected, in);
+    case STRING:
+      return readString(old, expected, in);
+    case BYTES:
+      return readBytes(old, expected, in);
+    case INT:
+      return readInt(old, expected, in);
+    case LONG:
+      return in.readLong();
+    case FLOAT:
+      return in.readFloat();
+    case DOUBLE:
+      return in.readDouble();
+    case BOOLEAN:
+      return in.readBoolean();
+    case NULL:
+      in.readNull();
+      return null;
+    default:
+      throw new AvroRuntimeException("Unknown type: " + expected);
+    }
+  }
+
+  private Object readStreamingRecord(Object old, Schema expected, JsonDecoder in) throws IOException {
+    Object record = data.newRecord(old, expected);
+    Object state = data.getRecordState(record, expected);
+    List<Field> fields = expected.getFields();
+    int nrFields = fields.size();
+    // the fields read so far, as bits while they fit in a long
+    long read = 0;
+    boolean[] readWide = nrFields > Long.SIZE ? new boolean[nrFields] : null;
+    FieldNameTable names = FieldNameTable.get(expected);
+    in.readRecordStart();
+    for (int pos = in.readFieldIndex(names); pos >= 0; pos = in.readFieldIndex(names)) {
+      Field field = fields.get(pos);
+      Object oldDatum = null;
+      if (old != null) {
+        oldDatum = data.getField(record, field.name(), pos, state);
+      }
+      data.setField(record, field.name(), pos, readStreaming(oldDatum, field.schema(), in), state);
+      if (readWide == null) {
+        read |= 1L << pos;
+      } else {
+        readWide[pos] = true;
+      }
+    }
+    for (Field field : fields) {
+      int pos = field.pos();
+      if (readWide == null ? (read & (1L << pos)) == 0 : !readWide[pos]) {
+        if (!field.hasDefaultValue()) {
+          throw new AvroTypeException("Expected field name not found: " + field.name());
+        }
+        data.setField(record, field.name(), pos, data.deepCopy(field.schema(), data.getDefaultValue(field)), state);
+      }
+    }
+    return record;
+  }
+
+  private Object readStreamingArray(Object old, Schema expected, JsonDecoder in) throws IOException {
+    Schema expectedType = expected.getElementType();
+    long l = in.readArrayStart();
+    long base = 0;
+    if (l > 0) {
+      Object array = newArray(old, (int) l, expected);
+      do {
+        for (long i = 0; i < l; i++) {
+          addToArray(array, base + i, readStreaming(peekArray(array), expectedType, in));
+        }
+        base += l;
+      } while ((l = in.arrayNext()) > 0);
+      return array;
+    } else {
+      return newArray(old, 0, expected);
+    }
+  }
+
+  private Object readStreamingMap(Object old, Schema expected, JsonDecoder in) throws IOException {
+    Schema eValue = expected.getValueType();
+    long l = in.readMapStart();
+    Object map = newMap(old, (int) l);
+    if (l > 0) {
+      do {
+        for (int i = 0; i < l; i++) {
+          addToMap(map, readMapKey(null, expected, in), readStreaming(null, eValue, in));
+        }
+      } while ((l = in.mapNext()) > 0);
+    }
+    return map;
+  }
+
   /**
    * Convert a underlying representation of a logical type (such as a ByteBuffer)
    * to a higher level object (such as a BigDecimal).
@@ -244,6 +614,12 @@ public class GenericDatumReader<D> implements DatumReader<D> {
     long base = 0;
     if (l > 0) {
       Object array = newArray(old, (int) l, expected);
+      if (array instanceof PrimitiveArray && ((PrimitiveArray<?>) array).holds(expectedType)) {
+        do {
+          ((PrimitiveArray<?>) array).readItems(in, (int) l);
+        } while ((l = in.arrayNext()) > 0);
+        return array;
+      }
       do {
         for (long i = 0; i < l; i++) {
           addToArray(array, base + i, read(peekArray(array), expectedType, in));
@@ -353,13 +729,17 @@ public class GenericDatumReader<D> implements DatumReader<D> {
 
   /** Called to create new array instances.  Subclasses may override to use a
    * different array implementation.  By default, this returns a {@link
-   * GenericData.Array}.*/
+   * PrimitiveArray} for arrays of ints, longs, floats and doubles, and a {@link
+   * GenericData.Array} otherwise.*/
   @SuppressWarnings("unchecked")
   protected Object newArray(Object old, int size, Schema schema) {
-    if (old instanceof Collection) {
+    if (old instanceof Collection && !(old instanceof PrimitiveArray
+        && !((PrimitiveArray<?>) old).holds(schema.getElementType()))) {
       ((Collection) old).clear();
       return old;
-    } else return new GenericData.Array(size, schema);
+    }
+    PrimitiveArray<?> array = PrimitiveArray.create(size, schema);
+    return array != null ? array : new GenericData.Array(size, schema);
   }
 
   /** Called to create new array instances.  Subclasses may override to use a
@@ -420,6 +800,10 @@ public class GenericDatumReader<D> implements DatumReader<D> {
 
   private static final Class DEFAULT_STRING_CLASS;
 
+  /** Whether binary data is read with cached resolver actions, see {@link #readsWithActions()}. */
+  private static final boolean READ_WITH_ACTIONS
+      = Boolean.parseBoolean(System.getProperty("avro.generic.readWithActions", "true"));
+
   static {
     try {
       DEFAULT_STRING_CLASS = Class.forName(System.getProperty("avro.generic.default.stringClass",
@@ -195,9 +195,11 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
    */
   protected void writeRecord(Schema schema, Object datum, Encoder out) throws IOException {
     Object state = data.getRecordState(datum, schema);
+    out.writeRecordStart();
     for (Field f : schema.getFields()) {
       writeField(datum, f, out, state);
     }
+    out.writeRecordEnd();
   }
 
   /** Called to write a single field of a record. May be overridden for more
@@ -227,6 +229,13 @@ public class GenericDatumWriter<D> implements DatumWriter<D> {
   protected void writeArray(Schema schema, Object datum, Encoder out)
     throws IOException {
     Schema element = schema.getElementType();
+    if (datum instanceof PrimitiveArray && ((PrimitiveArray<?>) datum).holds(element)) {
+      out.writeArrayStart();
+      out.setItemCount(((PrimitiveArray<?>) datum).size());
+      ((PrimitiveArray<?>) datum).writeItems(out);
+      out.writeArrayEnd();
+      return;
+    }
     long size = getArraySize(datum);
     if (size >= 0) {
       long actualSize = 0;
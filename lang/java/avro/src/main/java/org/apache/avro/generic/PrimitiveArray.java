@@ -0,0 +1,608 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Type;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+/**
+ * An array of ints, longs, floats or doubles, stored unboxed. The generic datum
+ * reader reads arrays of these types into one, and the generic datum writer
+ * writes one, with the bulk methods of {@link Decoder} and {@link Encoder},
+ * like {@link Decoder#readInts(int[], int, int)}. Use the typed accessors, like
+ * {@link OfInt#getInt(int)}, to avoid boxing.
+ */
+public abstract class PrimitiveArray<T> extends AbstractList<T>
+    implements GenericArray<T>, Comparable<GenericArray<T>> {
+  private final Schema schema;
+  int size;
+
+  PrimitiveArray(Schema schema) {
+    if (schema == null || !Type.ARRAY.equals(schema.getType()))
+      throw new AvroRuntimeException("Not an array schema: " + schema);
+    this.schema = schema;
+  }
+
+  /**
+   * Creates an empty array for the given array schema, or returns null if its
+   * items are not plain ints, longs, floats or doubles.
+   */
+  public static PrimitiveArray<?> create(int capacity, Schema schema) {
+    Schema element = schema.getElementType();
+    if (element.getLogicalType() != null) {
+      return null;
+    }
+    switch (element.getType()) {
+    case INT:
+      return new OfInt(capacity, schema);
+    case LONG:
+      return new OfLong(capacity, schema);
+    case FLOAT:
+      return new OfFloat(capacity, schema);
+    case DOUBLE:
+      return new OfDouble(capacity, schema);
+    default:
+      return null;
+    }
+  }
+
+  /** Whether items of the given schema are read and written as this array's. */
+  boolean holds(Schema element) {
+    return element.getType() == elementType() && element.getLogicalType() == null;
+  }
+
+  abstract Type elementType();
+
+  /** Reads <tt>count</tt> items of the current array block, appending them. */
+  abstract void readItems(Decoder in, int count) throws IOException;
+
+  /** Writes all the items, as the items of the current array batch. */
+  abstract void writeItems(Encoder out) throws IOException;
+
+  /** Returns a copy of this array, of the same size and items. */
+  abstract PrimitiveArray<T> copy();
+
+  /** Returns the hash code of the items, as the one of a list of the boxed items. */
+  abstract int hashItems();
+
+  /**
+   * Compares the items with the ones of an array of the same type, as the
+   * boxed items would compare.
+   */
+  abstract int compareItems(PrimitiveArray<?> that);
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public void reset() {
+    size = 0;
+  }
+
+  @Override
+  public void prune() {
+  }
+
+  /** Items are not reused, they are unboxed. */
+  @Override
+  public T peek() {
+    return null;
+  }
+
+  @Override
+  public int compareTo(GenericArray<T> that) {
+    return GenericData.get().compare(this, that, this.getSchema());
+  }
+
+  void checkIndex(int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("Index " + i + " out of bounds.");
+  }
+
+  void checkPosition(int location) {
+    if (location < 0 || location > size)
+      throw new IndexOutOfBoundsException("Index " + location + " out of bounds.");
+  }
+
+  static int grow(int capacity, int needed) {
+    return Math.max(needed, (capacity * 3) / 2 + 1);
+  }
+
+  /** An array of ints. */
+  public static class OfInt extends PrimitiveArray<Integer> {
+    private int[] elements;
+
+    public OfInt(int capacity, Schema schema) {
+      super(schema);
+      this.elements = new int[capacity];
+    }
+
+    public int getInt(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void setInt(int i, int value) {
+      checkIndex(i);
+      elements[i] = value;
+    }
+
+    public void addInt(int value) {
+      ensureCapacity(size + 1);
+      elements[size++] = value;
+    }
+
+    @Override
+    public Integer get(int i) {
+      return getInt(i);
+    }
+
+    @Override
+    public Integer set(int i, Integer value) {
+      int result = getInt(i);
+      elements[i] = value;
+      return result;
+    }
+
+    @Override
+    public void add(int location, Integer value) {
+      checkPosition(location);
+      ensureCapacity(size + 1);
+      System.arraycopy(elements, location, elements, location + 1, size - location);
+      elements[location] = value;
+      size++;
+    }
+
+    @Override
+    public Integer remove(int i) {
+      int result = getInt(i);
+      System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+      size--;
+      return result;
+    }
+
+    @Override
+    public void reverse() {
+      for (int left = 0, right = size - 1; left < right; left++, right--) {
+        int tmp = elements[left];
+        elements[left] = elements[right];
+        elements[right] = tmp;
+      }
+    }
+
+    @Override
+    Type elementType() {
+      return Type.INT;
+    }
+
+    @Override
+    void readItems(Decoder in, int count) throws IOException {
+      ensureCapacity(size + count);
+      in.readInts(elements, size, count);
+      size += count;
+    }
+
+    @Override
+    void writeItems(Encoder out) throws IOException {
+      out.writeInts(elements, 0, size);
+    }
+
+    @Override
+    OfInt copy() {
+      OfInt copy = new OfInt(0, getSchema());
+      copy.elements = Arrays.copyOf(elements, size);
+      copy.size = size;
+      return copy;
+    }
+
+    @Override
+    int hashItems() {
+      int hashCode = 1;
+      for (int i = 0; i < size; i++) {
+        hashCode = 31 * hashCode + Integer.hashCode(elements[i]);
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareItems(PrimitiveArray<?> that) {
+      int[] other = ((OfInt) that).elements;
+      int n = Math.min(size, that.size);
+      for (int i = 0; i < n; i++) {
+        int compare = Integer.compare(elements[i], other[i]);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return Integer.compare(size, that.size);
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed > elements.length) {
+        elements = Arrays.copyOf(elements, grow(elements.length, needed));
+      }
+    }
+  }
+
+  /** An array of longs. */
+  public static class OfLong extends PrimitiveArray<Long> {
+    private long[] elements;
+
+    public OfLong(int capacity, Schema schema) {
+      super(schema);
+      this.elements = new long[capacity];
+    }
+
+    public long getLong(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void setLong(int i, long value) {
+      checkIndex(i);
+      elements[i] = value;
+    }
+
+    public void addLong(long value) {
+      ensureCapacity(size + 1);
+      elements[size++] = value;
+    }
+
+    @Override
+    public Long get(int i) {
+      return getLong(i);
+    }
+
+    @Override
+    public Long set(int i, Long value) {
+      long result = getLong(i);
+      elements[i] = value;
+      return result;
+    }
+
+    @Override
+    public void add(int location, Long value) {
+      checkPosition(location);
+      ensureCapacity(size + 1);
+      System.arraycopy(elements, location, elements, location + 1, size - location);
+      elements[location] = value;
+      size++;
+    }
+
+    @Override
+    public Long remove(int i) {
+      long result = getLong(i);
+      System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+      size--;
+      return result;
+    }
+
+    @Override
+    public void reverse() {
+      for (int left = 0, right = size - 1; left < right; left++, right--) {
+        long tmp = elements[left];
+        elements[left] = elements[right];
+        elements[right] = tmp;
+      }
+    }
+
+    @Override
+    Type elementType() {
+      return Type.LONG;
+    }
+
+    @Override
+    void readItems(Decoder in, int count) throws IOException {
+      ensureCapacity(size + count);
+      in.readLongs(elements, size, count);
+      size += count;
+    }
+
+    @Override
+    void writeItems(Encoder out) throws IOException {
+      out.writeLongs(elements, 0, size);
+    }
+
+    @Override
+    OfLong copy() {
+      OfLong copy = new OfLong(0, getSchema());
+      copy.elements = Arrays.copyOf(elements, size);
+      copy.size = size;
+      return copy;
+    }
+
+    @Override
+    int hashItems() {
+      int hashCode = 1;
+      for (int i = 0; i < size; i++) {
+        hashCode = 31 * hashCode + Long.hashCode(elements[i]);
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareItems(PrimitiveArray<?> that) {
+      long[] other = ((OfLong) that).elements;
+      int n = Math.min(size, that.size);
+      for (int i = 0; i < n; i++) {
+        int compare = Long.compare(elements[i], other[i]);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return Integer.compare(size, that.size);
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed > elements.length) {
+        elements = Arrays.copyOf(elements, grow(elements.length, needed));
+      }
+    }
+  }
+
+  /** An array of floats. */
+  public static class OfFloat extends PrimitiveArray<Float> {
+    private float[] elements;
+
+    public OfFloat(int capacity, Schema schema) {
+      super(schema);
+      this.elements = new float[capacity];
+    }
+
+    public float getFloat(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void setFloat(int i, float value) {
+      checkIndex(i);
+      elements[i] = value;
+    }
+
+    public void addFloat(float value) {
+      ensureCapacity(size + 1);
+      elements[size++] = value;
+    }
+
+    @Override
+    public Float get(int i) {
+      return getFloat(i);
+    }
+
+    @Override
+    public Float set(int i, Float value) {
+      float result = getFloat(i);
+      elements[i] = value;
+      return result;
+    }
+
+    @Override
+    public void add(int location, Float value) {
+      checkPosition(location);
+      ensureCapacity(size + 1);
+      System.arraycopy(elements, location, elements, location + 1, size - location);
+      elements[location] = value;
+      size++;
+    }
+
+    @Override
+    public Float remove(int i) {
+      float result = getFloat(i);
+      System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+      size--;
+      return result;
+    }
+
+    @Override
+    public void reverse() {
+      for (int left = 0, right = size - 1; left < right; left++, right--) {
+        float tmp = elements[left];
+        elements[left] = elements[right];
+        elements[right] = tmp;
+      }
+    }
+
+    @Override
+    Type elementType() {
+      return Type.FLOAT;
+    }
+
+    @Override
+    void readItems(Decoder in, int count) throws IOException {
+      ensureCapacity(size + count);
+      in.readFloats(elements, size, count);
+      size += count;
+    }
+
+    @Override
+    void writeItems(Encoder out) throws IOException {
+      out.writeFloats(elements, 0, size);
+    }
+
+    @Override
+    OfFloat copy() {
+      OfFloat copy = new OfFloat(0, getSchema());
+      copy.elements = Arrays.copyOf(elements, size);
+      copy.size = size;
+      return copy;
+    }
+
+    @Override
+    int hashItems() {
+      int hashCode = 1;
+      for (int i = 0; i < size; i++) {
+        hashCode = 31 * hashCode + Float.hashCode(elements[i]);
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareItems(PrimitiveArray<?> that) {
+      float[] other = ((OfFloat) that).elements;
+      int n = Math.min(size, that.size);
+      for (int i = 0; i < n; i++) {
+        int compare = Float.compare(elements[i], other[i]);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return Integer.compare(size, that.size);
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed > elements.length) {
+        elements = Arrays.copyOf(elements, grow(elements.length, needed));
+      }
+    }
+  }
+
+  /** An array of doubles. */
+  public static class OfDouble extends PrimitiveArray<Double> {
+    private double[] elements;
+
+    public OfDouble(int capacity, Schema schema) {
+      super(schema);
+      this.elements = new double[capacity];
+    }
+
+    public double getDouble(int i) {
+      checkIndex(i);
+      return elements[i];
+    }
+
+    public void setDouble(int i, double value) {
+      checkIndex(i);
+      elements[i] = value;
+    }
+
+    public void addDouble(double value) {
+      ensureCapacity(size + 1);
+      elements[size++] = value;
+    }
+
+    @Override
+    public Double get(int i) {
+      return getDouble(i);
+    }
+
+    @Override
+    public Double set(int i, Double value) {
+      double result = getDouble(i);
+      elements[i] = value;
+      return result;
+    }
+
+    @Override
+    public void add(int location, Double value) {
+      checkPosition(location);
+      ensureCapacity(size + 1);
+      System.arraycopy(elements, location, elements, location + 1, size - location);
+      elements[location] = value;
+      size++;
+    }
+
+    @Override
+    public Double remove(int i) {
+      double result = getDouble(i);
+      System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+      size--;
+      return result;
+    }
+
+    @Override
+    public void reverse() {
+      for (int left = 0, right = size - 1; left < right; left++, right--) {
+        double tmp = elements[left];
+        elements[left] = elements[right];
+        elements[right] = tmp;
+      }
+    }
+
+    @Override
+    Type elementType() {
+      return Type.DOUBLE;
+    }
+
+    @Override
+    void readItems(Decoder in, int count) throws IOException {
+      ensureCapacity(size + count);
+      in.readDoubles(elements, size, count);
+      size += count;
+    }
+
+    @Override
+    void writeItems(Encoder out) throws IOException {
+      out.writeDoubles(elements, 0, size);
+    }
+
+    @Override
+    OfDouble copy() {
+      OfDouble copy = new OfDouble(0, getSchema());
+      copy.elements = Arrays.copyOf(elements, size);
+      copy.size = size;
+      return copy;
+    }
+
+    @Override
+    int hashItems() {
+      int hashCode = 1;
+      for (int i = 0; i < size; i++) {
+        hashCode = 31 * hashCode + Double.hashCode(elements[i]);
+      }
+      return hashCode;
+    }
+
+    @Override
+    int compareItems(PrimitiveArray<?> that) {
+      double[] other = ((OfDouble) that).elements;
+      int n = Math.min(size, that.size);
+      for (int i = 0; i < n; i++) {
+        int compare = Double.compare(elements[i], other[i]);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return Integer.compare(size, that.size);
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed > elements.length) {
+        elements = Arrays.copyOf(elements, grow(elements.length, needed));
+      }
+    }
+  }
+}
@@ -23,6 +23,8 @@ import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.util.Recycler;
+import org.apache.avro.util.ReuseStrategy;
 
 /** Utilities for binary-encoded data. */
 public class BinaryData {
@@ -46,10 +48,8 @@ public class BinaryData {
     }
   }                     // no public ctor
 
-  private static final ThreadLocal<Decoders> DECODERS
-    = new ThreadLocal<Decoders>() {
-    @Override protected Decoders initialValue() { return new Decoders(); }
-  };
+  private static final Recycler<Decoders> DECODERS
+    = ReuseStrategy.getDefault().newRecycler(Decoders::new);
 
   /** Compare binary encoded data.  If equal, return zero.  If greater-than,
    * return 1, if less than return -1. Order is consistent with that of {@link
@@ -66,7 +66,7 @@ public class BinaryData {
   public static int compare(byte[] b1, int s1, int l1,
                             byte[] b2, int s2, int l2,
                             Schema schema) {
-    Decoders decoders = DECODERS.get();
+    Decoders decoders = DECODERS.acquire();
     decoders.set(b1, s1, l1, b2, s2, l2);
     try {
       return compare(decoders, schema);
@@ -74,6 +74,7 @@ public class BinaryData {
       throw new AvroRuntimeException(e);
     } finally {
       decoders.clear();
+      DECODERS.release(decoders);
     }
   }
 
@@ -206,21 +207,21 @@ public class BinaryData {
     }
   }
 
-  private static final ThreadLocal<HashData> HASH_DATA
-    = new ThreadLocal<HashData>() {
-    @Override protected HashData initialValue() { return new HashData(); }
-  };
+  private static final Recycler<HashData> HASH_DATA
+    = ReuseStrategy.getDefault().newRecycler(HashData::new);
 
   /** Hash binary encoded data. Consistent with {@link
    * org.apache.avro.generic.GenericData#hashCode(Object, Schema)}.*/
   public static int hashCode(byte[] bytes, int start, int length,
                              Schema schema) {
-    HashData data = HASH_DATA.get();
+    HashData data = HASH_DATA.acquire();
     data.set(bytes, start, length);
     try {
       return hashCode(data, schema);
     } catch (IOException e) {
       throw new AvroRuntimeException(e);
+    } finally {
+      HASH_DATA.release(data);
     }
   }
 
@@ -296,6 +297,12 @@ public class BinaryData {
 
   /** Skip a binary-encoded long, returning the position after it. */
   public static int skipLong(final byte[] bytes, int start) {
+    if (start >= 0 && start <= bytes.length - 8) {
+      int len = VarInts.length(VarInts.getWord(bytes, start));
+      if (len <= 8) {
+        return start + len;
+      }
+    }
     while ((bytes[start++] & 0x80) != 0) {
     }
     return start;
@@ -53,6 +53,7 @@ public class BinaryDecoder extends Decoder {
   private int minPos = 0;
   private int pos = 0;
   private int limit = 0;
+  private boolean sizedRecords;
 
   byte[] getBuf() { return buf; }
   int getPos() { return pos; }
@@ -106,6 +107,22 @@ public class BinaryDecoder extends Decoder {
     }
     source.attach(bufferSize, this);
     this.source = source;
+    this.sizedRecords = false;
+  }
+
+  /**
+   * Sets whether the data is in the sized record variant of the binary
+   * encoding, as written by {@link SizedRecordEncoder}. Resolving decoders
+   * over this decoder then skip unread records by their size. The setting is
+   * cleared when the decoder is reused.
+   */
+  public void setSizedRecords(boolean sizedRecords) {
+    this.sizedRecords = sizedRecords;
+  }
+
+  /** Returns true if the data has records prefixed with their size. */
+  public boolean hasSizedRecords() {
+    return sizedRecords;
   }
 
   @Override
@@ -128,6 +145,17 @@ public class BinaryDecoder extends Decoder {
 
   @Override
   public int readInt() throws IOException {
+    if (limit - pos >= 8) {
+      // fast path: decode from a word of buffered bytes
+      long word = VarInts.getWord(buf, pos);
+      int len = VarInts.length(word);
+      if (len > 5) {
+        throw new IOException("Invalid int encoding");
+      }
+      int n = VarInts.intValue(word, len);
+      pos += len;
+      return (n >>> 1) ^ -(n & 1);
+    }
     ensureBounds(5); // won't throw index out of bounds
     int len = 1;
     int b = buf[pos] & 0xff;
@@ -160,6 +188,15 @@ public class BinaryDecoder extends Decoder {
 
   @Override
   public long readLong() throws IOException {
+    if (limit - pos >= 8) {
+      long word = VarInts.getWord(buf, pos);
+      int len = VarInts.length(word);
+      if (len <= 8) { // longer varints take the slow path
+        long l = VarInts.value(word, len);
+        pos += len;
+        return (l >>> 1) ^ -(l & 1);
+      }
+    }
     ensureBounds(10);
     int b = buf[pos++] & 0xff;
     int n = b & 0x7f;
@@ -228,6 +265,94 @@ public class BinaryDecoder extends Decoder {
     return l;
   }
 
+  @Override
+  public void readInts(int[] dst, int off, int len) throws IOException {
+    int i = off;
+    int end = off + len;
+    while (i < end) {
+      // decode straight from the buffer while it surely holds a whole item
+      int p = pos;
+      int safeLimit = limit - 8;
+      while (i < end && p <= safeLimit) {
+        long word = VarInts.getWord(buf, p);
+        int length = VarInts.length(word);
+        if (length > 5) {
+          throw new IOException("Invalid int encoding");
+        }
+        int n = VarInts.intValue(word, length);
+        p += length;
+        dst[i++] = (n >>> 1) ^ -(n & 1);
+      }
+      pos = p;
+      if (i < end) {
+        dst[i++] = readInt(); // refills the buffer
+      }
+    }
+  }
+
+  @Override
+  public void readLongs(long[] dst, int off, int len) throws IOException {
+    int i = off;
+    int end = off + len;
+    while (i < end) {
+      int p = pos;
+      int safeLimit = limit - 8;
+      while (i < end && p <= safeLimit) {
+        long word = VarInts.getWord(buf, p);
+        int length = VarInts.length(word);
+        if (length > 8) {
+          break; // read by readLong() below
+        }
+        long l = VarInts.value(word, length);
+        p += length;
+        dst[i++] = (l >>> 1) ^ -(l & 1);
+      }
+      pos = p;
+      if (i < end) {
+        dst[i++] = readLong();
+      }
+    }
+  }
+
+  @Override
+  public void readFloats(float[] dst, int off, int len) throws IOException {
+    int i = off;
+    int end = off + len;
+    while (i < end) {
+      int p = pos;
+      int batchEnd = i + Math.min(end - i, (limit - p) >> 2);
+      for (; i < batchEnd; i++, p += 4) {
+        dst[i] = Float.intBitsToFloat((buf[p] & 0xff) | ((buf[p + 1] & 0xff) << 8)
+            | ((buf[p + 2] & 0xff) << 16) | ((buf[p + 3] & 0xff) << 24));
+      }
+      pos = p;
+      if (i < end) {
+        dst[i++] = readFloat();
+      }
+    }
+  }
+
+  @Override
+  public void readDoubles(double[] dst, int off, int len) throws IOException {
+    int i = off;
+    int end = off + len;
+    while (i < end) {
+      int p = pos;
+      int batchEnd = i + Math.min(end - i, (limit - p) >> 3);
+      for (; i < batchEnd; i++, p += 8) {
+        int n1 = (buf[p] & 0xff) | ((buf[p + 1] & 0xff) << 8)
+            | ((buf[p + 2] & 0xff) << 16) | ((buf[p + 3] & 0xff) << 24);
+        int n2 = (buf[p + 4] & 0xff) | ((buf[p + 5] & 0xff) << 8)
+            | ((buf[p + 6] & 0xff) << 16) | ((buf[p + 7] & 0xff) << 24);
+        dst[i] = Double.longBitsToDouble((((long) n1) & 0xffffffffL) | (((long) n2) << 32));
+      }
+      pos = p;
+      if (i < end) {
+        dst[i++] = readDouble();
+      }
+    }
+  }
+
   @Override
   public float readFloat() throws IOException {
     ensureBounds(4);
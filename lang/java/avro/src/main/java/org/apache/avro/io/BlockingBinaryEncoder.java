@@ -285,6 +285,40 @@ public class BlockingBinaryEncoder extends BufferedBinaryEncoder {
     pos += 8;
   }
 
+  // items are written one at a time, as every item may end a block
+
+  @Override
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeInt(src[i]);
+    }
+  }
+
+  @Override
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeLong(src[i]);
+    }
+  }
+
+  @Override
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeFloat(src[i]);
+    }
+  }
+
+  @Override
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeDouble(src[i]);
+    }
+  }
+
   @Override
   public void writeFixed(byte[] bytes, int start, int len) throws IOException {
     doWriteBytes(bytes, start, len);
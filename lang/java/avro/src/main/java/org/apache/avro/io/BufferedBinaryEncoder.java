@@ -144,6 +144,51 @@ public class BufferedBinaryEncoder extends BinaryEncoder {
     pos += 8;
   }
 
+  @Override
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end;) {
+      ensureBounds(5);
+      // encode as many items as surely fit in the buffer
+      int batchEnd = Math.min(end, i + (buf.length - pos) / 5);
+      for (; i < batchEnd; i++) {
+        pos += BinaryData.encodeInt(src[i], buf, pos);
+      }
+    }
+  }
+
+  @Override
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end;) {
+      ensureBounds(10);
+      int batchEnd = Math.min(end, i + (buf.length - pos) / 10);
+      for (; i < batchEnd; i++) {
+        pos += BinaryData.encodeLong(src[i], buf, pos);
+      }
+    }
+  }
+
+  @Override
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end;) {
+      ensureBounds(4);
+      int batchEnd = Math.min(end, i + ((buf.length - pos) >> 2));
+      for (; i < batchEnd; i++, pos += 4) {
+        BinaryData.encodeFloat(src[i], buf, pos);
+      }
+    }
+  }
+
+  @Override
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end;) {
+      ensureBounds(8);
+      int batchEnd = Math.min(end, i + ((buf.length - pos) >> 3));
+      for (; i < batchEnd; i++, pos += 8) {
+        BinaryData.encodeDouble(src[i], buf, pos);
+      }
+    }
+  }
+
   @Override
   public void writeFixed(byte[] bytes, int start, int len) throws IOException {
     if (len > bulkLimit) {
@@ -0,0 +1,333 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An {@link Encoder} for Avro's binary encoding that writes into
+ * {@link ByteBuffer}s: either a growing chain of direct buffers, or a single
+ * buffer supplied by the caller. The written bytes are returned by
+ * {@link #getBuffers()}, ready for a gathering write to a channel, without
+ * being copied to the heap.
+ * <p/>
+ * Space can be reserved and written later, for instance to write a length
+ * before the data it measures: see {@link #reserveInt()} and
+ * {@link #patchInt(long, int)}.
+ * <p/>
+ * To construct, use {@link EncoderFactory#byteBufferEncoder(BinaryEncoder)} or
+ * {@link EncoderFactory#byteBufferEncoder(ByteBuffer, BinaryEncoder)}.
+ * <p/>
+ * ByteBufferEncoder is not thread-safe
+ * @see EncoderFactory
+ */
+public class ByteBufferEncoder extends BinaryEncoder {
+  /** The size of a reservation for a padded int varint. */
+  static final int INT_RESERVATION = 5;
+  /** The size of a reservation for a padded long varint. */
+  static final int LONG_RESERVATION = 10;
+
+  private final List<ByteBuffer> chunks = new ArrayList<>();
+  /** The position of the start of each chunk, as returned by position(). */
+  private long[] offsets = new long[4];
+  /** The size of new chunks, or 0 if writing into the caller's buffer. */
+  private int chunkSize;
+  private int index;
+  private ByteBuffer current;
+
+  ByteBufferEncoder(int chunkSize) {
+    configure(chunkSize);
+  }
+
+  ByteBufferEncoder(ByteBuffer target) {
+    configure(target);
+  }
+
+  /** Writes into direct buffers of the given size, reusing the current ones. */
+  ByteBufferEncoder configure(int chunkSize) {
+    if (this.chunkSize != chunkSize) {
+      chunks.clear();
+      this.chunkSize = chunkSize;
+    }
+    offsets[0] = 0;
+    moveTo(0, 0);
+    return this;
+  }
+
+  /** Writes into the given buffer, from its position to its limit. */
+  ByteBufferEncoder configure(ByteBuffer target) {
+    chunks.clear();
+    chunks.add(target.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+    chunkSize = 0;
+    offsets[0] = -target.position();
+    index = 0;
+    current = chunks.get(0);
+    return this;
+  }
+
+  /**
+   * Discards what was written, to write again from the start. The buffers are
+   * reused, so the buffers returned by {@link #getBuffers()} are overwritten.
+   */
+  public void reset() {
+    if (chunkSize == 0) {
+      current = chunks.get(0);
+      ((Buffer) current).position((int) -offsets[0]);
+      index = 0;
+    } else {
+      moveTo(0, 0);
+    }
+  }
+
+  /** Makes the chunk at i, with room for at least size bytes, current. */
+  private void moveTo(int i, int size) {
+    if (i == chunks.size()) {
+      chunks.add(ByteBuffer.allocateDirect(Math.max(chunkSize, size)).order(ByteOrder.LITTLE_ENDIAN));
+    } else if (chunks.get(i).capacity() < size) {
+      chunks.set(i, ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN));
+    }
+    index = i;
+    current = chunks.get(i);
+    ((Buffer) current).clear();
+  }
+
+  /** Ensures that the current chunk has num bytes free, in a row. */
+  private void ensureBounds(int num) {
+    if (current.remaining() < num) {
+      nextChunk(num);
+    }
+  }
+
+  private void nextChunk(int num) {
+    if (chunkSize == 0) {
+      throw new BufferOverflowException();
+    }
+    if (index + 1 == offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+    // the rest of the current chunk is left unused
+    offsets[index + 1] = offsets[index] + current.position();
+    moveTo(index + 1, num);
+  }
+
+  /** Returns the number of bytes written. */
+  public long position() {
+    return offsets[index] + current.position();
+  }
+
+  /**
+   * Returns the written bytes, as buffers to read in order. The buffers share
+   * their content with this encoder, until it is reset.
+   */
+  public ByteBuffer[] getBuffers() {
+    ByteBuffer[] result = new ByteBuffer[index + 1];
+    for (int i = 0; i <= index; i++) {
+      ByteBuffer chunk = chunks.get(i).duplicate();
+      ((Buffer) chunk).flip();
+      if (i == 0) {
+        ((Buffer) chunk).position((int) -offsets[0]);
+      }
+      result[i] = chunk;
+    }
+    return result;
+  }
+
+  /**
+   * Reserves <tt>length</tt> bytes, in a row, to be written later with
+   * {@link #patch(long, byte[], int, int)}.
+   * @return the position of the reserved bytes.
+   */
+  public long reserve(int length) {
+    ensureBounds(length);
+    long position = position();
+    ((Buffer) current).position(current.position() + length);
+    return position;
+  }
+
+  /** Writes bytes into space that was reserved at <tt>position</tt>. */
+  public void patch(long position, byte[] bytes, int start, int len) {
+    int i = chunkIndex(position, len);
+    ByteBuffer chunk = chunks.get(i);
+    int at = (int) (position - offsets[i]);
+    for (int j = 0; j < len; j++) {
+      chunk.put(at + j, bytes[start + j]);
+    }
+  }
+
+  /**
+   * Reserves space for an int, to be written later with
+   * {@link #patchInt(long, int)}.
+   * @return the position of the reserved space.
+   */
+  public long reserveInt() {
+    return reserve(INT_RESERVATION);
+  }
+
+  /**
+   * Writes an int into space reserved with {@link #reserveInt()}. The int is
+   * written as a 5 byte varint, padded with continuation bytes, which binary
+   * decoders read as any other int.
+   */
+  public void patchInt(long position, int n) {
+    int i = chunkIndex(position, INT_RESERVATION);
+    ByteBuffer chunk = chunks.get(i);
+    int at = (int) (position - offsets[i]);
+    int val = (n << 1) ^ (n >> 31);
+    for (int j = 0; j < INT_RESERVATION - 1; j++) {
+      chunk.put(at + j, (byte) (0x80 | (val & 0x7f)));
+      val >>>= 7;
+    }
+    chunk.put(at + INT_RESERVATION - 1, (byte) val);
+  }
+
+  /**
+   * Reserves space for a long, to be written later with
+   * {@link #patchLong(long, long)}.
+   * @return the position of the reserved space.
+   */
+  public long reserveLong() {
+    return reserve(LONG_RESERVATION);
+  }
+
+  /**
+   * Writes a long into space reserved with {@link #reserveLong()}, as a 10
+   * byte varint.
+   * @see #patchInt(long, int)
+   */
+  public void patchLong(long position, long n) {
+    int i = chunkIndex(position, LONG_RESERVATION);
+    ByteBuffer chunk = chunks.get(i);
+    int at = (int) (position - offsets[i]);
+    long val = (n << 1) ^ (n >> 63);
+    for (int j = 0; j < LONG_RESERVATION - 1; j++) {
+      chunk.put(at + j, (byte) (0x80 | (val & 0x7f)));
+      val >>>= 7;
+    }
+    chunk.put(at + LONG_RESERVATION - 1, (byte) val);
+  }
+
+  /** Returns the index of the chunk holding the len bytes at position. */
+  private int chunkIndex(long position, int len) {
+    if (position < 0 || len < 0 || position + len > position()) {
+      throw new IndexOutOfBoundsException("Not written: " + position);
+    }
+    int i = Arrays.binarySearch(offsets, 0, index + 1, position);
+    // chunks left empty share their offset with the next one
+    if (i >= 0) {
+      while (i < index && offsets[i + 1] == position) {
+        i++;
+      }
+      return i;
+    }
+    return -i - 2;
+  }
+
+  @Override
+  public void flush() throws IOException {
+  }
+
+  @Override
+  public void writeBoolean(boolean b) throws IOException {
+    ensureBounds(1);
+    current.put(b ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public void writeInt(int n) throws IOException {
+    ensureBounds(5);
+    int val = (n << 1) ^ (n >> 31);
+    while ((val & ~0x7F) != 0) {
+      current.put((byte) (0x80 | (val & 0x7f)));
+      val >>>= 7;
+    }
+    current.put((byte) val);
+  }
+
+  @Override
+  public void writeLong(long n) throws IOException {
+    ensureBounds(10);
+    long val = (n << 1) ^ (n >> 63);
+    while ((val & ~0x7FL) != 0) {
+      current.put((byte) (0x80 | (val & 0x7f)));
+      val >>>= 7;
+    }
+    current.put((byte) val);
+  }
+
+  @Override
+  public void writeFloat(float f) throws IOException {
+    ensureBounds(4);
+    current.putFloat(f);
+  }
+
+  @Override
+  public void writeDouble(double d) throws IOException {
+    ensureBounds(8);
+    current.putDouble(d);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) throws IOException {
+    while (len > 0) {
+      if (!current.hasRemaining()) {
+        nextChunk(1);
+      }
+      int n = Math.min(len, current.remaining());
+      current.put(bytes, start, n);
+      start += n;
+      len -= n;
+    }
+  }
+
+  @Override
+  public void writeFixed(ByteBuffer bytes) throws IOException {
+    ByteBuffer src = bytes.duplicate();
+    while (src.hasRemaining()) {
+      if (!current.hasRemaining()) {
+        nextChunk(1);
+      }
+      if (src.remaining() <= current.remaining()) {
+        current.put(src);
+      } else {
+        ByteBuffer part = src.duplicate();
+        ((Buffer) part).limit(part.position() + current.remaining());
+        ((Buffer) src).position(part.limit());
+        current.put(part);
+      }
+    }
+  }
+
+  @Override
+  protected void writeZero() throws IOException {
+    ensureBounds(1);
+    current.put((byte) 0);
+  }
+
+  /** Returns the number of bytes written, as they are all held by this. */
+  @Override
+  public int bytesBuffered() {
+    return (int) Math.min(position(), Integer.MAX_VALUE);
+  }
+}
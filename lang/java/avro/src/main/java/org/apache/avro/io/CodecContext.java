@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.nio.ByteBuffer;
+import org.apache.avro.util.ByteArrayBuilder;
+import org.apache.avro.util.Recycler;
+import org.apache.avro.util.ReuseStrategy;
+import org.apache.avro.util.ReusableByteArrayInputStream;
+import org.apache.avro.util.ReusableByteBufferInputStream;
+
+/**
+ * The encoders, decoders and buffers reused from one binary encoding or
+ * decoding to the next. A context is used by one thread at a time: callers
+ * can own one, and pass it to the methods that take it, like
+ * {@link EncoderFactory#contextBinaryEncoder(CodecContext, java.io.OutputStream)},
+ * {@link DecoderFactory#contextBinaryDecoder(CodecContext, byte[], int, int)} or
+ * {@link org.apache.avro.message.MessageDecoder#decode(byte[], Object, CodecContext)},
+ * and the methods that do not take one use a context from {@link #acquire()},
+ * recycled with the {@link ReuseStrategy#getDefault() default reuse strategy}.
+ * <p/>
+ * A context returns the same instances again, so what it returned must not be
+ * used once it is asked for another one of the same kind.
+ */
+public final class CodecContext {
+
+  private static final Recycler<CodecContext> RECYCLER = ReuseStrategy.getDefault().newRecycler(CodecContext::new);
+
+  BinaryEncoder bufferedEncoder;
+  BinaryEncoder directEncoder;
+  BinaryDecoder bufferedDecoder;
+  BinaryDecoder directDecoder;
+  private ByteArrayBuilder output;
+  private ReusableByteArrayInputStream byteArrayInput;
+  private ReusableByteBufferInputStream byteBufferInput;
+  private byte[] bytes;
+
+  /** Returns a context that is not used by another thread, to give back with {@link #release(CodecContext)}. */
+  public static CodecContext acquire() {
+    return RECYCLER.acquire();
+  }
+
+  /** Gives back a context returned by {@link #acquire()}; it must not be used afterwards. */
+  public static void release(final CodecContext context) {
+    RECYCLER.release(context);
+  }
+
+  /**
+   * Returns true if released contexts are only reused by the thread that
+   * released them, so that the buffers they returned stay valid until its
+   * next encoding or decoding.
+   */
+  public static boolean isThreadConfined() {
+    return ReuseStrategy.getDefault().isThreadConfined();
+  }
+
+  /** Returns an empty output buffer. */
+  public ByteArrayBuilder outputBuffer() {
+    if (output == null) {
+      output = new ByteArrayBuilder(32);
+    } else {
+      output.reset();
+    }
+    return output;
+  }
+
+  /** Returns an input stream reading <tt>length</tt> bytes of <tt>buf</tt> from <tt>offset</tt>. */
+  public ReusableByteArrayInputStream byteArrayInput(final byte[] buf, final int offset, final int length) {
+    if (byteArrayInput == null) {
+      byteArrayInput = new ReusableByteArrayInputStream();
+    }
+    byteArrayInput.setByteArray(buf, offset, length);
+    return byteArrayInput;
+  }
+
+  /** Returns an input stream reading the remaining bytes of <tt>buf</tt>. */
+  public ReusableByteBufferInputStream byteBufferInput(final ByteBuffer buf) {
+    if (byteBufferInput == null) {
+      byteBufferInput = new ReusableByteBufferInputStream();
+    }
+    byteBufferInput.setByteBuffer(buf);
+    return byteBufferInput;
+  }
+
+  /** Returns a scratch byte array of at least <tt>minLength</tt> bytes. */
+  public byte[] bytes(final int minLength) {
+    if (bytes == null || bytes.length < minLength) {
+      bytes = new byte[minLength];
+    }
+    return bytes;
+  }
+}
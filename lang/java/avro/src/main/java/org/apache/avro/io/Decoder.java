@@ -195,6 +195,50 @@ public abstract class Decoder {
    */
   public abstract long arrayNext() throws IOException;
 
+  /**
+   * Reads <tt>len</tt> int items of the current array block into
+   * <tt>dst</tt>, starting at <tt>off</tt>. Equivalent to calling
+   * {@link #readInt()} <tt>len</tt> times, which is what this implementation
+   * does; binary decoders decode the items in a tight loop.
+   * @throws AvroTypeException If this is a stateful reader and
+   *          the items are not ints
+   */
+  public void readInts(int[] dst, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      dst[i] = readInt();
+    }
+  }
+
+  /**
+   * Reads <tt>len</tt> long items of the current array block.
+   * @see #readInts(int[], int, int)
+   */
+  public void readLongs(long[] dst, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      dst[i] = readLong();
+    }
+  }
+
+  /**
+   * Reads <tt>len</tt> float items of the current array block.
+   * @see #readInts(int[], int, int)
+   */
+  public void readFloats(float[] dst, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      dst[i] = readFloat();
+    }
+  }
+
+  /**
+   * Reads <tt>len</tt> double items of the current array block.
+   * @see #readInts(int[], int, int)
+   */
+  public void readDoubles(double[] dst, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      dst[i] = readDouble();
+    }
+  }
+
   /**
    * Used for quickly skipping through an array.  Note you can
    * either skip the entire array, or read the entire array (with
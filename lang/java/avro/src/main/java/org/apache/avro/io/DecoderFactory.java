@@ -136,6 +136,17 @@ public class DecoderFactory {
     }
   }
 
+  /**
+   * Like {@link #binaryDecoder(InputStream, BinaryDecoder)}, reusing the
+   * buffered decoder of a {@link CodecContext}. The returned decoder is the
+   * one the context returns until its next call.
+   */
+  public BinaryDecoder contextBinaryDecoder(CodecContext context, InputStream in) {
+    BinaryDecoder decoder = binaryDecoder(in, context.bufferedDecoder);
+    context.bufferedDecoder = decoder;
+    return decoder;
+  }
+
   /**
    * Creates or reinitializes a {@link BinaryDecoder} with the input stream
    * provided as the source of data. If <i>reuse</i> is provided, it will be
@@ -176,6 +187,17 @@ public class DecoderFactory {
     }
   }
 
+  /**
+   * Like {@link #directBinaryDecoder(InputStream, BinaryDecoder)}, reusing the
+   * direct decoder of a {@link CodecContext}. The returned decoder is the one
+   * the context returns until its next call.
+   */
+  public BinaryDecoder contextDirectBinaryDecoder(CodecContext context, InputStream in) {
+    BinaryDecoder decoder = directBinaryDecoder(in, context.directDecoder);
+    context.directDecoder = decoder;
+    return decoder;
+  }
+
   /** @deprecated use {@link #binaryDecoder(byte[], int, int, BinaryDecoder)}
    * instead */
   @Deprecated
@@ -218,6 +240,17 @@ public class DecoderFactory {
     }
   }
 
+  /**
+   * Like {@link #binaryDecoder(byte[], int, int, BinaryDecoder)}, reusing the
+   * buffered decoder of a {@link CodecContext}. The returned decoder is the
+   * one the context returns until its next call.
+   */
+  public BinaryDecoder contextBinaryDecoder(CodecContext context, byte[] bytes, int offset, int length) {
+    BinaryDecoder decoder = binaryDecoder(bytes, offset, length, context.bufferedDecoder);
+    context.bufferedDecoder = decoder;
+    return decoder;
+  }
+
   /** @deprecated use {@link #binaryDecoder(byte[], BinaryDecoder)} instead */
   @Deprecated
   public BinaryDecoder createBinaryDecoder(byte[] bytes, BinaryDecoder reuse) {
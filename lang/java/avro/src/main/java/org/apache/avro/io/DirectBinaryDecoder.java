@@ -81,6 +81,7 @@ class DirectBinaryDecoder extends BinaryDecoder {
     this.in = in;
     byteReader = (in instanceof ByteBufferInputStream) ?
             new ReuseByteReader((ByteBufferInputStream) in) : new ByteReader();
+    setSizedRecords(false);
     return this;
   }
 
@@ -238,6 +238,53 @@ public abstract class Encoder implements Flushable {
    */
   public abstract void startItem() throws IOException;
 
+  /**
+   * Writes <tt>len</tt> int items of an array or map batch, from
+   * <tt>src</tt> starting at <tt>off</tt>. Equivalent to calling
+   * {@link #startItem()} and {@link #writeInt(int)} for each item, which is
+   * what this implementation does; binary encoders encode the items in a tight
+   * loop.
+   */
+  public void writeInts(int[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeInt(src[i]);
+    }
+  }
+
+  /**
+   * Writes <tt>len</tt> long items of an array or map batch.
+   * @see #writeInts(int[], int, int)
+   */
+  public void writeLongs(long[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeLong(src[i]);
+    }
+  }
+
+  /**
+   * Writes <tt>len</tt> float items of an array or map batch.
+   * @see #writeInts(int[], int, int)
+   */
+  public void writeFloats(float[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeFloat(src[i]);
+    }
+  }
+
+  /**
+   * Writes <tt>len</tt> double items of an array or map batch.
+   * @see #writeInts(int[], int, int)
+   */
+  public void writeDoubles(double[] src, int off, int len) throws IOException {
+    for (int i = off, end = off + len; i < end; i++) {
+      startItem();
+      writeDouble(src[i]);
+    }
+  }
+
   /**
    * Call this method to finish writing an array.
    * See {@link #writeArrayStart} for usage information.
@@ -295,5 +342,20 @@ public abstract class Encoder implements Flushable {
    * map is not expected
    */
   public abstract void writeIndex(int unionIndex) throws IOException;
+
+  /**
+   * Call this method before writing the fields of a record, and
+   * {@link #writeRecordEnd()} after them. Most encoders ignore these calls;
+   * {@link SizedRecordEncoder} uses them to prefix records with their size.
+   */
+  public void writeRecordStart() throws IOException {
+  }
+
+  /**
+   * Call this method after writing the fields of a record.
+   * @see #writeRecordStart()
+   */
+  public void writeRecordEnd() throws IOException {
+  }
 }
 
@@ -20,6 +20,7 @@ package org.apache.avro.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -178,6 +179,17 @@ public class EncoderFactory {
     }
   }
 
+  /**
+   * Like {@link #binaryEncoder(OutputStream, BinaryEncoder)}, reusing the
+   * buffered encoder of a {@link CodecContext}. The returned encoder is the
+   * one the context returns until its next call.
+   */
+  public BinaryEncoder contextBinaryEncoder(CodecContext context, OutputStream out) {
+    BinaryEncoder encoder = binaryEncoder(out, context.bufferedEncoder);
+    context.bufferedEncoder = encoder;
+    return encoder;
+  }
+
   /**
    * Creates or reinitializes a {@link BinaryEncoder} with the OutputStream
    * provided as the destination for written data. If <i>reuse</i> is provided,
@@ -219,6 +231,82 @@ public class EncoderFactory {
     }
   }
 
+  /**
+   * Like {@link #directBinaryEncoder(OutputStream, BinaryEncoder)}, reusing
+   * the direct encoder of a {@link CodecContext}. The returned encoder is the
+   * one the context returns until its next call.
+   */
+  public BinaryEncoder contextDirectBinaryEncoder(@Nonnull CodecContext context, @Nonnull OutputStream out) {
+    BinaryEncoder encoder = directBinaryEncoder(out, context.directEncoder);
+    context.directEncoder = encoder;
+    return encoder;
+  }
+
+  /**
+   * Creates or reinitializes a {@link ByteBufferEncoder} that writes into a
+   * growing chain of direct ByteBuffers, each of the block size configured
+   * with {@link #configureBlockSize(int)}. If <i>reuse</i> is a
+   * ByteBufferEncoder, it is reset and returned, keeping its buffers.
+   * <p/>
+   * The written data is returned by {@link ByteBufferEncoder#getBuffers()}.
+   * {@link ByteBufferEncoder} instances are not thread-safe.
+   *
+   * @param reuse
+   *          The BinaryEncoder to <i>attempt</i> to reuse. If null, a new
+   *          instance is returned.
+   * @see ByteBufferEncoder
+   */
+  public ByteBufferEncoder byteBufferEncoder(@Nullable BinaryEncoder reuse) {
+    if (null == reuse || !reuse.getClass().equals(ByteBufferEncoder.class)) {
+      return new ByteBufferEncoder(this.binaryBlockSize);
+    } else {
+      return ((ByteBufferEncoder) reuse).configure(this.binaryBlockSize);
+    }
+  }
+
+  /**
+   * Creates or reinitializes a {@link ByteBufferEncoder} that writes into
+   * <i>target</i>, from its position up to its limit. Writing past the limit
+   * throws a {@link java.nio.BufferOverflowException}. The position of
+   * <i>target</i> is not changed: the number of bytes written is returned by
+   * {@link ByteBufferEncoder#position()}.
+   *
+   * @param target
+   *          The buffer to write to, heap or direct. Cannot be null.
+   * @param reuse
+   *          The BinaryEncoder to <i>attempt</i> to reuse. If null, a new
+   *          instance is returned.
+   * @see ByteBufferEncoder
+   */
+  public ByteBufferEncoder byteBufferEncoder(@Nonnull ByteBuffer target, @Nullable BinaryEncoder reuse) {
+    if (null == reuse || !reuse.getClass().equals(ByteBufferEncoder.class)) {
+      return new ByteBufferEncoder(target);
+    } else {
+      return ((ByteBufferEncoder) reuse).configure(target);
+    }
+  }
+
+  /**
+   * Creates or reinitializes a {@link SizedRecordEncoder}, which writes the
+   * sized record variant of the binary encoding to <i>out</i>: every record is
+   * prefixed with its size in bytes, so that readers can skip it without
+   * decoding it.
+   *
+   * @param out
+   *          The BinaryEncoder to write to. Cannot be null.
+   * @param reuse
+   *          The BinaryEncoder to <i>attempt</i> to reuse. If null, a new
+   *          instance is returned.
+   * @see SizedRecordEncoder
+   */
+  public SizedRecordEncoder sizedRecordEncoder(@Nonnull BinaryEncoder out, @Nullable BinaryEncoder reuse) {
+    if (null == reuse || !reuse.getClass().equals(SizedRecordEncoder.class)) {
+      return new SizedRecordEncoder(out);
+    } else {
+      return ((SizedRecordEncoder) reuse).configure(out);
+    }
+  }
+
   /**
    * Creates or reinitializes a {@link BinaryEncoder} with the OutputStream
    * provided as the destination for written data. If <i>reuse</i> is provided,
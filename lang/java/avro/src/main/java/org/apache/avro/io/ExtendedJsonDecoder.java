@@ -28,10 +28,12 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.apache.avro.LogicalType;
 import static org.apache.avro.io.JsonDecoder.CHARSET;
 import org.apache.avro.io.parsing.JsonGrammarGenerator;
 import org.apache.avro.io.parsing.Parser;
+import org.apache.avro.util.CompactDecimal;
 
 /**
  * This class extends the JsonDecoder to:
@@ -102,6 +104,33 @@ public final class ExtendedJsonDecoder extends JsonDecoder
     return n;
   }
 
+  /**
+   * Overwrite to support decoding of union {null, anyType} in streaming mode.
+   */
+  @Override
+  public int readIndex(final Schema union) throws IOException {
+    if (isStreaming() && in.getCurrentToken() != JsonToken.VALUE_NULL) {
+      List<Schema> types = union.getTypes();
+      if (types.size() == 2) {
+        if (types.get(0).getType() == Schema.Type.NULL) {
+          advance(Symbol.UNION);
+          pushUnion(false);
+          return 1;
+        } else if (types.get(1).getType() == Schema.Type.NULL) {
+          advance(Symbol.UNION);
+          pushUnion(false);
+          return 0;
+        }
+      }
+    }
+    return super.readIndex(union);
+  }
+
+  @Override
+  protected boolean isLenient() {
+    return lenient;
+  }
+
   /**
    * Overwrite to inject default values.
    *
@@ -245,8 +274,7 @@ public final class ExtendedJsonDecoder extends JsonDecoder
   @Override
   public String readString() throws IOException {
     advance(Symbol.STRING);
-    if (parser.topSymbol() == Symbol.MAP_KEY_MARKER) {
-      parser.advance(Symbol.MAP_KEY_MARKER);
+    if (isMapKey()) {
       if (in.getCurrentToken() != JsonToken.FIELD_NAME) {
         throw error("map-key");
       }
@@ -268,8 +296,7 @@ public final class ExtendedJsonDecoder extends JsonDecoder
   @Override
   public void skipString() throws IOException {
     advance(Symbol.STRING);
-    if (parser.topSymbol() == Symbol.MAP_KEY_MARKER) {
-      parser.advance(Symbol.MAP_KEY_MARKER);
+    if (isMapKey()) {
       if (in.getCurrentToken() != JsonToken.FIELD_NAME) {
         throw error("map-key");
       }
@@ -375,6 +402,32 @@ public final class ExtendedJsonDecoder extends JsonDecoder
     return result;
   }
 
+  @Override
+  public CompactDecimal readCompactDecimal(final Schema schema) throws IOException {
+    JsonToken currentToken = in.getCurrentToken();
+    CompactDecimal result;
+    switch (currentToken) {
+      case VALUE_NUMBER_INT:
+        if (in.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+          result = CompactDecimal.valueOf(in.getDecimalValue());
+        } else {
+          result = CompactDecimal.valueOf(in.getLongValue());
+        }
+        break;
+      case VALUE_NUMBER_FLOAT:
+        result = CompactDecimal.parse(in.getTextCharacters(), in.getTextOffset(), in.getTextLength());
+        if (result == null) {
+          result = CompactDecimal.valueOf(in.getDecimalValue());
+        }
+        break;
+      default:
+        return null;
+    }
+    advanceBy(schema);
+    in.nextToken();
+    return result;
+  }
+
   @Override
   public <T> T readValue(final Schema schema, final Class<T> clasz) throws IOException {
     advanceBy(schema);
@@ -407,6 +460,9 @@ public final class ExtendedJsonDecoder extends JsonDecoder
   }
 
   public void advanceBy(final Schema schema) throws IOException {
+    if (isStreaming()) {
+      return;
+    }
     Schema.Type type = schema.getType();
     switch (type) {
       case BYTES:
@@ -11,6 +11,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import org.apache.avro.AvroTypeException;
 import org.apache.avro.io.parsing.JsonGrammarGenerator;
+import org.apache.avro.util.CompactDecimal;
 
 /**
  * A derived encoder that does the skipping of fields that match the index. It also encodes unions of null and a single
@@ -20,6 +21,8 @@ import org.apache.avro.io.parsing.JsonGrammarGenerator;
 public final class ExtendedJsonEncoder extends JsonEncoder
         implements JsonExtensionEncoder {
 
+  private final char[] chars = new char[CompactDecimal.MAX_CHARS];
+
 
   public ExtendedJsonEncoder(final Schema sc, final OutputStream out) throws IOException {
       super(sc, out);
@@ -71,6 +74,17 @@ public final class ExtendedJsonEncoder extends JsonEncoder
     out.writeNumber(decimal);
   }
 
+  @Override
+  public void writeDecimal(final CompactDecimal decimal, final Schema schema) throws IOException {
+    advanceBy(schema);
+    if (decimal.isCompact()) {
+      int len = decimal.toChars(chars, 0);
+      out.writeNumber(chars, 0, len);
+    } else {
+      out.writeNumber(decimal.toBigDecimal());
+    }
+  }
+
   @Override
   public void writeBigInteger(BigInteger decimal,final Schema schema) throws IOException {
     advanceBy(schema);
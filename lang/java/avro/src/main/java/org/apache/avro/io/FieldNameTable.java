@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.util.IdentityCache;
+
+/**
+ * Maps the field names and aliases of a record schema to field positions
+ * through a perfect hash: a multiplicative hash of {@link String#hashCode()}
+ * with a seed chosen so that no two names share a slot, so a lookup costs one
+ * multiplication and one {@link String#equals(Object)}.
+ */
+public final class FieldNameTable {
+
+  private static final IdentityCache<Schema, FieldNameTable> CACHE = new IdentityCache<>(
+      Integer.getInteger("avro.fieldNameTable.cacheSize", 1024));
+
+  /** Seeds tried per table size before the table is grown. */
+  private static final int MAX_SEED_ATTEMPTS = 256;
+
+  /** Table sizes tried, as a power of two multiple of the number of names. */
+  private static final int MAX_EXTRA_BITS = 4;
+
+  private final String[] names;
+  private final int[] positions;
+  private final int seed;
+  private final int shift;
+  /** Used instead of the arrays when names collide on their hash code. */
+  private final Map<String, Integer> fallback;
+
+  private FieldNameTable(String[] names, int[] positions, int seed, int shift) {
+    this.names = names;
+    this.positions = positions;
+    this.seed = seed;
+    this.shift = shift;
+    this.fallback = null;
+  }
+
+  private FieldNameTable(Map<String, Integer> fallback) {
+    this.names = null;
+    this.positions = null;
+    this.seed = 0;
+    this.shift = 0;
+    this.fallback = fallback;
+  }
+
+  /** Returns the cached name table of a record schema. */
+  public static FieldNameTable get(Schema record) {
+    return CACHE.computeIfAbsent(record, FieldNameTable::build);
+  }
+
+  /** Builds the name table of a record schema, including field aliases. */
+  public static FieldNameTable build(Schema record) {
+    if (record.getType() != Schema.Type.RECORD) {
+      throw new AvroRuntimeException("Not a record: " + record);
+    }
+    Map<String, Integer> byName = new HashMap<>();
+    for (Schema.Field field : record.getFields()) {
+      for (String alias : field.aliases()) {
+        byName.putIfAbsent(alias, field.pos());
+      }
+    }
+    for (Schema.Field field : record.getFields()) {
+      byName.put(field.name(), field.pos());
+    }
+    return build(byName);
+  }
+
+  static FieldNameTable build(Map<String, Integer> byName) {
+    int n = byName.size();
+    String[] keys = byName.keySet().toArray(new String[n]);
+    int[] hashes = new int[n];
+    for (int i = 0; i < n; i++) {
+      hashes[i] = keys[i].hashCode();
+    }
+    int minBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(1, n - 1)));
+    for (int bits = minBits; bits <= minBits + MAX_EXTRA_BITS && bits < 31; bits++) {
+      int shift = 32 - bits;
+      boolean[] used = new boolean[1 << bits];
+      int seed = 0x9E3779B9;
+      for (int attempt = 0; attempt < MAX_SEED_ATTEMPTS; attempt++, seed += 0x61C88646) {
+        if (isPerfect(hashes, seed | 1, shift, used)) {
+          String[] names = new String[1 << bits];
+          int[] positions = new int[1 << bits];
+          for (int i = 0; i < n; i++) {
+            int slot = ((seed | 1) * hashes[i]) >>> shift;
+            names[slot] = keys[i];
+            positions[slot] = byName.get(keys[i]);
+          }
+          return new FieldNameTable(names, positions, seed | 1, shift);
+        }
+      }
+    }
+    // names with equal hash codes can not be told apart by any seed
+    return new FieldNameTable(new HashMap<>(byName));
+  }
+
+  private static boolean isPerfect(int[] hashes, int seed, int shift, boolean[] used) {
+    Arrays.fill(used, false);
+    for (int hash : hashes) {
+      int slot = (seed * hash) >>> shift;
+      if (used[slot]) {
+        return false;
+      }
+      used[slot] = true;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the position of the field with the given name or alias, or -1 if
+   * the record has no such field.
+   */
+  public int indexOf(String name) {
+    if (fallback != null) {
+      Integer pos = fallback.get(name);
+      return pos == null ? -1 : pos;
+    }
+    int slot = (seed * name.hashCode()) >>> shift;
+    return name.equals(names[slot]) ? positions[slot] : -1;
+  }
+}
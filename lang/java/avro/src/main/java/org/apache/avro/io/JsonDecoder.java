@@ -41,6 +41,13 @@ import com.fasterxml.jackson.databind.util.TokenBuffer;
  * </p>
  * Construct using {@link DecoderFactory}.
  * </p>
+ * By default record fields are read in schema order: fields that arrive out of
+ * order are buffered until their turn comes. In {@link #setStreaming streaming}
+ * mode the grammar is not used, and readers that support it (like
+ * {@link org.apache.avro.generic.GenericDatumReader}) read record fields in
+ * arrival order through {@link #readFieldIndex(FieldNameTable)}, and fill in the
+ * missing ones from their defaults afterwards.
+ * </p>
  * JsonDecoder is not thread-safe.
  * */
 public class JsonDecoder extends ParsingDecoder
@@ -48,6 +55,9 @@ public class JsonDecoder extends ParsingDecoder
   protected JsonParser in;
   SimpleStack<ReorderBuffer> reorderBuffers = new SimpleStack<ReorderBuffer>(4);
   ReorderBuffer currentReorderBuffer;
+  private boolean streaming;
+  /** Whether each union being read in streaming mode is wrapped in an object. */
+  private final SimpleStack<Boolean> wrappedUnions = new SimpleStack<Boolean>(4);
 
   static class ReorderBuffer {
     public Map<String, TokenBuffer> savedFields = new HashMap<String, TokenBuffer>();
@@ -120,13 +130,54 @@ public class JsonDecoder extends ParsingDecoder
     return this;
   }
 
+  /**
+   * Switches streaming mode on or off. In streaming mode the decoder does not
+   * track the schema: record fields, enums, unions and fixed values must be read
+   * with the methods that take the schema or the field name table. Streaming
+   * mode may be switched on and off between datums.
+   * @return this JsonDecoder
+   */
+  public JsonDecoder setStreaming(boolean streaming) throws IOException {
+    if (streaming && !this.streaming) {
+      // the end of the last datum read in schema order is still pending
+      parser.processTrailingImplicitActions();
+    }
+    this.streaming = streaming;
+    return this;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /** Whether fields not in the schema are skipped, rather than rejected. */
+  protected boolean isLenient() {
+    return LENIENT;
+  }
+
   protected void advance(Symbol symbol) throws IOException {
+    if (streaming) {
+      if (in.getCurrentToken() == null)
+        throw new EOFException();
+      return;
+    }
     this.parser.processTrailingImplicitActions();
     if (in.getCurrentToken() == null && this.parser.depth() == 1)
       throw new EOFException();
     parser.advance(symbol);
   }
 
+  /**
+   * Advances past the end of an array or map, once its closing token is read.
+   * In streaming mode there is nothing to advance, and the input may end right
+   * after a top-level value.
+   */
+  private void advanceEnd(Symbol symbol) throws IOException {
+    if (!streaming) {
+      advance(symbol);
+    }
+  }
+
   @Override
   public void readNull() throws IOException {
     advance(Symbol.NULL);
@@ -204,6 +255,21 @@ public class JsonDecoder extends ParsingDecoder
     return result;
   }
 
+  /**
+   * Whether the string to read is a map key. In streaming mode map keys are
+   * told apart by the current token, otherwise by the grammar.
+   */
+  boolean isMapKey() throws IOException {
+    if (streaming) {
+      return in.getCurrentToken() == JsonToken.FIELD_NAME;
+    }
+    if (parser.topSymbol() == Symbol.MAP_KEY_MARKER) {
+      parser.advance(Symbol.MAP_KEY_MARKER);
+      return true;
+    }
+    return false;
+  }
+
   @Override
   public Utf8 readString(Utf8 old) throws IOException {
     return new Utf8(readString());
@@ -212,8 +278,7 @@ public class JsonDecoder extends ParsingDecoder
   @Override
   public String readString() throws IOException {
     advance(Symbol.STRING);
-    if (parser.topSymbol() == Symbol.MAP_KEY_MARKER) {
-      parser.advance(Symbol.MAP_KEY_MARKER);
+    if (isMapKey()) {
       if (in.getCurrentToken() != JsonToken.FIELD_NAME) {
         throw error("map-key");
       }
@@ -230,8 +295,7 @@ public class JsonDecoder extends ParsingDecoder
   @Override
   public void skipString() throws IOException {
     advance(Symbol.STRING);
-    if (parser.topSymbol() == Symbol.MAP_KEY_MARKER) {
-      parser.advance(Symbol.MAP_KEY_MARKER);
+    if (isMapKey()) {
       if (in.getCurrentToken() != JsonToken.FIELD_NAME) {
         throw error("map-key");
       }
@@ -271,6 +335,9 @@ public class JsonDecoder extends ParsingDecoder
 
   private void checkFixed(int size) throws IOException {
     advance(Symbol.FIXED);
+    if (streaming) {
+      return;
+    }
     Symbol.IntCheckAction top = (Symbol.IntCheckAction) parser.popSymbol();
     if (size != top.size) {
       throw new AvroTypeException(
@@ -337,6 +404,27 @@ public class JsonDecoder extends ParsingDecoder
     }
   }
 
+  /**
+   * Reads an enum symbol of the given enum schema. In streaming mode enums must
+   * be read with this method rather than {@link #readEnum()}.
+   */
+  public int readEnum(Schema schema) throws IOException {
+    if (!streaming) {
+      return readEnum();
+    }
+    advance(Symbol.ENUM);
+    if (in.getCurrentToken() == JsonToken.VALUE_STRING) {
+      String symbol = in.getText();
+      if (schema.hasEnumSymbol(symbol)) {
+        in.nextToken();
+        return schema.getEnumOrdinal(symbol);
+      }
+      throw new AvroTypeException("Unknown symbol in enum " + symbol);
+    } else {
+      throw error("enum");
+    }
+  }
+
   @Override
   public long readArrayStart() throws IOException {
     advance(Symbol.ARRAY_START);
@@ -356,7 +444,9 @@ public class JsonDecoder extends ParsingDecoder
 
   private long doArrayNext() throws IOException {
     if (in.getCurrentToken() == JsonToken.END_ARRAY) {
-      parser.advance(Symbol.ARRAY_END);
+      if (!streaming) {
+        parser.advance(Symbol.ARRAY_END);
+      }
       in.nextToken();
       return 0;
     } else {
@@ -370,7 +460,7 @@ public class JsonDecoder extends ParsingDecoder
     if (in.getCurrentToken() == JsonToken.START_ARRAY) {
       in.skipChildren();
       in.nextToken();
-      advance(Symbol.ARRAY_END);
+      advanceEnd(Symbol.ARRAY_END);
     } else {
       throw error("array-start");
     }
@@ -397,7 +487,7 @@ public class JsonDecoder extends ParsingDecoder
   private long doMapNext() throws IOException {
     if (in.getCurrentToken() == JsonToken.END_OBJECT) {
       in.nextToken();
-      advance(Symbol.MAP_END);
+      advanceEnd(Symbol.MAP_END);
       return 0;
     } else {
       return 1;
@@ -410,7 +500,7 @@ public class JsonDecoder extends ParsingDecoder
     if (in.getCurrentToken() == JsonToken.START_OBJECT) {
       in.skipChildren();
       in.nextToken();
-      advance(Symbol.MAP_END);
+      advanceEnd(Symbol.MAP_END);
     } else {
       throw error("map-start");
     }
@@ -440,6 +530,93 @@ public class JsonDecoder extends ParsingDecoder
     return n;
   }
 
+  /**
+   * Reads the branch index of the given union schema. In streaming mode unions
+   * must be read with this method rather than {@link #readIndex()}, and each
+   * branch value must be followed by a call to {@link #readUnionEnd()}.
+   */
+  public int readIndex(Schema union) throws IOException {
+    if (!streaming) {
+      return readIndex();
+    }
+    advance(Symbol.UNION);
+    String label;
+    if (in.getCurrentToken() == JsonToken.VALUE_NULL) {
+      label = "null";
+      wrappedUnions.push(Boolean.FALSE);
+    } else if (in.getCurrentToken() == JsonToken.START_OBJECT &&
+               in.nextToken() == JsonToken.FIELD_NAME) {
+      label = in.getText();
+      in.nextToken();
+      wrappedUnions.push(Boolean.TRUE);
+    } else {
+      throw error("start-union");
+    }
+    Integer n = union.getIndexNamed(label);
+    if (n == null)
+      throw new AvroTypeException("Unknown union branch " + label);
+    return n;
+  }
+
+  /** Pushes the wrapping of a union read in streaming mode. */
+  void pushUnion(boolean wrapped) {
+    wrappedUnions.push(wrapped);
+  }
+
+  /**
+   * Completes reading a union value in streaming mode; does nothing otherwise.
+   */
+  public void readUnionEnd() throws IOException {
+    if (streaming && wrappedUnions.pop()) {
+      if (in.getCurrentToken() == JsonToken.END_OBJECT) {
+        in.nextToken();
+      } else {
+        throw error("union-end");
+      }
+    }
+  }
+
+  /** Starts reading a record in streaming mode. */
+  public void readRecordStart() throws IOException {
+    if (in.getCurrentToken() == null) {
+      throw new EOFException();
+    }
+    if (in.getCurrentToken() == JsonToken.START_OBJECT) {
+      in.nextToken();
+    } else {
+      throw error("record-start");
+    }
+  }
+
+  /**
+   * Reads the next field name of a record in streaming mode, and returns its
+   * position, after which the field value must be read. Fields not in the
+   * table are skipped if the decoder is lenient, and rejected otherwise.
+   * @return the field position, or -1 once the end of the record is read.
+   */
+  public int readFieldIndex(FieldNameTable fields) throws IOException {
+    while (true) {
+      JsonToken token = in.getCurrentToken();
+      if (token == JsonToken.END_OBJECT) {
+        in.nextToken();
+        return -1;
+      } else if (token != JsonToken.FIELD_NAME) {
+        throw error("field-name");
+      }
+      String name = in.getText();
+      int pos = fields.indexOf(name);
+      in.nextToken();
+      if (pos >= 0) {
+        return pos;
+      }
+      if (!isLenient()) {
+        throw new AvroTypeException("Unknown field: " + name);
+      }
+      in.skipChildren();
+      in.nextToken();
+    }
+  }
+
   @Override
   public Symbol doAction(Symbol input, Symbol top) throws IOException {
     if (top instanceof Symbol.FieldAdjustAction) {
@@ -22,6 +22,7 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import javax.annotation.Nullable;
 import org.apache.avro.Schema;
+import org.apache.avro.util.CompactDecimal;
 
 /**
  * An extension interface that allows to decode decimal, and other json types naturally.
@@ -43,4 +44,15 @@ public interface JsonExtensionDecoder {
   @Nullable
   BigDecimal readBigDecimal(final Schema schema) throws IOException;
 
+  /**
+   * Null if no number is next. Implementations may read numbers of at most 18
+   * digits without a BigDecimal; by default the number is read with
+   * {@link #readBigDecimal(Schema)}.
+   */
+  @Nullable
+  default CompactDecimal readCompactDecimal(final Schema schema) throws IOException {
+    BigDecimal decimal = readBigDecimal(schema);
+    return decimal == null ? null : CompactDecimal.valueOf(decimal);
+  }
+
 }
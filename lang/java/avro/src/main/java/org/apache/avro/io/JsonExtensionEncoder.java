@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import org.apache.avro.Schema;
+import org.apache.avro.util.CompactDecimal;
 
 /**
  *
@@ -29,5 +30,10 @@ public interface JsonExtensionEncoder {
 
   void writeDecimal(final BigDecimal decimal, final Schema schema) throws IOException;
 
+  /** Writes with {@link #writeDecimal(BigDecimal, Schema)}, unless implementations can do better. */
+  default void writeDecimal(final CompactDecimal decimal, final Schema schema) throws IOException {
+    writeDecimal(decimal.toBigDecimal(), schema);
+  }
+
   void writeBigInteger(final BigInteger decimal, final Schema schema) throws IOException;
 }
@@ -23,6 +23,7 @@ import java.math.BigInteger;
 import org.apache.avro.Schema;
 import org.apache.avro.io.parsing.JsonGrammarGenerator;
 import org.apache.avro.io.parsing.Symbol;
+import org.apache.avro.util.CompactDecimal;
 
 /**
  *
@@ -58,6 +59,12 @@ implements JsonExtensionDecoder {
     return extDec.readBigDecimal(schema);
   }
 
+  @Override
+  public CompactDecimal readCompactDecimal(Schema schema) throws IOException {
+    advanceBy(schema);
+    return extDec.readCompactDecimal(schema);
+  }
+
   public void advanceBy(final Schema schema) throws IOException {
     Schema.Type type = schema.getType();
     switch (type) {
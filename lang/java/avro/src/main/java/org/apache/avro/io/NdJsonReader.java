@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.util.internal.Parallelism;
+
+/**
+ * Reads newline delimited JSON, one datum per line, parsing chunks of lines in
+ * parallel. The input is read on the calling thread and split on line
+ * boundaries into chunks, which are parsed by the given executor, each with its
+ * own {@link ExtendedJsonDecoder} and {@link DatumReader}. Data is returned in
+ * input order. At most two chunks per thread of the executor are parsed, or
+ * wait to be returned, at once.
+ * <p/>
+ * Blank lines are skipped. A NdJsonReader is not thread-safe.
+ */
+public final class NdJsonReader<D> implements Iterator<D>, Closeable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final InputStream in;
+  private final Schema schema;
+  private final Supplier<? extends DatumReader<D>> readers;
+  private final ExecutorService executor;
+  private final int chunkSize;
+  private final int maxPending;
+  private final ArrayDeque<Future<List<D>>> pending = new ArrayDeque<>();
+  private byte[] carry = EMPTY;
+  private long offset;
+  private boolean eof;
+  private Iterator<D> current = Collections.emptyIterator();
+
+  public NdJsonReader(InputStream in, Schema schema, Supplier<? extends DatumReader<D>> readers,
+      ExecutorService executor) {
+    this(in, schema, readers, executor, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * @param readers   creates a datum reader for every chunk.
+   * @param chunkSize the approximate number of bytes parsed per task.
+   */
+  public NdJsonReader(InputStream in, Schema schema, Supplier<? extends DatumReader<D>> readers,
+      ExecutorService executor, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+    }
+    this.in = in;
+    this.schema = schema;
+    this.readers = readers;
+    this.executor = executor;
+    this.chunkSize = chunkSize;
+    this.maxPending = 2 * Parallelism.of(executor);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      try {
+        submitChunks();
+        Future<List<D>> head = pending.poll();
+        if (head == null) {
+          return false;
+        }
+        current = await(head).iterator();
+      } catch (IOException e) {
+        cancel();
+        throw new UncheckedIOException(e);
+      } catch (RuntimeException e) {
+        cancel();
+        throw e;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public D next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
+  }
+
+  /** Returns the remaining data as an ordered stream, closing this on close. */
+  public Stream<D> stream() {
+    return StreamSupport
+        .stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  /** Cancels the chunks being parsed and closes the input. */
+  @Override
+  public void close() throws IOException {
+    cancel();
+    current = Collections.emptyIterator();
+    eof = true;
+    carry = EMPTY;
+    in.close();
+  }
+
+  private void cancel() {
+    for (Future<List<D>> chunk : pending) {
+      chunk.cancel(true);
+    }
+    pending.clear();
+  }
+
+  private List<D> await(Future<List<D>> chunk) throws IOException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new AvroRuntimeException(cause);
+    }
+  }
+
+  /** Read and submit chunks until enough are in flight, or the input ends. */
+  private void submitChunks() throws IOException {
+    while (pending.size() < maxPending && !(eof && carry.length == 0)) {
+      byte[] chunk = Arrays.copyOf(carry, Math.max(chunkSize, 2 * carry.length));
+      int filled = carry.length;
+      int end;
+      while (true) {
+        filled = fill(chunk, filled);
+        end = lastLineEnd(chunk, carry.length, filled);
+        if (end >= 0 || eof) {
+          break;
+        }
+        // a line longer than the chunk
+        chunk = Arrays.copyOf(chunk, 2 * chunk.length);
+      }
+      int length = end >= 0 ? end + 1 : filled;
+      carry = Arrays.copyOfRange(chunk, length, filled);
+      long chunkOffset = offset;
+      offset += length;
+      byte[] lines = chunk;
+      pending.add(executor.submit(() -> parse(lines, length, chunkOffset)));
+    }
+  }
+
+  private int fill(byte[] buf, int filled) throws IOException {
+    while (!eof && filled < buf.length) {
+      int n = in.read(buf, filled, buf.length - filled);
+      if (n < 0) {
+        eof = true;
+        break;
+      }
+      filled += n;
+    }
+    return filled;
+  }
+
+  private static int lastLineEnd(byte[] buf, int from, int to) {
+    for (int i = to - 1; i >= from; i--) {
+      if (buf[i] == '\n') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private List<D> parse(byte[] lines, int length, long chunkOffset) throws IOException {
+    int count = countRecords(lines, length);
+    List<D> result = new ArrayList<>(count);
+    if (count == 0) {
+      return result;
+    }
+    DatumReader<D> reader = readers.get();
+    ExtendedJsonDecoder decoder = new ExtendedJsonDecoder(schema, new ByteArrayInputStream(lines, 0, length));
+    // only the generic reader itself reads fields in arrival order, its
+    // subclasses override methods that streaming reads do not call
+    decoder.setStreaming(reader.getClass() == GenericDatumReader.class);
+    for (int i = 0; i < count; i++) {
+      try {
+        result.add(reader.read(null, decoder));
+      } catch (IOException | RuntimeException e) {
+        throw new AvroRuntimeException("Cannot parse record " + i + " of the chunk at byte " + chunkOffset, e);
+      }
+    }
+    return result;
+  }
+
+  /** Count the lines that are not blank. */
+  private static int countRecords(byte[] lines, int length) {
+    int count = 0;
+    boolean blank = true;
+    for (int i = 0; i < length; i++) {
+      byte b = lines[i];
+      if (b == '\n') {
+        if (!blank) {
+          count++;
+        }
+        blank = true;
+      } else if (b != ' ' && b != '\t' && b != '\r') {
+        blank = false;
+      }
+    }
+    return blank ? count : count + 1;
+  }
+}
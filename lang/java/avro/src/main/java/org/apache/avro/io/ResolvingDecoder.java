@@ -47,7 +47,11 @@ public class ResolvingDecoder extends ValidatingDecoder {
 
   ResolvingDecoder(Schema writer, Schema reader, Decoder in)
     throws IOException {
-    this(resolve(writer, reader), in);
+    this(ResolvingGrammarGenerator.getOrCreate(writer, reader, hasSizedRecords(in)), in);
+  }
+
+  private static boolean hasSizedRecords(Decoder in) {
+    return in instanceof BinaryDecoder && ((BinaryDecoder) in).hasSizedRecords();
   }
 
   /**
@@ -297,6 +301,8 @@ public class ResolvingDecoder extends ValidatingDecoder {
       } else {
         return t.writer;
       }
+    } else if (top instanceof Symbol.SizedRecordAction) {
+      in.readInt(); // the record is read field by field
     } else if (top instanceof Symbol.SkipAction) {
       Symbol symToSkip = ((Symbol.SkipAction) top).symToSkip;
       parser.skipSymbol(symToSkip);
@@ -323,6 +329,9 @@ public class ResolvingDecoder extends ValidatingDecoder {
     Symbol top = parser.popSymbol();
     if (top instanceof Symbol.ResolvingAction) {
       parser.pushSymbol(((Symbol.ResolvingAction) top).writer);
+    } else if (top instanceof Symbol.SizedRecordAction) {
+      in.skipFixed(in.readInt());
+      parser.popSymbols(((Symbol.SizedRecordAction) top).symbolCount);
     } else if (top instanceof Symbol.SkipAction) {
       parser.pushSymbol(((Symbol.SkipAction) top).symToSkip);
     } else if (top instanceof Symbol.WriterUnionAction) {
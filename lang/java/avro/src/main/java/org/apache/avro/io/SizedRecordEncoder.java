@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.avro.AvroTypeException;
+
+/**
+ * A {@link BinaryEncoder} for the sized record variant of Avro's binary
+ * encoding, where every record is prefixed with the number of bytes of its
+ * fields, written as an int. A reader that does not need a record skips it at
+ * once, instead of decoding each of its fields.
+ * <p/>
+ * Records are delimited by {@link Encoder#writeRecordStart()} and
+ * {@link Encoder#writeRecordEnd()}, which the datum writers call. The contents
+ * of a record are buffered until its end, when its size is known, and are then
+ * written to the wrapped encoder; values outside of any record are written to
+ * it directly.
+ * <p/>
+ * Sized record data is read with a {@link BinaryDecoder} for which
+ * {@link BinaryDecoder#setSizedRecords(boolean)} was set, through a
+ * {@link ResolvingDecoder}, as the datum readers do.
+ * <p/>
+ * To construct, use
+ * {@link EncoderFactory#sizedRecordEncoder(BinaryEncoder, BinaryEncoder)}.
+ * <p/>
+ * SizedRecordEncoder is not thread-safe
+ * @see EncoderFactory
+ */
+public class SizedRecordEncoder extends BinaryEncoder {
+  private BinaryEncoder out;
+  /** The contents of the records being written. */
+  private byte[] buf = new byte[256];
+  private int pos;
+  /** The position of the size of each record being written. */
+  private int[] starts = new int[8];
+  private int depth;
+
+  SizedRecordEncoder(BinaryEncoder out) {
+    configure(out);
+  }
+
+  SizedRecordEncoder configure(BinaryEncoder out) {
+    this.out = out;
+    reset();
+    return this;
+  }
+
+  /**
+   * Discards the records being written, for instance after a failed write.
+   * The wrapped encoder is not affected.
+   */
+  public void reset() {
+    pos = 0;
+    depth = 0;
+  }
+
+  @Override
+  public void writeRecordStart() throws IOException {
+    if (depth == starts.length) {
+      starts = Arrays.copyOf(starts, depth * 2);
+    }
+    ensureBounds(1);
+    starts[depth++] = pos;
+    // most records fit in a one byte size, which is moved over otherwise
+    pos++;
+  }
+
+  @Override
+  public void writeRecordEnd() throws IOException {
+    if (depth == 0) {
+      throw new AvroTypeException("Called writeRecordEnd outside of a record.");
+    }
+    int start = starts[--depth];
+    int size = pos - start - 1;
+    if (size > 63) {
+      // the bytes of the size past the first one
+      int extra = (63 - Long.numberOfLeadingZeros((long) size << 1)) / 7;
+      ensureBounds(extra);
+      System.arraycopy(buf, start + 1, buf, start + 1 + extra, size);
+      pos += extra;
+    }
+    BinaryData.encodeInt(size, buf, start);
+    if (depth == 0) {
+      out.writeFixed(buf, 0, pos);
+      pos = 0;
+    }
+  }
+
+  private void ensureBounds(int num) {
+    if (buf.length - pos < num) {
+      buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + num));
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void writeBoolean(boolean b) throws IOException {
+    if (depth == 0) {
+      out.writeBoolean(b);
+    } else {
+      ensureBounds(1);
+      pos += BinaryData.encodeBoolean(b, buf, pos);
+    }
+  }
+
+  @Override
+  public void writeInt(int n) throws IOException {
+    if (depth == 0) {
+      out.writeInt(n);
+    } else {
+      ensureBounds(5);
+      pos += BinaryData.encodeInt(n, buf, pos);
+    }
+  }
+
+  @Override
+  public void writeLong(long n) throws IOException {
+    if (depth == 0) {
+      out.writeLong(n);
+    } else {
+      ensureBounds(10);
+      pos += BinaryData.encodeLong(n, buf, pos);
+    }
+  }
+
+  @Override
+  public void writeFloat(float f) throws IOException {
+    if (depth == 0) {
+      out.writeFloat(f);
+    } else {
+      ensureBounds(4);
+      BinaryData.encodeFloat(f, buf, pos);
+      pos += 4;
+    }
+  }
+
+  @Override
+  public void writeDouble(double d) throws IOException {
+    if (depth == 0) {
+      out.writeDouble(d);
+    } else {
+      ensureBounds(8);
+      BinaryData.encodeDouble(d, buf, pos);
+      pos += 8;
+    }
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) throws IOException {
+    if (depth == 0) {
+      out.writeFixed(bytes, start, len);
+    } else {
+      ensureBounds(len);
+      System.arraycopy(bytes, start, buf, pos, len);
+      pos += len;
+    }
+  }
+
+  @Override
+  protected void writeZero() throws IOException {
+    writeInt(0);
+  }
+
+  @Override
+  public int bytesBuffered() {
+    return pos + out.bytesBuffered();
+  }
+}
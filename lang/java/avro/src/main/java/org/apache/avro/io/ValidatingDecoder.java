@@ -188,6 +188,53 @@ public class ValidatingDecoder extends ParsingDecoder
     return result;
   }
 
+  @Override
+  public void readInts(int[] dst, int off, int len) throws IOException {
+    if (isRepeating(Symbol.INT)) {
+      in.readInts(dst, off, len);
+    } else {
+      super.readInts(dst, off, len);
+    }
+  }
+
+  @Override
+  public void readLongs(long[] dst, int off, int len) throws IOException {
+    if (isRepeating(Symbol.LONG)) {
+      in.readLongs(dst, off, len);
+    } else {
+      super.readLongs(dst, off, len);
+    }
+  }
+
+  @Override
+  public void readFloats(float[] dst, int off, int len) throws IOException {
+    if (isRepeating(Symbol.FLOAT)) {
+      in.readFloats(dst, off, len);
+    } else {
+      super.readFloats(dst, off, len);
+    }
+  }
+
+  @Override
+  public void readDoubles(double[] dst, int off, int len) throws IOException {
+    if (isRepeating(Symbol.DOUBLE)) {
+      in.readDoubles(dst, off, len);
+    } else {
+      super.readDoubles(dst, off, len);
+    }
+  }
+
+  /**
+   * Whether the next items are array items that are just the given terminal.
+   * Reading such an item leaves the parser as it was, so the items can be read
+   * without advancing the parser. Items that are promoted, or resolved in any
+   * other way, are not.
+   */
+  private boolean isRepeating(Symbol terminal) {
+    Symbol top = parser.topSymbol();
+    return top instanceof Symbol.Repeater && top.production.length == 2 && top.production[1] == terminal;
+  }
+
   @Override
   public long skipArray() throws IOException {
     parser.advance(Symbol.ARRAY_START);
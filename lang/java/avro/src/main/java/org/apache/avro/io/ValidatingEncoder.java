@@ -209,6 +209,16 @@ public class ValidatingEncoder extends ParsingEncoder
     out.writeIndex(unionIndex);
   }
 
+  @Override
+  public void writeRecordStart() throws IOException {
+    out.writeRecordStart();
+  }
+
+  @Override
+  public void writeRecordEnd() throws IOException {
+    out.writeRecordEnd();
+  }
+
   @Override
   public Symbol doAction(Symbol input, Symbol top) throws IOException {
     return null;
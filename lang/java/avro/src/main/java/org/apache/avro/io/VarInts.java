@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import java.lang.reflect.Field;
+import java.nio.ByteOrder;
+
+import sun.misc.Unsafe;
+
+/**
+ * Decodes varints from words: 8 bytes of a byte array, read at once as a
+ * little endian long. The length of a varint is found from the word's
+ * continuation bits, and its 7 bit groups are packed with shifts and masks,
+ * without a branch per byte.
+ * <p/>
+ * Words are read with a single {@link Unsafe} load on platforms that allow
+ * unaligned access, unless the <tt>avro.disable.unsafe</tt> system property is
+ * set, and are assembled from bytes otherwise. Callers must make sure that 8
+ * bytes are available.
+ */
+@SuppressWarnings("restriction")
+final class VarInts {
+
+  private static final Unsafe UNSAFE = loadUnsafe();
+  private static final long BYTE_ARRAY_OFFSET = UNSAFE == null ? 0 : UNSAFE.arrayBaseOffset(byte[].class);
+  private static final boolean BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+  /** The continuation bit of every byte of a word. */
+  private static final long CONTINUATION_BITS = 0x8080808080808080L;
+
+  private VarInts() {
+  }
+
+  private static Unsafe loadUnsafe() {
+    if (System.getProperty("avro.disable.unsafe") != null) {
+      return null;
+    }
+    String arch = System.getProperty("os.arch", "");
+    if (!(arch.equals("amd64") || arch.equals("x86_64") || arch.equals("x86") || arch.equals("i386")
+        || arch.equals("aarch64") || arch.equals("ppc64le") || arch.equals("s390x"))) {
+      return null; // unaligned loads may fault
+    }
+    try {
+      Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      return (Unsafe) theUnsafe.get(null);
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  /** Reads the 8 bytes at <tt>pos</tt> as a little endian long. */
+  static long getWord(byte[] buf, int pos) {
+    if (UNSAFE != null) {
+      if (pos < 0 || pos > buf.length - 8) {
+        throw new ArrayIndexOutOfBoundsException(pos);
+      }
+      long word = UNSAFE.getLong(buf, BYTE_ARRAY_OFFSET + pos);
+      return BIG_ENDIAN ? Long.reverseBytes(word) : word;
+    }
+    return (buf[pos] & 0xffL) | (buf[pos + 1] & 0xffL) << 8 | (buf[pos + 2] & 0xffL) << 16
+        | (buf[pos + 3] & 0xffL) << 24 | (buf[pos + 4] & 0xffL) << 32 | (buf[pos + 5] & 0xffL) << 40
+        | (buf[pos + 6] & 0xffL) << 48 | (buf[pos + 7] & 0xffL) << 56;
+  }
+
+  /**
+   * Returns the length of the varint at the start of a word, from 1 to 8, or 9
+   * if the varint does not end within the word.
+   */
+  static int length(long word) {
+    // the lowest byte with a clear continuation bit ends the varint
+    return (Long.numberOfTrailingZeros(~word & CONTINUATION_BITS) >>> 3) + 1;
+  }
+
+  /**
+   * Returns the unsigned, still zig-zag encoded, value of the int varint of the
+   * given length, from 1 to 5, at the start of a word.
+   */
+  static int intValue(long word, int length) {
+    long x = word & (-1L >>> ((8 - length) << 3));
+    return (int) ((x & 0x7fL) | ((x >>> 1) & 0x3f80L) | ((x >>> 2) & 0x1fc000L) | ((x >>> 3) & 0xfe00000L)
+        | ((x >>> 4) & 0x7f0000000L));
+  }
+
+  /**
+   * Returns the unsigned, still zig-zag encoded, value of the varint of the
+   * given length, from 1 to 8, at the start of a word.
+   */
+  static long value(long word, int length) {
+    long x = word & (-1L >>> ((8 - length) << 3)); // the varint's bytes
+    return (x & 0x7fL) | ((x >>> 1) & 0x3f80L) | ((x >>> 2) & 0x1fc000L) | ((x >>> 3) & 0xfe00000L)
+        | ((x >>> 4) & 0x7f0000000L) | ((x >>> 5) & 0x3f800000000L) | ((x >>> 6) & 0x1fc0000000000L)
+        | ((x >>> 7) & 0xfe000000000000L);
+  }
+}
@@ -251,6 +251,13 @@ public class Parser {
     return stack[--pos];
   }
 
+  /**
+   * Pops the given number of symbols from the stack.
+   */
+  public void popSymbols(int count) {
+    pos -= count;
+  }
+
   /**
    * Returns the top symbol from the stack.
    */
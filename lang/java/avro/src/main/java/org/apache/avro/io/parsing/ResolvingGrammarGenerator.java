@@ -35,6 +35,7 @@ import org.apache.avro.AvroTypeException;
 import org.apache.avro.Resolver;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
+import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
 import static org.apache.avro.io.parsing.ValidatingGrammarGenerator.DISABLE_SYMBOL_CACHE;
@@ -59,17 +60,48 @@ public class ResolvingGrammarGenerator extends ValidatingGrammarGenerator {
 
   private static final ResolvingGrammarGenerator INSTANCE = new ResolvingGrammarGenerator();
 
+  private static final ResolvingGrammarGenerator SIZED_INSTANCE = new ResolvingGrammarGenerator(true);
+
   private static final BiFunction<Schema, Schema, Symbol> IMPL = DISABLE_SYMBOL_CACHE
             ? ResolvingGrammarGenerator::create : Cache::getCachedSymbol;
 
+  /** Whether records are prefixed with their size, see {@link Symbol.SizedRecordAction}. */
+  private final boolean sizedRecords;
+
+  public ResolvingGrammarGenerator() {
+    this(false);
+  }
+
+  /**
+   * @param sizedRecords true to generate grammars for the sized record
+   *          encoding, written by {@link org.apache.avro.io.SizedRecordEncoder}.
+   */
+  public ResolvingGrammarGenerator(boolean sizedRecords) {
+    this.sizedRecords = sizedRecords;
+  }
 
   public static Symbol getOrCreate(Schema writer, Schema reader) {
     return IMPL.apply(writer, reader);
   }
 
+  /**
+   * Returns the resolving grammar for the sized record encoding if
+   * <tt>sizedRecords</tt> is true, and for the plain binary encoding otherwise.
+   */
+  public static Symbol getOrCreate(Schema writer, Schema reader, boolean sizedRecords) {
+    if (!sizedRecords) {
+      return getOrCreate(writer, reader);
+    }
+    return DISABLE_SYMBOL_CACHE ? create(writer, reader, true) : Cache.getCachedSymbol(writer, reader, true);
+  }
+
   public static Symbol create(Schema writer, Schema reader) {
+    return create(writer, reader, false);
+  }
+
+  private static Symbol create(Schema writer, Schema reader, boolean sizedRecords) {
     try {
-      return INSTANCE.generate(writer, reader);
+      return (sizedRecords ? SIZED_INSTANCE : INSTANCE).generate(writer, reader);
     } catch (IOException ex) {
       throw new UncheckedIOException(ex);
     }
@@ -80,17 +112,24 @@ public class ResolvingGrammarGenerator extends ValidatingGrammarGenerator {
 
     private static final ConcurrentMap<RWSchemas, Symbol> ROOT_SYMBOL_CACHE
             = new ConcurrentHashMap<>(16);
+    private static final ConcurrentMap<RWSchemas, Symbol> SIZED_ROOT_SYMBOL_CACHE
+            = new ConcurrentHashMap<>(16);
     private static final ThreadLocal<Boolean> COMPUTING = ThreadLocal.withInitial(() -> Boolean.FALSE);
 
     private static Symbol getCachedSymbol(final Schema writer, final Schema reader) {
+      return getCachedSymbol(writer, reader, false);
+    }
+
+    private static Symbol getCachedSymbol(final Schema writer, final Schema reader, final boolean sizedRecords) {
       if (COMPUTING.get()) {
-        return ResolvingGrammarGenerator.create(writer, reader);
+        return ResolvingGrammarGenerator.create(writer, reader, sizedRecords);
       }
-      return ROOT_SYMBOL_CACHE.computeIfAbsent(new RWSchemas(writer, reader),
+      return (sizedRecords ? SIZED_ROOT_SYMBOL_CACHE : ROOT_SYMBOL_CACHE).computeIfAbsent(
+              new RWSchemas(writer, reader),
               (x) -> {
                 COMPUTING.set(Boolean.TRUE);
                 try {
-                  return ResolvingGrammarGenerator.create(x.getWriter(), x.getReader());
+                  return ResolvingGrammarGenerator.create(x.getWriter(), x.getReader(), sizedRecords);
                 } finally {
                   COMPUTING.set(Boolean.FALSE);
                 }
@@ -183,10 +222,13 @@ public class ResolvingGrammarGenerator extends ValidatingGrammarGenerator {
       if (result == null) {
         final Resolver.RecordAdjust ra = (Resolver.RecordAdjust) action;
         int defaultCount = ra.readerOrder.length - ra.firstDefault;
-        int count = 1 + ra.fieldActions.length + 3 * defaultCount;
+        int count = (sizedRecords ? 2 : 1) + ra.fieldActions.length + 3 * defaultCount;
         final Symbol[] production = new Symbol[count];
         result = Symbol.seq(production);
         seen.put(action, result);
+        if (sizedRecords) {
+          --count; // for the size, once the rest is generated
+        }
         production[--count] = Symbol.fieldOrderAction(ra.readerOrder);
         for (Resolver.Action wfa : ra.fieldActions) {
           production[--count] = generate(wfa, seen);
@@ -198,6 +240,9 @@ public class ResolvingGrammarGenerator extends ValidatingGrammarGenerator {
           production[--count] = simpleGen(rf.schema(), seen);
           production[--count] = Symbol.DEFAULT_END_ACTION;
         }
+        if (sizedRecords) {
+          production[production.length - 1] = Symbol.sizedRecordAction(production);
+        }
       }
       return result;
     }
@@ -253,13 +298,16 @@ private Symbol simpleGen(Schema s, Map<Object, Symbol> seen) {
     case RECORD: {
       Symbol result = seen.get(s);
       if (result == null) {
-        final Symbol[] production = new Symbol[s.getFields().size() + 1];
+        final Symbol[] production = new Symbol[s.getFields().size() + (sizedRecords ? 2 : 1)];
         result = Symbol.seq(production);
         seen.put(s, result);
-        int i = production.length;
+        int i = sizedRecords ? production.length - 1 : production.length;
         production[--i] = Symbol.fieldOrderAction(s.getFields().toArray(new Schema.Field[0]));
         for (Field f : s.getFields())
           production[--i] = simpleGen(f.schema(), seen);
+        if (sizedRecords) {
+          production[production.length - 1] = Symbol.sizedRecordAction(production);
+        }
         // FieldOrderAction is needed even though the field-order hasn't changed,
         // because the _reader_ doesn't know the field order hasn't changed, and
         // thus it will probably call {@ ResolvingDecoder.fieldOrder} to find out.
@@ -283,9 +331,12 @@ private Symbol simpleGen(Schema s, Map<Object, Symbol> seen) {
    * @return The binary encoded version of <tt>n</tt>.
    * @throws IOException
    */
-  private static byte[] getBinary(Schema s, JsonNode n) throws IOException {
+  private byte[] getBinary(Schema s, JsonNode n) throws IOException {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
     Encoder e = factory.binaryEncoder(out, null);
+    if (sizedRecords) {
+      e = factory.sizedRecordEncoder((BinaryEncoder) e, null);
+    }
     encode(e, s, n);
     e.flush();
     return out.toByteArray();
@@ -303,6 +354,7 @@ private Symbol simpleGen(Schema s, Map<Object, Symbol> seen) {
   static void encode(Encoder e, Schema s, JsonNode n) throws IOException {
     switch (s.getType()) {
     case RECORD:
+      e.writeRecordStart();
       for (Field f : s.getFields()) {
         String name = f.name();
         JsonNode v = n.get(name);
@@ -314,6 +366,7 @@ private Symbol simpleGen(Schema s, Map<Object, Symbol> seen) {
         }
         encode(e, f.schema(), v);
       }
+      e.writeRecordEnd();
       break;
     case ENUM:
       e.writeEnum(s.getEnumOrdinal(n.textValue()));
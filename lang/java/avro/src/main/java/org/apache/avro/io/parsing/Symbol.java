@@ -612,6 +612,30 @@ public abstract class Symbol {
     }
   }
 
+  /**
+   * Returns the action that starts a record in the sized record encoding, to
+   * be the last symbol of the record's <tt>production</tt>.
+   */
+  public static SizedRecordAction sizedRecordAction(Symbol[] production) {
+    int count = 0;
+    for (int i = 0; i < production.length - 1; i++) {
+      count += production[i].flattenedSize();
+    }
+    return new SizedRecordAction(count);
+  }
+
+  /**
+   * Reads the size of a record. When the record is skipped, its contents are
+   * skipped by their size, and the <tt>symbolCount</tt> symbols of the
+   * record's flattened production that follow this action are popped.
+   */
+  public static class SizedRecordAction extends ImplicitAction {
+    public final int symbolCount;
+    private SizedRecordAction(int symbolCount) {
+      this.symbolCount = symbolCount;
+    }
+  }
+
   public static UnionAdjustAction unionAdjustAction(int rindex, Symbol sym) {
     return new UnionAdjustAction(rindex, sym);
   }
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.file.Codec;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DecoderFactory;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes batches of datums encoded by {@link BatchMessageEncoder}. The schema
+ * used to decode a batch is determined by its fingerprint, as in
+ * {@link BinaryMessageDecoder}: it is the read schema, a schema added using
+ * {@link #addSchema(Schema)}, or a schema returned by the {@link SchemaStore}
+ * passed to the constructor. Batches encoded using an unknown schema cause a
+ * {@link MissingSchemaException}.
+ * <p>
+ * The datums of a batch are returned by an iterator, which decodes them one
+ * at a time into the same datum instance. Every iterator has a reader of its
+ * own, whose resolution of the writer schema is cached by the data model.
+ * <p>
+ * This class is thread-safe; the iterators it returns are not.
+ */
+public class BatchMessageDecoder<D> {
+
+  private static final int HEADER_LENGTH = BatchMessageEncoder.BATCH_V1_HEADER.length + 8;
+
+  private final GenericData model;
+  private final Schema readSchema;
+  private final SchemaStore resolver;
+
+  private final Map<Long, Schema> schemaByFingerprint = new ConcurrentHashMap<>();
+  private final LruCache<Long, Schema> resolvedSchemas =
+      new LruCache<>(BinaryMessageDecoder.DEFAULT_MAX_RESOLVED_DECODERS);
+  /** The codecs that can be shared, by name. */
+  private final Map<String, Codec> codecs = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new {@link BatchMessageDecoder} that uses the given
+   * {@link GenericData data model} to construct datum instances described by
+   * the {@link Schema schema}.
+   *
+   * @param model the {@link GenericData data model} for datum instances
+   * @param readSchema the {@link Schema} used to construct datum instances
+   */
+  public BatchMessageDecoder(GenericData model, Schema readSchema) {
+    this(model, readSchema, null);
+  }
+
+  /**
+   * Creates a new {@link BatchMessageDecoder} that uses the given
+   * {@link GenericData data model} to construct datum instances described by
+   * the {@link Schema schema}, and the {@code resolver} to find the schemas
+   * of batches.
+   *
+   * @param model the {@link GenericData data model} for datum instances
+   * @param readSchema the {@link Schema} used to construct datum instances
+   * @param resolver a {@link SchemaStore} used to find schemas by fingerprint
+   */
+  public BatchMessageDecoder(GenericData model, Schema readSchema, SchemaStore resolver) {
+    this.model = model;
+    this.readSchema = readSchema;
+    this.resolver = resolver;
+    addSchema(readSchema);
+  }
+
+  /**
+   * Adds a {@link Schema} that can be used to decode batches.
+   *
+   * @param writeSchema a {@link Schema} to use when decoding batches
+   */
+  public void addSchema(Schema writeSchema) {
+    schemaByFingerprint.put(SchemaNormalization.parsingFingerprint64(writeSchema), writeSchema);
+  }
+
+  /** Returns a new reader of the batches written with the given schema. */
+  @SuppressWarnings("unchecked")
+  private DatumReader<D> newReader(long fp) {
+    Schema writeSchema = schemaByFingerprint.get(fp);
+    if (writeSchema == null && resolver != null) {
+      writeSchema = resolvedSchemas.get(fp);
+      if (writeSchema == null) {
+        writeSchema = resolver.findByFingerprint(fp);
+        if (writeSchema != null) {
+          resolvedSchemas.put(fp, writeSchema);
+        }
+      }
+    }
+    if (writeSchema == null) {
+      throw new MissingSchemaException("Cannot resolve schema for fingerprint: " + fp);
+    }
+    return (DatumReader<D>) model.createDatumReader(writeSchema, readSchema);
+  }
+
+  private Codec getCodec(String name) {
+    Codec codec = codecs.get(name);
+    if (codec == null) {
+      CodecFactory factory;
+      try {
+        factory = CodecFactory.fromString(name);
+      } catch (AvroRuntimeException e) {
+        throw new BadHeaderException("Unrecognized codec: " + name);
+      }
+      codec = factory.createCodec();
+      if (codec.isThreadSafe()) {
+        codecs.put(name, codec);
+      }
+    }
+    return codec;
+  }
+
+  /**
+   * Decodes a batch.
+   *
+   * @param batch a batch, as encoded by {@link BatchMessageEncoder}
+   * @return an iterator of the datums of the batch
+   * @throws BadHeaderException if the batch does not start with a batch header,
+   *                            or names an unknown codec
+   * @throws MissingSchemaException if the schema of the batch is unknown
+   */
+  public BatchIterator<D> decode(byte[] batch) throws IOException {
+    return decode(ByteBuffer.wrap(batch), null);
+  }
+
+  /**
+   * Decodes a batch, reusing the given datum for its datums.
+   *
+   * @param batch a batch, as encoded by {@link BatchMessageEncoder}; its
+   *              position is not changed
+   * @param reuse a datum instance to reuse, or null
+   * @return an iterator of the datums of the batch
+   * @throws BadHeaderException if the batch does not start with a batch header,
+   *                            or names an unknown codec
+   * @throws MissingSchemaException if the schema of the batch is unknown
+   */
+  public BatchIterator<D> decode(ByteBuffer batch, D reuse) throws IOException {
+    ByteBuffer buf = batch.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    if (buf.remaining() < HEADER_LENGTH) {
+      throw new BadHeaderException("Not enough header bytes");
+    }
+    int pos = buf.position();
+    if (BatchMessageEncoder.BATCH_V1_HEADER[0] != buf.get(pos)
+        || BatchMessageEncoder.BATCH_V1_HEADER[1] != buf.get(pos + 1)) {
+      throw new BadHeaderException(String.format(
+          "Unrecognized header bytes: 0x%02X 0x%02X", buf.get(pos), buf.get(pos + 1)));
+    }
+    DatumReader<D> reader = newReader(buf.getLong(pos + 2));
+    ((Buffer) buf).position(pos + HEADER_LENGTH);
+    BinaryDecoder in = decoder(buf, null);
+    Codec codec = getCodec(in.readString());
+    long count = in.readLong();
+    if (!"null".equals(codec.getName())) {
+      in = decoder(codec.decompress(in.readBytes(null)), in);
+    } else {
+      in.readLong(); // the datums follow their length
+    }
+    return new BatchIterator<>(reader, in, count, reuse);
+  }
+
+  private static BinaryDecoder decoder(ByteBuffer buf, BinaryDecoder reuse) {
+    if (buf.hasArray()) {
+      return DecoderFactory.get().binaryDecoder(buf.array(), buf.arrayOffset() + buf.position(),
+          buf.remaining(), reuse);
+    }
+    byte[] bytes = new byte[buf.remaining()];
+    buf.duplicate().get(bytes);
+    return DecoderFactory.get().binaryDecoder(bytes, reuse);
+  }
+
+  /**
+   * An iterator of the datums of a batch, which decodes each one into the
+   * datum returned by the previous call to {@link #next()}: a datum must be
+   * used, or copied, before the next one is read.
+   */
+  public static final class BatchIterator<D> implements Iterator<D> {
+    private final DatumReader<D> reader;
+    private final BinaryDecoder in;
+    private long remaining;
+    private D datum;
+
+    BatchIterator(DatumReader<D> reader, BinaryDecoder in, long count, D reuse) {
+      this.reader = reader;
+      this.in = in;
+      this.remaining = count;
+      this.datum = reuse;
+    }
+
+    /** Returns the number of datums left in the batch. */
+    public long remaining() {
+      return remaining;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return remaining > 0;
+    }
+
+    @Override
+    public D next() {
+      if (remaining <= 0) {
+        throw new NoSuchElementException();
+      }
+      try {
+        datum = reader.read(datum, in);
+      } catch (IOException e) {
+        throw new AvroRuntimeException("Decoding datum failed", e);
+      }
+      remaining--;
+      return datum;
+    }
+  }
+}
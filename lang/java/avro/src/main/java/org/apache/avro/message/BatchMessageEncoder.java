@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.file.Codec;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.util.Utf8;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Encodes a batch of datums into a single message: a header and the 8-byte
+ * schema fingerprint, as in {@link BinaryMessageEncoder} messages, the name of
+ * the batch's {@link Codec}, the number of datums, and the binary encoded
+ * datums, as bytes compressed with the codec. The header and fingerprint are
+ * written once per batch rather than once per datum.
+ * <p>
+ * Batches are read with {@link BatchMessageDecoder}.
+ * <p>
+ * This class reuses its buffers from one batch to the next, so it is not
+ * thread-safe.
+ */
+public class BatchMessageEncoder<D> {
+
+  static final byte[] BATCH_V1_HEADER = new byte[] {(byte) 0xC3, (byte) 0x02};
+
+  private final DatumWriter<D> writer;
+  private final Codec codec;
+  private final byte[] headerBytes;
+  private final BufferOutputStream data = new BufferOutputStream();
+  private BinaryEncoder dataEncoder;
+  private BinaryEncoder outEncoder;
+
+  /**
+   * Creates a new {@link BatchMessageEncoder} that uses the given
+   * {@link GenericData data model} to deconstruct datum instances described by
+   * the {@link Schema schema}, without compression.
+   *
+   * @param model the {@link GenericData data model} for datum instances
+   * @param schema the {@link Schema} for datum instances
+   */
+  public BatchMessageEncoder(GenericData model, Schema schema) {
+    this(model, schema, CodecFactory.nullCodec());
+  }
+
+  /**
+   * Creates a new {@link BatchMessageEncoder} that uses the given
+   * {@link GenericData data model} to deconstruct datum instances described by
+   * the {@link Schema schema}, and compresses batches with the given codec.
+   *
+   * @param model the {@link GenericData data model} for datum instances
+   * @param schema the {@link Schema} for datum instances
+   * @param codec the {@link CodecFactory} of the codec that compresses batches
+   */
+  public BatchMessageEncoder(GenericData model, Schema schema, CodecFactory codec) {
+    this.writer = model.createDatumWriter(schema);
+    this.codec = codec.createCodec();
+    this.headerBytes = getWriteHeader(schema, this.codec);
+  }
+
+  /**
+   * Encodes a batch of datums into a new buffer.
+   *
+   * @param datums the datums of the batch
+   * @return a buffer holding the batch
+   */
+  public ByteBuffer encode(Iterable<? extends D> datums) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    encode(datums, out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+
+  /**
+   * Encodes a batch of datums to an {@link OutputStream}.
+   *
+   * @param datums the datums of the batch
+   * @param stream the stream to write the batch to
+   */
+  public void encode(Iterable<? extends D> datums, OutputStream stream) throws IOException {
+    data.reset();
+    dataEncoder = EncoderFactory.get().directBinaryEncoder(data, dataEncoder);
+    long count = 0;
+    for (D datum : datums) {
+      writer.write(datum, dataEncoder);
+      count++;
+    }
+    dataEncoder.flush();
+    ByteBuffer block = codec.compress(data.toBufferWithoutCopy());
+
+    outEncoder = EncoderFactory.get().directBinaryEncoder(stream, outEncoder);
+    outEncoder.writeFixed(headerBytes);
+    outEncoder.writeLong(count);
+    outEncoder.writeBytes(block);
+    outEncoder.flush();
+  }
+
+  /** Returns the header, the fingerprint and the codec name of batches. */
+  private static byte[] getWriteHeader(Schema schema, Codec codec) {
+    try {
+      byte[] fp = SchemaNormalization.parsingFingerprint("CRC-64-AVRO", schema);
+      byte[] name = new Utf8(codec.getName()).getBytes();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      out.write(BATCH_V1_HEADER, 0, BATCH_V1_HEADER.length);
+      out.write(fp, 0, fp.length);
+      BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+      encoder.writeBytes(name);
+      encoder.flush();
+      return out.toByteArray();
+    } catch (NoSuchAlgorithmException | IOException e) {
+      throw new AvroRuntimeException(e);
+    }
+  }
+
+  private static class BufferOutputStream extends ByteArrayOutputStream {
+    ByteBuffer toBufferWithoutCopy() {
+      return ByteBuffer.wrap(buf, 0, count);
+    }
+  }
+}
@@ -22,10 +22,9 @@ package org.apache.avro.message;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaNormalization;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.CodecContext;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -47,30 +46,21 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
-  private static final ThreadLocal<byte[]> HEADER_BUFFER =
-      new ThreadLocal<byte[]>() {
-        @Override
-        protected byte[] initialValue() {
-          return new byte[10];
-        }
-      };
-
-  private static final ThreadLocal<ByteBuffer> FP_BUFFER =
-      new ThreadLocal<ByteBuffer>() {
-        @Override
-        protected ByteBuffer initialValue() {
-          byte[] header = HEADER_BUFFER.get();
-          return ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
-        }
-      };
+  private static final int HEADER_LENGTH = 10;
 
   private final GenericData model;
   private final Schema readSchema;
   private final SchemaStore resolver;
 
+  /** The most decoders of schemas found by the resolver kept by default. */
+  public static final int DEFAULT_MAX_RESOLVED_DECODERS = 1000;
+
   private final Map<Long, RawMessageDecoder<D>> codecByFingerprint =
       new ConcurrentHashMap<>();
 
+  /** The decoders of schemas found by the resolver, which can find them again. */
+  private final LruCache<Long, RawMessageDecoder<D>> resolvedCodecs;
+
   /**
    * Creates a new {@link BinaryMessageEncoder} that uses the given
    * {@link GenericData data model} to construct datum instances described by
@@ -111,9 +101,30 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
    */
   public BinaryMessageDecoder(GenericData model, Schema readSchema,
                               SchemaStore resolver) {
+    this(model, readSchema, resolver, DEFAULT_MAX_RESOLVED_DECODERS);
+  }
+
+  /**
+   * Creates a new {@link BinaryMessageDecoder} like
+   * {@link #BinaryMessageDecoder(GenericData, Schema, SchemaStore)}, which
+   * keeps the decoders of at most {@code maxResolvedDecoders} schemas returned
+   * by the {@code resolver}, evicting the least recently used ones. Decoders of
+   * schemas added using {@link #addSchema(Schema)} are always kept.
+   * <p>
+   * To avoid looking up unknown fingerprints for every message, or waiting on
+   * a slow resolver, wrap it in a {@link CachingSchemaStore}.
+   *
+   * @param model the {@link GenericData data model} for datum instances
+   * @param readSchema the {@link Schema} used to construct datum instances
+   * @param resolver a {@link SchemaStore} used to find schemas by fingerprint
+   * @param maxResolvedDecoders the most decoders of resolved schemas to keep
+   */
+  public BinaryMessageDecoder(GenericData model, Schema readSchema,
+                              SchemaStore resolver, int maxResolvedDecoders) {
     this.model = model;
     this.readSchema = readSchema;
     this.resolver = resolver;
+    this.resolvedCodecs = new LruCache<>(maxResolvedDecoders);
     addSchema(readSchema);
   }
 
@@ -135,10 +146,15 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
     }
 
     if (resolver != null) {
+      decoder = resolvedCodecs.get(fp);
+      if (decoder != null) {
+        return decoder;
+      }
       Schema writeSchema = resolver.findByFingerprint(fp);
       if (writeSchema != null) {
-        addSchema(writeSchema);
-        return codecByFingerprint.get(fp);
+        decoder = new RawMessageDecoder<>(model, writeSchema, readSchema);
+        resolvedCodecs.put(fp, decoder);
+        return decoder;
       }
     }
 
@@ -148,9 +164,19 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
   @Override
   public D decode(InputStream stream, D reuse) throws IOException {
-    byte[] header = HEADER_BUFFER.get();
+    CodecContext context = CodecContext.acquire();
     try {
-      if (!readFully(stream, header)) {
+      return decode(stream, reuse, context);
+    } finally {
+      CodecContext.release(context);
+    }
+  }
+
+  @Override
+  public D decode(InputStream stream, D reuse, CodecContext context) throws IOException {
+    byte[] header = context.bytes(HEADER_LENGTH);
+    try {
+      if (!readFully(stream, header, HEADER_LENGTH)) {
         throw new BadHeaderException("Not enough header bytes");
       }
     } catch (IOException e) {
@@ -164,9 +190,13 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
           header[0], header[1]));
     }
 
-    RawMessageDecoder<D> decoder = getDecoder(FP_BUFFER.get().getLong(2));
+    long fp = 0;
+    for (int i = HEADER_LENGTH - 1; i >= 2; i--) {
+      fp = (fp << 8) | (header[i] & 0xff); // little endian
+    }
+    RawMessageDecoder<D> decoder = getDecoder(fp);
 
-    return decoder.decode(stream, reuse);
+    return decoder.decode(stream, reuse, context);
   }
 
   /**
@@ -174,17 +204,18 @@ public class BinaryMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
    *
    * @param stream an InputStream to read from
    * @param bytes a buffer
+   * @param length the number of bytes to read into the buffer
    * @return true if the buffer is complete, false otherwise (stream ended)
    * @throws IOException
    */
-  private boolean readFully(InputStream stream, byte[] bytes)
+  private boolean readFully(InputStream stream, byte[] bytes, int length)
       throws IOException {
     int pos = 0;
     int bytesRead;
-    while ((bytes.length - pos) > 0 &&
-        (bytesRead = stream.read(bytes, pos, bytes.length - pos)) > 0) {
+    while ((length - pos) > 0 &&
+        (bytesRead = stream.read(bytes, pos, length - pos)) > 0) {
       pos += bytesRead;
     }
-    return (pos == bytes.length);
+    return (pos == length);
   }
 }
@@ -23,6 +23,7 @@ import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaNormalization;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.CodecContext;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -88,6 +89,16 @@ public class BinaryMessageEncoder<D> implements MessageEncoder<D> {
     writeCodec.encode(datum, stream);
   }
 
+  @Override
+  public ByteBuffer encode(D datum, CodecContext context) throws IOException {
+    return writeCodec.encode(datum, context);
+  }
+
+  @Override
+  public void encode(D datum, OutputStream stream, CodecContext context) throws IOException {
+    writeCodec.encode(datum, stream, context);
+  }
+
   /**
    * This is a RawDatumEncoder that adds the V1 header to the outgoing buffer.
    * BinaryDatumEncoder wraps this class to avoid confusion over what it does.
@@ -103,9 +114,9 @@ public class BinaryMessageEncoder<D> implements MessageEncoder<D> {
     }
 
     @Override
-    public void encode(D datum, OutputStream stream) throws IOException {
+    public void encode(D datum, OutputStream stream, CodecContext context) throws IOException {
       stream.write(headerBytes);
-      super.encode(datum, stream);
+      super.encode(datum, stream, context);
     }
 
     private static byte[] getWriteHeader(Schema schema) {
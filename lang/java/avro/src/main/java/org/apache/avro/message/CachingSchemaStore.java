@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link SchemaStore} that caches the schemas found by another store, like
+ * a client of a schema registry, so that decoders do not wait on it for every
+ * message:
+ * <ul>
+ * <li>Found schemas are kept, up to a number of them, evicting the least
+ * recently used ones.</li>
+ * <li>Fingerprints that the store does not know, or fails to look up, are
+ * remembered as missing for a time, instead of being looked up again for
+ * every message.</li>
+ * <li>Concurrent lookups of the same fingerprint share a single lookup of the
+ * store.</li>
+ * <li>Lookups run on an executor: fingerprints can be looked up ahead of the
+ * messages that need them with {@link #prefetch(long...)}, and
+ * {@link #findByFingerprint(long)} waits for a lookup at most the timeout set
+ * with {@link #setLookupTimeout(long, TimeUnit)}, the lookup going on in the
+ * background.</li>
+ * </ul>
+ * <p>
+ * This class is thread-safe.
+ */
+public class CachingSchemaStore implements SchemaStore {
+
+  private static final Logger LOG = LoggerFactory.getLogger(CachingSchemaStore.class);
+
+  public static final int DEFAULT_MAX_SCHEMAS = 1000;
+
+  public static final long DEFAULT_MISSING_TTL_MILLIS = 60000;
+
+  private final SchemaStore store;
+  private final Executor executor;
+  private final LruCache<Long, Schema> schemas;
+  /** The time at which each missing fingerprint may be looked up again. */
+  private final LruCache<Long, Long> missing;
+  private final ConcurrentMap<Long, CompletableFuture<Schema>> lookups = new ConcurrentHashMap<>();
+  private volatile long missingTtlNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MISSING_TTL_MILLIS);
+  private volatile long lookupTimeoutNanos = -1;
+
+  /**
+   * Creates a cache that looks schemas up in the calling thread; concurrent
+   * lookups of the same fingerprint still wait for that thread's lookup.
+   *
+   * @param store the store to look schemas up in
+   */
+  public CachingSchemaStore(SchemaStore store) {
+    this(store, Runnable::run, DEFAULT_MAX_SCHEMAS);
+  }
+
+  /**
+   * @param store the store to look schemas up in
+   * @param executor the executor lookups run on
+   * @param maxSchemas the most schemas, and missing fingerprints, to keep
+   */
+  public CachingSchemaStore(SchemaStore store, Executor executor, int maxSchemas) {
+    this.store = store;
+    this.executor = executor;
+    this.schemas = new LruCache<>(maxSchemas);
+    this.missing = new LruCache<>(maxSchemas);
+  }
+
+  /**
+   * Sets how long fingerprints that could not be found are considered missing,
+   * before they are looked up again. Defaults to
+   * {@link #DEFAULT_MISSING_TTL_MILLIS} milliseconds.
+   */
+  public CachingSchemaStore setMissingTtl(long duration, TimeUnit unit) {
+    this.missingTtlNanos = unit.toNanos(duration);
+    return this;
+  }
+
+  /**
+   * Sets how long {@link #findByFingerprint(long)} waits for a lookup before
+   * returning null. By default it waits until the lookup completes.
+   */
+  public CachingSchemaStore setLookupTimeout(long duration, TimeUnit unit) {
+    this.lookupTimeoutNanos = unit.toNanos(duration);
+    return this;
+  }
+
+  /**
+   * Returns the schema with the given fingerprint, looking it up if it is not
+   * cached and not known to be missing.
+   *
+   * @return the schema, or null if it is missing or the lookup did not
+   *         complete within the lookup timeout.
+   * @throws AvroRuntimeException if the thread is interrupted while waiting for
+   *           the lookup, with the interrupt status of the thread set.
+   */
+  @Override
+  public Schema findByFingerprint(long fingerprint) {
+    Schema schema = schemas.get(fingerprint);
+    if (schema != null) {
+      return schema;
+    }
+    CompletableFuture<Schema> lookup = findByFingerprintAsync(fingerprint);
+    try {
+      long timeout = lookupTimeoutNanos;
+      return timeout < 0 ? lookup.get() : lookup.get(timeout, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AvroRuntimeException("Interrupted looking up schema with fingerprint " + fingerprint, e);
+    } catch (ExecutionException e) {
+      return null; // remembered as missing by the lookup
+    }
+  }
+
+  /**
+   * Returns a future of the schema with the given fingerprint, or of null if it
+   * is missing, joining the lookup of the fingerprint in progress if any.
+   */
+  public CompletableFuture<Schema> findByFingerprintAsync(long fingerprint) {
+    Schema schema = schemas.get(fingerprint);
+    if (schema != null || isMissing(fingerprint)) {
+      return CompletableFuture.completedFuture(schema);
+    }
+    CompletableFuture<Schema> lookup = new CompletableFuture<>();
+    CompletableFuture<Schema> existing = lookups.putIfAbsent(fingerprint, lookup);
+    if (existing != null) {
+      return existing;
+    }
+    Runnable task = () -> lookup(fingerprint, lookup);
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      task.run();
+    }
+    return lookup;
+  }
+
+  /** Starts looking up the given fingerprints, unless they are cached. */
+  public void prefetch(long... fingerprints) {
+    for (long fingerprint : fingerprints) {
+      findByFingerprintAsync(fingerprint);
+    }
+  }
+
+  /** Forgets that a fingerprint is missing, so that it is looked up again. */
+  public void invalidate(long fingerprint) {
+    missing.remove(fingerprint);
+  }
+
+  private boolean isMissing(long fingerprint) {
+    Long until = missing.get(fingerprint);
+    if (until == null) {
+      return false;
+    }
+    if (System.nanoTime() - until < 0) {
+      return true;
+    }
+    missing.remove(fingerprint);
+    return false;
+  }
+
+  private void lookup(long fingerprint, CompletableFuture<Schema> lookup) {
+    Schema schema = null;
+    try {
+      schema = store.findByFingerprint(fingerprint);
+    } catch (RuntimeException e) {
+      LOG.warn("Failed to look up schema with fingerprint {}", fingerprint, e);
+    } finally {
+      // cached before the lookup is removed, for later callers to find
+      if (schema == null) {
+        missing.put(fingerprint, System.nanoTime() + missingTtlNanos);
+      } else {
+        schemas.put(fingerprint, schema);
+      }
+      lookups.remove(fingerprint, lookup);
+      lookup.complete(schema);
+    }
+  }
+}
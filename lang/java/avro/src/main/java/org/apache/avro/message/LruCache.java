@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A map of at most a given number of entries, which evicts the least recently
+ * used entry to make room for a new one.
+ * <p>
+ * Lookups take no lock: they only mark the entry as used since the last
+ * insertion, so entries used between two insertions are equally recent.
+ * Eviction happens on insertion only.
+ * <p>
+ * This class is thread-safe.
+ */
+final class LruCache<K, V> {
+
+  private static final class Entry<V> {
+    private final V value;
+    /** The value of the clock when the entry was last used. */
+    private volatile long used;
+
+    Entry(V value, long used) {
+      this.value = value;
+      this.used = used;
+    }
+  }
+
+  private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  /** Advanced on every insertion. */
+  private final AtomicLong clock = new AtomicLong();
+  private final int maxSize;
+
+  LruCache(final int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+    }
+    this.maxSize = maxSize;
+  }
+
+  V get(K key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    long now = clock.get();
+    if (entry.used != now) { // avoids writing to entries used again and again
+      entry.used = now;
+    }
+    return entry.value;
+  }
+
+  void put(K key, V value) {
+    // entries used after this one is inserted are more recent than it
+    entries.put(key, new Entry<>(value, clock.getAndIncrement()));
+    if (entries.size() > maxSize) {
+      evict(key);
+    }
+  }
+
+  private synchronized void evict(K inserted) {
+    while (entries.size() > maxSize) {
+      Map.Entry<K, Entry<V>> eldest = null;
+      for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+        if (!e.getKey().equals(inserted) && (eldest == null || e.getValue().used < eldest.getValue().used)) {
+          eldest = e;
+        }
+      }
+      if (eldest == null) {
+        return;
+      }
+      entries.remove(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  V remove(K key) {
+    Entry<V> entry = entries.remove(key);
+    return entry == null ? null : entry.value;
+  }
+
+  int size() {
+    return entries.size();
+  }
+}
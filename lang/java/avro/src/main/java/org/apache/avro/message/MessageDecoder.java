@@ -19,8 +19,7 @@
 
 package org.apache.avro.message;
 
-import org.apache.avro.util.ReusableByteArrayInputStream;
-import org.apache.avro.util.ReusableByteBufferInputStream;
+import org.apache.avro.io.CodecContext;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
@@ -100,6 +99,54 @@ public interface MessageDecoder<D> {
    */
   D decode(byte[] encoded, D reuse) throws IOException;
 
+  /**
+   * Deserialize a single datum from an InputStream, reusing the decoder of a
+   * caller-owned {@link CodecContext} instead of the shared ones.
+   *
+   * @param stream stream to read from
+   * @param reuse a datum instance to reuse, avoiding instantiation if possible
+   * @param context the context to reuse
+   * @return a datum read from the stream
+   * @throws BadHeaderException If the payload's header is not recognized.
+   * @throws MissingSchemaException If the payload's schema cannot be found.
+   * @throws IOException
+   */
+  default D decode(InputStream stream, D reuse, CodecContext context) throws IOException {
+    return decode(stream, reuse);
+  }
+
+  /**
+   * Deserialize a single datum from a ByteBuffer, reusing the decoder and
+   * streams of a caller-owned {@link CodecContext} instead of the shared ones.
+   *
+   * @param encoded a ByteBuffer containing an encoded datum
+   * @param reuse a datum instance to reuse, avoiding instantiation if possible
+   * @param context the context to reuse
+   * @return a datum read from the stream
+   * @throws BadHeaderException If the payload's header is not recognized.
+   * @throws MissingSchemaException If the payload's schema cannot be found.
+   * @throws IOException
+   */
+  default D decode(ByteBuffer encoded, D reuse, CodecContext context) throws IOException {
+    return decode(encoded, reuse);
+  }
+
+  /**
+   * Deserialize a single datum from a byte array, reusing the decoder and
+   * streams of a caller-owned {@link CodecContext} instead of the shared ones.
+   *
+   * @param encoded a byte array containing an encoded datum
+   * @param reuse a datum instance to reuse, avoiding instantiation if possible
+   * @param context the context to reuse
+   * @return a datum read from the stream
+   * @throws BadHeaderException If the payload's header is not recognized.
+   * @throws MissingSchemaException If the payload's schema cannot be found.
+   * @throws IOException
+   */
+  default D decode(byte[] encoded, D reuse, CodecContext context) throws IOException {
+    return decode(encoded, reuse);
+  }
+
   /**
    * Base class for {@link MessageEncoder} implementations that provides default
    * implementations for most of the {@code DatumEncoder} API.
@@ -110,22 +157,6 @@ public interface MessageDecoder<D> {
    */
   abstract class BaseDecoder<D> implements MessageDecoder<D> {
 
-    private static final ThreadLocal<ReusableByteArrayInputStream>
-        BYTE_ARRAY_IN = new ThreadLocal<ReusableByteArrayInputStream>() {
-          @Override
-          protected ReusableByteArrayInputStream initialValue() {
-            return new ReusableByteArrayInputStream();
-          }
-        };
-
-    private static final ThreadLocal<ReusableByteBufferInputStream>
-        BYTE_BUFFER_IN = new ThreadLocal<ReusableByteBufferInputStream>() {
-          @Override
-          protected ReusableByteBufferInputStream initialValue() {
-            return new ReusableByteBufferInputStream();
-          }
-        };
-
     @Override
     public D decode(InputStream stream) throws IOException {
       return decode(stream, null);
@@ -143,16 +174,32 @@ public interface MessageDecoder<D> {
 
     @Override
     public D decode(ByteBuffer encoded, D reuse) throws IOException {
-      ReusableByteBufferInputStream in = BYTE_BUFFER_IN.get();
-      in.setByteBuffer(encoded);
-      return decode(in, reuse);
+      CodecContext context = CodecContext.acquire();
+      try {
+        return decode(encoded, reuse, context);
+      } finally {
+        CodecContext.release(context);
+      }
     }
 
     @Override
     public D decode(byte[] encoded, D reuse) throws IOException {
-      ReusableByteArrayInputStream in = BYTE_ARRAY_IN.get();
-      in.setByteArray(encoded, 0, encoded.length);
-      return decode(in, reuse);
+      CodecContext context = CodecContext.acquire();
+      try {
+        return decode(encoded, reuse, context);
+      } finally {
+        CodecContext.release(context);
+      }
+    }
+
+    @Override
+    public D decode(ByteBuffer encoded, D reuse, CodecContext context) throws IOException {
+      return decode(context.byteBufferInput(encoded), reuse, context);
+    }
+
+    @Override
+    public D decode(byte[] encoded, D reuse, CodecContext context) throws IOException {
+      return decode(context.byteArrayInput(encoded, 0, encoded.length), reuse, context);
     }
 
   }
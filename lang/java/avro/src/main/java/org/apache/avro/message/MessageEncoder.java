@@ -19,6 +19,7 @@
 
 package org.apache.avro.message;
 
+import org.apache.avro.io.CodecContext;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -47,4 +48,30 @@ public interface MessageEncoder<D> {
    */
   void encode(D datum, OutputStream stream) throws IOException;
 
+  /**
+   * Serialize a single datum to a ByteBuffer, reusing the buffers of a
+   * caller-owned {@link CodecContext} instead of the shared ones.
+   *
+   * @param datum a datum
+   * @param context the context to reuse
+   * @return a ByteBuffer containing the serialized datum
+   * @throws IOException
+   */
+  default ByteBuffer encode(D datum, CodecContext context) throws IOException {
+    return encode(datum);
+  }
+
+  /**
+   * Serialize a single datum to an OutputStream, reusing the encoder of a
+   * caller-owned {@link CodecContext} instead of the shared ones.
+   *
+   * @param datum a datum
+   * @param stream an OutputStream to serialize the datum to
+   * @param context the context to reuse
+   * @throws IOException
+   */
+  default void encode(D datum, OutputStream stream, CodecContext context) throws IOException {
+    encode(datum, stream);
+  }
+
 }
@@ -23,6 +23,7 @@ import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.CodecContext;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DecoderFactory;
 import java.io.IOException;
@@ -43,9 +44,6 @@ import java.io.InputStream;
  */
 public class RawMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
-  private static final ThreadLocal<BinaryDecoder> DECODER =
-      new ThreadLocal<>();
-
   private final Schema writeSchema;
   private final Schema readSchema;
   private final DatumReader<D> reader;
@@ -89,9 +87,18 @@ public class RawMessageDecoder<D> extends MessageDecoder.BaseDecoder<D> {
 
   @Override
   public D decode(InputStream stream, D reuse) {
+    CodecContext context = CodecContext.acquire();
+    try {
+      return decode(stream, reuse, context);
+    } finally {
+      CodecContext.release(context);
+    }
+  }
+
+  @Override
+  public D decode(InputStream stream, D reuse, CodecContext context) {
     BinaryDecoder decoder = DecoderFactory.get()
-        .directBinaryDecoder(stream, DECODER.get());
-    DECODER.set(decoder);
+        .contextDirectBinaryDecoder(context, stream);
     try {
       return reader.read(reuse, decoder);
     } catch (IOException e) {
@@ -22,9 +22,10 @@ package org.apache.avro.message;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.CodecContext;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.EncoderFactory;
-import java.io.ByteArrayOutputStream;
+import org.apache.avro.util.ByteArrayBuilder;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
@@ -37,17 +38,6 @@ import java.nio.ByteBuffer;
  */
 public class RawMessageEncoder<D> implements MessageEncoder<D> {
 
-  private static final ThreadLocal<BufferOutputStream> TEMP =
-      new ThreadLocal<BufferOutputStream>() {
-        @Override
-        protected BufferOutputStream initialValue() {
-          return new BufferOutputStream();
-        }
-      };
-
-  private static final ThreadLocal<BinaryEncoder> ENCODER =
-      new ThreadLocal<>();
-
   private final Schema writeSchema;
   private final boolean copyOutputBytes;
   private final DatumWriter<D> writer;
@@ -79,7 +69,9 @@ public class RawMessageEncoder<D> implements MessageEncoder<D> {
    * wrap a thread-local buffer that can be reused by future calls to
    * {@code encode}, but may not be. Callers should only set {@code shouldCopy}
    * to false if the buffer will be copied before the current thread's next call
-   * to {@code encode}.
+   * to {@code encode}. Unless the {@link org.apache.avro.util.ReuseStrategy}
+   * is thread-local, such buffers are not reused; buffers returned by
+   * {@link #encode(Object, CodecContext)} wrap a buffer of the context.
    *
    * @param model the {@link GenericData data model} for datum instances
    * @param schema the {@link Schema} for datum instances
@@ -93,37 +85,49 @@ public class RawMessageEncoder<D> implements MessageEncoder<D> {
 
   @Override
   public ByteBuffer encode(D datum) throws IOException {
-    BufferOutputStream temp = TEMP.get();
-    temp.reset();
+    CodecContext context = CodecContext.acquire();
+    // unless copied, or the context stays with this thread, the result wraps
+    // the buffer of the context, which can then not be reused
+    boolean release = true;
+    try {
+      ByteBuffer result = encode(datum, context);
+      release = copyOutputBytes || CodecContext.isThreadConfined();
+      return result;
+    } finally {
+      if (release) {
+        CodecContext.release(context);
+      }
+    }
+  }
 
-    encode(datum, temp);
+  @Override
+  public ByteBuffer encode(D datum, CodecContext context) throws IOException {
+    ByteArrayBuilder temp = context.outputBuffer();
+
+    encode(datum, temp, context);
 
     if (copyOutputBytes) {
-      return temp.toBufferWithCopy();
+      return ByteBuffer.wrap(temp.toByteArray());
     } else {
-      return temp.toBufferWithoutCopy();
+      return ByteBuffer.wrap(temp.getBuffer(), 0, temp.size());
     }
   }
 
   @Override
   public void encode(D datum, OutputStream stream) throws IOException {
+    CodecContext context = CodecContext.acquire();
+    try {
+      encode(datum, stream, context);
+    } finally {
+      CodecContext.release(context);
+    }
+  }
+
+  @Override
+  public void encode(D datum, OutputStream stream, CodecContext context) throws IOException {
     BinaryEncoder encoder = EncoderFactory.get()
-        .directBinaryEncoder(stream, ENCODER.get());
-    ENCODER.set(encoder);
+        .contextDirectBinaryEncoder(context, stream);
     writer.write(datum, encoder);
     encoder.flush();
   }
-
-  private static class BufferOutputStream extends ByteArrayOutputStream {
-    BufferOutputStream() {
-    }
-
-    ByteBuffer toBufferWithoutCopy() {
-      return ByteBuffer.wrap(buf, 0, count);
-    }
-
-    ByteBuffer toBufferWithCopy() {
-      return ByteBuffer.wrap(toByteArray());
-    }
-  }
 }
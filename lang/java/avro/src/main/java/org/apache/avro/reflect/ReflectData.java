@@ -357,6 +357,12 @@ public class ReflectData extends SpecificData {
     return (datum instanceof Map) && !isNonStringMap(datum);
   }
 
+  /** Maps are arrays or maps depending on their keys, see {@link #isMap(Object)}. */
+  @Override
+  protected boolean isUnionBranchCacheable(Object datum) {
+    return !(datum instanceof Map);
+  }
+
   /* Without the Field or Schema corresponding to the datum, it is
    * not possible to accurately find out the non-stringable nature
    * of the key. So we check the class of the keys.
@@ -79,7 +79,7 @@ public final class ByteArrayBuilder extends OutputStream {
    * @throws OutOfMemoryError if {@code minCapacity < 0}. This is interpreted as a request for the unsatisfiably large
    * capacity {@code (long) Integer.MAX_VALUE + (minCapacity - Integer.MAX_VALUE)}.
    */
-  private void ensureCapacity(final int minCapacity) {
+  public void ensureCapacity(final int minCapacity) {
     // overflow-conscious code
     if (minCapacity - buf.length > 0) {
       grow(minCapacity);
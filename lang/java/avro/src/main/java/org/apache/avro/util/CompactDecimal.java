@@ -0,0 +1,400 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable decimal number, held as a long unscaled value and a scale, the
+ * value being <tt>unscaled * 10^-scale</tt>. Values that do not fit in a long,
+ * like the results of overflowing arithmetic, are held as a
+ * {@link BigDecimal} instead, so that no precision is ever lost.
+ * <p/>
+ * Unlike {@link BigDecimal}, two values are equal when they are numerically
+ * equal, whatever their scale: 1.50 equals 1.5.
+ * <p/>
+ * This is the value type of
+ * {@link org.apache.avro.data.CompactDecimalConverter}, for the decimal2
+ * logical type.
+ */
+public final class CompactDecimal extends Number implements Comparable<CompactDecimal> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The most characters {@link #toChars(char[], int)} writes. */
+  public static final int MAX_CHARS = 48;
+
+  /** The largest scale written without an exponent. */
+  private static final int MAX_PLAIN_SCALE = 20;
+
+  public static final CompactDecimal ZERO = new CompactDecimal(0, 0, null);
+
+  private final long unscaled;
+  private final int scale;
+  @Nullable
+  private final BigDecimal big;
+
+  private CompactDecimal(long unscaled, int scale, @Nullable BigDecimal big) {
+    this.unscaled = unscaled;
+    this.scale = scale;
+    this.big = big;
+  }
+
+  public static CompactDecimal valueOf(long unscaled, int scale) {
+    return new CompactDecimal(unscaled, scale, null);
+  }
+
+  public static CompactDecimal valueOf(long value) {
+    return new CompactDecimal(value, 0, null);
+  }
+
+  public static CompactDecimal valueOf(BigDecimal value) {
+    if (value.precision() <= Decimals.MAX_LONG_PRECISION) {
+      return new CompactDecimal(Decimals.unscaledLong(value), value.scale(), null);
+    }
+    BigInteger unscaled = value.unscaledValue();
+    if (unscaled.bitLength() < 64) {
+      return new CompactDecimal(unscaled.longValue(), value.scale(), null);
+    }
+    return new CompactDecimal(0, value.scale(), value);
+  }
+
+  /**
+   * Parses a decimal number, as written by {@link #toChars(char[], int)} or in
+   * JSON: an optional minus sign, digits, an optional fraction and an optional
+   * exponent.
+   * @return the value, or null if the number's digits do not fit in a long.
+   * @throws NumberFormatException if the characters are not a number.
+   */
+  @Nullable
+  public static CompactDecimal parse(char[] chars, int off, int len) {
+    int end = off + len;
+    int i = off;
+    boolean negative = i < end && chars[i] == '-';
+    if (negative) {
+      i++;
+    }
+    long unscaled = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean fraction = false;
+    int start = i;
+    for (; i < end; i++) {
+      char c = chars[i];
+      if (c >= '0' && c <= '9') {
+        if (unscaled != 0 || c != '0') {
+          if (++digits > Decimals.MAX_LONG_PRECISION) {
+            return null;
+          }
+        }
+        unscaled = unscaled * 10 + (c - '0');
+        if (fraction) {
+          scale++;
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        break;
+      }
+    }
+    if (i == start || (fraction && i == start + 1)) {
+      throw new NumberFormatException(new String(chars, off, len));
+    }
+    if (i < end) {
+      if ((chars[i] != 'e' && chars[i] != 'E') || i + 1 == end) {
+        throw new NumberFormatException(new String(chars, off, len));
+      }
+      i++;
+      boolean negativeExponent = chars[i] == '-';
+      if (negativeExponent || chars[i] == '+') {
+        i++;
+      }
+      if (i == end || end - i > 9) {
+        return null; // not a number, or too big an exponent: left to BigDecimal
+      }
+      int exponent = 0;
+      for (; i < end; i++) {
+        char c = chars[i];
+        if (c < '0' || c > '9') {
+          throw new NumberFormatException(new String(chars, off, len));
+        }
+        exponent = exponent * 10 + (c - '0');
+      }
+      scale += negativeExponent ? exponent : -exponent;
+    }
+    return new CompactDecimal(negative ? -unscaled : unscaled, scale, null);
+  }
+
+  /** Returns true if the value is held as a long unscaled value. */
+  public boolean isCompact() {
+    return big == null;
+  }
+
+  /**
+   * Returns the unscaled value.
+   * @throws ArithmeticException if the unscaled value does not fit in a long.
+   */
+  public long unscaledValue() {
+    if (big != null) {
+      throw new ArithmeticException("Unscaled value does not fit in a long: " + big);
+    }
+    return unscaled;
+  }
+
+  public int scale() {
+    return scale;
+  }
+
+  public int signum() {
+    return big == null ? Long.signum(unscaled) : big.signum();
+  }
+
+  public BigDecimal toBigDecimal() {
+    return big == null ? BigDecimal.valueOf(unscaled, scale) : big;
+  }
+
+  /**
+   * Returns this value with the given scale, which must not lose digits.
+   * @throws ArithmeticException if digits would be lost.
+   */
+  public CompactDecimal setScale(int newScale) {
+    if (newScale == scale) {
+      return this;
+    }
+    if (big == null) {
+      if (newScale > scale) {
+        long scaled = upscale(unscaled, newScale - scale);
+        if (scaled != Long.MIN_VALUE) {
+          return new CompactDecimal(scaled, newScale, null);
+        }
+      } else if (scale - newScale <= Decimals.MAX_LONG_PRECISION) {
+        long power = Decimals.powerOfTen(scale - newScale);
+        if (unscaled % power != 0) {
+          throw new ArithmeticException("Rounding necessary");
+        }
+        return new CompactDecimal(unscaled / power, newScale, null);
+      }
+    }
+    return valueOf(toBigDecimal().setScale(newScale));
+  }
+
+  /** Returns unscaled * 10^n, or Long.MIN_VALUE if it does not fit in a long. */
+  private static long upscale(long unscaled, int n) {
+    if (n > Decimals.MAX_LONG_PRECISION) {
+      return unscaled == 0 ? 0 : Long.MIN_VALUE;
+    }
+    long power = Decimals.powerOfTen(n);
+    if (unscaled == Long.MIN_VALUE || Math.abs(unscaled) > Long.MAX_VALUE / power) {
+      return Long.MIN_VALUE;
+    }
+    return unscaled * power;
+  }
+
+  public CompactDecimal add(CompactDecimal other) {
+    if (big == null && other.big == null) {
+      long a = unscaled;
+      long b = other.unscaled;
+      int resultScale = scale;
+      if (scale < other.scale) {
+        a = upscale(a, other.scale - scale);
+        resultScale = other.scale;
+      } else if (scale > other.scale) {
+        b = upscale(b, scale - other.scale);
+      }
+      if (a != Long.MIN_VALUE && b != Long.MIN_VALUE) {
+        long sum = a + b;
+        // overflow if both operands have the sign opposite to the sum's
+        if (((a ^ sum) & (b ^ sum)) >= 0 && sum != Long.MIN_VALUE) {
+          return new CompactDecimal(sum, resultScale, null);
+        }
+      }
+    }
+    return valueOf(toBigDecimal().add(other.toBigDecimal()));
+  }
+
+  public CompactDecimal negate() {
+    if (big == null && unscaled != Long.MIN_VALUE) {
+      return new CompactDecimal(-unscaled, scale, null);
+    }
+    return valueOf(toBigDecimal().negate());
+  }
+
+  public CompactDecimal subtract(CompactDecimal other) {
+    return add(other.negate());
+  }
+
+  @Override
+  public int compareTo(CompactDecimal other) {
+    if (big == null && other.big == null) {
+      if (scale == other.scale) {
+        return Long.compare(unscaled, other.unscaled);
+      }
+      int signum = Long.signum(unscaled);
+      if (signum != Long.signum(other.unscaled)) {
+        return signum < Long.signum(other.unscaled) ? -1 : 1;
+      }
+      if (scale < other.scale) {
+        long a = upscale(unscaled, other.scale - scale);
+        if (a != Long.MIN_VALUE) {
+          return Long.compare(a, other.unscaled);
+        }
+      } else {
+        long b = upscale(other.unscaled, scale - other.scale);
+        if (b != Long.MIN_VALUE) {
+          return Long.compare(unscaled, b);
+        }
+      }
+    }
+    return toBigDecimal().compareTo(other.toBigDecimal());
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    return obj instanceof CompactDecimal && compareTo((CompactDecimal) obj) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    long u;
+    int s;
+    if (big == null) {
+      u = unscaled;
+      s = scale;
+    } else {
+      BigDecimal stripped = big.stripTrailingZeros();
+      BigInteger bu = stripped.unscaledValue();
+      if (bu.bitLength() > 63) {
+        return stripped.hashCode();
+      }
+      u = bu.longValue();
+      s = stripped.scale();
+    }
+    if (u == 0) {
+      return 0;
+    }
+    int zeros = Decimals.trailingZeros(u);
+    return 31 * Long.hashCode(u / Decimals.powerOfTen(zeros)) + (s - zeros);
+  }
+
+  /**
+   * Writes this value as a JSON number, like 12.34 or 1E+25.
+   * @return the number of characters written, at most {@link #MAX_CHARS} for
+   * compact values.
+   */
+  public int toChars(char[] chars, int off) {
+    if (big != null) {
+      String str = big.toString();
+      str.getChars(0, str.length(), chars, off);
+      return str.length();
+    }
+    int pos = off;
+    long value = unscaled;
+    if (value < 0) {
+      chars[pos++] = '-';
+    } else {
+      value = -value; // negative values hold Long.MIN_VALUE
+    }
+    int digits = Decimals.precision(value);
+    if (scale < 0 || scale > MAX_PLAIN_SCALE) {
+      pos = putDigits(value, digits, chars, pos);
+      chars[pos++] = 'E';
+      String exponent = Integer.toString(-scale);
+      if (scale < 0) {
+        chars[pos++] = '+';
+      }
+      exponent.getChars(0, exponent.length(), chars, pos);
+      return pos + exponent.length() - off;
+    }
+    if (scale >= digits) {
+      chars[pos++] = '0';
+      if (scale > 0) {
+        chars[pos++] = '.';
+        for (int i = digits; i < scale; i++) {
+          chars[pos++] = '0';
+        }
+      }
+      return putDigits(value, digits, chars, pos) - off;
+    }
+    long power = Decimals.powerOfTen(scale);
+    pos = putDigits(value / power, digits - scale, chars, pos);
+    if (scale > 0) {
+      chars[pos++] = '.';
+      pos = putDigits(value % power, scale, chars, pos);
+    }
+    return pos - off;
+  }
+
+  /** Writes the digits of a negative value, padded with zeros to the given count. */
+  private static int putDigits(long negative, int count, char[] chars, int pos) {
+    for (int i = pos + count - 1; i >= pos; i--) {
+      chars[i] = (char) ('0' - negative % 10);
+      negative /= 10;
+    }
+    return pos + count;
+  }
+
+  @Override
+  public String toString() {
+    if (big != null) {
+      return big.toString();
+    }
+    char[] chars = new char[MAX_CHARS];
+    return new String(chars, 0, toChars(chars, 0));
+  }
+
+  @Override
+  public int intValue() {
+    return (int) longValue();
+  }
+
+  @Override
+  public long longValue() {
+    if (big == null) {
+      if (scale == 0) {
+        return unscaled;
+      } else if (scale > 0 && scale <= Decimals.MAX_LONG_PRECISION) {
+        return unscaled / Decimals.powerOfTen(scale);
+      }
+    }
+    return toBigDecimal().longValue();
+  }
+
+  @Override
+  public float floatValue() {
+    return (float) doubleValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    if (big == null && scale >= 0 && scale <= 22 && Math.abs(unscaled) < (1L << 53)) {
+      // both are exact doubles, so the division rounds once
+      return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+    }
+    return toBigDecimal().doubleValue();
+  }
+
+  private static final double[] DOUBLE_POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+    1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+}
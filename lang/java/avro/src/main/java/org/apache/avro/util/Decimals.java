@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+
+/**
+ * Utilities for decimals whose unscaled value fits in a long, that is
+ * decimals of at most {@link #MAX_LONG_PRECISION} digits. Their unscaled
+ * values are read and written as big endian two's complement bytes, as
+ * {@link java.math.BigInteger#toByteArray()} does, without creating a
+ * {@link java.math.BigInteger}.
+ */
+public final class Decimals {
+
+  /** The largest precision of which every unscaled value fits in a long. */
+  public static final int MAX_LONG_PRECISION = 18;
+
+  private static final long[] POWERS_OF_TEN = new long[MAX_LONG_PRECISION + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private Decimals() {
+  }
+
+  /** Returns 10 to the power of n, for n from 0 to {@link #MAX_LONG_PRECISION}. */
+  public static long powerOfTen(int n) {
+    return POWERS_OF_TEN[n];
+  }
+
+  /** Returns the number of decimal digits of a value, 1 for zero. */
+  public static int precision(long value) {
+    if (value == Long.MIN_VALUE) {
+      return 19;
+    }
+    long abs = Math.abs(value);
+    int precision = 1;
+    while (precision <= MAX_LONG_PRECISION && abs >= POWERS_OF_TEN[precision]) {
+      precision++;
+    }
+    return precision;
+  }
+
+  /** Returns the number of trailing decimal zeros of a value, 0 for zero. */
+  public static int trailingZeros(long value) {
+    int zeros = 0;
+    if (value != 0) {
+      while (value % 10 == 0) {
+        value /= 10;
+        zeros++;
+      }
+    }
+    return zeros;
+  }
+
+  /**
+   * Returns the unscaled value of a decimal of at most
+   * {@link #MAX_LONG_PRECISION} digits.
+   * @throws ArithmeticException if the unscaled value does not fit in a long.
+   */
+  public static long unscaledLong(BigDecimal decimal) {
+    // moving the point keeps the compact value of the decimal
+    return decimal.scaleByPowerOfTen(decimal.scale()).longValueExact();
+  }
+
+  /**
+   * Returns the number of bytes of the shortest two's complement
+   * representation of a value, as {@link java.math.BigInteger#toByteArray()}
+   * would return.
+   */
+  public static int byteLength(long value) {
+    return (64 - Long.numberOfLeadingZeros(value ^ (value >> 63))) / 8 + 1;
+  }
+
+  /**
+   * Writes a value as <tt>len</tt> big endian two's complement bytes, sign
+   * extended when <tt>len</tt> exceeds 8. <tt>len</tt> must be at least
+   * {@link #byteLength(long)}.
+   */
+  public static void putLong(long value, byte[] bytes, int off, int len) {
+    for (int i = off + len - 1; i >= off; i--) {
+      bytes[i] = (byte) value;
+      value >>= 8;
+    }
+  }
+
+  /** Returns the value of <tt>len</tt>, at most 8, big endian two's complement bytes. */
+  public static long getLong(byte[] bytes, int off, int len) {
+    long value = len == 0 ? 0 : bytes[off]; // sign extended
+    for (int i = off + 1; i < off + len; i++) {
+      value = (value << 8) | (bytes[i] & 0xff);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value of <tt>len</tt>, at most 8, big endian two's complement
+   * bytes at an absolute position of a buffer.
+   */
+  public static long getLong(ByteBuffer buf, int pos, int len) {
+    long value = len == 0 ? 0 : buf.get(pos);
+    for (int i = pos + 1; i < pos + len; i++) {
+      value = (value << 8) | (buf.get(i) & 0xff);
+    }
+    return value;
+  }
+}
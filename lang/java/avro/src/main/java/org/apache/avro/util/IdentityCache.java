@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A bounded, concurrent cache keyed by the identity of its keys, for values
+ * derived from schemas. Keys that are equal, but not the same instance, have
+ * entries of their own: a schema parsed twice may differ in docs or aliases,
+ * and values often refer back to their key.
+ * <p/>
+ * Entries are found through the {@link Object#hashCode()} of their keys, so
+ * keys should memoize it, like {@link org.apache.avro.Schema} does: looking up
+ * a cached key is then a hash lookup and a pointer comparison, without
+ * allocation. At most <tt>maxSize</tt> groups of equal keys are cached, and
+ * at most {@link #MAX_EQUAL_KEYS} keys per group; when the cache is full,
+ * arbitrary entries are evicted.
+ */
+public final class IdentityCache<K, V> {
+
+  /** The number of equal, but distinct, keys cached per group. */
+  public static final int MAX_EQUAL_KEYS = 4;
+
+  private static final class Entry<K, V> {
+    private final K key;
+    private final V value;
+    private final Entry<K, V> next;
+
+    Entry(K key, V value, Entry<K, V> next) {
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  private final ConcurrentMap<K, Entry<K, V>> entries;
+  private final int maxSize;
+
+  public IdentityCache(int maxSize) {
+    if (maxSize <= 0) {
+      throw new IllegalArgumentException("Invalid cache size: " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 16));
+  }
+
+  /** Returns the value cached for the given key instance, or null if there is none. */
+  public V get(K key) {
+    for (Entry<K, V> e = entries.get(key); e != null; e = e.next) {
+      if (e.key == key) {
+        return e.value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the value cached for the given key instance, computing and caching
+   * it if there is none. The value is computed outside of the map, so the
+   * function may use this cache too; concurrent callers may compute the same
+   * value more than once, and then share the first one cached.
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    V computed = function.apply(key);
+    Entry<K, V> first = entries.compute(key, (k, head) -> {
+      int equalKeys = 0;
+      for (Entry<K, V> e = head; e != null; e = e.next) {
+        if (e.key == key) {
+          return head;
+        }
+        equalKeys++;
+      }
+      return new Entry<>(key, computed, equalKeys < MAX_EQUAL_KEYS ? head : truncate(head, MAX_EQUAL_KEYS - 1));
+    });
+    evict(key);
+    for (Entry<K, V> e = first; e != null; e = e.next) {
+      if (e.key == key) {
+        return e.value;
+      }
+    }
+    return computed;
+  }
+
+  private static <K, V> Entry<K, V> truncate(Entry<K, V> head, int size) {
+    return size == 0 || head == null ? null : new Entry<>(head.key, head.value, truncate(head.next, size - 1));
+  }
+
+  private void evict(K keep) {
+    Iterator<K> keys = entries.keySet().iterator();
+    while (entries.size() > maxSize && keys.hasNext()) {
+      K key = keys.next();
+      if (!key.equals(keep)) {
+        keys.remove();
+      }
+    }
+  }
+
+  /** Returns the number of groups of equal keys cached. */
+  public int size() {
+    return entries.size();
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+}
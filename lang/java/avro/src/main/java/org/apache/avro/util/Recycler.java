@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+/**
+ * Hands out reusable instances of a class, created by a {@link ReuseStrategy}.
+ * An instance acquired by a thread is used by that thread only, until it
+ * releases it; it must not be used once released.
+ */
+public interface Recycler<T> {
+
+  /** Returns an instance that is not used by another thread, new or released before. */
+  T acquire();
+
+  /** Gives back an instance acquired from this recycler, to be reused or dropped. */
+  void release(T object);
+}
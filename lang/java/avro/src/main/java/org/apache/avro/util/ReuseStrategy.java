@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How the encoding and decoding utilities reuse their buffers, encoders and
+ * decoders across calls, when the caller does not pass its own
+ * {@link org.apache.avro.io.CodecContext}.
+ * <p/>
+ * The default strategy is set with the avro.reuse.strategy system property:
+ * THREAD_LOCAL (the default) keeps an instance per thread, POOL keeps at most
+ * avro.reuse.poolSize instances (twice the number of processors by default)
+ * shared by all threads, which suits virtual threads and large thread pools,
+ * and NONE creates new instances for every call. An unknown value is logged and
+ * THREAD_LOCAL is used instead.
+ */
+public enum ReuseStrategy {
+
+  THREAD_LOCAL {
+    @Override
+    public <T> Recycler<T> newRecycler(final Supplier<T> factory) {
+      return new ThreadLocalRecycler<>(factory);
+    }
+
+    @Override
+    public boolean isThreadConfined() {
+      return true;
+    }
+  },
+  POOL {
+    @Override
+    public <T> Recycler<T> newRecycler(final Supplier<T> factory) {
+      return new PoolRecycler<>(factory, Integer.getInteger("avro.reuse.poolSize",
+              Runtime.getRuntime().availableProcessors() * 2));
+    }
+  },
+  NONE {
+    @Override
+    public <T> Recycler<T> newRecycler(final Supplier<T> factory) {
+      return new Recycler<T>() {
+        @Override
+        public T acquire() {
+          return factory.get();
+        }
+
+        @Override
+        public void release(final T object) {
+          // dropped
+        }
+      };
+    }
+  };
+
+  private static final ReuseStrategy DEFAULT = readDefault();
+
+  private static ReuseStrategy readDefault() {
+    String strategy = System.getProperty("avro.reuse.strategy", "THREAD_LOCAL");
+    try {
+      return ReuseStrategy.valueOf(strategy);
+    } catch (IllegalArgumentException ex) {
+      LoggerFactory.getLogger(ReuseStrategy.class)
+          .warn("Unknown avro.reuse.strategy {}, using THREAD_LOCAL", strategy);
+      return THREAD_LOCAL;
+    }
+  }
+
+  /** Returns the strategy set with the avro.reuse.strategy system property. */
+  public static ReuseStrategy getDefault() {
+    return DEFAULT;
+  }
+
+  /** Creates a recycler of the instances created by <tt>factory</tt>. */
+  public abstract <T> Recycler<T> newRecycler(Supplier<T> factory);
+
+  /**
+   * Returns true if a released instance is reused by the thread that released
+   * it only, so that it can keep using it until its next acquire.
+   */
+  public boolean isThreadConfined() {
+    return false;
+  }
+
+  private static final class ThreadLocalRecycler<T> implements Recycler<T> {
+    private final Supplier<T> factory;
+    private final ThreadLocal<T> instance = new ThreadLocal<>();
+
+    ThreadLocalRecycler(final Supplier<T> factory) {
+      this.factory = factory;
+    }
+
+    @Override
+    public T acquire() {
+      T result = instance.get();
+      if (result == null) {
+        return factory.get();
+      }
+      // taken away, so that a nested acquire does not get it too
+      instance.set(null);
+      return result;
+    }
+
+    @Override
+    public void release(final T object) {
+      instance.set(object);
+    }
+  }
+
+  /** A bounded lock-free pool; instances released to a full pool are dropped. */
+  private static final class PoolRecycler<T> implements Recycler<T> {
+    private final Supplier<T> factory;
+    private final AtomicReferenceArray<T> slots;
+
+    PoolRecycler(final Supplier<T> factory, final int size) {
+      this.factory = factory;
+      this.slots = new AtomicReferenceArray<>(Math.max(1, size));
+    }
+
+    private int start() {
+      return (int) (Thread.currentThread().getId() % slots.length());
+    }
+
+    @Override
+    public T acquire() {
+      int n = slots.length();
+      int start = start();
+      for (int i = 0; i < n; i++) {
+        int slot = (start + i) % n;
+        T result = slots.get(slot);
+        if (result != null && slots.compareAndSet(slot, result, null)) {
+          return result;
+        }
+      }
+      return factory.get();
+    }
+
+    @Override
+    public void release(final T object) {
+      int n = slots.length();
+      int start = start();
+      for (int i = 0; i < n; i++) {
+        int slot = (start + i) % n;
+        if (slots.get(slot) == null && slots.compareAndSet(slot, null, object)) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util.internal;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Sizes the tasks kept in flight on an executor, so that all of its threads
+ * are kept busy without queueing more work than they can take.
+ */
+public final class Parallelism {
+
+  private Parallelism() {
+  }
+
+  /**
+   * Returns the number of tasks the executor runs at once: the parallelism of
+   * a {@link ForkJoinPool}, the threads of a {@link ThreadPoolExecutor}, up to
+   * the number of processors for pools that grow on demand, and the number of
+   * processors for other executors.
+   */
+  public static int of(Executor executor) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    if (executor instanceof ForkJoinPool) {
+      return ((ForkJoinPool) executor).getParallelism();
+    } else if (executor instanceof ThreadPoolExecutor) {
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+      return Math.max(1, Math.max(pool.getCorePoolSize(), Math.min(pool.getMaximumPoolSize(), processors)));
+    } else {
+      return processors;
+    }
+  }
+}
@@ -70,6 +70,8 @@ public class TestDataFile {
     r.add(new Object[] { CodecFactory.xzCodec(0) });
     r.add(new Object[] { CodecFactory.xzCodec(1) });
     r.add(new Object[] { CodecFactory.xzCodec(6) });
+    r.add(new Object[] { CodecFactory.lz4Codec() });
+    r.add(new Object[] { CodecFactory.lz4Codec(9) });
     return r;
   }
 
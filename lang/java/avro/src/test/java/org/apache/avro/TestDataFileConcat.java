@@ -23,6 +23,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileReader;
@@ -98,6 +100,20 @@ public class TestDataFileConcat {
 
   @Test
   public void testConcatenateFiles() throws IOException {
+    concatenateFiles(null);
+  }
+
+  @Test
+  public void testConcatenateFilesInParallel() throws IOException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      concatenateFiles(executor);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void concatenateFiles(ExecutorService executor) throws IOException {
     System.out.println("SEED = "+SEED);
     System.out.println("COUNT = "+COUNT);
     for (int k = 0; k < 5; k++) {
@@ -140,7 +156,11 @@ public class TestDataFileConcat {
       concatinto.appendTo(file1);
       DataFileReader<Object> concatfrom =
         new DataFileReader<Object>(file2, new GenericDatumReader<Object>());
-      concatinto.appendAllFrom(concatfrom, recompress);
+      if (executor == null) {
+        concatinto.appendAllFrom(concatfrom, recompress);
+      } else {
+        concatinto.appendAllFrom(concatfrom, recompress, executor);
+      }
       concatinto.close();
       concatfrom.close();
 
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.avro.data.CompactDecimalConverter;
+import org.apache.avro.data.Decimal2Converter;
+import org.apache.avro.data.TimeConversions;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.io.ExtendedJsonDecoder;
+import org.apache.avro.io.ExtendedJsonEncoder;
+import org.apache.avro.util.CompactDecimal;
+import org.apache.avro.util.Optional;
+import org.junit.Test;
+
+public class TestDecimalConversions {
+
+  private static List<BigDecimal> values(int precision, int scale) {
+    Random random = new Random(precision);
+    List<BigDecimal> values = new ArrayList<>();
+    values.add(BigDecimal.ZERO.setScale(scale));
+    BigInteger max = BigInteger.TEN.pow(precision);
+    values.add(new BigDecimal(max.subtract(BigInteger.ONE), scale));
+    values.add(new BigDecimal(max.negate().add(BigInteger.ONE), scale));
+    for (int i = 0; i < 1000; i++) {
+      BigInteger unscaled = new BigInteger(precision * 4, random).mod(max);
+      values.add(new BigDecimal(random.nextBoolean() ? unscaled : unscaled.negate(), scale));
+    }
+    return values;
+  }
+
+  @Test
+  public void testDecimalBytes() {
+    Conversions.DecimalConversion conversion = new Conversions.DecimalConversion();
+    for (int precision : new int[] {4, 9, 18, 19, 30}) {
+      Schema schema = LogicalTypes.decimal(precision, 2).addToSchema(Schema.create(Schema.Type.BYTES));
+      for (BigDecimal value : values(precision, 2)) {
+        ByteBuffer bytes = conversion.toBytes(value, schema, schema.getLogicalType());
+        assertEquals(ByteBuffer.wrap(value.unscaledValue().toByteArray()), bytes);
+        assertEquals(value, conversion.fromBytes(bytes, schema, schema.getLogicalType()));
+      }
+    }
+  }
+
+  @Test
+  public void testDecimalFixed() {
+    Conversions.DecimalConversion conversion = new Conversions.DecimalConversion();
+    for (int precision : new int[] {4, 9, 18, 19, 30}) {
+      Schema schema = LogicalTypes.decimal(precision, 3)
+          .addToSchema(Schema.createFixed("F" + precision, null, null, 13));
+      for (BigDecimal value : values(precision, 3)) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        byte[] expected = new byte[13];
+        Arrays.fill(expected, (byte) (value.signum() < 0 ? 0xff : 0));
+        System.arraycopy(unscaled, 0, expected, 13 - unscaled.length, unscaled.length);
+        GenericData.Fixed fixed = (GenericData.Fixed) conversion.toFixed(value, schema, schema.getLogicalType());
+        assertArrayEquals(expected, fixed.bytes());
+        assertEquals(value, conversion.fromFixed(fixed, schema, schema.getLogicalType()));
+      }
+    }
+  }
+
+  @Test
+  public void testDecimal2Bytes() {
+    Decimal2Converter conversion = new Decimal2Converter();
+    for (int precision : new int[] {4, 9, 18, 19, 30}) {
+      Schema schema = new Schema.Parser().parse("{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":"
+          + precision + "}");
+      LogicalType type = schema.getLogicalType();
+      for (BigDecimal value : values(precision, 4)) {
+        BigDecimal stripped = value.stripTrailingZeros();
+        ByteBuffer bytes = conversion.toBytes(value, schema, type);
+        ByteBuffer expected = ByteBuffer.allocate(32);
+        Decimal2Converter.writeInt(stripped.scale(), expected);
+        expected.put(stripped.unscaledValue().toByteArray());
+        expected.flip();
+        assertEquals(expected, bytes);
+        BigDecimal read = conversion.fromBytes(bytes, schema, type);
+        assertEquals(stripped, read);
+        assertEquals(stripped.scale(), read.scale());
+      }
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testDecimal2ExceedsPrecision() {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":3}");
+    new Decimal2Converter().toBytes(new BigDecimal("12.34"), schema, schema.getLogicalType());
+  }
+
+  @Test
+  public void testDecimal2DirectDecode() throws IOException {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"d\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":20}}]}");
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("d", new BigDecimal("-12345678901234.56789"));
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(schema);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ExtendedJsonEncoder json = new ExtendedJsonEncoder(schema, out);
+    writer.write(record, json);
+    json.flush();
+    assertEquals("{\"d\":-12345678901234.56789}", out.toString("UTF-8"));
+    Decoder decoder = new ExtendedJsonDecoder(schema, new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(record, reader.read(null, decoder));
+
+    out.reset();
+    BinaryEncoder binary = EncoderFactory.get().binaryEncoder(out, null);
+    writer.write(record, binary);
+    binary.flush();
+    assertEquals(record, reader.read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null)));
+  }
+
+  /** A conversion written against the deprecated direct decoding method. */
+  private static class LegacyDateConversion extends TimeConversions.DateConversion {
+    private int calls;
+
+    @Override
+    public Optional<LocalDate> tryDirectDecode(Decoder dec, Schema schema) throws IOException {
+      calls++;
+      return Optional.of(LocalDate.ofEpochDay(dec.readInt()));
+    }
+  }
+
+  @Test
+  public void testDeprecatedTryDirectDecode() throws IOException {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"d\",\"type\":{\"type\":\"int\",\"logicalType\":\"date\"}}]}");
+    LocalDate date = LocalDate.of(2020, 2, 29);
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("d", date);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder binary = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<Object>(schema).write(record, binary);
+    binary.flush();
+
+    LegacyDateConversion conversion = new LegacyDateConversion();
+    GenericData data = new GenericData();
+    data.removeLogicalConversion("date");
+    data.addLogicalTypeConversion(conversion);
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(schema, schema, data);
+    Object read = reader.read(null, DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+    assertEquals(date, ((GenericData.Record) read).get("d"));
+    assertEquals(1, conversion.calls);
+  }
+
+  @Test
+  public void testCompactDecimal2Bytes() {
+    Decimal2Converter big = new Decimal2Converter();
+    CompactDecimalConverter compact = new CompactDecimalConverter();
+    for (int precision : new int[] {4, 9, 18, 19, 30}) {
+      Schema schema = new Schema.Parser().parse("{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":"
+          + precision + ",\"scale\":4}");
+      LogicalType type = schema.getLogicalType();
+      for (BigDecimal value : values(precision, 3)) {
+        ByteBuffer bytes = big.toBytes(value, schema, type);
+        assertEquals(bytes, compact.toBytes(CompactDecimal.valueOf(value), schema, type));
+        CompactDecimal read = compact.fromBytes(bytes, schema, type);
+        assertEquals(0, value.compareTo(read.toBigDecimal()));
+        assertEquals(4, read.scale());
+      }
+    }
+  }
+
+  @Test
+  public void testCompactDecimal2RoundTrip() throws IOException {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Trade\",\"fields\":["
+        + "{\"name\":\"price\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":12,"
+        + "\"scale\":4}},"
+        + "{\"name\":\"total\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal2\",\"precision\":30}}]}");
+    GenericData data = new GenericData();
+    data.removeLogicalConversion("decimal2");
+    data.addLogicalTypeConversion(new CompactDecimalConverter());
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("price", CompactDecimal.valueOf(1234567, 3));
+    record.put("total", CompactDecimal.valueOf(new BigDecimal("-123456789012345678901.5")));
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema, data);
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(schema, schema, data);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ExtendedJsonEncoder json = new ExtendedJsonEncoder(schema, out);
+    writer.write(record, json);
+    json.flush();
+    assertEquals("{\"price\":1234.567,\"total\":-123456789012345678901.5}", out.toString("UTF-8"));
+    Decoder decoder = new ExtendedJsonDecoder(schema, new ByteArrayInputStream(out.toByteArray()));
+    GenericData.Record read = (GenericData.Record) reader.read(null, decoder);
+    assertEquals(record, read);
+    assertEquals(4, ((CompactDecimal) read.get("price")).scale());
+
+    out.reset();
+    BinaryEncoder binary = EncoderFactory.get().binaryEncoder(out, null);
+    writer.write(record, binary);
+    binary.flush();
+    byte[] bytes = out.toByteArray();
+    assertEquals(record, reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)));
+    // the same data as the BigDecimal conversion
+    GenericData.Record bigRecord = (GenericData.Record) new GenericDatumReader<>(schema)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    assertEquals(new BigDecimal("1234.567"), bigRecord.get("price"));
+  }
+}
@@ -152,6 +152,25 @@ public class TestSchema {
     assertEquals(s2, s3);
   }
 
-
-
+  @Test
+  public void testStructuralFingerprint() {
+    String json = "{\"type\":\"record\",\"name\":\"L\",\"fields\":[{\"name\":\"v\",\"type\":"
+        + "{\"type\":\"array\",\"items\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":4}}},"
+        + "{\"name\":\"next\",\"type\":[\"null\",\"L\"]}]}";
+    Schema s1 = new Schema.Parser().parse(json);
+    Schema s2 = new Schema.Parser().parse(json);
+    assertEquals(s1.getStructuralFingerprint(), s2.getStructuralFingerprint());
+    assertEquals(s1, s2);
+
+    Schema s3 = new Schema.Parser().parse(json.replace("\"size\":4", "\"size\":5"));
+    Assert.assertNotEquals(s1, s3);
+
+    // nested modifications are seen by the schemas they are nested in
+    s2.getField("v").schema().getElementType().addProp("p", "v");
+    Assert.assertNotEquals(s1, s2);
+    // properties are compared, but not fingerprinted
+    assertEquals(s1.getStructuralFingerprint(), s2.getStructuralFingerprint());
+    s1.getField("v").schema().getElementType().addProp("p", "v");
+    assertEquals(s1, s2);
+  }
 }
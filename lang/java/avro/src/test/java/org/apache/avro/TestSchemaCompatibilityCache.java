@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package org.apache.avro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.avro.SchemaCompatibility.SchemaCompatibilityType;
+import org.apache.avro.SchemaCompatibility.SchemaPairCompatibility;
+import org.junit.Test;
+
+public class TestSchemaCompatibilityCache {
+
+  private static Schema parse(String json) {
+    return new Schema.Parser().parse(json);
+  }
+
+  private static boolean isCompatible(SchemaCompatibilityCache cache, Schema reader, Schema writer) {
+    return cache.isCompatible(SchemaCompatibilityCache.fingerprint(reader), SchemaCompatibilityCache.fingerprint(writer));
+  }
+
+  private static final String ADDRESS = "{\"type\":\"record\",\"name\":\"Address\",\"fields\":["
+      + "{\"name\":\"street\",\"type\":\"string\"}]}";
+
+  private static Schema person(String extraField) {
+    return parse("{\"type\":\"record\",\"name\":\"Person\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"address\",\"type\":" + ADDRESS + "}"
+        + extraField + "]}");
+  }
+
+  private static final String LIST = "{\"type\":\"record\",\"name\":\"Node\",\"fields\":["
+      + "{\"name\":\"value\",\"type\":\"%s\"},{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}";
+
+  @Test
+  public void testSameAsUncached() {
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema v1 = person("");
+    Schema v2 = person(",{\"name\":\"age\",\"type\":\"int\",\"default\":0}");
+    Schema v3 = person(",{\"name\":\"age\",\"type\":\"int\"}");
+    for (Schema reader : Arrays.asList(v1, v2, v3)) {
+      for (Schema writer : Arrays.asList(v1, v2, v3)) {
+        for (int i = 0; i < 2; i++) {
+          assertEquals(SchemaCompatibility.checkReaderWriterCompatibility(reader, writer).getType(),
+              cache.checkReaderWriterCompatibility(reader, writer).getType());
+        }
+      }
+    }
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(v3, v1).getType());
+    // the nested record is remembered, for new instances too
+    Schema address = v1.getField("address").schema();
+    assertTrue(isCompatible(cache, parse(ADDRESS), address));
+  }
+
+  @Test
+  public void testRecursive() {
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema ints = parse(String.format(LIST, "int"));
+    Schema longs = parse(String.format(LIST, "long"));
+    assertEquals(SchemaCompatibilityType.COMPATIBLE, cache.checkReaderWriterCompatibility(longs, ints).getType());
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(ints, longs).getType());
+    assertTrue(isCompatible(cache, longs, ints));
+    assertFalse(isCompatible(cache, ints, longs));
+  }
+
+  @Test
+  public void testModifiedAfterCheck() {
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema writer = person("");
+    Schema reader = parse(writer.toString().replace("\"Person\"", "\"Human\""));
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(reader, writer).getType());
+    reader.addAlias("Person");
+    assertEquals(SchemaCompatibilityType.COMPATIBLE, cache.checkReaderWriterCompatibility(reader, writer).getType());
+  }
+
+  @Test
+  public void testCollidingHashCodes() {
+    assertEquals("Aa".hashCode(), "BB".hashCode());
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema writer = parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":[{\"name\":\"Aa\",\"type\":\"int\"}]}");
+    Schema aa = parse(writer.toString());
+    Schema bb = parse(writer.toString().replace("Aa", "BB"));
+    assertEquals(SchemaCompatibilityType.COMPATIBLE, cache.checkReaderWriterCompatibility(aa, writer).getType());
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(bb, writer).getType());
+  }
+
+  private static final String NESTED = "{\"type\":\"record\",\"name\":\"A\",\"fields\":["
+      + "{\"name\":\"f1\",\"type\":{\"type\":\"record\",\"name\":\"B\",\"fields\":["
+      + "{\"name\":\"a\",\"type\":[\"null\",\"A\"]}]}},"
+      + "{\"name\":\"f2\",\"type\":{\"type\":\"record\",\"name\":\"C\",\"fields\":["
+      + "{\"name\":\"b\",\"type\":\"B\"}]}},"
+      + "{\"name\":\"f3\",\"type\":\"%s\"}]}";
+
+  @Test
+  public void testAssumedCompatibilityIsNotCached() {
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema reader = parse(String.format(NESTED, "int"));
+    Schema writer = parse(String.format(NESTED, "string"));
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(reader, writer).getType());
+    Schema c = reader.getField("f2").schema();
+    Schema writerC = writer.getField("f2").schema();
+    assertEquals(SchemaCompatibility.checkReaderWriterCompatibility(c, writerC).getType(),
+        cache.checkReaderWriterCompatibility(c, writerC).getType());
+    assertEquals(SchemaCompatibilityType.INCOMPATIBLE, cache.checkReaderWriterCompatibility(c, writerC).getType());
+  }
+
+  @Test
+  public void testHistoryInParallel() throws Exception {
+    SchemaCompatibilityCache cache = new SchemaCompatibilityCache(100);
+    Schema v1 = person("");
+    Schema v2 = person(",{\"name\":\"age\",\"type\":\"int\",\"default\":0}");
+    Schema v3 = person(",{\"name\":\"age\",\"type\":\"int\"}");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<SchemaPairCompatibility> results = cache.checkHistory(v3, Arrays.asList(v1, v2, v3), true, executor);
+      assertEquals(SchemaCompatibilityType.INCOMPATIBLE, results.get(0).getType());
+      assertEquals(SchemaCompatibilityType.COMPATIBLE, results.get(1).getType());
+      assertEquals(SchemaCompatibilityType.COMPATIBLE, results.get(2).getType());
+      assertEquals(v1, results.get(0).getWriter());
+
+      SchemaValidator validator = new SchemaValidatorBuilder().canReadStrategy().validateAll(executor);
+      validator.validate(v2, Arrays.asList(v1, v2, v3));
+      try {
+        validator.validate(v3, Arrays.asList(v3, v2, v1));
+        fail("v3 cannot read v1");
+      } catch (SchemaValidationException e) {
+        // expected
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
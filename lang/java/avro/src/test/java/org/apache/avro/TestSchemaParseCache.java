@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class TestSchemaParseCache {
+  private static final String RECORD = "{\"type\":\"record\",\"name\":\"R\",\"fields\":[{\"name\":\"i\",\"type\":\"int\"}]}";
+
+  @Test
+  public void testSameInstance() {
+    SchemaParseCache cache = new SchemaParseCache(16);
+    Schema schema = cache.parse(RECORD);
+    assertSame(schema, cache.parse(new String(RECORD)));
+    assertEquals(new Schema.Parser().parse(RECORD), schema);
+  }
+
+  @Test
+  public void testBounded() {
+    SchemaParseCache cache = new SchemaParseCache(2);
+    Schema schema = cache.parse(RECORD);
+    cache.parse("\"int\"");
+    cache.parse("\"long\"");
+    assertEquals(2, cache.size());
+    cache.clear();
+    assertNotSame(schema, cache.parse(RECORD));
+  }
+
+  @Test
+  public void testIntern() {
+    SchemaParseCache cache = new SchemaParseCache(16);
+    Schema schema = cache.intern(cache.parse(RECORD));
+    assertSame(schema, cache.intern(cache.parse(RECORD.replace(",", ", "))));
+    assertSame(schema, cache.intern(new Schema.Parser().parse(RECORD)));
+  }
+
+  @Test
+  public void testAliasesAreKept() {
+    SchemaParseCache cache = new SchemaParseCache(16);
+    cache.parse(RECORD);
+    Schema aliased = cache.parse(RECORD.replace("\"name\":\"R\"", "\"name\":\"R\",\"aliases\":[\"A\"]"));
+    assertEquals(Collections.singleton("A"), aliased.getAliases());
+  }
+
+  @Test
+  public void testMemoizedParsingForm() {
+    Schema schema = new Schema.Parser().parse(RECORD);
+    String form = SchemaNormalization.toParsingForm(schema);
+    assertSame(form, SchemaNormalization.toParsingForm(schema));
+    assertEquals(SchemaNormalization.fingerprint64(form.getBytes(StandardCharsets.UTF_8)),
+        SchemaNormalization.parsingFingerprint64(schema));
+    assertEquals(SchemaNormalization.parsingFingerprint64(schema),
+        SchemaNormalization.parsingFingerprint64(new Schema.Parser().parse(RECORD)));
+  }
+}
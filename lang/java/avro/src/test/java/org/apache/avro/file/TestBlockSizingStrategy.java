@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+
+public class TestBlockSizingStrategy {
+  private static final Schema SCHEMA = Schema.create(Schema.Type.STRING);
+  private static final int COUNT = 20000;
+
+  /** Records the compressed size of the written blocks. */
+  private static class Recording implements BlockSizingStrategy {
+    private final BlockSizingStrategy delegate;
+    private final List<Long> compressedSizes = new ArrayList<>();
+
+    Recording(BlockSizingStrategy delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isBlockFull(long uncompressedBytes, long recordCount) {
+      return delegate.isBlockFull(uncompressedBytes, recordCount);
+    }
+
+    @Override
+    public void blockWritten(long uncompressedBytes, long compressedBytes, long recordCount) {
+      compressedSizes.add(compressedBytes);
+      delegate.blockWritten(uncompressedBytes, compressedBytes, recordCount);
+    }
+  }
+
+  private static String datum(int i) {
+    return "value " + Integer.toHexString(i * 0x9E3779B1) + " of a fairly repetitive record " + (i % 7);
+  }
+
+  private static byte[] write(BlockSizingStrategy strategy) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+      writer.setCodec(CodecFactory.deflateCodec(6));
+      writer.setBlockSizingStrategy(strategy);
+      writer.create(SCHEMA, out);
+      for (int i = 0; i < COUNT; i++) {
+        writer.append(datum(i));
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static List<Long> readBlockCounts(byte[] file) throws IOException {
+    List<Long> counts = new ArrayList<>();
+    try (DataFileReader<Object> reader = new DataFileReader<>(new SeekableByteArrayInput(file),
+        new GenericDatumReader<>())) {
+      int i = 0;
+      Object datum = null;
+      while (reader.hasNext()) {
+        datum = reader.next(datum);
+        assertEquals(new Utf8(datum(i)), datum);
+        i++;
+      }
+      assertEquals(COUNT, i);
+    }
+    try (DataFileStream<Object> stream = new DataFileStream<>(new ByteArrayInputStream(file),
+        new GenericDatumReader<>())) {
+      while (stream.hasNext()) {
+        counts.add(stream.getBlockCount());
+        stream.nextBlock();
+      }
+    }
+    return counts;
+  }
+
+  @Test
+  public void testAdaptiveTargetsCompressedSize() throws IOException {
+    int target = 2048;
+    Recording recording = new Recording(BlockSizingStrategy.adaptive(target, 0));
+    readBlockCounts(write(recording));
+    List<Long> sizes = recording.compressedSizes;
+    assertTrue(sizes.size() > 3);
+    // the first block is sized assuming no compression; the following ones
+    // are sized from the observed ratio
+    for (long size : sizes.subList(1, sizes.size() - 1)) {
+      assertTrue("block of " + size + " bytes", size > target / 2 && size < target * 2);
+    }
+    assertTrue(sizes.get(0) < target / 2);
+  }
+
+  @Test
+  public void testAdaptiveMaxRecords() throws IOException {
+    List<Long> counts = readBlockCounts(write(BlockSizingStrategy.adaptive(0, 1000)));
+    assertEquals(COUNT / 1000, counts.size());
+    for (long count : counts) {
+      assertEquals(1000, count);
+    }
+  }
+
+  @Test
+  public void testFixed() throws IOException {
+    Recording recording = new Recording(BlockSizingStrategy.fixed(1 << 20));
+    List<Long> counts = readBlockCounts(write(recording));
+    assertEquals(1, counts.size());
+    assertEquals(1, recording.compressedSizes.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTarget() {
+    new AdaptiveBlockSizingStrategy(0, 0);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestSharedCodecs {
+
+  @Parameters(name = "{0}")
+  public static List<Object[]> codecs() {
+    return Arrays.asList(new Object[] { "null" }, new Object[] { "deflate" }, new Object[] { "bzip2" },
+        new Object[] { "xz" });
+  }
+
+  private final Codec codec;
+
+  public TestSharedCodecs(String name) {
+    this.codec = CodecFactory.fromString(name).createInstance();
+  }
+
+  private static byte[] data(int seed) {
+    Random random = new Random(seed);
+    byte[] data = new byte[10000 + random.nextInt(50000)];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) ('a' + random.nextInt(4));
+    }
+    return data;
+  }
+
+  private static byte[] toArray(ByteBuffer buffer) {
+    byte[] result = new byte[buffer.remaining()];
+    buffer.duplicate().get(result);
+    return result;
+  }
+
+  @Test
+  public void testSharedInstance() {
+    assertTrue(codec.isThreadSafe());
+    assertSame(codec, CodecFactory.fromString(codec.getName()).createInstance());
+  }
+
+  @Test
+  public void testConcurrentUse() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        final int seed = i;
+        results.add(executor.submit(() -> {
+          byte[] data = data(seed);
+          ByteBuffer compressed = codec.compress(ByteBuffer.wrap(data));
+          assertEquals(ByteBuffer.wrap(data), codec.decompress(compressed));
+          return null;
+        }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testByteBufferToByteBuffer() throws IOException {
+    byte[] data = data(42);
+    for (boolean direct : new boolean[] { false, true }) {
+      ByteBuffer src = direct ? ByteBuffer.allocateDirect(data.length) : ByteBuffer.allocate(data.length);
+      src.put(data).flip();
+      ByteBuffer compressed = direct ? ByteBuffer.allocateDirect(data.length + 1024)
+          : ByteBuffer.allocate(data.length + 1024);
+      int size = codec.compress(src, compressed);
+      assertEquals(0, src.remaining());
+      assertEquals(size, compressed.position());
+      compressed.flip();
+      assertEquals(ByteBuffer.wrap(data), codec.decompress(ByteBuffer.wrap(toArray(compressed))));
+
+      ByteBuffer decompressed = direct ? ByteBuffer.allocateDirect(data.length) : ByteBuffer.allocate(data.length);
+      assertEquals(data.length, codec.decompress(compressed, decompressed));
+      decompressed.flip();
+      assertEquals(ByteBuffer.wrap(data), decompressed);
+    }
+  }
+}
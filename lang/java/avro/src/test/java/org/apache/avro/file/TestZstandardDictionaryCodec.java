@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.file;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+
+public class TestZstandardDictionaryCodec {
+  private static final Schema SCHEMA = Schema.create(Schema.Type.STRING);
+  private static final int COUNT = 5000;
+
+  private static String datum(int i) {
+    return "{\"id\": " + i + ", \"status\": \"" + (i % 3 == 0 ? "active" : "inactive")
+        + "\", \"region\": \"region-" + (i % 5) + "\"}";
+  }
+
+  /** Write small blocks, as a low latency writer does. */
+  private static byte[] write(CodecFactory codec) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+      writer.setCodec(codec);
+      writer.setSyncInterval(256);
+      writer.create(SCHEMA, out);
+      for (int i = 0; i < COUNT; i++) {
+        writer.append(datum(i));
+      }
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testDictionaryStoredInFile() throws IOException {
+    byte[] sample = write(CodecFactory.nullCodec());
+    byte[] dictionary;
+    try (DataFileStream<Object> stream = new DataFileStream<>(new ByteArrayInputStream(sample),
+        new GenericDatumReader<>())) {
+      dictionary = ZstandardDictionaryCodec.trainDictionary(stream, 4096);
+    }
+    assertTrue(dictionary.length > 0);
+
+    byte[] withDictionary = write(CodecFactory.zstandardDictionaryCodec(3, dictionary));
+    byte[] withoutDictionary = write(CodecFactory.zstandardCodec(3));
+    assertTrue(withDictionary.length + " vs " + withoutDictionary.length,
+        withDictionary.length < withoutDictionary.length);
+
+    try (DataFileStream<Object> stream = new DataFileStream<>(new ByteArrayInputStream(withDictionary),
+        new GenericDatumReader<>())) {
+      assertEquals(DataFileConstants.ZSTANDARD_DICTIONARY_CODEC, stream.getMetaString(DataFileConstants.CODEC));
+      assertArrayEquals(dictionary, stream.getMeta(DataFileConstants.ZSTANDARD_DICTIONARY));
+      int i = 0;
+      for (Object datum : stream) {
+        assertEquals(new Utf8(datum(i++)), datum);
+      }
+      assertEquals(COUNT, i);
+    }
+  }
+
+  @Test(expected = AvroRuntimeException.class)
+  public void testNoDictionary() {
+    CodecFactory.fromString(DataFileConstants.ZSTANDARD_DICTIONARY_CODEC).createInstance();
+  }
+
+  @Test
+  public void testFromMetadata() {
+    byte[] dictionary = { 1, 2, 3 };
+    Map<String, byte[]> metadata = new HashMap<>();
+    metadata.put(DataFileConstants.CODEC, DataFileConstants.ZSTANDARD_DICTIONARY_CODEC.getBytes(UTF_8));
+    metadata.put(DataFileConstants.ZSTANDARD_DICTIONARY, dictionary);
+    CodecFactory factory = CodecFactory.fromString(DataFileConstants.ZSTANDARD_DICTIONARY_CODEC, metadata);
+    assertEquals(new ZstandardDictionaryCodec(3, false, dictionary), factory.createInstance());
+    assertArrayEquals(dictionary, factory.getMetadata().get(DataFileConstants.ZSTANDARD_DICTIONARY));
+  }
+
+  @Test
+  public void testSetCodecDropsDictionary() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+      writer.setCodec(CodecFactory.zstandardDictionaryCodec(3, new byte[] { 1, 2, 3 }));
+      writer.setCodec(CodecFactory.nullCodec());
+      writer.create(SCHEMA, out);
+    }
+    try (DataFileStream<Object> stream = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()),
+        new GenericDatumReader<>())) {
+      assertNull(stream.getMeta(DataFileConstants.ZSTANDARD_DICTIONARY));
+    }
+  }
+}
@@ -38,6 +38,7 @@ import org.apache.avro.Schema.Field;
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema.Type;
 import org.apache.avro.SchemaBuilder;
+import org.apache.avro.UnresolvedUnionException;
 import org.apache.avro.io.BinaryData;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.io.EncoderFactory;
@@ -418,6 +419,101 @@ public class TestGenericData {
     assertEquals(buffer, buffer_copy);
   }
 
+  @Test
+  public void testDeepCopy() {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Node\",\"fields\":["
+        + "{\"name\":\"name\",\"type\":\"string\"},"
+        + "{\"name\":\"ints\",\"type\":{\"type\":\"array\",\"items\":\"int\"}},"
+        + "{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":\"string\"}},"
+        + "{\"name\":\"id\",\"type\":{\"type\":\"fixed\",\"name\":\"Id\",\"size\":2}},"
+        + "{\"name\":\"kind\",\"type\":{\"type\":\"enum\",\"name\":\"Kind\",\"symbols\":[\"A\",\"B\"]}},"
+        + "{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}");
+    GenericData data = new GenericData();
+    GenericRecord next = new GenericData.Record(schema);
+    next.put("name", new Utf8("b"));
+    next.put("ints", new GenericData.Array<>(schema.getField("ints").schema(), Arrays.asList(3)));
+    next.put("tags", new HashMap<>());
+    next.put("id", new GenericData.Fixed(schema.getField("id").schema(), new byte[] {3, 4}));
+    next.put("kind", new GenericData.EnumSymbol(schema.getField("kind").schema(), "B"));
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("name", "a");
+    PrimitiveArray.OfInt ints = new PrimitiveArray.OfInt(2, schema.getField("ints").schema());
+    ints.addInt(1);
+    ints.addInt(2);
+    record.put("ints", ints);
+    Map<CharSequence, CharSequence> tags = new HashMap<>();
+    tags.put(new Utf8("k"), new Utf8("v"));
+    record.put("tags", tags);
+    record.put("id", new GenericData.Fixed(schema.getField("id").schema(), new byte[] {1, 2}));
+    record.put("kind", new GenericData.EnumSymbol(schema.getField("kind").schema(), "A"));
+    record.put("next", next);
+
+    GenericRecord copy = data.deepCopy(schema, record);
+    assertEquals(record, copy);
+    assertSame(record.get("name"), copy.get("name"));
+    assertSame(record.get("kind"), copy.get("kind"));
+    assertNotSame(ints, copy.get("ints"));
+    assertTrue(copy.get("ints") instanceof PrimitiveArray.OfInt);
+    ints.setInt(0, 5);
+    assertEquals(1, ((PrimitiveArray.OfInt) copy.get("ints")).getInt(0));
+    Utf8 key = (Utf8) ((Map<?, ?>) copy.get("tags")).keySet().iterator().next();
+    assertNotSame(tags.keySet().iterator().next(), key);
+    assertNotSame(record.get("id"), copy.get("id"));
+    GenericRecord nextCopy = (GenericRecord) copy.get("next");
+    assertNotSame(next, nextCopy);
+    assertNotSame(next.get("name"), nextCopy.get("name"));
+    assertEquals(next, nextCopy);
+    assertSame(data.getDeepCopier(schema), data.getDeepCopier(schema));
+
+    // copies have the schema instance given, even if an equal one was copied before
+    Schema equal = new Schema.Parser().parse(schema.toString());
+    GenericRecord other = new GenericData.Record(equal);
+    other.put("name", "c");
+    other.put("ints", new GenericData.Array<>(0, equal.getField("ints").schema()));
+    other.put("tags", new HashMap<>());
+    other.put("id", new GenericData.Fixed(equal.getField("id").schema(), new byte[] {5, 6}));
+    other.put("kind", new GenericData.EnumSymbol(equal.getField("kind").schema(), "A"));
+    assertSame(equal, data.deepCopy(equal, other).getSchema());
+  }
+
+  @Test
+  public void testCompiledComparisons() throws IOException {
+    Schema schema = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"e\",\"type\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\",\"B\"]}},"
+        + "{\"name\":\"ignored\",\"type\":\"string\",\"order\":\"ignore\"},"
+        + "{\"name\":\"ints\",\"type\":{\"type\":\"array\",\"items\":\"int\"},\"order\":\"descending\"},"
+        + "{\"name\":\"doubles\",\"type\":{\"type\":\"array\",\"items\":\"double\"}},"
+        + "{\"name\":\"u\",\"type\":[\"null\",\"string\",\"long\"]},"
+        + "{\"name\":\"n\",\"type\":{\"type\":\"record\",\"name\":\"N\",\"fields\":["
+        + "{\"name\":\"b\",\"type\":\"bytes\"},{\"name\":\"f\",\"type\":{\"type\":\"fixed\",\"name\":\"F\",\"size\":3}}]}}"
+        + "]}");
+    GenericData compiled = new GenericData();
+    // subclasses compare without the compiled comparators
+    GenericData interpreted = new GenericData() {
+    };
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(schema);
+    Object previous = null;
+    for (Object datum : new org.apache.avro.RandomData(schema, 200, 17)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+      new GenericDatumWriter<>(schema).write(datum, encoder);
+      encoder.flush();
+      // the arrays of ints and doubles are read as primitive arrays
+      Object read = reader.read(null, org.apache.avro.io.DecoderFactory.get().binaryDecoder(out.toByteArray(), null));
+      assertEquals(interpreted.hashCode(datum, schema), compiled.hashCode(datum, schema));
+      assertEquals(compiled.hashCode(datum, schema), compiled.hashCode(read, schema));
+      assertEquals(0, compiled.compare(datum, read, schema, true));
+      assertEquals(0, compiled.compare(read, datum, schema));
+      if (previous != null) {
+        int expected = interpreted.compare(previous, read, schema);
+        assertEquals(expected, compiled.compare(previous, read, schema));
+        assertEquals(expected, compiled.compare(previous, datum, schema));
+        assertEquals(expected == 0, compiled.compare(previous, read, schema, true) == 0);
+      }
+      previous = datum;
+    }
+  }
+
   @Test
   public void testValidateNullableEnum() {
     List<Schema> unionTypes = new ArrayList<Schema>();
@@ -591,4 +687,26 @@ public class TestGenericData {
     assertFalse("Record with duplicated values results in wrong 'toString()'", testString.contains("CIRCULAR REFERENCE"));
   }
 
+
+  @Test
+  public void testResolveUnionOfRecords() {
+    Schema a = SchemaBuilder.record("A").fields().requiredInt("x").endRecord();
+    Schema b = SchemaBuilder.record("B").fields().requiredInt("x").endRecord();
+    Schema union = Schema.createUnion(Arrays.asList(Schema.create(Type.NULL), a, Schema.create(Type.STRING), b));
+    GenericData data = new GenericData();
+    // repeated, so that the branches come from the cache
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, data.resolveUnion(union, null));
+      assertEquals(1, data.resolveUnion(union, new GenericData.Record(a)));
+      assertEquals(3, data.resolveUnion(union, new GenericData.Record(b)));
+      assertEquals(2, data.resolveUnion(union, "a"));
+      assertEquals(2, data.resolveUnion(union, new Utf8("a")));
+      try {
+        data.resolveUnion(union, 1);
+        fail("int is not in the union");
+      } catch (UnresolvedUnionException expected) {
+      }
+    }
+  }
+
 }
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.avro.Schema;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+public class TestPrimitiveArray {
+  private static final Schema INTS = Schema.createArray(Schema.create(Schema.Type.INT));
+  private static final Schema LONGS = Schema.createArray(Schema.create(Schema.Type.LONG));
+  private static final Schema DOUBLES = Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+
+  private static byte[] write(Schema schema, Object datum, boolean blocking) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = blocking ? EncoderFactory.get().blockingBinaryEncoder(out, null)
+        : EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static Object read(Schema writer, Schema reader, byte[] bytes) throws IOException {
+    // a stream, so that the decoder refills its buffer while reading the items
+    return new GenericDatumReader<>(writer, reader)
+        .read(null, DecoderFactory.get().binaryDecoder(new ByteArrayInputStream(bytes), null));
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    Random random = new Random(42);
+    GenericData.Array<Long> boxed = new GenericData.Array<>(100000, LONGS);
+    for (int i = 0; i < 100000; i++) {
+      boxed.add(random.nextLong() >> random.nextInt(64));
+    }
+    for (boolean blocking : new boolean[] { false, true }) {
+      byte[] bytes = write(LONGS, boxed, blocking);
+      Object read = read(LONGS, LONGS, bytes);
+      assertTrue(read instanceof PrimitiveArray.OfLong);
+      assertEquals(boxed, read);
+      assertArrayEquals(bytes, write(LONGS, read, blocking));
+    }
+  }
+
+  @Test
+  public void testPromotion() throws IOException {
+    PrimitiveArray.OfInt ints = new PrimitiveArray.OfInt(0, INTS);
+    for (int i = -1000; i < 1000; i++) {
+      ints.addInt(i * 31);
+    }
+    List<?> doubles = (List<?>) read(INTS, DOUBLES, write(INTS, ints, false));
+    assertEquals(ints.size(), doubles.size());
+    for (int i = 0; i < ints.size(); i++) {
+      assertEquals(ints.getInt(i), (Double) doubles.get(i), 0);
+    }
+  }
+
+  @Test
+  public void testListOperations() {
+    PrimitiveArray.OfInt array = new PrimitiveArray.OfInt(1, INTS);
+    array.addInt(1);
+    array.add(3);
+    array.add(1, 2);
+    assertEquals(3, array.size());
+    assertEquals(Integer.valueOf(2), array.remove(1));
+    array.reverse();
+    assertEquals(3, array.getInt(0));
+    assertEquals(1, array.getInt(1));
+    assertEquals("[3, 1]", array.toString());
+    array.clear();
+    assertEquals(0, array.size());
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testOutOfBounds() {
+    new PrimitiveArray.OfDouble(4, DOUBLES).getDouble(0);
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.generic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.RandomData;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.Test;
+
+public class TestResolverActionReads {
+
+  private static final Schema WRITER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"i\",\"type\":\"int\"},"
+      + "{\"name\":\"dropped\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"map\",\"values\":\"string\"}}},"
+      + "{\"name\":\"l\",\"type\":\"long\"},"
+      + "{\"name\":\"f\",\"type\":\"float\"},"
+      + "{\"name\":\"s\",\"type\":\"string\"},"
+      + "{\"name\":\"b\",\"type\":\"bytes\"},"
+      + "{\"name\":\"e\",\"type\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\",\"B\",\"C\"]}},"
+      + "{\"name\":\"ints\",\"type\":{\"type\":\"array\",\"items\":\"int\"}},"
+      + "{\"name\":\"m\",\"type\":{\"type\":\"map\",\"values\":\"int\"}},"
+      + "{\"name\":\"u\",\"type\":[\"null\",\"int\",\"string\"]},"
+      + "{\"name\":\"n\",\"type\":{\"type\":\"record\",\"name\":\"N\",\"fields\":["
+      + "{\"name\":\"x\",\"type\":\"int\"},{\"name\":\"y\",\"type\":\"string\"}]}}]}");
+
+  // the fields reordered, promoted, dropped and added with defaults
+  private static final Schema READER = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"n\",\"type\":{\"type\":\"record\",\"name\":\"N\",\"fields\":["
+      + "{\"name\":\"y\",\"type\":\"string\"},{\"name\":\"x\",\"type\":\"double\"},"
+      + "{\"name\":\"z\",\"type\":{\"type\":\"array\",\"items\":\"int\"},\"default\":[1,2]}]}},"
+      + "{\"name\":\"u\",\"type\":[\"null\",\"long\",\"bytes\"]},"
+      + "{\"name\":\"m\",\"type\":{\"type\":\"map\",\"values\":\"float\"}},"
+      + "{\"name\":\"ints\",\"type\":{\"type\":\"array\",\"items\":\"long\"}},"
+      + "{\"name\":\"e\",\"type\":{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"C\",\"B\",\"A\"]}},"
+      + "{\"name\":\"b\",\"type\":\"string\"},"
+      + "{\"name\":\"s\",\"type\":\"bytes\"},"
+      + "{\"name\":\"f\",\"type\":\"double\"},"
+      + "{\"name\":\"l\",\"type\":[\"null\",\"float\"]},"
+      + "{\"name\":\"i\",\"type\":\"long\"},"
+      + "{\"name\":\"added\",\"type\":\"string\",\"default\":\"none\"}]}");
+
+  private static byte[] write(Schema schema, Object datum) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSameAsResolvingDecoder() throws IOException {
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(WRITER, READER);
+    // a subclass reads through a ResolvingDecoder
+    GenericDatumReader<Object> resolving = new GenericDatumReader<Object>(WRITER, READER) {
+    };
+    BinaryDecoder decoder = null;
+    Object reuse = null;
+    for (Object datum : new RandomData(WRITER, 500, 42)) {
+      byte[] bytes = write(WRITER, datum);
+      decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+      Object expected = resolving.read(null, decoder);
+      decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+      assertEquals(expected, reader.read(null, decoder));
+      decoder = DecoderFactory.get().binaryDecoder(bytes, decoder);
+      reuse = reader.read(reuse, decoder);
+      assertEquals(expected, reuse);
+    }
+  }
+
+  @Test
+  public void testDefaultsAreCopied() throws IOException {
+    GenericDatumReader<GenericRecord> reader = new GenericDatumReader<>(WRITER, READER);
+    byte[] bytes = write(WRITER, new RandomData(WRITER, 1, 7).iterator().next());
+    GenericRecord first = reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    GenericRecord second = reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    List<?> z = (List<?>) ((GenericRecord) first.get("n")).get("z");
+    assertEquals(2, z.size());
+    assertNotSame(z, ((GenericRecord) second.get("n")).get("z"));
+    assertEquals("none", first.get("added").toString());
+  }
+
+  @Test(expected = AvroTypeException.class)
+  public void testEnumWithoutMatch() throws IOException {
+    Schema writer = new Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\",\"B\"]}");
+    Schema reader = new Schema.Parser().parse("{\"type\":\"enum\",\"name\":\"E\",\"symbols\":[\"A\"]}");
+    byte[] bytes = write(writer, new GenericData.EnumSymbol(writer, "B"));
+    new GenericDatumReader<>(writer, reader).read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+  }
+
+  @Test
+  public void testActionsAreShared() {
+    GenericData data = new GenericData();
+    assertSame(data.getResolverAction(WRITER, READER), data.getResolverAction(WRITER, READER));
+  }
+
+  @Test
+  public void testReaderAliasesAreNotShared() throws IOException {
+    Schema writer = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"a\",\"type\":\"int\"}]}");
+    String reader = "{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"b\",\"type\":\"int\",\"default\":-1}]}";
+    Schema plain = new Schema.Parser().parse(reader);
+    Schema aliased = new Schema.Parser().parse(reader.replace("\"b\",", "\"b\",\"aliases\":[\"a\"],"));
+    assertEquals(plain, aliased);
+    GenericRecord datum = new GenericData.Record(writer);
+    datum.put("a", 7);
+    byte[] bytes = write(writer, datum);
+    GenericData data = new GenericData();
+    GenericRecord read = new GenericDatumReader<GenericRecord>(writer, plain, data)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    assertEquals(-1, read.get("b"));
+    read = new GenericDatumReader<GenericRecord>(writer, aliased, data)
+        .read(null, DecoderFactory.get().binaryDecoder(bytes, null));
+    assertEquals(7, read.get("b"));
+  }
+
+  @Test
+  public void testConversionChanges() throws IOException {
+    Schema schema = new Schema.Parser().parse(
+        "{\"type\":\"bytes\",\"logicalType\":\"decimal\",\"precision\":4,\"scale\":2}");
+    byte[] bytes = {4, 1, 2}; // the length, zig-zag encoded, and the bytes
+    GenericData data = new GenericData();
+    data.clearConversions();
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(schema, schema, data);
+    assertTrue(reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)) instanceof ByteBuffer);
+    data.defaultConversions();
+    assertTrue(reader.read(null, DecoderFactory.get().binaryDecoder(bytes, null)) instanceof BigDecimal);
+  }
+}
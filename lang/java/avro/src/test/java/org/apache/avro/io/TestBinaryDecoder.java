@@ -357,6 +357,82 @@ public class TestBinaryDecoder {
     Assert.assertEquals("Invalid long encoding", message);
   }
 
+  @Test
+  public void testBadIntEncodingInWord() throws IOException {
+    // enough bytes for the int to be decoded from a word
+    byte[] badint = new byte[16];
+    Arrays.fill(badint, 0, 5, (byte)0xff);
+    String message = "";
+    try {
+      factory.binaryDecoder(badint, null).readInt();
+    } catch (IOException ioe) {
+      message = ioe.getMessage();
+    }
+    Assert.assertEquals("Invalid int encoding", message);
+  }
+
+  @Test
+  public void testVarintsOfAllLengths() throws IOException {
+    long[] longs = new long[64 * 4];
+    int[] ints = new int[32 * 4];
+    for (int bits = 0; bits < 64; bits++) {
+      long l = 1L << bits;
+      longs[bits * 4] = l;
+      longs[bits * 4 + 1] = l - 1;
+      longs[bits * 4 + 2] = -l;
+      longs[bits * 4 + 3] = ~(l - 1) >>> 1;
+      if (bits < 32) {
+        ints[bits * 4] = (int) l;
+        ints[bits * 4 + 1] = (int) l - 1;
+        ints[bits * 4 + 2] = (int) -l;
+        ints[bits * 4 + 3] = (int) (l - 1) | Integer.MIN_VALUE;
+      }
+    }
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    BinaryEncoder e = e_factory.binaryEncoder(baos, null);
+    for (long l : longs) {
+      e.writeLong(l);
+    }
+    for (int i : ints) {
+      e.writeInt(i);
+    }
+    e.writeArrayStart();
+    e.setItemCount(longs.length);
+    e.writeLongs(longs, 0, longs.length);
+    e.writeArrayEnd();
+    e.writeArrayStart();
+    e.setItemCount(ints.length);
+    e.writeInts(ints, 0, ints.length);
+    e.writeArrayEnd();
+    e.flush();
+    byte[] data = baos.toByteArray();
+
+    Decoder d = newDecoder(new ByteArrayInputStream(data));
+    for (long l : longs) {
+      Assert.assertEquals(l, d.readLong());
+    }
+    for (int i : ints) {
+      Assert.assertEquals(i, d.readInt());
+    }
+    long[] readLongs = new long[longs.length];
+    Assert.assertEquals(longs.length, d.readArrayStart());
+    d.readLongs(readLongs, 0, longs.length);
+    Assert.assertEquals(0, d.arrayNext());
+    Assert.assertArrayEquals(longs, readLongs);
+    int[] readInts = new int[ints.length];
+    Assert.assertEquals(ints.length, d.readArrayStart());
+    d.readInts(readInts, 0, ints.length);
+    Assert.assertEquals(0, d.arrayNext());
+    Assert.assertArrayEquals(ints, readInts);
+
+    int pos = 0;
+    for (long l : longs) {
+      int next = BinaryData.skipLong(data, pos);
+      Assert.assertEquals(l, newDecoder(data, pos, next - pos).readLong());
+      pos = next;
+    }
+  }
+
   @Test
   public void testBadLengthEncoding() throws IOException {
     byte[] bad = new byte[] { (byte)1 };
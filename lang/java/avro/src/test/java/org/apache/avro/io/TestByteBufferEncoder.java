@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.apache.avro.RandomData;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.util.Utf8;
+import org.junit.Test;
+
+public class TestByteBufferEncoder {
+  private static final Schema SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+      + "{\"name\":\"i\",\"type\":\"int\"},{\"name\":\"l\",\"type\":\"long\"},"
+      + "{\"name\":\"d\",\"type\":\"double\"},{\"name\":\"s\",\"type\":\"string\"},"
+      + "{\"name\":\"b\",\"type\":\"bytes\"},{\"name\":\"a\",\"type\":{\"type\":\"array\",\"items\":\"float\"}}]}");
+
+  private static byte[] toBytes(ByteBuffer[] buffers) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (ByteBuffer buffer : buffers) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      out.write(bytes, 0, bytes.length);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  public void testSameBytesAsBinaryEncoder() throws IOException {
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(SCHEMA);
+    ByteArrayOutputStream expected = new ByteArrayOutputStream();
+    BinaryEncoder binary = EncoderFactory.get().binaryEncoder(expected, null);
+    // small chunks, so that data spans many of them
+    EncoderFactory factory = new EncoderFactory().configureBlockSize(64);
+    ByteBufferEncoder encoder = factory.byteBufferEncoder(null);
+    for (Object datum : new RandomData(SCHEMA, 1000, 42)) {
+      writer.write(datum, binary);
+      writer.write(datum, encoder);
+    }
+    binary.flush();
+    ByteBuffer[] buffers = encoder.getBuffers();
+    assertTrue(buffers.length > 1);
+    assertTrue(buffers[0].isDirect());
+    assertEquals(expected.size(), encoder.position());
+    assertArrayEquals(expected.toByteArray(), toBytes(buffers));
+
+    assertTrue(encoder == factory.byteBufferEncoder(encoder));
+    assertEquals(0, encoder.position());
+  }
+
+  @Test
+  public void testPatch() throws IOException {
+    ByteBufferEncoder encoder = new EncoderFactory().configureBlockSize(64).byteBufferEncoder(null);
+    long[] lengths = new long[100];
+    for (int i = 0; i < lengths.length; i++) {
+      long length = encoder.reserveInt();
+      long start = encoder.position();
+      for (int j = 0; j < i; j++) {
+        encoder.writeLong(j * 1000003L);
+      }
+      lengths[i] = encoder.position() - start;
+      encoder.patchInt(length, (int) lengths[i]);
+    }
+    long count = encoder.reserveLong();
+    encoder.patchLong(count, Long.MIN_VALUE);
+
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(toBytes(encoder.getBuffers()), null);
+    for (long length : lengths) {
+      assertEquals(length, decoder.readInt());
+      decoder.skipFixed((int) length);
+    }
+    assertEquals(Long.MIN_VALUE, decoder.readLong());
+    assertTrue(decoder.isEnd());
+  }
+
+  @Test
+  public void testCallerBuffer() throws IOException {
+    ByteBuffer target = ByteBuffer.allocateDirect(32);
+    target.position(8);
+    ByteBufferEncoder encoder = EncoderFactory.get().byteBufferEncoder(target, null);
+    encoder.writeInt(-3);
+    encoder.writeString("avro");
+    assertEquals(6, encoder.position());
+    assertEquals(8, target.position());
+
+    ByteBuffer[] buffers = encoder.getBuffers();
+    assertEquals(1, buffers.length);
+    assertEquals(8, buffers[0].position());
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(toBytes(buffers), null);
+    assertEquals(-3, decoder.readInt());
+    assertEquals(new Utf8("avro"), decoder.readString(null));
+  }
+
+  @Test(expected = BufferOverflowException.class)
+  public void testCallerBufferOverflow() throws IOException {
+    ByteBufferEncoder encoder = EncoderFactory.get().byteBufferEncoder(ByteBuffer.allocate(8), null);
+    encoder.writeDouble(1);
+    encoder.writeInt(1);
+  }
+}
@@ -17,10 +17,15 @@
  */
 package org.apache.avro.io;
 
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Parser;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.util.Utf8;
 
 import org.junit.Test;
 import org.junit.Assert;
@@ -77,4 +82,88 @@ public class TestJsonDecoder {
     Assert.assertEquals(200, in.readLong());
     in.skipArray();
   }
+
+  @Test public void testStreamingFieldsInArrivalOrder() throws Exception {
+    String w =
+      "{\"type\":\"record\",\"name\":\"R\",\"fields\":"
+      +"[{\"type\":\"long\",\"name\":\"l\"},"
+      +"{\"type\":{\"type\":\"array\",\"items\":\"int\"},\"name\":\"a\",\"aliases\":[\"b\"]},"
+      +"{\"type\":[\"null\",\"string\"],\"name\":\"s\",\"default\":null},"
+      +"{\"type\":{\"type\":\"map\",\"values\":\"int\"},\"name\":\"m\",\"default\":{\"x\":1}}"
+      +"]}";
+    Schema ws = Schema.parse(w);
+    DatumReader<GenericRecord> reader = new GenericDatumReader<GenericRecord>(ws);
+    String data = "{\"m\":{\"y\":2},\"s\":{\"string\":\"v\"},\"a\":[1,2],\"l\":100}"
+      + "{\"b\":[3],\"l\":200}";
+    JsonDecoder in = DecoderFactory.get().jsonDecoder(ws, data).setStreaming(true);
+
+    GenericRecord r = reader.read(null, in);
+    Assert.assertEquals(100L, r.get("l"));
+    Assert.assertEquals(Arrays.asList(1, 2), r.get("a"));
+    Assert.assertEquals("v", r.get("s").toString());
+    Assert.assertEquals(2, ((Map) r.get("m")).get(new Utf8("y")));
+
+    r = reader.read(null, in);
+    Assert.assertEquals(200L, r.get("l"));
+    Assert.assertEquals(Arrays.asList(3), r.get("a"));
+    Assert.assertNull(r.get("s"));
+    Assert.assertEquals(1, ((Map) r.get("m")).get(new Utf8("x")));
+  }
+
+  @Test(expected = AvroTypeException.class)
+  public void testStreamingMissingField() throws Exception {
+    Schema schema = Schema.parse(
+      "{\"type\":\"record\",\"name\":\"X\",\"fields\":[{\"type\":\"int\",\"name\":\"n\"}]}");
+    new GenericDatumReader<GenericRecord>(schema).read(null,
+      DecoderFactory.get().jsonDecoder(schema, "{}").setStreaming(true));
+  }
+
+  @Test public void testStreamingDefaultsAreCopied() throws Exception {
+    Schema schema = Schema.parse(
+      "{\"type\":\"record\",\"name\":\"X\",\"fields\":[{\"name\":\"m\","
+      + "\"type\":{\"type\":\"map\",\"values\":\"int\"},\"default\":{\"x\":1}}]}");
+    GenericDatumReader<GenericRecord> reader = new GenericDatumReader<GenericRecord>(schema);
+    JsonDecoder in = DecoderFactory.get().jsonDecoder(schema, "{}{}").setStreaming(true);
+    ((Map) reader.read(null, in).get("m")).clear();
+    Assert.assertEquals(1, ((Map) reader.read(null, in).get("m")).size());
+  }
+
+  @Test public void testStreamingTopLevelMap() throws Exception {
+    Schema schema = Schema.parse("{\"type\":\"map\",\"values\":\"int\"}");
+    JsonDecoder in = DecoderFactory.get().jsonDecoder(schema, "{\"a\":1}").setStreaming(true);
+    Map<?, ?> map = new GenericDatumReader<Map<?, ?>>(schema).read(null, in);
+    Assert.assertEquals(1, map.get(new Utf8("a")));
+
+    in = DecoderFactory.get().jsonDecoder(schema, "{\"a\":1}").setStreaming(true);
+    in.skipMap();
+  }
+
+  @Test public void testStreamingSubclassReadsInSchemaOrder() throws Exception {
+    Schema schema = Schema.parse(
+      "{\"type\":\"record\",\"name\":\"X\",\"fields\":[{\"type\":\"int\",\"name\":\"n\"},"
+      + "{\"type\":\"int\",\"name\":\"m\",\"default\":0}]}");
+    GenericDatumReader<GenericRecord> reader = new GenericDatumReader<GenericRecord>(schema) {
+    };
+    JsonDecoder in = DecoderFactory.get().jsonDecoder(schema, "{\"n\":1,\"m\":2}{\"n\":3}")
+      .setStreaming(true);
+    Assert.assertEquals(1, reader.read(null, in).get("n"));
+    // the caller's decoder is left streaming
+    Assert.assertTrue(in.isStreaming());
+    GenericRecord r = new GenericDatumReader<GenericRecord>(schema).read(null, in);
+    Assert.assertEquals(3, r.get("n"));
+    Assert.assertEquals(0, r.get("m"));
+  }
+
+  @Test public void testFieldNameTable() throws Exception {
+    Schema schema = Schema.parse(
+      "{\"type\":\"record\",\"name\":\"X\",\"fields\":[{\"type\":\"int\",\"name\":\"Aa\"},"
+      + "{\"type\":\"int\",\"name\":\"BB\"},{\"type\":\"int\",\"name\":\"c\",\"aliases\":[\"d\"]}]}");
+    FieldNameTable table = FieldNameTable.build(schema);
+    // "Aa" and "BB" have the same hash code
+    Assert.assertEquals(0, table.indexOf("Aa"));
+    Assert.assertEquals(1, table.indexOf("BB"));
+    Assert.assertEquals(2, table.indexOf("c"));
+    Assert.assertEquals(2, table.indexOf("d"));
+    Assert.assertEquals(-1, table.indexOf("e"));
+  }
 }
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestNdJsonReader {
+  private static final Schema SCHEMA = new Schema.Parser()
+      .parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":[{\"name\":\"i\",\"type\":\"int\"},"
+          + "{\"name\":\"s\",\"type\":[\"null\",\"string\"],\"default\":null}]}");
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static byte[] ndjson(int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(i % 2 == 0 ? "{\"s\":\"v" + i + "\",\"i\":" + i + "}" : "{\"i\":" + i + "}");
+      // blank lines, and no line end after the last line
+      sb.append(i % 100 == 0 ? "\r\n  \n" : i < count - 1 ? "\n" : "");
+    }
+    return sb.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void checkInOrder(int chunkSize) throws Exception {
+    int count = 5000;
+    try (NdJsonReader<GenericRecord> reader = new NdJsonReader<>(new ByteArrayInputStream(ndjson(count)), SCHEMA,
+        () -> new GenericDatumReader<>(SCHEMA), executor, chunkSize)) {
+      for (int i = 0; i < count; i++) {
+        GenericRecord record = reader.next();
+        assertEquals(i, record.get("i"));
+        if (i % 2 == 0) {
+          assertEquals("v" + i, record.get("s").toString());
+        } else {
+          assertNull(record.get("s"));
+        }
+      }
+      assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test
+  public void testInOrder() throws Exception {
+    checkInOrder(NdJsonReader.DEFAULT_CHUNK_SIZE);
+    checkInOrder(1024);
+  }
+
+  @Test
+  public void testLinesLongerThanChunks() throws Exception {
+    checkInOrder(5);
+  }
+
+  @Test
+  public void testStream() throws Exception {
+    assertEquals(1000, new NdJsonReader<>(new ByteArrayInputStream(ndjson(1000)), SCHEMA,
+        () -> new GenericDatumReader<>(SCHEMA), executor, 256).stream().count());
+  }
+
+  @Test
+  public void testSubclassReader() throws Exception {
+    // subclasses of the generic reader read in schema order, without streaming
+    assertEquals(1000, new NdJsonReader<>(new ByteArrayInputStream(ndjson(1000)), SCHEMA,
+        () -> new GenericDatumReader<GenericRecord>(SCHEMA) {
+        }, executor, 256).stream().count());
+  }
+
+  @Test(expected = AvroRuntimeException.class)
+  public void testInvalidRecord() throws Exception {
+    byte[] data = "{\"i\":1}\n{\"i\":\"one\"}\n".getBytes(StandardCharsets.UTF_8);
+    new NdJsonReader<>(new ByteArrayInputStream(data), SCHEMA, () -> new GenericDatumReader<>(SCHEMA), executor)
+        .stream().count();
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.avro.RandomData;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+public class TestSizedRecordEncoder {
+  private static final Schema NODE = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Node\",\"fields\":["
+      + "{\"name\":\"id\",\"type\":\"int\"},"
+      + "{\"name\":\"label\",\"type\":\"string\"},"
+      + "{\"name\":\"meta\",\"type\":{\"type\":\"record\",\"name\":\"Meta\",\"fields\":["
+      + "{\"name\":\"tags\",\"type\":{\"type\":\"map\",\"values\":\"string\"}},"
+      + "{\"name\":\"weight\",\"type\":\"double\"}]}},"
+      + "{\"name\":\"children\",\"type\":{\"type\":\"array\",\"items\":\"Node\"}},"
+      + "{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}");
+
+  /** NODE without the meta and label fields. */
+  private static final Schema PROJECTION = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Node\",\"fields\":["
+      + "{\"name\":\"id\",\"type\":\"int\"},"
+      + "{\"name\":\"children\",\"type\":{\"type\":\"array\",\"items\":\"Node\"}},"
+      + "{\"name\":\"next\",\"type\":[\"null\",\"Node\"]}]}");
+
+  private static byte[] write(Schema schema, Iterable<Object> data, boolean sized) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    if (sized) {
+      encoder = EncoderFactory.get().sizedRecordEncoder(encoder, null);
+    }
+    GenericDatumWriter<Object> writer = new GenericDatumWriter<>(schema);
+    for (Object datum : data) {
+      writer.write(datum, encoder);
+    }
+    encoder.flush();
+    return out.toByteArray();
+  }
+
+  private static List<Object> read(Schema writer, Schema reader, byte[] bytes, int count) throws IOException {
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, null);
+    decoder.setSizedRecords(true);
+    GenericDatumReader<Object> datumReader = new GenericDatumReader<>(writer, reader);
+    List<Object> result = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      result.add(datumReader.read(null, decoder));
+    }
+    assertTrue(decoder.isEnd());
+    return result;
+  }
+
+  private static List<Object> project(List<Object> data) throws IOException {
+    // the plain binary encoding reads projections by decoding every field
+    byte[] bytes = write(NODE, data, false);
+    GenericDatumReader<Object> reader = new GenericDatumReader<>(NODE, PROJECTION);
+    BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(bytes, null);
+    List<Object> result = new ArrayList<>();
+    for (int i = 0; i < data.size(); i++) {
+      result.add(reader.read(null, decoder));
+    }
+    return result;
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    List<Object> data = new ArrayList<>();
+    for (Object datum : new RandomData(NODE, 200, 42)) {
+      data.add(datum);
+    }
+    byte[] plain = write(NODE, data, false);
+    byte[] sized = write(NODE, data, true);
+    assertTrue(sized.length > plain.length);
+    assertEquals(data, read(NODE, NODE, sized, data.size()));
+    assertEquals(project(data), read(NODE, PROJECTION, sized, data.size()));
+  }
+
+  @Test
+  public void testSkipsWithoutDecoding() throws IOException {
+    GenericRecord meta = new GenericData.Record(NODE.getField("meta").schema());
+    meta.put("tags", new HashMap<String, String>());
+    meta.put("weight", 1.0);
+    char[] label = new char[1000];
+    Arrays.fill(label, 'x');
+    GenericRecord node = new GenericData.Record(NODE);
+    node.put("id", 7);
+    node.put("label", new String(label));
+    node.put("meta", meta);
+    node.put("children", new ArrayList<>());
+    byte[] bytes = write(NODE, Arrays.asList(node), true);
+    // node size (2 bytes), id, label length (2 bytes), label, meta size, tags,
+    // weight, children, next
+    assertEquals(2 + 1 + 2 + 1000 + 1 + 1 + 8 + 1 + 1, bytes.length);
+    // spoil the contents of meta: a skip that decoded them would fail
+    Arrays.fill(bytes, 1006, 1015, (byte) 0xff);
+    GenericRecord read = (GenericRecord) read(NODE, PROJECTION, bytes, 1).get(0);
+    assertEquals(7, read.get("id"));
+    assertEquals(0, ((List<?>) read.get("children")).size());
+    assertEquals(null, read.get("next"));
+  }
+
+  @Test
+  public void testDefaults() throws IOException {
+    Schema writer = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"a\",\"type\":\"int\"}]}");
+    Schema reader = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"R\",\"fields\":["
+        + "{\"name\":\"a\",\"type\":\"int\"},"
+        + "{\"name\":\"p\",\"type\":{\"type\":\"record\",\"name\":\"P\",\"fields\":["
+        + "{\"name\":\"x\",\"type\":\"long\"},{\"name\":\"y\",\"type\":\"string\"}]},"
+        + "\"default\":{\"x\":3,\"y\":\"why\"}}]}");
+    GenericRecord r = new GenericData.Record(writer);
+    r.put("a", 1);
+    GenericRecord read = (GenericRecord) read(writer, reader, write(writer, Arrays.asList(r), true), 1).get(0);
+    assertEquals(1, read.get("a"));
+    GenericRecord p = (GenericRecord) read.get("p");
+    assertEquals(3L, p.get("x"));
+    assertEquals("why", p.get("y").toString());
+  }
+
+  @Test
+  public void testDataFile() throws IOException {
+    List<Object> data = new ArrayList<>();
+    for (Object datum : new RandomData(NODE, 100, 7)) {
+      data.add(datum);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+      writer.setSizedRecords(true).setSyncInterval(256).create(NODE, out);
+      for (Object datum : data) {
+        writer.append(datum);
+      }
+    }
+    try (DataFileStream<Object> reader = new DataFileStream<>(new ByteArrayInputStream(out.toByteArray()),
+        new GenericDatumReader<>(NODE, PROJECTION))) {
+      assertTrue(reader.hasSizedRecords());
+      List<Object> read = new ArrayList<>();
+      for (Object datum : reader) {
+        read.add(datum);
+      }
+      assertEquals(project(data), read);
+    }
+    ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    try (DataFileWriter<Object> writer = new DataFileWriter<>(new GenericDatumWriter<>())) {
+      writer.create(NODE, plain);
+    }
+    try (DataFileStream<Object> reader = new DataFileStream<>(new ByteArrayInputStream(plain.toByteArray()),
+        new GenericDatumReader<>())) {
+      assertFalse(reader.hasSizedRecords());
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.junit.Test;
+
+public class TestBatchMessageEncoding {
+
+  private static final Schema SCHEMA = SchemaBuilder.record("Event").fields()
+      .requiredLong("id").requiredString("name").endRecord();
+
+  private static List<GenericRecord> records(int count) {
+    List<GenericRecord> records = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      records.add(new GenericRecordBuilder(SCHEMA).set("id", (long) i).set("name", "event " + i).build());
+    }
+    return records;
+  }
+
+  private static List<GenericRecord> readAll(Iterator<GenericRecord> it) {
+    List<GenericRecord> read = new ArrayList<>();
+    while (it.hasNext()) {
+      read.add(new GenericData.Record((GenericData.Record) it.next(), true));
+    }
+    return read;
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    List<GenericRecord> records = records(100);
+    for (CodecFactory codec : new CodecFactory[] {CodecFactory.nullCodec(), CodecFactory.deflateCodec(6)}) {
+      BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA, codec);
+      BatchMessageDecoder<GenericRecord> decoder = new BatchMessageDecoder<>(GenericData.get(), SCHEMA);
+      ByteBuffer batch = encoder.encode(records);
+      assertEquals(records, readAll(decoder.decode(batch, null)));
+      // the encoder can be reused
+      assertEquals(records.subList(0, 3), readAll(decoder.decode(encoder.encode(records.subList(0, 3)), null)));
+      assertFalse(decoder.decode(encoder.encode(new ArrayList<>()), null).hasNext());
+    }
+  }
+
+  @Test
+  public void testReusesRecord() throws Exception {
+    BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA);
+    BatchMessageDecoder<GenericRecord> decoder = new BatchMessageDecoder<>(GenericData.get(), SCHEMA);
+    GenericRecord reuse = new GenericData.Record(SCHEMA);
+    BatchMessageDecoder.BatchIterator<GenericRecord> it = decoder.decode(encoder.encode(records(10)), reuse);
+    assertEquals(10, it.remaining());
+    for (long i = 0; i < 10; i++) {
+      GenericRecord record = it.next();
+      assertSame(reuse, record);
+      assertEquals(i, record.get("id"));
+    }
+    assertEquals(0, it.remaining());
+  }
+
+  @Test
+  public void testResolvedSchema() throws Exception {
+    Schema readSchema = SchemaBuilder.record("Event").fields().requiredLong("id").endRecord();
+    SchemaStore.Cache store = new SchemaStore.Cache();
+    store.addSchema(SCHEMA);
+    BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA);
+    BatchMessageDecoder<GenericRecord> decoder = new BatchMessageDecoder<>(GenericData.get(), readSchema, store);
+    Iterator<GenericRecord> it = decoder.decode(encoder.encode(records(2)), null);
+    assertEquals(0L, it.next().get("id"));
+    assertEquals(1L, it.next().get("id"));
+    assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void testInterleavedIterators() throws Exception {
+    Schema readSchema = SchemaBuilder.record("Event").fields().requiredString("name").requiredLong("id").endRecord();
+    BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA);
+    BatchMessageDecoder<GenericRecord> decoder = new BatchMessageDecoder<>(GenericData.get(), readSchema);
+    decoder.addSchema(SCHEMA);
+    Iterator<GenericRecord> first = decoder.decode(encoder.encode(records(3)), null);
+    Iterator<GenericRecord> second = decoder.decode(encoder.encode(records(3)), null);
+    for (long i = 0; i < 3; i++) {
+      assertEquals(i, first.next().get("id"));
+      GenericRecord record = second.next();
+      assertEquals(i, record.get("id"));
+      assertEquals("event " + i, record.get("name").toString());
+    }
+  }
+
+  @Test(expected = MissingSchemaException.class)
+  public void testMissingSchema() throws Exception {
+    Schema other = SchemaBuilder.record("Other").fields().requiredInt("x").endRecord();
+    BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA);
+    new BatchMessageDecoder<GenericRecord>(GenericData.get(), other).decode(encoder.encode(records(1)), null);
+  }
+
+  @Test(expected = BadHeaderException.class)
+  public void testBadHeader() throws Exception {
+    BinaryMessageEncoder<GenericRecord> single = new BinaryMessageEncoder<>(GenericData.get(), SCHEMA);
+    new BatchMessageDecoder<GenericRecord>(GenericData.get(), SCHEMA).decode(single.encode(records(1).get(0)), null);
+  }
+
+  @Test(expected = BadHeaderException.class)
+  public void testUnknownCodec() throws Exception {
+    BatchMessageEncoder<GenericRecord> encoder = new BatchMessageEncoder<>(GenericData.get(), SCHEMA);
+    ByteBuffer batch = encoder.encode(records(1));
+    // the header is followed by the name of the codec, "null", made "noll"
+    batch.put(batch.position() + 11, (byte) 'n').put(batch.position() + 12, (byte) 'o');
+    new BatchMessageDecoder<GenericRecord>(GenericData.get(), SCHEMA).decode(batch, null);
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Test;
+
+public class TestCachingSchemaStore {
+
+  private static Schema schema(int i) {
+    return SchemaBuilder.record("R" + i).fields().requiredInt("f").endRecord();
+  }
+
+  /** A store of the schemas R0 to R9 that counts its lookups. */
+  private static class CountingStore implements SchemaStore {
+    final SchemaStore.Cache schemas = new SchemaStore.Cache();
+    final AtomicInteger lookups = new AtomicInteger();
+    volatile CountDownLatch gate = new CountDownLatch(0);
+
+    CountingStore() {
+      for (int i = 0; i < 10; i++) {
+        schemas.addSchema(schema(i));
+      }
+    }
+
+    @Override
+    public Schema findByFingerprint(long fingerprint) {
+      lookups.incrementAndGet();
+      try {
+        gate.await();
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return schemas.findByFingerprint(fingerprint);
+    }
+  }
+
+  @Test
+  public void testMissingFingerprints() throws InterruptedException {
+    CountingStore store = new CountingStore();
+    CachingSchemaStore cache = new CachingSchemaStore(store).setMissingTtl(50, TimeUnit.MILLISECONDS);
+    long fp = SchemaNormalization.parsingFingerprint64(schema(1));
+    assertEquals(schema(1), cache.findByFingerprint(fp));
+    assertEquals(schema(1), cache.findByFingerprint(fp));
+    assertEquals(1, store.lookups.get());
+
+    for (int i = 0; i < 100; i++) {
+      assertNull(cache.findByFingerprint(42));
+    }
+    assertEquals(2, store.lookups.get());
+    Thread.sleep(100);
+    assertNull(cache.findByFingerprint(42));
+    assertEquals(3, store.lookups.get());
+    cache.invalidate(42);
+    assertNull(cache.findByFingerprint(42));
+    assertEquals(4, store.lookups.get());
+  }
+
+  @Test
+  public void testSingleLookup() throws Exception {
+    CountingStore store = new CountingStore();
+    store.gate = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      CachingSchemaStore cache = new CachingSchemaStore(store, executor, 100)
+          .setLookupTimeout(10, TimeUnit.MILLISECONDS);
+      long fp = SchemaNormalization.parsingFingerprint64(schema(2));
+      cache.prefetch(fp);
+      // the store is stalled: callers do not wait for it
+      assertNull(cache.findByFingerprint(fp));
+      List<CompletableFuture<Schema>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        futures.add(cache.findByFingerprintAsync(fp));
+      }
+      store.gate.countDown();
+      for (CompletableFuture<Schema> future : futures) {
+        assertEquals(schema(2), future.get(10, TimeUnit.SECONDS));
+      }
+      assertEquals(schema(2), cache.findByFingerprint(fp));
+      assertEquals(1, store.lookups.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testFailedLookup() {
+    CachingSchemaStore cache = new CachingSchemaStore(fingerprint -> {
+      throw new IllegalStateException("registry is down");
+    });
+    assertNull(cache.findByFingerprint(1));
+  }
+
+  @Test
+  public void testInterruptedLookup() {
+    CountingStore store = new CountingStore();
+    store.gate = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CachingSchemaStore cache = new CachingSchemaStore(store, executor, 100);
+      Thread.currentThread().interrupt();
+      try {
+        cache.findByFingerprint(SchemaNormalization.parsingFingerprint64(schema(3)));
+        fail("Expected the interruption to be thrown");
+      } catch (AvroRuntimeException e) {
+        assertTrue(e.getCause() instanceof InterruptedException);
+      }
+      assertTrue(Thread.interrupted());
+    } finally {
+      store.gate.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testLruCache() {
+    LruCache<Integer, String> cache = new LruCache<>(2);
+    cache.put(1, "a");
+    cache.put(2, "b");
+    assertEquals("a", cache.get(1));
+    cache.put(3, "c");
+    assertEquals(2, cache.size());
+    assertNull(cache.get(2));
+    assertEquals("a", cache.get(1));
+    assertEquals("c", cache.get(3));
+    assertEquals("a", cache.remove(1));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testDecoderEviction() throws Exception {
+    CountingStore store = new CountingStore();
+    BinaryMessageDecoder<GenericRecord> decoder = new BinaryMessageDecoder<>(GenericData.get(), schema(0),
+        new CachingSchemaStore(store, Runnable::run, 1), 2);
+    List<ByteBuffer> messages = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      GenericRecord record = new GenericData.Record(schema(i));
+      record.put("f", i);
+      messages.add(new BinaryMessageEncoder<GenericRecord>(GenericData.get(), schema(i)).encode(record));
+    }
+    for (int round = 0; round < 2; round++) {
+      for (ByteBuffer message : messages) {
+        decoder.decode(message.duplicate());
+      }
+    }
+    // each round evicts the decoder and schema of every message, to find them again
+    assertEquals(6, store.lookups.get());
+    decoder.decode(messages.get(2).duplicate());
+    assertEquals(6, store.lookups.get());
+  }
+}
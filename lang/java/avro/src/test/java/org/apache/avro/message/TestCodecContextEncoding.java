@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.avro.message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.nio.ByteBuffer;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.GenericRecordBuilder;
+import org.apache.avro.io.CodecContext;
+import org.junit.Test;
+
+public class TestCodecContextEncoding {
+
+  private static final Schema SCHEMA = SchemaBuilder.record("Event").fields()
+      .requiredLong("id").requiredString("name").endRecord();
+
+  @Test
+  public void testCallerOwnedContext() throws Exception {
+    BinaryMessageEncoder<GenericRecord> encoder = new BinaryMessageEncoder<>(GenericData.get(), SCHEMA, false);
+    BinaryMessageDecoder<GenericRecord> decoder = new BinaryMessageDecoder<>(GenericData.get(), SCHEMA);
+    CodecContext context = new CodecContext();
+    GenericRecord reuse = null;
+    for (long i = 0; i < 10; i++) {
+      GenericRecord record = new GenericRecordBuilder(SCHEMA).set("id", i).set("name", "event " + i).build();
+      ByteBuffer encoded = encoder.encode(record, context);
+      // the same bytes as without a context
+      assertEquals(encoder.encode(record), encoded);
+      GenericRecord read = decoder.decode(encoded, reuse, context);
+      assertEquals(record, read);
+      if (reuse != null) {
+        assertSame(reuse, read);
+      }
+      reuse = read;
+      byte[] bytes = new byte[encoded.remaining()];
+      encoded.get(bytes);
+      assertEquals(record, decoder.decode(bytes, null, context));
+    }
+  }
+
+  @Test
+  public void testRawWithContext() throws Exception {
+    RawMessageEncoder<GenericRecord> encoder = new RawMessageEncoder<>(GenericData.get(), SCHEMA);
+    RawMessageDecoder<GenericRecord> decoder = new RawMessageDecoder<>(GenericData.get(), SCHEMA);
+    CodecContext context = new CodecContext();
+    GenericRecord record = new GenericRecordBuilder(SCHEMA).set("id", 1L).set("name", "one").build();
+    ByteBuffer encoded = encoder.encode(record, context);
+    assertEquals(encoder.encode(record), encoded);
+    assertEquals(record, decoder.decode(encoded, null, context));
+    assertEquals(record, decoder.decode(encoded));
+  }
+}
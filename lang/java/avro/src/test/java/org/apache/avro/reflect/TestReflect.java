@@ -112,6 +112,21 @@ public class TestReflect {
     assertEquals(1, data.resolveUnion(s, new HashMap<String,Float>()));
   }
 
+  @Test public void testUnionWithNonStringMap() {
+    Schema s = new Schema.Parser().parse
+      ("[\"null\", {\"type\":\"map\",\"values\":\"float\"}, {\"type\":\"array\",\"items\":\"int\"}]");
+    GenericData data = ReflectData.get();
+    HashMap<Integer,Float> intKeys = new HashMap<Integer,Float>();
+    intKeys.put(1, 1.0f);
+    HashMap<String,Float> stringKeys = new HashMap<String,Float>();
+    stringKeys.put("1", 1.0f);
+    // maps of the same class, written as maps or as arrays depending on keys
+    for (int i = 0; i < 3; i++) {
+      assertEquals(2, data.resolveUnion(s, intKeys));
+      assertEquals(1, data.resolveUnion(s, stringKeys));
+    }
+  }
+
   @Test public void testUnionWithMapWithUtf8Keys() {
     Schema s = new Schema.Parser().parse
       ("[\"null\", {\"type\":\"map\",\"values\":\"float\"}]");
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompactDecimal {
+
+  private static CompactDecimal parse(String str) {
+    return CompactDecimal.parse(str.toCharArray(), 0, str.length());
+  }
+
+  @Test
+  public void testToCharsAndParse() {
+    Random random = new Random(42);
+    char[] chars = new char[CompactDecimal.MAX_CHARS];
+    long[] specials = {0, 1, -1, 10, Long.MAX_VALUE, Long.MIN_VALUE, 999999999999999999L};
+    for (int i = 0; i < 10000; i++) {
+      long unscaled = i < specials.length ? specials[i] : random.nextLong() >> random.nextInt(64);
+      int scale = random.nextInt(50) - 25;
+      CompactDecimal value = CompactDecimal.valueOf(unscaled, scale);
+      String str = new String(chars, 0, value.toChars(chars, 0));
+      BigDecimal expected = BigDecimal.valueOf(unscaled, scale);
+      assertEquals(str, 0, expected.compareTo(new BigDecimal(str)));
+      assertEquals(str, value.toString());
+      CompactDecimal parsed = parse(str);
+      if (Decimals.precision(unscaled) <= Decimals.MAX_LONG_PRECISION) {
+        assertEquals(str, value, parsed);
+        assertEquals(str, value.hashCode(), parsed.hashCode());
+      } else {
+        assertNull(str, parsed);
+      }
+    }
+    assertEquals(CompactDecimal.valueOf(-15, 2), parse("-0.15"));
+    assertEquals(CompactDecimal.valueOf(25, -3), parse("2.5e4"));
+    assertEquals(2, parse("1.00").scale());
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testParseInvalid() {
+    parse("1.2x");
+  }
+
+  @Test
+  public void testArithmetic() {
+    Random random = new Random(7);
+    for (int i = 0; i < 10000; i++) {
+      BigDecimal a = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(10));
+      BigDecimal b = BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), random.nextInt(10));
+      CompactDecimal ca = CompactDecimal.valueOf(a);
+      CompactDecimal cb = CompactDecimal.valueOf(b);
+      assertEquals(0, a.add(b).compareTo(ca.add(cb).toBigDecimal()));
+      assertEquals(0, a.subtract(b).compareTo(ca.subtract(cb).toBigDecimal()));
+      assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(ca.compareTo(cb)));
+      assertEquals(a.doubleValue(), ca.doubleValue(), 0);
+      assertEquals(a.longValue(), ca.longValue());
+    }
+  }
+
+  @Test
+  public void testOverflow() {
+    CompactDecimal max = CompactDecimal.valueOf(Long.MAX_VALUE, 2);
+    CompactDecimal sum = max.add(max);
+    assertFalse(sum.isCompact());
+    assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)), sum.toBigDecimal());
+    CompactDecimal back = sum.subtract(max);
+    assertTrue(back.isCompact());
+    assertEquals(max, back);
+    assertEquals(max.hashCode(), back.hashCode());
+  }
+
+  @Test
+  public void testEqualsIgnoresScale() {
+    CompactDecimal a = CompactDecimal.valueOf(150, 2);
+    CompactDecimal b = CompactDecimal.valueOf(15, 1);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertEquals(b, a.setScale(1));
+    assertEquals(1500, b.setScale(3).unscaledValue());
+    BigDecimal big = new BigDecimal("1000000000000000000000000");
+    assertEquals(CompactDecimal.valueOf(1, -24), CompactDecimal.valueOf(big));
+    assertEquals(CompactDecimal.valueOf(1, -24).hashCode(), CompactDecimal.valueOf(big).hashCode());
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void testSetScaleRounding() {
+    CompactDecimal.valueOf(155, 2).setScale(1);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.apache.avro.Schema;
+import org.junit.Test;
+
+public class TestIdentityCache {
+  private static final String RECORD = "{\"type\":\"record\",\"name\":\"R\",\"fields\":[{\"name\":\"i\",\"type\":\"int\"}]}";
+
+  @Test
+  public void testEqualKeysHaveOwnEntries() {
+    IdentityCache<Schema, String> cache = new IdentityCache<>(16);
+    Schema s1 = new Schema.Parser().parse(RECORD);
+    Schema s2 = new Schema.Parser().parse(RECORD.replace("\"R\"", "\"R\",\"aliases\":[\"A\"]"));
+    assertEquals(s1, s2);
+    assertEquals("1", cache.computeIfAbsent(s1, s -> "1"));
+    assertNull(cache.get(s2));
+    assertEquals("2", cache.computeIfAbsent(s2, s -> "2"));
+    assertEquals("1", cache.computeIfAbsent(s1, s -> "3"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testBounded() {
+    IdentityCache<Schema, Schema> cache = new IdentityCache<>(2);
+    Schema record = new Schema.Parser().parse(RECORD);
+    assertSame(record, cache.computeIfAbsent(record, s -> s));
+    cache.computeIfAbsent(Schema.create(Schema.Type.INT), s -> s);
+    cache.computeIfAbsent(Schema.create(Schema.Type.LONG), s -> s);
+    assertEquals(2, cache.size());
+    for (int i = 0; i < 2 * IdentityCache.MAX_EQUAL_KEYS; i++) {
+      cache.computeIfAbsent(new Schema.Parser().parse(RECORD), s -> s);
+    }
+    assertEquals(2, cache.size());
+    cache.clear();
+    assertNull(cache.get(record));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class TestReuseStrategy {
+
+  @Test
+  public void testThreadLocal() {
+    Recycler<Object> recycler = ReuseStrategy.THREAD_LOCAL.newRecycler(Object::new);
+    Object first = recycler.acquire();
+    // a nested acquire gets another instance
+    Object nested = recycler.acquire();
+    assertNotSame(first, nested);
+    recycler.release(nested);
+    recycler.release(first);
+    assertSame(first, recycler.acquire());
+  }
+
+  @Test
+  public void testPool() throws InterruptedException {
+    AtomicInteger created = new AtomicInteger();
+    Recycler<Object> recycler = ReuseStrategy.POOL.newRecycler(() -> {
+      created.incrementAndGet();
+      return new Object();
+    });
+    Object first = recycler.acquire();
+    recycler.release(first);
+    // released instances are shared by all threads
+    Object[] other = new Object[1];
+    Thread thread = new Thread(() -> other[0] = recycler.acquire());
+    thread.start();
+    thread.join();
+    assertSame(first, other[0]);
+    // the pool is bounded, extra instances are dropped
+    List<Object> acquired = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      acquired.add(recycler.acquire());
+    }
+    acquired.forEach(recycler::release);
+    created.set(0);
+    for (int i = 0; i < 1000; i++) {
+      recycler.acquire();
+    }
+    assertEquals(1000 - Runtime.getRuntime().availableProcessors() * 2, created.get());
+  }
+
+  @Test
+  public void testNone() {
+    Recycler<Object> recycler = ReuseStrategy.NONE.newRecycler(Object::new);
+    Object first = recycler.acquire();
+    recycler.release(first);
+    assertNotSame(first, recycler.acquire());
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.util.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class TestParallelism {
+
+  @Test
+  public void testOf() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    ExecutorService fixed = Executors.newFixedThreadPool(3);
+    ExecutorService cached = Executors.newCachedThreadPool();
+    ForkJoinPool forkJoin = new ForkJoinPool(5);
+    try {
+      assertEquals(3, Parallelism.of(fixed));
+      assertEquals(processors, Parallelism.of(cached));
+      assertEquals(5, Parallelism.of(forkJoin));
+      assertEquals(processors, Parallelism.of(Runnable::run));
+    } finally {
+      fixed.shutdownNow();
+      cached.shutdownNow();
+      forkJoin.shutdownNow();
+    }
+  }
+}
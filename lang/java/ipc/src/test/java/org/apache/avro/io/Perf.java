@@ -89,8 +89,11 @@ public class Perf {
     BATCHES = new LinkedHashMap<String, List<TestDescriptor>>();
     BATCHES.put("-basic", BASIC);
     new TestDescriptor(IntTest.class, "-i").add(BASIC);
+    new TestDescriptor(RandomIntTest.class, "-ir").add(BASIC);
+    new TestDescriptor(IntArrayTest.class, "-ia").add(BASIC);
     new TestDescriptor(SmallLongTest.class, "-ls").add(BASIC);
     new TestDescriptor(LongTest.class, "-l").add(BASIC);
+    new TestDescriptor(LongArrayTest.class, "-la").add(BASIC);
     new TestDescriptor(FloatTest.class, "-f").add(BASIC);
     new TestDescriptor(DoubleTest.class, "-d").add(BASIC);
     new TestDescriptor(BoolTest.class, "-b").add(BASIC);
@@ -440,6 +443,66 @@ public class Perf {
     }
   }
 
+  // The same sizes as ReadInt, in random order, so that the sizes can't be
+  // predicted.
+  static class RandomIntTest extends IntTest {
+    public RandomIntTest() throws IOException {
+      this("RandomInt", "{ \"type\": \"int\"} ");
+    }
+
+    private RandomIntTest(String name, String schema) throws IOException {
+      super(name, schema);
+    }
+
+    @Override
+    void genSourceData() {
+      Random r = newRandom();
+      int[] bounds = { 50, 5000, 500000, 150000000 };
+      sourceData = new int[count];
+      for (int i = 0; i < sourceData.length; i++) {
+        sourceData[i] = r.nextInt(bounds[r.nextInt(bounds.length)]);
+      }
+    }
+  }
+
+  // The data of RandomInt, as an array read and written in bulk.
+  static class IntArrayTest extends RandomIntTest {
+    private int[] items;
+
+    public IntArrayTest() throws IOException {
+      super("IntArray", "{ \"type\": \"array\", \"items\": \"int\"} ");
+    }
+
+    @Override
+    void genSourceData() {
+      super.genSourceData();
+      items = new int[count];
+    }
+
+    @Override
+    void readInternal(Decoder d) throws IOException {
+      int index = 0;
+      for (long i = d.readArrayStart(); i != 0; i = d.arrayNext()) {
+        d.readInts(items, index, (int) i);
+        index += i;
+      }
+    }
+
+    @Override
+    void writeInternal(Encoder e) throws IOException {
+      e.writeArrayStart();
+      e.setItemCount(sourceData.length);
+      e.writeInts(sourceData, 0, sourceData.length);
+      e.writeArrayEnd();
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      items = null;
+    }
+  }
+
   // This is the same data as ReadInt, but using readLong.
   static class SmallLongTest extends IntTest {
     public SmallLongTest() throws IOException {
@@ -469,9 +532,13 @@ public class Perf {
  
   // this tests reading Longs that are sometimes very large
   static class LongTest extends BasicTest {
-    private long[] sourceData = null;
+    protected long[] sourceData = null;
     public LongTest() throws IOException {
-      super("Long", "{ \"type\": \"long\"} ");
+      this("Long", "{ \"type\": \"long\"} ");
+    }
+
+    private LongTest(String name, String schema) throws IOException {
+      super(name, schema);
     }
     
     @Override
@@ -517,6 +584,44 @@ public class Perf {
     }
   }
   
+  // The data of Long, as an array read and written in bulk.
+  static class LongArrayTest extends LongTest {
+    private long[] items;
+
+    public LongArrayTest() throws IOException {
+      super("LongArray", "{ \"type\": \"array\", \"items\": \"long\"} ");
+    }
+
+    @Override
+    void genSourceData() {
+      super.genSourceData();
+      items = new long[count];
+    }
+
+    @Override
+    void readInternal(Decoder d) throws IOException {
+      int index = 0;
+      for (long i = d.readArrayStart(); i != 0; i = d.arrayNext()) {
+        d.readLongs(items, index, (int) i);
+        index += i;
+      }
+    }
+
+    @Override
+    void writeInternal(Encoder e) throws IOException {
+      e.writeArrayStart();
+      e.setItemCount(sourceData.length);
+      e.writeLongs(sourceData, 0, sourceData.length);
+      e.writeArrayEnd();
+    }
+
+    @Override
+    void reset() {
+      super.reset();
+      items = null;
+    }
+  }
+
   static class FloatTest extends BasicTest {
     float[] sourceData = null;
     public FloatTest() throws IOException {
@@ -27,6 +27,7 @@ import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.BinaryEncoder;
 import org.apache.avro.mapred.AvroWrapper;
 import org.apache.avro.reflect.ReflectDatumWriter;
+import org.apache.avro.util.ByteArrayBuilder;
 import org.apache.hadoop.io.serializer.Serializer;
 
 /**
@@ -45,17 +46,10 @@ import org.apache.hadoop.io.serializer.Serializer;
  */
 public class AvroSerializer<T> implements Serializer<AvroWrapper<T>> {
   /**
-   * The block size for the Avro encoder.
-   *
-   * This number was copied from the AvroSerialization of org.apache.avro.mapred in Avro 1.5.1.
-   *
-   * TODO(gwu): Do some benchmarking with different numbers here to see if it is important.
+   * The initial size of the reusable record buffer. The buffer grows to fit the largest record
+   * serialized so far and is reused for all subsequent records.
    */
-  private static final int AVRO_ENCODER_BLOCK_SIZE_BYTES = 512;
-
-  /** An factory for creating Avro datum encoders. */
-  private static EncoderFactory mEncoderFactory
-      = new EncoderFactory().configureBlockSize(AVRO_ENCODER_BLOCK_SIZE_BYTES);
+  private static final int INITIAL_RECORD_BUFFER_SIZE_BYTES = 512;
 
   /** The writer schema for the data to serialize. */
   private final Schema mWriterSchema;
@@ -63,8 +57,12 @@ public class AvroSerializer<T> implements Serializer<AvroWrapper<T>> {
   /** The Avro datum writer for serializing. */
   private final DatumWriter<T> mAvroDatumWriter;
 
-  /** The Avro encoder for serializing. */
-  private BinaryEncoder mAvroEncoder;
+  /** The reusable buffer a whole record is encoded into before being handed to Hadoop. */
+  private final ByteArrayBuilder mRecordBuffer = new ByteArrayBuilder(INITIAL_RECORD_BUFFER_SIZE_BYTES);
+
+  /** The Avro encoder for serializing, writing into mRecordBuffer. */
+  private final BinaryEncoder mAvroEncoder
+      = EncoderFactory.get().directBinaryEncoder(mRecordBuffer, null);
 
   /** The output stream for serializing. */
   private OutputStream mOutputStream;
@@ -109,16 +107,17 @@ public class AvroSerializer<T> implements Serializer<AvroWrapper<T>> {
   @Override
   public void open(OutputStream outputStream) throws IOException {
     mOutputStream = outputStream;
-    mAvroEncoder = mEncoderFactory.binaryEncoder(outputStream, mAvroEncoder);
   }
 
   /** {@inheritDoc} */
   @Override
   public void serialize(AvroWrapper<T> avroWrapper) throws IOException {
+    // Hadoop needs every record to be complete in the output stream once serialize() returns
+    // (block compressed writers measure the key/value buffers right after the call), so the
+    // record is encoded into a reusable in-memory buffer and handed over with a single write.
+    mRecordBuffer.reset();
     mAvroDatumWriter.write(avroWrapper.datum(), mAvroEncoder);
-    // This would be a lot faster if the Serializer interface had a flush() method and the
-    // Hadoop framework called it when needed.  For now, we'll have to flush on every record.
-    mAvroEncoder.flush();
+    mRecordBuffer.writeTo(mOutputStream);
   }
 
   /** {@inheritDoc} */
@@ -42,6 +42,8 @@ public class TetherJob extends Configured {
   public static final String TETHER_EXEC_ARGS="avro.tether.executable_args";
   public static final String TETHER_EXEC_CACHED="avro.tether.executable_cached";
   public static final String TETHER_PROTOCOL="avro.tether.protocol";
+  public static final String TETHER_BATCH_SIZE="avro.tether.batch.size";
+  public static final String TETHER_BATCH_FLUSH_MS="avro.tether.batch.flush.ms";
 
   /** Get the URI of the application's executable. */
   public static URI getExecutable(JobConf job) {
@@ -100,6 +102,44 @@ public class TetherJob extends Configured {
 
   }
 
+  /**
+   * Set the maximum number of records shipped to or from the tethered process
+   * in a single call. The reducer batches its inputs, and the subprocess is
+   * told the value through the AVRO_TETHER_BATCH_SIZE environment variable so
+   * it can batch its outputs with outputBatch. The default of 1 sends one
+   * record per call.
+   */
+  public static void setBatchSize(JobConf job, int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batch size must be positive: " + batchSize);
+    }
+    job.setInt(TETHER_BATCH_SIZE, batchSize);
+  }
+
+  /** Return the maximum number of records shipped in a single call. */
+  public static int getBatchSize(JobConf job) {
+    return job.getInt(TETHER_BATCH_SIZE, 1);
+  }
+
+  /**
+   * Set the maximum time in milliseconds a partially filled batch may be held
+   * before it is sent. The reducer sends it from a timer when no more input
+   * arrives in that time, and a value of 0 sends every record at once. It is
+   * passed to the subprocess through the AVRO_TETHER_BATCH_FLUSH_MS
+   * environment variable, which should flush its output batches likewise.
+   */
+  public static void setBatchFlushMillis(JobConf job, long flushMillis) {
+    if (flushMillis < 0) {
+      throw new IllegalArgumentException("flush latency must not be negative: " + flushMillis);
+    }
+    job.setLong(TETHER_BATCH_FLUSH_MS, flushMillis);
+  }
+
+  /** Return the maximum time in milliseconds a partially filled batch may be held. */
+  public static long getBatchFlushMillis(JobConf job) {
+    return job.getLong(TETHER_BATCH_FLUSH_MS, 1000);
+  }
+
   /** Submit a job to the map/reduce cluster. All of the necessary
    * modifications to the job to run under tether are made to the
    * configuration.
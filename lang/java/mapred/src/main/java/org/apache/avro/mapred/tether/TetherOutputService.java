@@ -19,6 +19,7 @@
 package org.apache.avro.mapred.tether;
 
 import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.OutputCollector;
@@ -79,6 +80,17 @@ class TetherOutputService implements OutputProtocol {
     output(datum);
   }
 
+  public void outputBatch(List<ByteBuffer> data) {
+    for (ByteBuffer datum : data) {
+      output(datum);
+    }
+  }
+
+  public void outputPartitionedBatch(int partition, List<ByteBuffer> data) {
+    TetherPartitioner.setNextPartition(partition);
+    outputBatch(data);
+  }
+
   public void status(String message) { reporter.setStatus(message.toString());  }
 
 
@@ -19,7 +19,12 @@
 package org.apache.avro.mapred.tether;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.hadoop.io.NullWritable;
 import org.apache.hadoop.mapred.JobConf;
@@ -28,6 +33,7 @@ import org.apache.hadoop.mapred.Reducer;
 import org.apache.hadoop.mapred.Reporter;
 
 import org.apache.avro.mapred.AvroJob;
+import org.apache.avro.util.ByteArrayBuilder;
 
 class TetherReducer
   implements Reducer<TetherData,NullWritable,TetherData,NullWritable> {
@@ -36,8 +42,21 @@ class TetherReducer
   private TetheredProcess process;
   private boolean error;
 
+  private int batchSize;
+  private long batchFlushMillis;
+  private final ByteArrayBuilder batch = new ByteArrayBuilder(4096);
+  private int batchCount;
+  private long batchStartMillis;
+  /** Incremented by every flush, so that timed flushes skip later batches. */
+  private long batchNumber;
+  /** Flushes batches held for batchFlushMillis when no more input arrives. */
+  private ScheduledExecutorService flusher;
+  private volatile Exception flushError;
+
   public void configure(JobConf job) {
     this.job = job;
+    this.batchSize = TetherJob.getBatchSize(job);
+    this.batchFlushMillis = TetherJob.getBatchFlushMillis(job);
   }
 
   public void reduce(TetherData datum, Iterator<NullWritable> ignore,
@@ -51,7 +70,26 @@ class TetherReducer
            AvroJob.getMapOutputSchema(job).toString(),
            AvroJob.getOutputSchema(job).toString());
       }
-      process.inputClient.input(datum.buffer(), datum.count());
+      if (batchSize <= 1) {
+        process.inputClient.input(datum.buffer(), datum.count());
+        return;
+      }
+      ByteBuffer buffer = datum.buffer();
+      synchronized (batch) {
+        if (flushError != null) {
+          throw new IOException("Failed to send batched inputs", flushError);
+        }
+        if (batchCount == 0) {
+          batchStartMillis = System.currentTimeMillis();
+          scheduleFlush();
+        }
+        batch.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        batchCount += datum.count();
+        if (batchCount >= batchSize
+            || System.currentTimeMillis() - batchStartMillis >= batchFlushMillis) {
+          flushBatch();
+        }
+      }
     } catch (IOException e) {
       error = true;
       throw e;
@@ -61,16 +99,63 @@ class TetherReducer
     }
   }
 
+  /**
+   * Flush the batch just started once it has been held for batchFlushMillis,
+   * unless it is flushed before.
+   */
+  private void scheduleFlush() {
+    if (batchFlushMillis <= 0) return;                // flushed right away
+    if (flusher == null) {
+      flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+          Thread thread = new Thread(r, "tether-batch-flush");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    final long number = batchNumber;
+    flusher.schedule(new Runnable() {
+      public void run() {
+        synchronized (batch) {
+          if (number != batchNumber || flushError != null) return;
+          try {
+            flushBatch();
+          } catch (Exception e) {
+            flushError = e;
+          }
+        }
+      }
+    }, batchFlushMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /** Send the buffered inputs to the subprocess as a single block. */
+  private void flushBatch() {
+    if (batchCount == 0) return;
+    batchNumber++;
+    process.inputClient.input(ByteBuffer.wrap(batch.getBuffer(), 0, batch.size()), batchCount);
+    batch.reset();
+    batchCount = 0;
+  }
+
   /**
    * Handle the end of the input by closing down the application.
    */
   public void close() throws IOException {
     if (process == null) return;
+    if (flusher != null) flusher.shutdownNow();
     try {
-      if (error)
+      if (error) {
         process.inputClient.abort();
-      else
+      } else {
+        synchronized (batch) {
+          if (flushError != null) {
+            throw new IOException("Failed to send batched inputs", flushError);
+          }
+          flushBatch();
+        }
         process.inputClient.complete();
+      }
       process.outputService.waitForFinish();
     } catch (InterruptedException e) {
       throw new IOException(e);
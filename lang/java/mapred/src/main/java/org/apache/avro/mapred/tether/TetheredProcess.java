@@ -212,6 +212,10 @@ class TetheredProcess  {
     // add an environment variable to specify what protocol to use for communication
     env.put("AVRO_TETHER_PROTOCOL", job.get(TetherJob.TETHER_PROTOCOL));
 
+    // let the subprocess batch its outputs the same way the parent batches inputs
+    env.put("AVRO_TETHER_BATCH_SIZE", Integer.toString(TetherJob.getBatchSize(job)));
+    env.put("AVRO_TETHER_BATCH_FLUSH_MS", Long.toString(TetherJob.getBatchFlushMillis(job)));
+
     // print an info message about the command
     String imsg="";
     for (int i=0; i<command.size();i++) {
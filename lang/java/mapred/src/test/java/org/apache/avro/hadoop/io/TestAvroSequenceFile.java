@@ -128,6 +128,51 @@ public class TestAvroSequenceFile {
     assertNull("Should be no more records.", reader.next(key));
   }
 
+  /** Tests that block compressed files with records larger than the initial encode buffer round-trip. */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testReadAvroBlockCompressed() throws IOException {
+    Path sequenceFilePath = new Path(new File(mTempDir.getRoot(), "output.seq").getPath());
+
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.get(conf);
+    AvroSequenceFile.Writer.Options writerOptions = new AvroSequenceFile.Writer.Options()
+        .withFileSystem(fs)
+        .withConfiguration(conf)
+        .withOutputPath(sequenceFilePath)
+        .withKeySchema(Schema.create(Schema.Type.STRING))
+        .withValueSchema(Schema.create(Schema.Type.INT))
+        .withCompressionType(SequenceFile.CompressionType.BLOCK);
+    StringBuilder big = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      big.append((char) ('a' + i % 26));
+    }
+    SequenceFile.Writer writer = AvroSequenceFile.createWriter(writerOptions);
+    for (int i = 0; i < 100; i++) {
+      writer.append(new AvroKey<CharSequence>(i % 2 == 0 ? big.toString() + i : "k" + i),
+          new AvroValue<Integer>(i));
+    }
+    writer.close();
+
+    AvroSequenceFile.Reader.Options options = new AvroSequenceFile.Reader.Options()
+        .withFileSystem(fs)
+        .withInputPath(sequenceFilePath)
+        .withConfiguration(conf);
+    SequenceFile.Reader reader = new AvroSequenceFile.Reader(options);
+
+    AvroKey<CharSequence> key = new AvroKey<CharSequence>();
+    AvroValue<Integer> value = new AvroValue<Integer>();
+    for (int i = 0; i < 100; i++) {
+      key = (AvroKey<CharSequence>) reader.next(key);
+      assertNotNull(key);
+      assertEquals(i % 2 == 0 ? big.toString() + i : "k" + i, key.datum().toString());
+      value = (AvroValue<Integer>) reader.getCurrentValue(value);
+      assertEquals(i, value.datum().intValue());
+    }
+    assertNull("Should be no more records.", reader.next(key));
+    reader.close();
+  }
+
   /** Tests that reading and writing ordinary Writables still works. */
   @Test
   public void testReadWritables() throws IOException {
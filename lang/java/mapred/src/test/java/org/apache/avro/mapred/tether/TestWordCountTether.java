@@ -55,6 +55,15 @@ public class TestWordCountTether {
    * @param proto
    */
   private void _runjob(String proto)throws Exception {
+    _runjob(proto, 1);
+  }
+
+  /**
+   * Run a job using the given transport protocol and tether batch size
+   * @param proto
+   * @param batchSize
+   */
+  private void _runjob(String proto, int batchSize)throws Exception {
     // System.out.println(System.getProperty("java.class.path").replace(":", "\n"));
     System.out.println(System.getProperty("java.class.path"));
     JobConf job = new JobConf();
@@ -87,6 +96,7 @@ public class TestWordCountTether {
     job.set(AvroJob.OUTPUT_SCHEMA, outscheme.toString());
 
     TetherJob.setProtocol(job, proto);
+    TetherJob.setBatchSize(job, batchSize);
     TetherJob.runJob(job);
 
     // validate the output
@@ -126,4 +136,14 @@ public class TestWordCountTether {
   public void testhtp() throws Exception {
     _runjob("http");
   }
+
+  /**
+   * Test the job shipping batches of records to and from the subprocess
+   * @throws Exception
+   */
+  @Test
+  @SuppressWarnings("deprecation")
+  public void testBatched() throws Exception {
+    _runjob("sasl", 16);
+  }
 }
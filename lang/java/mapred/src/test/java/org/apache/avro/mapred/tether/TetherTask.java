@@ -23,6 +23,12 @@ import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.net.InetSocketAddress;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,6 +71,10 @@ public abstract class TetherTask<IN,MID,OUT> {
 
   private TetheredProcess.Protocol proto;
 
+  private int batchSize = 1;
+  private long batchFlushMillis;
+  private ScheduledExecutorService flusher;
+
   private static class Buffer extends ByteArrayOutputStream {
     public ByteBuffer data() {
       return ByteBuffer.wrap(buf, 0, count);
@@ -82,20 +92,85 @@ public abstract class TetherTask<IN,MID,OUT> {
       this.writer = new SpecificDatumWriter<T>(schema);
     }
 
+    private List<ByteBuffer> batch = new ArrayList<ByteBuffer>();
+    private int batchPartition = -1;
+    private long batchStartMillis;
+    private long batchNumber;
+
     /** Collect a map or reduce output value. */
     public void collect(T record) throws IOException {
       buffer.reset();
       writer.write(record, encoder);
       encoder.flush();
-      outputClient.output(buffer.data());
+      if (batchSize <= 1) {
+        outputClient.output(buffer.data());
+      } else {
+        addToBatch(-1);
+      }
     }
-    
+
     /** Collect a pre-partitioned map output value. */
     public void collect(T record, int partition) throws IOException {
       buffer.reset();
       writer.write(record, encoder);
       encoder.flush();
-      outputClient.outputPartitioned(partition, buffer.data());
+      if (batchSize <= 1) {
+        outputClient.outputPartitioned(partition, buffer.data());
+      } else {
+        addToBatch(partition);
+      }
+    }
+
+    private synchronized void addToBatch(int partition) {
+      if (partition != batchPartition) {
+        flush();
+        batchPartition = partition;
+      }
+      if (batch.isEmpty()) {
+        batchStartMillis = System.currentTimeMillis();
+        scheduleFlush();
+      }
+      batch.add(ByteBuffer.wrap(buffer.toByteArray()));
+      if (batch.size() >= batchSize
+          || System.currentTimeMillis() - batchStartMillis >= batchFlushMillis) {
+        flush();
+      }
+    }
+
+    /** Flush the batch just started once it has been held for batchFlushMillis. */
+    private void scheduleFlush() {
+      if (flusher == null || batchFlushMillis <= 0) {
+        return;
+      }
+      final long number = batchNumber;
+      flusher.schedule(new Runnable() {
+        public void run() {
+          synchronized (Collector.this) {
+            try {
+              if (number == batchNumber) {
+                flush();
+              }
+            } catch (Throwable e) {
+              LOG.warn("failing: "+e, e);
+              fail(e.toString());
+            }
+          }
+        }
+      }, batchFlushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Send any batched output values to the parent. */
+    synchronized void flush() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      batchNumber++;
+      if (batchPartition < 0) {
+        outputClient.outputBatch(batch);
+      } else {
+        outputClient.outputPartitionedBatch(batchPartition, batch);
+      }
+      batch = new ArrayList<ByteBuffer>();
     }
   }
 
@@ -113,6 +188,21 @@ public abstract class TetherTask<IN,MID,OUT> {
 
     protocol=protocol.trim().toLowerCase();
 
+    String batchSizeString = System.getenv("AVRO_TETHER_BATCH_SIZE");
+    if (batchSizeString != null)
+      batchSize = Integer.parseInt(batchSizeString);
+    String batchFlushString = System.getenv("AVRO_TETHER_BATCH_FLUSH_MS");
+    if (batchFlushString != null)
+      batchFlushMillis = Long.parseLong(batchFlushString);
+    if (batchSize > 1)
+      flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+          public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "tether-batch-flush");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+
     if (protocol.equals("http")) {
       proto=TetheredProcess.Protocol.HTTP;
     } else if (protocol.equals("sasl")) {
@@ -196,6 +286,10 @@ public abstract class TetherTask<IN,MID,OUT> {
         LOG.warn("failing: "+e, e);
         fail(e.toString());
       }
+    if (midCollector != null)
+      midCollector.flush();
+    if (outCollector != null)
+      outCollector.flush();
     LOG.info("TetherTask: Sending complete to parent process.");
     outputClient.complete();
     LOG.info("TetherTask: Done sending complete to parent process.");
@@ -228,6 +322,8 @@ public abstract class TetherTask<IN,MID,OUT> {
   }
 
   void close() {
+    if (flusher != null)
+      flusher.shutdownNow();
     LOG.info("Closing the transciever");
     if (clientTransceiver != null)
       try {
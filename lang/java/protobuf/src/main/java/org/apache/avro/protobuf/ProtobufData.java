@@ -39,6 +39,7 @@ import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.Message;
 import com.google.protobuf.Message.Builder;
 import com.google.protobuf.MessageOrBuilder;
@@ -131,6 +132,12 @@ public class ProtobufData extends GenericData {
     return datum instanceof Message;
   }
 
+  /** The schema of a dynamic message depends on its descriptor. */
+  @Override
+  protected boolean isUnionBranchCacheable(Object datum) {
+    return !(datum instanceof DynamicMessage);
+  }
+
   @Override
   public Object newRecord(Object old, Schema schema) {
     try {
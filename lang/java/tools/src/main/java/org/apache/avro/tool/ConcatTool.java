@@ -21,9 +21,16 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
@@ -53,6 +60,20 @@ public class ConcatTool implements Tool {
       return 0;
     }
 
+    OptionParser optParser = new OptionParser();
+    OptionSpec<String> codecOpt = Util.compressionCodecOption(optParser);
+    OptionSpec<Integer> levelOpt = Util.compressionLevelOption(optParser);
+    OptionSpec<Integer> threadsOpt = Util.threadsOption(optParser);
+    OptionSet opts = optParser.parse(args.toArray(new String[0]));
+    // with an explicit codec every input block is recompressed, so the input
+    // codecs do not need to match
+    boolean recompress = opts.has(codecOpt);
+    args = (List<String>) opts.nonOptionArguments();
+    if (args.isEmpty()) {
+      printHelp(out);
+      return 0;
+    }
+
     OutputStream output = out;
     if (args.size() > 1) {
       output = Util.fileOrStdout(args.get(args.size() - 1), out);
@@ -65,67 +86,79 @@ public class ConcatTool implements Tool {
     Map<String, byte[]> metadata = new TreeMap<String, byte[]>();
     String inputCodec = null;
 
-    for (String inFile : args) {
-      InputStream input = Util.fileOrStdin(inFile, in);
-      DataFileStream<GenericRecord> reader = new DataFileStream<GenericRecord>(
-        input, new GenericDatumReader<GenericRecord>());
-
-      if (schema == null) {
-        // this is the first file - set up the writer, and store the
-        // Schema & metadata we'll use.
-        schema = reader.getSchema();
-        for (String key : reader.getMetaKeys()) {
-          if (!DataFileWriter.isReservedMeta(key)) {
+    ExecutorService executor = Executors.newFixedThreadPool(threadsOpt.value(opts));
+    try {
+      for (String inFile : args) {
+        InputStream input = Util.fileOrStdin(inFile, in);
+        DataFileStream<GenericRecord> reader = new DataFileStream<GenericRecord>(
+          input, new GenericDatumReader<GenericRecord>());
+
+        if (schema == null) {
+          // this is the first file - set up the writer, and store the
+          // Schema & metadata we'll use.
+          schema = reader.getSchema();
+          // all the metadata, for the codec state, like a compression dictionary
+          Map<String, byte[]> inputMetadata = new HashMap<String, byte[]>();
+          for (String key : reader.getMetaKeys()) {
             byte[] metadatum = reader.getMeta(key);
-            metadata.put(key, metadatum);
-            writer.setMeta(key, metadatum);
+            inputMetadata.put(key, metadatum);
+            if (!DataFileWriter.isReservedMeta(key)) {
+              metadata.put(key, metadatum);
+              writer.setMeta(key, metadatum);
+            }
           }
-        }
-        inputCodec = reader.getMetaString(DataFileConstants.CODEC);
-        if(inputCodec == null) {
-          inputCodec = DataFileConstants.NULL_CODEC;
-        }
-        writer.setCodec(CodecFactory.fromString(inputCodec));
-        writer.create(schema, output);
-      } else {
-        // check that we're appending to the same schema & metadata.
-        if (!schema.equals(reader.getSchema())) {
-          err.println("input files have different schemas");
-          reader.close();
-          return 1;
-        }
-        for (String key : reader.getMetaKeys()) {
-          if (!DataFileWriter.isReservedMeta(key)) {
-            byte[] metadatum = reader.getMeta(key);
-            byte[] writersMetadatum = metadata.get(key);
-            if(!Arrays.equals(metadatum, writersMetadatum)) {
-              err.println("input files have different non-reserved metadata");
-              reader.close();
-              return 2;
+          inputCodec = reader.getMetaString(DataFileConstants.CODEC);
+          if(inputCodec == null) {
+            inputCodec = DataFileConstants.NULL_CODEC;
+          }
+          if (recompress) {
+            writer.setCodec(Util.codecFactory(opts, codecOpt, levelOpt));
+          } else {
+            writer.setCodec(CodecFactory.fromString(inputCodec, inputMetadata));
+          }
+          writer.create(schema, output);
+        } else {
+          // check that we're appending to the same schema & metadata.
+          if (!schema.equals(reader.getSchema())) {
+            err.println("input files have different schemas");
+            reader.close();
+            return 1;
+          }
+          for (String key : reader.getMetaKeys()) {
+            if (!DataFileWriter.isReservedMeta(key)) {
+              byte[] metadatum = reader.getMeta(key);
+              byte[] writersMetadatum = metadata.get(key);
+              if(!Arrays.equals(metadatum, writersMetadatum)) {
+                err.println("input files have different non-reserved metadata");
+                reader.close();
+                return 2;
+              }
             }
           }
+          String thisCodec = reader.getMetaString(DataFileConstants.CODEC);
+          if(thisCodec == null) {
+            thisCodec = DataFileConstants.NULL_CODEC;
+          }
+          if (!recompress && !inputCodec.equals(thisCodec)) {
+            err.println("input files have different codecs");
+            reader.close();
+            return 3;
+          }
         }
-        String thisCodec = reader.getMetaString(DataFileConstants.CODEC);
-        if(thisCodec == null) {
-          thisCodec = DataFileConstants.NULL_CODEC;
-        }
-        if (!inputCodec.equals(thisCodec)) {
-          err.println("input files have different codecs");
-          reader.close();
-          return 3;
-        }
+
+        writer.appendAllFrom(reader, recompress, executor);
+        reader.close();
       }
 
-      writer.appendAllFrom(reader, /*recompress*/ false);
-      reader.close();
+      writer.close();
+    } finally {
+      executor.shutdownNow();
     }
-
-    writer.close();
     return 0;
   }
 
   private void printHelp(PrintStream out) {
-    out.println("concat [input-file...] output-file");
+    out.println("concat [--codec codec [--level level]] [--threads threads] [input-file...] output-file");
     out.println();
     out.println("Concatenates one or more input files into a new output file");
     out.println("by appending the input blocks without decoding them. The input");
@@ -137,6 +170,10 @@ public class ConcatTool implements Tool {
     out.println("If no input files are given stdin will be used. The tool");
     out.println("0 on success. A dash ('-') can be given as an input file");
     out.println("to use stdin, and as an output file to use stdout.");
+    out.println("If --codec is given, the blocks of all input files are");
+    out.println("recompressed in parallel with that codec, and the input files");
+    out.println("may use different codecs. --threads sets the number of threads");
+    out.println("recompressing blocks, by default the number of processors.");
 
   }
 
@@ -17,16 +17,22 @@
  */
 package org.apache.avro.tool;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 
 import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileStream;
 import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.trevni.avro.RandomData;
 
@@ -62,6 +68,11 @@ public class CreateRandomFileTool implements Tool {
         p.accepts("schema", "Schema")
         .withOptionalArg()
         .ofType(String.class);
+    OptionSpec<Integer> threads = Util.threadsOption(p);
+    OptionSpec<Long> seed = Util.seedOption(p);
+    OptionSpec<Integer> maxLength = Util.maxLengthOption(p);
+    OptionSpec<Double> nullRatio = Util.nullRatioOption(p);
+    OptionSpec<Integer> cardinality = Util.cardinalityOption(p);
     OptionSet opts = p.parse(args.toArray(new String[0]));
     if (opts.nonOptionArguments().size() != 1) {
       err.println("Usage: outFile (filename or '-' for stdout)");
@@ -86,10 +97,41 @@ public class CreateRandomFileTool implements Tool {
     writer.setCodec(Util.codecFactory(opts, codec, level));
     writer.create(schema, Util.fileOrStdout(args.get(0), out));
 
-    for (Object datum : new RandomData(schema, (int)count.value(opts)))
-      writer.append(datum);
+    if (!opts.has(threads) && !opts.has(seed) && !opts.has(maxLength)
+        && !opts.has(nullRatio) && !opts.has(cardinality)) {
+      for (Object datum : new RandomData(schema, (int)count.value(opts)))
+        writer.append(datum);
+      writer.close();
+      return 0;
+    }
 
-    writer.close();
+    // Partitions are generated on all threads as small uncompressed container
+    // files and appended in order, which also recompresses them in parallel.
+    PartitionedRandomData data = new PartitionedRandomData(schema,
+        count.value(opts), seed.value(opts), maxLength.value(opts),
+        nullRatio.value(opts), cardinality.value(opts));
+    int nThreads = threads.value(opts);
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    try {
+      data.forEachPartition(executor, 2 * nThreads, partition -> {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataFileWriter<Object> partitionWriter =
+          new DataFileWriter<Object>(new GenericDatumWriter<Object>());
+        partitionWriter.create(schema, bytes);
+        for (Object datum : data.generatePartition(partition))
+          partitionWriter.append(datum);
+        partitionWriter.close();
+        return bytes.toByteArray();
+      }, bytes -> {
+        DataFileStream<Object> partitionReader = new DataFileStream<Object>(
+            new ByteArrayInputStream(bytes), new GenericDatumReader<Object>());
+        writer.appendAllFrom(partitionReader, false, executor);
+        partitionReader.close();
+      });
+      writer.close();
+    } finally {
+      executor.shutdownNow();
+    }
 
     return 0;
   }
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.avro.tool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+
+/**
+ * Generates random instances of a schema in fixed size partitions. Every
+ * partition has its own seed derived from the base seed, so partitions can be
+ * generated on any number of threads and the data only depends on the seed,
+ * the record count and the value distribution.
+ */
+class PartitionedRandomData {
+  /** Number of records in each partition. */
+  static final int PARTITION_SIZE = 10000;
+
+  private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+
+  private final Schema schema;
+  private final long count;
+  private final long seed;
+  private final int maxLength;
+  private final double nullRatio;
+  private final int cardinality;
+
+  /**
+   * @param schema      the schema of the generated data.
+   * @param count       the total number of records.
+   * @param seed        the base seed.
+   * @param maxLength   the maximum length of strings, bytes, arrays and maps.
+   * @param nullRatio   the probability that a union with a null branch is null,
+   *                    or a negative value to pick union branches uniformly.
+   * @param cardinality if positive, the number of distinct values generated for
+   *                    each primitive and enum type.
+   */
+  PartitionedRandomData(Schema schema, long count, long seed, int maxLength, double nullRatio,
+      int cardinality) {
+    if (maxLength < 0) {
+      throw new IllegalArgumentException("Invalid maximum length: " + maxLength);
+    }
+    if (nullRatio > 1) {
+      throw new IllegalArgumentException("Invalid null ratio: " + nullRatio);
+    }
+    this.schema = schema;
+    this.count = count;
+    this.seed = seed;
+    this.maxLength = maxLength;
+    this.nullRatio = nullRatio;
+    this.cardinality = cardinality;
+  }
+
+  /** Return the number of partitions. */
+  int getPartitionCount() {
+    return (int) ((count + PARTITION_SIZE - 1) / PARTITION_SIZE);
+  }
+
+  /** Generate the records of a partition. */
+  List<Object> generatePartition(int partition) {
+    long start = (long) partition * PARTITION_SIZE;
+    int size = (int) Math.min(PARTITION_SIZE, count - start);
+    Random random = new Random(seed + partition * SEED_MIX);
+    Random values = cardinality > 0 ? new Random() : random;
+    List<Object> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(generate(schema, random, values, 0));
+    }
+    return result;
+  }
+
+  /** Consumes generated partitions. */
+  interface PartitionConsumer<T> {
+    void accept(T partition) throws IOException;
+  }
+
+  /** Produces the data handed to a {@link PartitionConsumer} for a partition. */
+  interface PartitionProducer<T> {
+    T produce(int partition) throws IOException;
+  }
+
+  /**
+   * Produce all partitions on the executor and hand them to the consumer on the
+   * calling thread, in partition order. At most maxInFlight partitions are kept
+   * in memory.
+   */
+  <T> void forEachPartition(ExecutorService executor, int maxInFlight, PartitionProducer<T> producer,
+      PartitionConsumer<T> consumer) throws IOException {
+    ArrayDeque<Future<T>> pending = new ArrayDeque<>();
+    int next = 0;
+    int partitions = getPartitionCount();
+    try {
+      while (next < partitions || !pending.isEmpty()) {
+        while (next < partitions && pending.size() < maxInFlight) {
+          final int partition = next++;
+          pending.add(executor.submit(() -> producer.produce(partition)));
+        }
+        consumer.accept(pending.poll().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AvroRuntimeException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      throw new AvroRuntimeException(cause);
+    } finally {
+      for (Future<T> future : pending) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  private int nextLength(Random random, int depth) {
+    // shrink nested containers so that recursive schemas terminate
+    int max = maxLength >> depth;
+    return max <= 0 ? 0 : random.nextInt(max + 1);
+  }
+
+  /**
+   * Return the random source for a primitive value: the partition random, or,
+   * if the cardinality is bounded, the values random of the partition, reseeded
+   * with one of cardinality keys.
+   */
+  private Random valueRandom(Random random, Random values) {
+    if (cardinality <= 0) {
+      return random;
+    }
+    values.setSeed(seed ^ (random.nextInt(cardinality) * SEED_MIX));
+    return values;
+  }
+
+  private Object generate(Schema s, Random random, Random values, int depth) {
+    switch (s.getType()) {
+    case RECORD:
+      GenericData.Record record = new GenericData.Record(s);
+      for (Schema.Field field : s.getFields()) {
+        record.put(field.pos(), generate(field.schema(), random, values, depth + 1));
+      }
+      return record;
+    case ENUM:
+      List<String> symbols = s.getEnumSymbols();
+      return new GenericData.EnumSymbol(s, symbols.get(valueRandom(random, values).nextInt(symbols.size())));
+    case ARRAY:
+      int length = nextLength(random, depth);
+      GenericData.Array<Object> array = new GenericData.Array<>(length, s);
+      for (int i = 0; i < length; i++) {
+        array.add(generate(s.getElementType(), random, values, depth + 1));
+      }
+      return array;
+    case MAP:
+      length = nextLength(random, depth);
+      Map<Object, Object> map = new HashMap<>(length);
+      for (int i = 0; i < length; i++) {
+        map.put(randomString(valueRandom(random, values)), generate(s.getValueType(), random, values, depth + 1));
+      }
+      return map;
+    case UNION:
+      return generate(chooseBranch(s.getTypes(), random), random, values, depth);
+    case FIXED:
+      byte[] fixed = new byte[s.getFixedSize()];
+      valueRandom(random, values).nextBytes(fixed);
+      return new GenericData.Fixed(s, fixed);
+    case STRING:
+      return randomString(valueRandom(random, values));
+    case BYTES:
+      Random r = valueRandom(random, values);
+      byte[] bytes = new byte[r.nextInt(maxLength + 1)];
+      r.nextBytes(bytes);
+      return ByteBuffer.wrap(bytes);
+    case INT:
+      return valueRandom(random, values).nextInt();
+    case LONG:
+      return valueRandom(random, values).nextLong();
+    case FLOAT:
+      return valueRandom(random, values).nextFloat();
+    case DOUBLE:
+      return valueRandom(random, values).nextDouble();
+    case BOOLEAN:
+      return random.nextBoolean();
+    case NULL:
+      return null;
+    default:
+      throw new AvroRuntimeException("Unknown type: " + s);
+    }
+  }
+
+  private Schema chooseBranch(List<Schema> types, Random random) {
+    if (nullRatio < 0) {
+      return types.get(random.nextInt(types.size()));
+    }
+    int nullIndex = -1;
+    for (int i = 0; i < types.size(); i++) {
+      if (types.get(i).getType() == Schema.Type.NULL) {
+        nullIndex = i;
+        break;
+      }
+    }
+    if (nullIndex < 0) {
+      return types.get(random.nextInt(types.size()));
+    }
+    if (types.size() == 1 || random.nextDouble() < nullRatio) {
+      return types.get(nullIndex);
+    }
+    int index = random.nextInt(types.size() - 1);
+    return types.get(index < nullIndex ? index : index + 1);
+  }
+
+  private String randomString(Random random) {
+    char[] chars = new char[random.nextInt(maxLength + 1)];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) ('a' + random.nextInt('z' - 'a' + 1));
+    }
+    return new String(chars);
+  }
+}
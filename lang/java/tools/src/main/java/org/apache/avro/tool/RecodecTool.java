@@ -21,6 +21,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -44,6 +46,7 @@ public class RecodecTool implements Tool {
     OptionParser optParser = new OptionParser();
     OptionSpec<String> codecOpt = Util.compressionCodecOption(optParser);
     OptionSpec<Integer> levelOpt = Util.compressionLevelOption(optParser);
+    OptionSpec<Integer> threadsOpt = Util.threadsOption(optParser);
     OptionSet opts = optParser.parse(args.toArray(new String[0]));
 
     List<String> nargs = (List<String>)opts.nonOptionArguments();
@@ -80,8 +83,14 @@ public class RecodecTool implements Tool {
     }
     writer.create(schema, output);
 
-    writer.appendAllFrom(reader, true);
-    writer.flush();
+    // blocks are decompressed and recompressed on all threads, in file order
+    ExecutorService executor = Executors.newFixedThreadPool(threadsOpt.value(opts));
+    try {
+      writer.appendAllFrom(reader, true, executor);
+      writer.flush();
+    } finally {
+      executor.shutdownNow();
+    }
 
     if (inputNeedsClosing) {
       input.close();
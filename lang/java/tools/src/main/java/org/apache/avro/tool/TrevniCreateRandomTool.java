@@ -21,6 +21,12 @@ import java.io.File;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import joptsimple.OptionParser;
+import joptsimple.OptionSet;
+import joptsimple.OptionSpec;
 
 import org.apache.avro.Schema;
 import org.apache.trevni.ColumnFileMetaData;
@@ -43,8 +49,17 @@ public class TrevniCreateRandomTool implements Tool {
   @Override
   public int run(InputStream stdin, PrintStream out, PrintStream err,
                  List<String> args) throws Exception {
+    OptionParser p = new OptionParser();
+    OptionSpec<Integer> threads = Util.threadsOption(p);
+    OptionSpec<Long> seed = Util.seedOption(p);
+    OptionSpec<Integer> maxLength = Util.maxLengthOption(p);
+    OptionSpec<Double> nullRatio = Util.nullRatioOption(p);
+    OptionSpec<Integer> cardinality = Util.cardinalityOption(p);
+    OptionSet opts = p.parse(args.toArray(new String[0]));
+    args = (List<String>)opts.nonOptionArguments();
     if (args.size() != 3) {
       err.println("Usage: schemaFile count outputFile");
+      p.printHelpOn(err);
       return 1;
     }
 
@@ -57,8 +72,27 @@ public class TrevniCreateRandomTool implements Tool {
     AvroColumnWriter<Object> writer =
       new AvroColumnWriter<Object>(schema, new ColumnFileMetaData());
 
-    for (Object datum : new RandomData(schema, count))
-      writer.write(datum);
+    if (!opts.has(threads) && !opts.has(seed) && !opts.has(maxLength)
+        && !opts.has(nullRatio) && !opts.has(cardinality)) {
+      for (Object datum : new RandomData(schema, count))
+        writer.write(datum);
+    } else {
+      // partitions are generated on all threads, the column writer is fed in order
+      PartitionedRandomData data = new PartitionedRandomData(schema, count,
+          seed.value(opts), maxLength.value(opts), nullRatio.value(opts),
+          cardinality.value(opts));
+      int nThreads = threads.value(opts);
+      ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+      try {
+        data.forEachPartition(executor, 2 * nThreads, data::generatePartition,
+            partition -> {
+              for (Object datum : partition)
+                writer.write(datum);
+            });
+      } finally {
+        executor.shutdownNow();
+      }
+    }
 
     writer.writeTo(outputFile);
 
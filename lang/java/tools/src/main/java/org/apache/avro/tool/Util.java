@@ -259,4 +259,44 @@ class Util {
         return CodecFactory.fromString(codec.value(opts));
       }
   }
+
+  static OptionSpec<Integer> threadsOption(OptionParser optParser) {
+    return optParser
+      .accepts("threads", "Number of threads to use")
+      .withRequiredArg()
+      .ofType(Integer.class)
+      .defaultsTo(Runtime.getRuntime().availableProcessors());
+  }
+
+  static OptionSpec<Long> seedOption(OptionParser optParser) {
+    return optParser
+      .accepts("seed", "Random seed, the same seed always generates the same data")
+      .withRequiredArg()
+      .ofType(Long.class)
+      .defaultsTo(0L);
+  }
+
+  static OptionSpec<Integer> maxLengthOption(OptionParser optParser) {
+    return optParser
+      .accepts("max-length", "Maximum length of generated strings, bytes, arrays and maps")
+      .withRequiredArg()
+      .ofType(Integer.class)
+      .defaultsTo(15);
+  }
+
+  static OptionSpec<Double> nullRatioOption(OptionParser optParser) {
+    return optParser
+      .accepts("null-ratio", "Probability that a nullable union is null (negative for uniform branches)")
+      .withRequiredArg()
+      .ofType(Double.class)
+      .defaultsTo(-1.0);
+  }
+
+  static OptionSpec<Integer> cardinalityOption(OptionParser optParser) {
+    return optParser
+      .accepts("cardinality", "Number of distinct values per primitive type (0 for unbounded)")
+      .withRequiredArg()
+      .ofType(Integer.class)
+      .defaultsTo(0);
+  }
 }
@@ -206,6 +206,35 @@ public class TestConcatTool {
     assertEquals(3, returnCode);
   }
 
+  @Test
+  public void testDifferentCodecRecompressed() throws Exception {
+    Map<String, String> metadata = new HashMap<String, String>();
+    metadata.put("myMetaKey", "myMetaValue");
+
+    File input1 = generateData("input1.avro", Type.STRING, metadata, DEFLATE);
+    File input2 = generateData("input2.avro", Type.STRING, metadata, CodecFactory.nullCodec());
+    File input3 = generateData("input3.avro", Type.STRING, metadata, CodecFactory.bzip2Codec());
+
+    File output = AvroTestUtil.tempFile(getClass(), "recompressed-output.avro");
+    output.deleteOnExit();
+
+    List<String> args = asList(
+      "--codec", "null",
+      input1.getAbsolutePath(),
+      input2.getAbsolutePath(),
+      input3.getAbsolutePath(),
+      output.getAbsolutePath());
+    int returnCode = new ConcatTool().run(
+      System.in,
+      System.out,
+      System.err,
+      args);
+    assertEquals(0, returnCode);
+
+    assertEquals(ROWS_IN_INPUT_FILES * 3, numRowsInFile(output));
+    assertEquals(CodecFactory.nullCodec().getClass(), getCodec(output).getClass());
+  }
+
   @Test
   public void testHelpfulMessageWhenNoArgsGiven() throws Exception {
     ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
@@ -23,8 +23,10 @@ import java.io.File;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.apache.avro.Schema;
 import org.apache.avro.file.DataFileReader;
@@ -35,6 +37,7 @@ import org.apache.trevni.TestUtil;
 
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class TestCreateRandomFileTool {
   private static final String COUNT = System.getProperty("test.count", "200");
@@ -106,4 +109,40 @@ public class TestCreateRandomFileTool {
 
     reader.close();
   }
+
+  private List<Object> readAll(byte[] file) throws Exception {
+    DataFileStream<Object> reader =
+      new DataFileStream(new ByteArrayInputStream(file),
+                         new GenericDatumReader<Object>());
+    List<Object> result = new ArrayList<Object>();
+    for (Object datum : reader)
+      result.add(datum);
+    reader.close();
+    return result;
+  }
+
+  @Test
+  public void testParallelIsDeterministic() throws Exception {
+    String count = Integer.toString(2 * PartitionedRandomData.PARTITION_SIZE + 17);
+    List<Object> single = readAll(run(Arrays.asList(new String[]
+      { "-", "--count", count, "--schema-file", SCHEMA_FILE.toString(),
+        "--seed", "7", "--threads", "1", "--codec", "deflate" })));
+    List<Object> parallel = readAll(run(Arrays.asList(new String[]
+      { "-", "--count", count, "--schema-file", SCHEMA_FILE.toString(),
+        "--seed", "7", "--threads", "3", "--null-ratio", "-1" })));
+    assertEquals(Integer.parseInt(count), single.size());
+    assertEquals(single, parallel);
+  }
+
+  @Test
+  public void testStringsAndCardinality() throws Exception {
+    Schema schema = Schema.create(Schema.Type.STRING);
+    Set<Object> values = new HashSet<Object>(
+      new PartitionedRandomData(schema, 1000, 7, 1, 0, -1).generatePartition(0));
+    assertTrue(values.contains("a"));
+    assertTrue(values.contains("z"));
+    values = new HashSet<Object>(
+      new PartitionedRandomData(schema, 1000, 7, 20, 0, 5).generatePartition(0));
+    assertTrue(values.size() <= 5);
+  }
 }